@@ -2,19 +2,30 @@ package com.agentivy.backend.controller;
 
 import com.agentivy.backend.dto.WorkflowResult;
 import com.agentivy.backend.util.ScoringUtils;
+import com.agentivy.backend.tools.harness.HarnessCodeGenerator;
 import com.agentivy.backend.tools.harness.deployer.HarnessDeployerTool;
+import com.agentivy.backend.tools.harness.metadata.ComponentMetadata;
 import com.agentivy.backend.tools.harness.generator.HarnessCodeGeneratorTool;
 import com.agentivy.backend.tools.harness.metadata.ComponentMetadataExtractorTool;
+import com.agentivy.backend.tools.angular.AngularDevServerPool;
 import com.agentivy.backend.tools.angular.AngularDevServerTool;
 import com.agentivy.backend.tools.testing.AccessibilityTestingTool;
+import com.agentivy.backend.tools.testing.BundleSizeAnalyzerTool;
+import com.agentivy.backend.tools.testing.ChangeDetectionExperimentTool;
+import com.agentivy.backend.tools.testing.ComponentLeakTool;
 import com.agentivy.backend.tools.testing.ComponentPerformanceTool;
+import com.agentivy.backend.tools.testing.ComponentScalingTool;
+import com.agentivy.backend.tools.testing.ResponsivenessTestingTool;
+import com.agentivy.backend.tools.testing.TemplatePrescreenTool;
 import com.agentivy.backend.tools.fixing.AccessibilityFixerTool;
 import com.agentivy.backend.tools.fixing.PerformanceFixerTool;
 import com.agentivy.backend.service.SseEventPublisher;
 import com.agentivy.backend.service.SessionContext;
 import com.google.common.collect.ImmutableMap;
+import io.reactivex.rxjava3.core.Maybe;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -24,8 +35,13 @@ import jakarta.annotation.PreDestroy;
 import java.nio.file.Path;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
 
 /**
  * Complete workflow API for component testing.
@@ -41,8 +57,16 @@ public class ComponentTestWorkflowController {
     private final HarnessCodeGeneratorTool codeGenerator;
     private final HarnessDeployerTool deployer;
     private final AngularDevServerTool devServer;
+    private final AngularDevServerPool devServerPool;
     private final AccessibilityTestingTool accessibilityTester;
+    private final ResponsivenessTestingTool responsivenessTester;
     private final ComponentPerformanceTool performanceTester;
+    private final HarnessCodeGenerator scalingHarnessGenerator;
+    private final ComponentScalingTool scalingTester;
+    private final ComponentLeakTool leakTester;
+    private final ChangeDetectionExperimentTool cdExperimentTester;
+    private final BundleSizeAnalyzerTool bundleAnalyzer;
+    private final TemplatePrescreenTool prescreenTool;
     private final AccessibilityFixerTool accessibilityFixer;
     private final PerformanceFixerTool performanceFixer;
     private final SseEventPublisher sseEventPublisher;
@@ -50,6 +74,21 @@ public class ComponentTestWorkflowController {
     // Dedicated executor for long-running SSE workflows (avoids ForkJoinPool issues)
     private final ExecutorService workflowExecutor = Executors.newCachedThreadPool();
 
+    // Two performance measurements sharing the CPU skew each other's timings, so they run
+    // one at a time even when component workers run the other test types in parallel
+    private final Semaphore performancePermit = new Semaphore(1);
+
+    // Parallel component workers per bundle run; single-harness mode is always sequential
+    @Value("${agentivy.workflow.component-concurrency:2}")
+    private int componentConcurrency;
+
+    // Static pre-screen orders components by risk; skip-clean drops clean ones from performance-only runs
+    @Value("${agentivy.prescreen.enabled:true}")
+    private boolean prescreenEnabled;
+
+    @Value("${agentivy.prescreen.skip-clean:false}")
+    private boolean prescreenSkipClean;
+
     @PreDestroy
     public void shutdown() {
         workflowExecutor.shutdown();
@@ -202,10 +241,7 @@ public class ComponentTestWorkflowController {
             testResults.put("performance", runPerformanceTest(componentUrl));
         }
         if (request.tests != null && request.tests.contains("responsiveness")) {
-            testResults.put("responsiveness", Map.of(
-                "status", "pending",
-                "message", "Responsiveness testing will be implemented with screenshot + Vector DB"
-            ));
+            testResults.put("responsiveness", runResponsivenessTest(componentUrl));
         }
 
         return testResults;
@@ -237,13 +273,27 @@ public class ComponentTestWorkflowController {
         }
     }
 
+    /**
+     * The performance test under {@link #performancePermit}, with its timeout. The timeout
+     * starts once the permit is held, so waiting for another measurement does not count.
+     */
+    private Maybe<ImmutableMap<String, Object>> measurePerformance(String componentUrl) {
+        return Maybe.using(
+            () -> {
+                performancePermit.acquire();
+                return performancePermit;
+            },
+            permit -> performanceTester
+                .runPerformanceTest(componentUrl, "")
+                .timeout(performanceTester.runTimeoutMs(""), java.util.concurrent.TimeUnit.MILLISECONDS),
+            Semaphore::release);
+    }
+
     /** Run a single performance test with timeout protection. */
     private Map<String, Object> runPerformanceTest(String componentUrl) {
         log.info("  Running performance tests...");
         try {
-            ImmutableMap<String, Object> performanceResult = performanceTester
-                .runPerformanceTest(componentUrl, "")
-                .timeout(90, java.util.concurrent.TimeUnit.SECONDS)
+            ImmutableMap<String, Object> performanceResult = measurePerformance(componentUrl)
                 .onErrorReturn(error -> ImmutableMap.of(
                     "status", "error",
                     "message", "Performance test timed out or failed: " + error.getMessage(),
@@ -263,6 +313,33 @@ public class ComponentTestWorkflowController {
         }
     }
 
+    /** Run the viewport matrix with timeout protection. */
+    private Map<String, Object> runResponsivenessTest(String componentUrl) {
+        log.info("  Running responsiveness tests...");
+        try {
+            ImmutableMap<String, Object> responsivenessResult = responsivenessTester
+                .runResponsivenessTest(componentUrl)
+                .timeout(90, java.util.concurrent.TimeUnit.SECONDS)
+                .onErrorReturn(error -> ImmutableMap.of(
+                    "status", "error",
+                    "message", "Responsiveness test timed out or failed: " + error.getMessage(),
+                    "skipped", false
+                ))
+                .blockingGet();
+
+            if ("success".equals(responsivenessResult.get("status"))) {
+                log.info("  Responsiveness test completed: {} warning(s)",
+                    ((List<?>) responsivenessResult.get("warnings")).size());
+            } else {
+                log.warn("  Responsiveness test failed: {}", responsivenessResult.get("message"));
+            }
+            return responsivenessResult;
+        } catch (Exception e) {
+            log.error("Responsiveness test exception", e);
+            return Map.of("status", "error", "message", "Responsiveness test error: " + e.getMessage(), "skipped", false);
+        }
+    }
+
     private boolean hasAnyCompletedTest(Map<String, Object> testResults) {
         return testResults.values().stream()
             .anyMatch(v -> v instanceof Map && "success".equals(((Map<?, ?>) v).get("status")));
@@ -287,6 +364,160 @@ public class ComponentTestWorkflowController {
         }
     }
 
+    /**
+     * Scaling benchmark: deploys a generated (non-LLM) harness that feeds the component
+     * lists of N generated items, then measures it at each requested size.
+     */
+    @PostMapping("/scaling-benchmark")
+    public ResponseEntity<Map<String, Object>> scalingBenchmark(@RequestBody ScalingBenchmarkRequest request) {
+        log.info("Starting scaling benchmark for: {}", request.componentClassName);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("componentClassName", request.componentClassName);
+        result.put("timestamp", System.currentTimeMillis());
+
+        try {
+            String harnessUrl = deployBenchmarkHarness(
+                request.repoPath, request.componentClassName, request.scalingInputs, request.port, true, result);
+            if (harnessUrl == null) return ResponseEntity.badRequest().body(result);
+
+            String sizes = request.sizes != null
+                ? String.join(",", request.sizes.stream().map(String::valueOf).toList())
+                : "";
+            ImmutableMap<String, Object> scalingResult = scalingTester
+                .runScalingBenchmark(harnessUrl, sizes)
+                .blockingGet();
+
+            result.put("scaling", scalingResult);
+            result.put("status", scalingResult.get("status"));
+            return ResponseEntity.ok(result);
+
+        } catch (Exception e) {
+            log.error("Scaling benchmark failed", e);
+            result.put("status", "error");
+            result.put("error", e.getMessage());
+            return ResponseEntity.internalServerError().body(result);
+        }
+    }
+
+    /**
+     * Mount/unmount leak test: deploys the benchmark harness and cycles the component
+     * in and out, diffing heap snapshots to find memory retained after destroy.
+     */
+    @PostMapping("/leak-test")
+    public ResponseEntity<Map<String, Object>> leakTest(@RequestBody LeakTestRequest request) {
+        log.info("Starting mount/unmount leak test for: {}", request.componentClassName);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("componentClassName", request.componentClassName);
+        result.put("timestamp", System.currentTimeMillis());
+
+        try {
+            String harnessUrl = deployBenchmarkHarness(
+                request.repoPath, request.componentClassName, request.scalingInputs, request.port, false, result);
+            if (harnessUrl == null) return ResponseEntity.badRequest().body(result);
+
+            ImmutableMap<String, Object> leakResult = leakTester
+                .runMountCycleLeakTest(harnessUrl, request.cycles)
+                .blockingGet();
+
+            result.put("leak", leakResult);
+            result.put("status", leakResult.get("status"));
+            return ResponseEntity.ok(result);
+
+        } catch (Exception e) {
+            log.error("Leak test failed", e);
+            result.put("status", "error");
+            result.put("error", e.getMessage());
+            return ResponseEntity.internalServerError().body(result);
+        }
+    }
+
+    /**
+     * Change detection A/B experiment: deploys the benchmark harness and measures the
+     * component as-is, with OnPush forced, and zoneless, so the gain of each fix is known
+     * before the performance fixer rewrites anything.
+     */
+    @PostMapping("/cd-experiment")
+    public ResponseEntity<Map<String, Object>> changeDetectionExperiment(@RequestBody CdExperimentRequest request) {
+        log.info("Starting change detection experiment for: {}", request.componentClassName);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("componentClassName", request.componentClassName);
+        result.put("timestamp", System.currentTimeMillis());
+
+        try {
+            String harnessUrl = deployBenchmarkHarness(
+                request.repoPath, request.componentClassName, request.scalingInputs, request.port, false, result);
+            if (harnessUrl == null) return ResponseEntity.badRequest().body(result);
+
+            String variants = request.variants != null ? String.join(",", request.variants) : "";
+            ImmutableMap<String, Object> experimentResult = cdExperimentTester
+                .runChangeDetectionExperiment(harnessUrl, variants)
+                .blockingGet();
+
+            result.put("experiment", experimentResult);
+            result.put("status", experimentResult.get("status"));
+            return ResponseEntity.ok(result);
+
+        } catch (Exception e) {
+            log.error("Change detection experiment failed", e);
+            result.put("status", "error");
+            result.put("error", e.getMessage());
+            return ResponseEntity.internalServerError().body(result);
+        }
+    }
+
+    /**
+     * Extracts metadata, deploys the generated benchmark harness and starts the dev server.
+     * Returns the harness URL, or null on failure (result map is populated with error).
+     * Only the scaling benchmark needs list inputs; mount cycling and CD experiments also run
+     * components that have none.
+     */
+    private String deployBenchmarkHarness(String repoPath, String componentClassName, List<String> requestedInputs,
+                                          Integer port, boolean requireScalingInputs, Map<String, Object> result) {
+        TestComponentRequest componentRequest = new TestComponentRequest(
+            repoPath, componentClassName, null, null, null, List.of(), null, port);
+
+        ImmutableMap<String, Object> metadataResult = extractMetadata(componentRequest, result);
+        if (metadataResult == null) return null;
+
+        List<String> scalingInputs = requestedInputs != null && !requestedInputs.isEmpty()
+            ? requestedInputs
+            : collectionInputs(metadataResult);
+        if (scalingInputs.isEmpty() && requireScalingInputs) {
+            result.put("status", "error");
+            result.put("step", "scaling_inputs");
+            result.put("error", "No list-like @Input found; pass scalingInputs explicitly");
+            return null;
+        }
+        result.put("scalingInputs", scalingInputs);
+
+        String harnessCode = scalingHarnessGenerator.generateScaling(
+            componentClassName,
+            (String) metadataResult.get("selector"),
+            (String) metadataResult.get("importPath"),
+            scalingInputs
+        );
+
+        if (deployHarness(componentRequest, harnessCode, result) == null) return null;
+
+        ImmutableMap<String, Object> serverResult = startDevServer(componentRequest, result);
+        return serverResult != null ? (String) serverResult.get("harnessUrl") : null;
+    }
+
+    /** Inputs whose names suggest a collection (items, rows, users...). */
+    @SuppressWarnings("unchecked")
+    private List<String> collectionInputs(ImmutableMap<String, Object> metadataResult) {
+        List<ComponentMetadata.ComponentInput> inputs =
+            (List<ComponentMetadata.ComponentInput>) metadataResult.getOrDefault("inputs", List.of());
+        return inputs.stream()
+            .map(ComponentMetadata.ComponentInput::name)
+            .filter(name -> name.matches("(?i).*(items|list|rows|data|options|entries|records|values)")
+                || (name.endsWith("s") && !name.endsWith("ss")))
+            .toList();
+    }
+
     /**
      * Test and automatically fix component issues.
      * Runs tests, applies fixes, and re-tests iteratively.
@@ -474,9 +705,7 @@ public class ComponentTestWorkflowController {
         // Run performance tests
         if (tests.contains("performance")) {
             try {
-                ImmutableMap<String, Object> performanceResult = performanceTester
-                    .runPerformanceTest(componentUrl, "")
-                    .timeout(120, java.util.concurrent.TimeUnit.SECONDS)
+                ImmutableMap<String, Object> performanceResult = measurePerformance(componentUrl)
                     .onErrorReturn(error -> ImmutableMap.of(
                         "status", "error",
                         "message", "Performance test failed: " + error.getMessage()
@@ -593,6 +822,10 @@ public class ComponentTestWorkflowController {
      * POST endpoint for suggesting fixes with file paths in request body.
      * Better for multiple components or when you need to provide file paths.
      *
+     * "concurrency" only applies to bundle mode. With "harnessMode": "single" every component
+     * shares one harness directory and dev server, so components are tested one at a time
+     * whatever concurrency is requested or configured.
+     *
      * POST /api/workflow/suggest-fixes
      * {
      *   "repoPath": "C:/Temp/agentivy/repo-123",
@@ -606,7 +839,9 @@ public class ComponentTestWorkflowController {
      *       "type": "accessibility",
      *       "relativePath": "src/app/admin/settings"
      *     }
-     *   ]
+     *   ],
+     *   "harnessMode": "bundle",
+     *   "concurrency": 4
      * }
      */
     @PostMapping(value = "/suggest-fixes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
@@ -641,49 +876,13 @@ public class ComponentTestWorkflowController {
                 // Collect results for all components
                 List<WorkflowResult.ComponentTestResult> componentResults = new ArrayList<>();
 
-                // Process components from request body SEQUENTIALLY (one at a time)
-                if (request.component() != null && !request.component().isEmpty()) {
-                    for (int i = 0; i < request.component().size(); i++) {
-                        SuggestFixesRequest.ComponentInfo comp = request.component().get(i);
-
-                        // Emit progress event with "1/3" format
-                        sseEventPublisher.publishProgress(sessionId,
-                            "Testing " + comp.name(),
-                            "testing",
-                            i + 1,
-                            request.component().size());
-
-                        try {
-                            WorkflowResult.ComponentTestResult result = testAndSuggestFixesForComponent(
-                                sessionId,
-                                request.repoPath(),
-                                comp.name(),
-                                testList,
-                                comp.tsPath(),
-                                comp.htmlPath(),
-                                comp.stylesPath(),
-                                comp.relativePath(),
-                                i,
-                                request.component().size()
-                            );
-
-                            if (result != null) {
-                                componentResults.add(result);
-
-                                // Emit component-result event
-                                sseEventPublisher.publishWorkflowComponentResult(sessionId, result);
-                            }
-                        } catch (Exception compEx) {
-                            // Log component-level error but continue with other components
-                            log.error("Error testing component {}: {}", comp.name(), compEx.getMessage(), compEx);
-                            sseEventPublisher.publishComponentStatus(sessionId, comp.name(),
-                                "test", "failed",
-                                "Error: " + compEx.getMessage(),
-                                Map.of("error", compEx.getMessage()));
-                        }
-                    }
-                } else {
+                if (request.component() == null || request.component().isEmpty()) {
                     testAndSuggestFixesForAllComponents(sessionId, request.repoPath(), testList);
+                } else {
+                    // Riskiest components run first (clean ones may be skipped before any harness is
+                    // built), but results are reported in the order the request listed them
+                    testRequestedComponents(sessionId, prescreen(sessionId, request, testList), testList, componentResults);
+                    componentResults.sort(Comparator.comparingInt(result -> requestIndex(request, result)));
                 }
 
                 // Build and emit final summary
@@ -719,164 +918,555 @@ public class ComponentTestWorkflowController {
             // Set current component in session context
             SessionContext.setCurrentComponent(componentClassName);
 
-            sseEventPublisher.publishComponentStatus(sessionId, componentClassName,
-                "metadata", "starting",
-                "Extracting metadata for " + componentClassName,
-                Map.of());
+            // Steps 1-2: Extract metadata and generate harness code
+            PreparedHarness harness = prepareHarness(sessionId, repoPath, componentClassName);
+            if (harness == null) {
+                return null;
+            }
 
-            // Step 1: Extract component metadata
-            ImmutableMap<String, Object> metadataResult = metadataExtractor
-                .extractComponentMetadata(repoPath, componentClassName)
-                .blockingGet();
+            // Step 3: Deploy harness. The lease keeps other workflows on this repo from
+            // overwriting the harness or sharing the server until it is released.
+            devServerPool.lease(repoPath);
+            boolean serverStarted = false;
+            try {
+                sseEventPublisher.publishComponentStatus(sessionId, componentClassName,
+                    "deployment", "starting",
+                    "Deploying test harness",
+                    Map.of());
+
+                ImmutableMap<String, Object> deployResult = deployer
+                    .deployHarness(repoPath, harness.code())
+                    .blockingGet();
+
+                if ("error".equals(deployResult.get("status"))) {
+                    sseEventPublisher.publishComponentStatus(sessionId, componentClassName,
+                        "deployment", "failed",
+                        "Failed to deploy harness: " + deployResult.get("message"),
+                        Map.of());
+                    return null;
+                }
+
+                // Lazy chunk size comes from a separate production build of the deployed harness
+                if (testList.contains("performance")) {
+                    String tsPath = providedTsPath != null ? providedTsPath : (String) harness.metadata().get("tsPath");
+                    analyzeBundleSizes(sessionId, repoPath,
+                        Map.of(componentClassName, new BundleSizeAnalyzerTool.HarnessChunk("harness.component", tsPath)));
+                }
 
-            if ("error".equals(metadataResult.get("status"))) {
+                // Step 4: Start dev server (or reuse a warm one from the pool)
                 sseEventPublisher.publishComponentStatus(sessionId, componentClassName,
-                    "metadata", "failed",
-                    "Failed to extract metadata: " + metadataResult.get("message"),
+                    "dev-server", "starting",
+                    devServerPool.isWarm(repoPath)
+                        ? "Reusing warm Angular dev server"
+                        : "Starting Angular dev server",
                     Map.of());
-                return null;
-            }
 
-            String componentSelector = (String) metadataResult.get("selector");
-            String importPath = (String) metadataResult.get("importPath");
+                ImmutableMap<String, Object> serverResult = devServerPool.acquire(repoPath, 4200);
 
-            sseEventPublisher.publishComponentStatus(sessionId, componentClassName,
-                "metadata", "completed",
-                "Metadata extracted successfully",
-                Map.of("selector", componentSelector, "importPath", importPath));
+                if ("error".equals(serverResult.get("status"))) {
+                    sseEventPublisher.publishComponentStatus(sessionId, componentClassName,
+                        "dev-server", "failed",
+                        "Failed to start server: " + serverResult.get("message"),
+                        Map.of());
+                    return null;
+                }
+
+                // Get the harness URL from the server result
+                String harnessUrl = (String) serverResult.get("harnessUrl");
+                String serverUrl = (String) serverResult.get("serverUrl");
+                String componentUrl = harnessUrl + "?component=" + harness.selector();
 
-            // Step 2: Generate harness code
+                sseEventPublisher.publishComponentStatus(sessionId, componentClassName,
+                    "dev-server", "completed",
+                    "Server started successfully",
+                    Map.of(
+                        "url", componentUrl,
+                        "serverUrl", serverUrl != null ? serverUrl : "",
+                        "harnessUrl", harnessUrl != null ? harnessUrl : "",
+                        "reused", serverResult.getOrDefault("reused", false)
+                    ));
+
+                // Step 5: Run tests and generate suggestions
+                serverStarted = true;
+                return runComponentTests(
+                    sessionId, repoPath, harness, componentUrl, testList,
+                    providedTsPath, providedHtmlPath, providedStylesPath, providedRelativePath);
+            } finally {
+                // Step 6: Release server back to the pool (kept warm for the next component)
+                if (serverStarted) {
+                    releaseDevServer(sessionId, repoPath, componentClassName);
+                } else {
+                    devServerPool.release(repoPath);
+                }
+            }
+
+        } catch (Exception e) {
+            log.error("Failed to test component: {}", componentClassName, e);
             sseEventPublisher.publishComponentStatus(sessionId, componentClassName,
-                "harness", "starting",
-                "Generating test harness for " + componentClassName,
+                "test", "failed",
+                "Error during testing: " + e.getMessage(),
                 Map.of());
+            return null;
+        }
+    }
 
-            ImmutableMap<String, Object> codeResult = codeGenerator
-                .generateHarnessCode(componentClassName, componentSelector, importPath, "", "", "", "")
-                .blockingGet();
+    /**
+     * Bundle mode for multi-component requests: generates every harness first, deploys
+     * them as agent-ivy-harness/{selector} routes, compiles once and tests each route.
+     *
+     * Harness generation and testing run on up to {@code concurrency} workers. Each worker
+     * tests its own route in its own browser context against the shared server, and emits
+     * its component-result as soon as it finishes. Results are appended to
+     * {@code componentResults} in request order, whatever order the workers complete in.
+     */
+    private void testAndSuggestFixesForBundle(
+            String sessionId, SuggestFixesRequest request, List<String> testList,
+            int concurrency, List<WorkflowResult.ComponentTestResult> componentResults) {
+
+        String repoPath = request.repoPath();
+        List<SuggestFixesRequest.ComponentInfo> components = request.component();
+        int total = components.size();
+
+        // Phase 1: Metadata + harness generation for every component
+        List<PreparedHarness> prepared = runBounded(sessionId, concurrency, total, i -> {
+            SuggestFixesRequest.ComponentInfo comp = components.get(i);
+            sseEventPublisher.publishProgress(sessionId,
+                "Preparing harness for " + comp.name(),
+                "preparing",
+                i + 1,
+                total);
+            try {
+                SessionContext.setCurrentComponent(comp.name());
+                return prepareHarness(sessionId, repoPath, comp.name());
+            } catch (Exception compEx) {
+                log.error("Error preparing component {}: {}", comp.name(), compEx.getMessage(), compEx);
+                sseEventPublisher.publishComponentStatus(sessionId, comp.name(),
+                    "test", "failed",
+                    "Error: " + compEx.getMessage(),
+                    Map.of("error", compEx.getMessage()));
+                return null;
+            }
+        });
 
-            if ("error".equals(codeResult.get("status"))) {
-                sseEventPublisher.publishComponentStatus(sessionId, componentClassName,
-                    "harness", "failed",
-                    "Failed to generate harness: " + codeResult.get("message"),
+        // Selectors become route names, so they must be unique within the bundle
+        List<BundleEntry> entries = new ArrayList<>();
+        Set<String> selectors = new HashSet<>();
+        for (int i = 0; i < total; i++) {
+            PreparedHarness harness = prepared.get(i);
+            if (harness == null) continue;
+
+            if (!selectors.add(HarnessDeployerTool.toRouteSlug(harness.selector()))) {
+                sseEventPublisher.publishComponentStatus(sessionId, harness.componentClassName(),
+                    "deployment", "failed",
+                    "Selector " + harness.selector() + " is already used by another component in this batch",
                     Map.of());
+                continue;
+            }
+            entries.add(new BundleEntry(i, components.get(i), harness));
+        }
+
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        // Phase 2: Deploy all harnesses and compile once, holding the repo's lease until every
+        // route has been tested
+        try {
+            devServerPool.lease(repoPath);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            testBundle(sessionId, repoPath, testList, concurrency, total, entries, componentResults);
+        } finally {
+            devServerPool.release(repoPath);
+        }
+    }
+
+    /** Phases 2 and 3 of the bundle run; the caller holds the repo's dev server lease. */
+    private void testBundle(
+            String sessionId, String repoPath, List<String> testList, int concurrency, int total,
+            List<BundleEntry> entries, List<WorkflowResult.ComponentTestResult> componentResults) {
+
+        ImmutableMap<String, Object> serverResult = deployBundleAndStartServer(sessionId, repoPath, entries);
+        if (serverResult == null) {
+            return;
+        }
+        String serverUrl = (String) serverResult.get("serverUrl");
+
+        // One stats build attributes every harness route's lazy chunk
+        if (testList.contains("performance")) {
+            Map<String, BundleSizeAnalyzerTool.HarnessChunk> chunks = new LinkedHashMap<>();
+            for (BundleEntry entry : entries) {
+                String tsPath = entry.info().tsPath() != null
+                    ? entry.info().tsPath()
+                    : (String) entry.harness().metadata().get("tsPath");
+                chunks.put(entry.info().name(), new BundleSizeAnalyzerTool.HarnessChunk(
+                    HarnessDeployerTool.toRouteSlug(entry.harness().selector()) + ".harness", tsPath));
+            }
+            analyzeBundleSizes(sessionId, repoPath, chunks);
+        }
+
+        // Phase 3: Test each component against its own route
+        List<WorkflowResult.ComponentTestResult> results = runBounded(sessionId, concurrency, entries.size(), k -> {
+            BundleEntry entry = entries.get(k);
+            String name = entry.info().name();
+            sseEventPublisher.publishProgress(sessionId,
+                "Testing " + name,
+                "testing",
+                entry.index() + 1,
+                total);
+
+            try {
+                SessionContext.setCurrentComponent(name);
+                String componentUrl = serverUrl + "/agent-ivy-harness/"
+                    + HarnessDeployerTool.toRouteSlug(entry.harness().selector());
+
+                sseEventPublisher.publishComponentStatus(sessionId, name,
+                    "dev-server", "completed",
+                    "Harness route ready",
+                    Map.of(
+                        "url", componentUrl,
+                        "serverUrl", serverUrl != null ? serverUrl : "",
+                        "reused", serverResult.getOrDefault("reused", false),
+                        "bundled", true
+                    ));
+
+                WorkflowResult.ComponentTestResult result = runComponentTests(
+                    sessionId, repoPath, entry.harness(), componentUrl, testList,
+                    entry.info().tsPath(), entry.info().htmlPath(),
+                    entry.info().stylesPath(), entry.info().relativePath());
+
+                sseEventPublisher.publishWorkflowComponentResult(sessionId, result);
+                return result;
+            } catch (Exception compEx) {
+                log.error("Error testing component {}: {}", name, compEx.getMessage(), compEx);
+                sseEventPublisher.publishComponentStatus(sessionId, name,
+                    "test", "failed",
+                    "Error: " + compEx.getMessage(),
+                    Map.of("error", compEx.getMessage()));
                 return null;
             }
+        });
 
-            String generatedCode = (String) codeResult.get("code");
-            sseEventPublisher.publishComponentStatus(sessionId, componentClassName,
-                "harness", "completed",
-                "Harness code generated",
-                Map.of("codeLength", generatedCode.length()));
+        results.stream().filter(Objects::nonNull).forEach(componentResults::add);
+    }
 
-            // Step 3: Deploy harness
-            sseEventPublisher.publishComponentStatus(sessionId, componentClassName,
-                "deployment", "starting",
-                "Deploying test harness",
-                Map.of());
+    /**
+     * Static pre-screen of the requested components before any harness is built. Publishes
+     * the findings per component and returns the request with components ordered by static
+     * risk, highest first. With agentivy.prescreen.skip-clean, performance-only runs drop
+     * components with nothing above a minor finding. Components without a tsPath are kept
+     * as they are.
+     */
+    private SuggestFixesRequest prescreen(String sessionId, SuggestFixesRequest request, List<String> testList) {
+        if (!prescreenEnabled || request.component() == null || request.component().isEmpty()
+                || !testList.contains("performance")) {
+            return request;
+        }
+        boolean skipClean = prescreenSkipClean && testList.stream().allMatch("performance"::equals);
+        Path root = Path.of(request.repoPath());
+
+        Map<SuggestFixesRequest.ComponentInfo, Integer> riskScores = new IdentityHashMap<>();
+        List<SuggestFixesRequest.ComponentInfo> kept = new ArrayList<>();
+        for (SuggestFixesRequest.ComponentInfo comp : request.component()) {
+            if (comp.tsPath() == null) {
+                riskScores.put(comp, 0);
+                kept.add(comp);
+                continue;
+            }
 
-            ImmutableMap<String, Object> deployResult = deployer
-                .deployHarness(repoPath, generatedCode)
-                .blockingGet();
+            Map<String, Object> result = prescreenTool.prescreen(root, comp.tsPath(), comp.htmlPath());
+            int riskScore = (int) result.get("riskScore");
+            boolean clean = Boolean.TRUE.equals(result.get("clean"));
+            List<?> findings = (List<?>) result.get("findings");
+            boolean skipped = skipClean && clean;
+
+            sseEventPublisher.publishComponentStatus(sessionId, comp.name(),
+                "prescreen", skipped ? "skipped" : "completed",
+                skipped
+                    ? "No static performance risks found, runtime test skipped"
+                    : findings.size() + " static finding(s) (risk " + riskScore + ")",
+                Map.of("findings", findings, "riskScore", riskScore, "clean", clean));
+
+            if (!skipped) {
+                riskScores.put(comp, riskScore);
+                kept.add(comp);
+            }
+        }
+
+        kept.sort(Comparator.comparingInt((SuggestFixesRequest.ComponentInfo comp) -> riskScores.get(comp)).reversed());
+        return new SuggestFixesRequest(request.repoPath(), request.repoId(), kept,
+            request.tests(), request.harnessMode(), request.concurrency());
+    }
+
+    /**
+     * Runs {@code count} indexed tasks with at most {@code concurrency} in flight and returns
+     * their results in index order. Worker threads get the session bound to SessionContext.
+     * A task that throws yields null.
+     */
+    private <T> List<T> runBounded(String sessionId, int concurrency, int count, IntFunction<T> task) {
+        List<T> results = new ArrayList<>(count);
+        if (concurrency <= 1 || count <= 1) {
+            for (int i = 0; i < count; i++) {
+                results.add(task.apply(i));
+            }
+            return results;
+        }
+
+        AtomicInteger workerIds = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(Math.min(concurrency, count), r -> {
+            Thread t = new Thread(r, sessionId + "-worker-" + workerIds.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            List<Future<T>> futures = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int index = i;
+                futures.add(workers.submit(() -> {
+                    SessionContext.setSessionId(sessionId);
+                    try {
+                        return task.apply(index);
+                    } finally {
+                        SessionContext.clear();
+                    }
+                }));
+            }
+            for (Future<T> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException e) {
+                    log.error("Component worker failed", e.getCause());
+                    results.add(null);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    results.add(null);
+                }
+            }
+            return results;
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    /** Effective worker count for a request: request override, else configuration, capped by CPU count. */
+    private int resolveConcurrency(SuggestFixesRequest request) {
+        int requested = request.concurrency() != null ? request.concurrency() : componentConcurrency;
+        return Math.max(1, Math.min(requested, Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * Deploys the harness bundle and brings up a server for it. If the build fails because of
+     * specific harness files, those components are dropped and the rest are retried once.
+     * Returns null if no server could be started.
+     */
+    private ImmutableMap<String, Object> deployBundleAndStartServer(
+            String sessionId, String repoPath, List<BundleEntry> entries) {
+
+        for (int attempt = 0; attempt < 2 && !entries.isEmpty(); attempt++) {
+            Map<String, String> codeBySelector = new LinkedHashMap<>();
+            for (BundleEntry entry : entries) {
+                codeBySelector.put(entry.harness().selector(), entry.harness().code());
+                sseEventPublisher.publishComponentStatus(sessionId, entry.info().name(),
+                    "deployment", "starting",
+                    "Deploying test harness (bundle of " + entries.size() + ")",
+                    Map.of());
+            }
 
+            ImmutableMap<String, Object> deployResult = deployer.deployHarnessBundle(repoPath, codeBySelector);
             if ("error".equals(deployResult.get("status"))) {
-                sseEventPublisher.publishComponentStatus(sessionId, componentClassName,
+                entries.forEach(entry -> sseEventPublisher.publishComponentStatus(sessionId, entry.info().name(),
                     "deployment", "failed",
                     "Failed to deploy harness: " + deployResult.get("message"),
-                    Map.of());
+                    Map.of()));
                 return null;
             }
 
-            // Step 4: Start dev server
-            sseEventPublisher.publishComponentStatus(sessionId, componentClassName,
-                "dev-server", "starting",
-                "Starting Angular dev server",
-                Map.of());
+            sseEventPublisher.publishProgress(sessionId,
+                (devServerPool.isWarm(repoPath) ? "Rebuilding warm dev server" : "Starting Angular dev server")
+                    + " for " + entries.size() + " component(s)",
+                "dev-server");
 
-            ImmutableMap<String, Object> serverResult = devServer
-                .prepareAndStartServer(repoPath, 4200)
-                .blockingGet();
+            ImmutableMap<String, Object> serverResult = devServerPool.acquire(repoPath, 4200);
+            if (!"error".equals(serverResult.get("status"))) {
+                return serverResult;
+            }
 
-            if ("error".equals(serverResult.get("status"))) {
-                sseEventPublisher.publishComponentStatus(sessionId, componentClassName,
+            // Drop components whose harness file shows up in the compiler output
+            String diagnostics = String.valueOf(serverResult.get("compilationErrors")) + serverResult.get("logs");
+            List<BundleEntry> broken = entries.stream()
+                .filter(e -> diagnostics.contains(HarnessDeployerTool.toRouteSlug(e.harness().selector()) + ".harness.ts"))
+                .toList();
+
+            boolean giveUp = broken.isEmpty() || attempt == 1;
+            for (BundleEntry entry : giveUp ? entries : broken) {
+                sseEventPublisher.publishComponentStatus(sessionId, entry.info().name(),
                     "dev-server", "failed",
-                    "Failed to start server: " + serverResult.get("message"),
+                    "Failed to start server: " + serverResult.getOrDefault("reason", serverResult.get("message")),
                     Map.of());
+            }
+            if (giveUp) {
                 return null;
             }
+            entries.removeAll(broken);
+            log.warn("Retrying harness bundle without {} component(s) that failed to compile", broken.size());
+        }
+        return null;
+    }
 
-            // Get the harness URL from the server result
-            String harnessUrl = (String) serverResult.get("harnessUrl");
-            String serverUrl = (String) serverResult.get("serverUrl");
-            String componentUrl = harnessUrl + "?component=" + componentSelector;
-
-            sseEventPublisher.publishComponentStatus(sessionId, componentClassName,
-                "dev-server", "completed",
-                "Server started successfully",
-                Map.of(
-                    "url", componentUrl,
-                    "serverUrl", serverUrl != null ? serverUrl : "",
-                    "harnessUrl", harnessUrl != null ? harnessUrl : ""
-                ));
-
-            // Step 5: Run tests and generate suggestions, collecting TestResults
-            WorkflowResult.TestResult accessibilityResult = null;
-            WorkflowResult.TestResult performanceResult = null;
-
-            for (String testType : testList) {
-                WorkflowResult.TestResult testResult = generateFixSuggestions(
-                    sessionId, componentClassName, componentUrl,
-                    componentSelector, testType, repoPath, metadataResult,
-                    providedTsPath, providedHtmlPath, providedStylesPath, providedRelativePath);
+    /**
+     * Steps 1-2 for a component: extract metadata and generate harness code.
+     * Returns null on failure (a failed component-status event has been published).
+     */
+    private PreparedHarness prepareHarness(String sessionId, String repoPath, String componentClassName) {
+        sseEventPublisher.publishComponentStatus(sessionId, componentClassName,
+            "metadata", "starting",
+            "Extracting metadata for " + componentClassName,
+            Map.of());
 
-                if (testResult != null) {
-                    if ("accessibility".equals(testType)) {
-                        accessibilityResult = testResult;
-                    } else if ("performance".equals(testType)) {
-                        performanceResult = testResult;
-                    }
-                }
-            }
+        // Step 1: Extract component metadata
+        ImmutableMap<String, Object> metadataResult = metadataExtractor
+            .extractComponentMetadata(repoPath, componentClassName)
+            .blockingGet();
 
-            // Step 6: Stop server
+        if ("error".equals(metadataResult.get("status"))) {
             sseEventPublisher.publishComponentStatus(sessionId, componentClassName,
-                "dev-server", "stopping",
-                "Stopping dev server",
+                "metadata", "failed",
+                "Failed to extract metadata: " + metadataResult.get("message"),
                 Map.of());
+            return null;
+        }
 
-            devServer.stopServer(repoPath).blockingGet();
+        String componentSelector = (String) metadataResult.get("selector");
+        String importPath = (String) metadataResult.get("importPath");
 
-            sseEventPublisher.publishComponentStatus(sessionId, componentClassName,
-                "dev-server", "stopped",
-                "Server stopped",
-                Map.of());
+        sseEventPublisher.publishComponentStatus(sessionId, componentClassName,
+            "metadata", "completed",
+            "Metadata extracted successfully",
+            Map.of("selector", componentSelector, "importPath", importPath));
 
-            // Build ComponentInfo
-            String fullName = providedRelativePath != null
-                ? providedRelativePath + "/" + componentClassName
-                : componentClassName;
-
-            WorkflowResult.ComponentInfo compInfo = new WorkflowResult.ComponentInfo(
-                componentClassName,
-                providedRelativePath,
-                fullName,
-                providedTsPath,
-                providedHtmlPath,
-                providedStylesPath
-            );
+        // Step 2: Generate harness code
+        sseEventPublisher.publishComponentStatus(sessionId, componentClassName,
+            "harness", "starting",
+            "Generating test harness for " + componentClassName,
+            Map.of());
 
-            return new WorkflowResult.ComponentTestResult(compInfo, accessibilityResult, performanceResult);
+        ImmutableMap<String, Object> codeResult = codeGenerator
+            .generateHarnessCode(componentClassName, componentSelector, importPath, "", "", "", "")
+            .blockingGet();
 
-        } catch (Exception e) {
-            log.error("Failed to test component: {}", componentClassName, e);
+        if ("error".equals(codeResult.get("status"))) {
             sseEventPublisher.publishComponentStatus(sessionId, componentClassName,
-                "test", "failed",
-                "Error during testing: " + e.getMessage(),
+                "harness", "failed",
+                "Failed to generate harness: " + codeResult.get("message"),
                 Map.of());
             return null;
         }
+
+        String generatedCode = (String) codeResult.get("code");
+        sseEventPublisher.publishComponentStatus(sessionId, componentClassName,
+            "harness", "completed",
+            "Harness code generated",
+            Map.of("codeLength", generatedCode.length()));
+
+        return new PreparedHarness(componentClassName, metadataResult, componentSelector, generatedCode);
+    }
+
+    /**
+     * Step 5: run every requested test type against a served harness and build the component result.
+     */
+    private WorkflowResult.ComponentTestResult runComponentTests(
+            String sessionId, String repoPath, PreparedHarness harness, String componentUrl,
+            List<String> testList, String providedTsPath, String providedHtmlPath,
+            String providedStylesPath, String providedRelativePath) {
+
+        String componentClassName = harness.componentClassName();
+        WorkflowResult.TestResult accessibilityResult = null;
+        WorkflowResult.TestResult performanceResult = null;
+
+        for (String testType : testList) {
+            WorkflowResult.TestResult testResult = generateFixSuggestions(
+                sessionId, componentClassName, componentUrl,
+                harness.selector(), testType, repoPath, harness.metadata(),
+                providedTsPath, providedHtmlPath, providedStylesPath, providedRelativePath);
+
+            if (testResult != null) {
+                if ("accessibility".equals(testType)) {
+                    accessibilityResult = testResult;
+                } else if ("performance".equals(testType)) {
+                    performanceResult = testResult;
+                }
+            }
+        }
+
+        // Build ComponentInfo
+        String fullName = providedRelativePath != null
+            ? providedRelativePath + "/" + componentClassName
+            : componentClassName;
+
+        WorkflowResult.ComponentInfo compInfo = new WorkflowResult.ComponentInfo(
+            componentClassName,
+            providedRelativePath,
+            fullName,
+            providedTsPath,
+            providedHtmlPath,
+            providedStylesPath
+        );
+
+        return new WorkflowResult.ComponentTestResult(compInfo, accessibilityResult, performanceResult);
     }
 
+    /**
+     * Runs the stats build for the deployed harnesses; results are picked up when the
+     * performance result of each component is assembled.
+     */
+    private void analyzeBundleSizes(String sessionId, String repoPath,
+                                    Map<String, BundleSizeAnalyzerTool.HarnessChunk> chunks) {
+        if (!bundleAnalyzer.isEnabled()) return;
+
+        chunks.keySet().forEach(name -> sseEventPublisher.publishComponentStatus(sessionId, name,
+            "bundle", "starting",
+            "Building with stats output to measure the lazy chunk",
+            Map.of()));
+
+        bundleAnalyzer.analyzeHarnessChunks(repoPath, chunks).forEach((name, result) -> {
+            if ("error".equals(result.get("status"))) {
+                sseEventPublisher.publishComponentStatus(sessionId, name,
+                    "bundle", "failed",
+                    String.valueOf(result.get("message")),
+                    Map.of());
+            }
+        });
+    }
+
+    /** Step 6: hand the dev server back to the pool. */
+    private void releaseDevServer(String sessionId, String repoPath, String componentClassName) {
+        sseEventPublisher.publishComponentStatus(sessionId, componentClassName,
+            "dev-server", "stopping",
+            "Releasing dev server",
+            Map.of());
+
+        devServerPool.release(repoPath);
+
+        sseEventPublisher.publishComponentStatus(sessionId, componentClassName,
+            "dev-server", "stopped",
+            "Server released",
+            Map.of("warm", devServerPool.isWarm(repoPath)));
+    }
+
+    /** Metadata and generated harness code for one component, ready to deploy. */
+    private record PreparedHarness(
+        String componentClassName,
+        ImmutableMap<String, Object> metadata,
+        String selector,
+        String code
+    ) {}
+
+    /** A prepared component in a bundle run, with its position in the request. */
+    private record BundleEntry(int index, SuggestFixesRequest.ComponentInfo info, PreparedHarness harness) {}
+
     /**
      * Overloaded version for the GET endpoint (backward compatibility).
      */
@@ -888,6 +1478,69 @@ public class ComponentTestWorkflowController {
             providedTsPath, providedHtmlPath, providedStylesPath, providedRelativePath, 0, 1);
     }
 
+    /**
+     * Tests the components of a pre-screened request and collects their results.
+     */
+    private void testRequestedComponents(String sessionId, SuggestFixesRequest screened, List<String> testList,
+                                         List<WorkflowResult.ComponentTestResult> componentResults) {
+        // Multi-component requests default to one harness bundle (single compile)
+        if (screened.component() != null && screened.component().size() > 1 && screened.isBundleMode()) {
+            testAndSuggestFixesForBundle(sessionId, screened, testList,
+                resolveConcurrency(screened), componentResults);
+        } else if (screened.component() != null && !screened.component().isEmpty()) {
+            // Process components from request body SEQUENTIALLY (one at a time)
+            for (int i = 0; i < screened.component().size(); i++) {
+                SuggestFixesRequest.ComponentInfo comp = screened.component().get(i);
+
+                // Emit progress event with "1/3" format
+                sseEventPublisher.publishProgress(sessionId,
+                    "Testing " + comp.name(),
+                    "testing",
+                    i + 1,
+                    screened.component().size());
+
+                try {
+                    WorkflowResult.ComponentTestResult result = testAndSuggestFixesForComponent(
+                        sessionId,
+                        screened.repoPath(),
+                        comp.name(),
+                        testList,
+                        comp.tsPath(),
+                        comp.htmlPath(),
+                        comp.stylesPath(),
+                        comp.relativePath(),
+                        i,
+                        screened.component().size()
+                    );
+
+                    if (result != null) {
+                        componentResults.add(result);
+
+                        // Emit component-result event
+                        sseEventPublisher.publishWorkflowComponentResult(sessionId, result);
+                    }
+                } catch (Exception compEx) {
+                    // Log component-level error but continue with other components
+                    log.error("Error testing component {}: {}", comp.name(), compEx.getMessage(), compEx);
+                    sseEventPublisher.publishComponentStatus(sessionId, comp.name(),
+                        "test", "failed",
+                        "Error: " + compEx.getMessage(),
+                        Map.of("error", compEx.getMessage()));
+                }
+            }
+        }
+    }
+
+    /** Position of a result's component in the request; components not listed sort last. */
+    private static int requestIndex(SuggestFixesRequest request, WorkflowResult.ComponentTestResult result) {
+        for (int i = 0; i < request.component().size(); i++) {
+            if (request.component().get(i).name().equals(result.component().name())) {
+                return i;
+            }
+        }
+        return Integer.MAX_VALUE;
+    }
+
     /**
      * Scan for all components and test each one.
      */
@@ -1013,9 +1666,7 @@ public class ComponentTestWorkflowController {
                 }
             } else if (testType.equals("performance")) {
                 // Run performance test
-                ImmutableMap<String, Object> testResult = performanceTester
-                    .runPerformanceTest(componentUrl, componentSelector)
-                    .timeout(90, java.util.concurrent.TimeUnit.SECONDS)
+                ImmutableMap<String, Object> testResult = measurePerformance(componentUrl)
                     .blockingGet();
 
                 // Handle error status from performance test
@@ -1036,6 +1687,15 @@ public class ComponentTestWorkflowController {
                     if (metrics == null) metrics = Map.of();
                     if (warnings == null) warnings = List.of();
 
+                    // Lazy chunk size from the stats build, when one ran for this component
+                    ImmutableMap<String, Object> bundleResult = bundleAnalyzer.takeResult(repoPath, componentName);
+                    if (bundleResult != null && "success".equals(bundleResult.get("status"))) {
+                        metrics = new LinkedHashMap<>(metrics);
+                        metrics.put("bundle", bundleResult);
+                        warnings = new ArrayList<>(warnings);
+                        warnings.addAll((List<String>) bundleResult.get("warnings"));
+                    }
+
                     // Use existing performance score (already 0-100)
                     Object perfScoreObj = testResult.get("performanceScore");
                     int perfScore = perfScoreObj instanceof Number ? ((Number) perfScoreObj).intValue() : 100;
@@ -1085,21 +1745,24 @@ public class ComponentTestWorkflowController {
 
                         if ("success".equals(fixSuggestionResult.get("status"))) {
                             String explanation = (String) fixSuggestionResult.get("explanation");
-                            details = groupPerformanceWarningsByFile(warnings, tsPath, explanation);
+                            details = groupPerformanceWarningsByFile(warnings, metrics, tsPath, explanation);
 
                             sseEventPublisher.publishComponentStatus(sessionId, componentName,
                                 "performance-fix", "completed",
                                 "Fix suggestions generated successfully",
                                 Map.of("fixGenerated", true, "score", perfScore));
                         } else {
-                            details = groupPerformanceWarningsByFile(warnings, tsPath, null);
+                            details = groupPerformanceWarningsByFile(warnings, metrics, tsPath, null);
                             sseEventPublisher.publishComponentStatus(sessionId, componentName,
                                 "performance-fix", "failed",
                                 "Failed to generate fix suggestions: " + fixSuggestionResult.get("message"),
                                 Map.of());
                         }
                     } else {
-                        details = List.of();
+                        // No warnings to fix, but source-mapped CPU hotspots are still reported
+                        String tsPath = (String) metadata.get("tsPath");
+                        if (tsPath == null && providedTsPath != null) tsPath = providedTsPath;
+                        details = groupPerformanceWarningsByFile(warnings, metrics, tsPath, null);
                     }
 
                     return new WorkflowResult.TestResult(
@@ -1238,7 +1901,7 @@ public class ComponentTestWorkflowController {
      * Performance warnings are primarily TS-related, so they are grouped under the TS file.
      */
     private List<WorkflowResult.FileIssues> groupPerformanceWarningsByFile(
-            List<String> warnings, String tsPath, String aiSuggestion) {
+            List<String> warnings, Map<String, Object> metrics, String tsPath, String aiSuggestion) {
 
         String primaryFile = tsPath != null
             ? Path.of(tsPath).getFileName().toString()
@@ -1263,11 +1926,54 @@ public class ComponentTestWorkflowController {
                 "performance-warning", severity, 0, "", warning));
         }
 
-        if (issues.isEmpty()) {
-            return List.of();
+        // CPU hotspots resolved through source maps point at real lines, possibly in the template
+        Map<String, List<WorkflowResult.IssueDetail>> byFile = new LinkedHashMap<>();
+        byFile.put(primaryFile, issues);
+        for (Map<String, Object> hotspot : cpuHotspots(metrics)) {
+            double selfPercent = ((Number) hotspot.get("selfPercent")).doubleValue();
+            String severity = selfPercent >= 20 ? "serious" : selfPercent >= 5 ? "moderate" : "minor";
+            String file = Path.of((String) hotspot.get("file")).getFileName().toString();
+            byFile.computeIfAbsent(file, f -> new ArrayList<>()).add(new WorkflowResult.IssueDetail(
+                "cpu-hotspot",
+                severity,
+                ((Number) hotspot.get("line")).intValue(),
+                (String) hotspot.get("functionName"),
+                String.format("%s spends %.1f ms self time (%.1f%% of the runtime window, %.1f ms including callees)",
+                    hotspot.get("functionName"), ((Number) hotspot.get("selfMs")).doubleValue(), selfPercent,
+                    ((Number) hotspot.get("totalMs")).doubleValue()),
+                Map.of("source", hotspot.get("file"))));
+        }
+
+        // Over budget: list what the lazy chunk is made of
+        if (metrics != null && metrics.get("bundle") instanceof Map<?, ?> bundle
+                && Boolean.TRUE.equals(bundle.get("overBudget"))
+                && bundle.get("topModules") instanceof List<?> modules) {
+            for (Object item : modules) {
+                Map<?, ?> module = (Map<?, ?>) item;
+                issues.add(new WorkflowResult.IssueDetail(
+                    "bundle-size",
+                    "minor",
+                    0,
+                    (String) module.get("module"),
+                    String.format("%s adds %.1f KB (%.1f%% of the lazy chunk)",
+                        module.get("module"), ((Number) module.get("bytes")).longValue() / 1024.0,
+                        ((Number) module.get("percent")).doubleValue())));
+            }
         }
 
-        return List.of(new WorkflowResult.FileIssues(primaryFile, issues));
+        // Hotspots alone still produce issues, so the component file may have none of its own
+        return byFile.entrySet().stream()
+            .filter(e -> !e.getValue().isEmpty())
+            .map(e -> new WorkflowResult.FileIssues(e.getKey(), e.getValue()))
+            .toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Map<String, Object>> cpuHotspots(Map<String, Object> metrics) {
+        if (metrics == null || !(metrics.get("runtime") instanceof Map<?, ?> runtime)) return List.of();
+        if (!(runtime.get("cpuProfile") instanceof Map<?, ?> cpuProfile)) return List.of();
+        Object hotspots = cpuProfile.get("componentHotspots");
+        return hotspots instanceof List<?> ? (List<Map<String, Object>>) hotspots : List.of();
     }
 
     /**
@@ -1341,6 +2047,7 @@ public class ComponentTestWorkflowController {
         log.info("Stopping server for: {}", repoPath);
 
         try {
+            devServerPool.evict(repoPath);
             ImmutableMap<String, Object> stopResult = devServer
                 .stopServer(repoPath)
                 .blockingGet();
@@ -1366,6 +2073,30 @@ public class ComponentTestWorkflowController {
         Integer port
     ) {}
 
+    public record ScalingBenchmarkRequest(
+        String repoPath,
+        String componentClassName,
+        List<String> scalingInputs,   // inputs to fill with generated lists (optional)
+        List<Integer> sizes,          // item counts to render (optional)
+        Integer port
+    ) {}
+
+    public record LeakTestRequest(
+        String repoPath,
+        String componentClassName,
+        List<String> scalingInputs,   // inputs to fill with generated lists (optional)
+        Integer cycles,               // unmount/mount cycles (optional)
+        Integer port
+    ) {}
+
+    public record CdExperimentRequest(
+        String repoPath,
+        String componentClassName,
+        List<String> scalingInputs,   // inputs to fill with generated lists (optional)
+        List<String> variants,        // zone, onpush, zoneless, zoneless-onpush (optional)
+        Integer port
+    ) {}
+
     public record TestAndFixRequest(
         String repoPath,
         String componentClassName,
@@ -1386,8 +2117,18 @@ public class ComponentTestWorkflowController {
         String repoPath,
         String repoId,
         List<ComponentInfo> component,
-        List<String> tests          // ["accessibility", "performance", "unit", "e2e"]
+        List<String> tests,         // ["accessibility", "performance", "unit", "e2e"]
+        String harnessMode,         // "bundle" (default) or "single"
+        Integer concurrency         // parallel component workers in bundle mode (optional; ignored in single mode)
     ) {
+        /**
+         * Bundle mode deploys one harness route per component and compiles once.
+         * "single" keeps the one-harness-per-component flow, strictly sequential.
+         */
+        public boolean isBundleMode() {
+            return !"single".equalsIgnoreCase(harnessMode);
+        }
+
         /**
          * Individual component info with file paths.
          */
@@ -0,0 +1,374 @@
+package com.agentivy.backend.tools;
+
+import com.agentivy.backend.service.SessionContext;
+import com.microsoft.playwright.*;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Shared pool of Chromium instances for all browser-based testing tools.
+ *
+ * Playwright for Java is not thread-safe: a Playwright object and everything created
+ * from it must be used from the thread that created it. Each pooled browser therefore
+ * lives on its own dedicated thread, and work is submitted to that thread as a task
+ * receiving a fresh {@link BrowserContext}. Concurrent audits are limited by pool size;
+ * callers wait for a free browser.
+ *
+ * Timeouts are enforced by one shared watchdog that interrupts the owning thread when a
+ * deadline passes. Playwright then aborts the blocked call with an exception, and the
+ * browser is relaunched before its next use because its state is no longer trusted.
+ * A browser whose thread does not come back is abandoned: its driver and Chromium
+ * processes are killed and a replacement is launched, retried with backoff until it starts.
+ */
+@Slf4j
+@Component
+public class PlaywrightBrowserPool {
+
+    @Value("${agentivy.playwright.enabled:true}")
+    private boolean playwrightEnabled;
+
+    @Value("${agentivy.playwright.timeout-ms:30000}")
+    private int timeoutMs;
+
+    @Value("${agentivy.playwright.headless:true}")
+    private boolean headless;
+
+    @Value("${agentivy.playwright.pool-size:2}")
+    private int poolSize;
+
+    // Extra time the caller waits beyond a lease deadline before abandoning a hung browser thread
+    private static final long ABANDON_GRACE_MS = 30_000;
+    private static final long REPLACE_RETRY_MS = 5_000;
+    private static final long REPLACE_RETRY_MAX_MS = 300_000;
+
+    private final BlockingQueue<BrowserSlot> idleSlots = new LinkedBlockingQueue<>();
+    private final List<BrowserSlot> allSlots = new CopyOnWriteArrayList<>();
+    private ScheduledExecutorService watchdog;
+
+    @PostConstruct
+    public void init() {
+        if (!playwrightEnabled) {
+            log.info("Playwright is disabled via configuration");
+            return;
+        }
+
+        watchdog = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "playwright-watchdog");
+            t.setDaemon(true);
+            return t;
+        });
+
+        try {
+            log.info("Initializing Playwright browser pool (size: {}, headless: {})", poolSize, headless);
+            for (int i = 0; i < poolSize; i++) {
+                BrowserSlot slot = new BrowserSlot(i);
+                slot.start();
+                allSlots.add(slot);
+                idleSlots.add(slot);
+            }
+            log.info("Playwright browser pool initialized successfully");
+        } catch (Exception e) {
+            log.error("Failed to initialize Playwright: {}", e.getMessage(), e);
+            shutdown();
+            playwrightEnabled = false;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        allSlots.forEach(BrowserSlot::close);
+        allSlots.clear();
+        idleSlots.clear();
+        if (watchdog != null) {
+            watchdog.shutdownNow();
+        }
+    }
+
+    public boolean isAvailable() {
+        return playwrightEnabled && !allSlots.isEmpty();
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public int getTimeoutMs() {
+        return timeoutMs;
+    }
+
+    /**
+     * Runs a task against a new browser context on one of the pooled browsers.
+     * Blocks until a browser is free. The context is closed after the task, and the
+     * whole lease is limited to {@code leaseTimeoutMs}.
+     *
+     * @param options context options (viewport, user agent...), or null for defaults
+     */
+    public <T> T withContext(Browser.NewContextOptions options, long leaseTimeoutMs,
+                             Function<BrowserSession, T> task) throws Exception {
+        if (!isAvailable()) {
+            throw new IllegalStateException("Playwright not initialized. Ensure agentivy.playwright.enabled=true and Chromium is installed.");
+        }
+
+        BrowserSlot slot = idleSlots.poll(leaseTimeoutMs, TimeUnit.MILLISECONDS);
+        if (slot == null) {
+            throw new TimeoutException("No browser became free within " + leaseTimeoutMs + "ms");
+        }
+
+        boolean returnSlot = true;
+        try {
+            Future<T> result = slot.submit(options, leaseTimeoutMs, task);
+            try {
+                return result.get(leaseTimeoutMs + ABANDON_GRACE_MS, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // The watchdog interrupt did not free the thread; replace the whole browser
+                log.error("Browser {} did not recover from a timed-out task, replacing it", slot.id);
+                returnSlot = false;
+                replace(slot);
+                throw new TimeoutException("Browser task timed out after " + leaseTimeoutMs + "ms");
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof Exception cause) throw cause;
+                throw e;
+            }
+        } finally {
+            if (returnSlot) {
+                idleSlots.offer(slot);
+            }
+        }
+    }
+
+    private void replace(BrowserSlot hung) {
+        allSlots.remove(hung);
+        hung.abandon();
+        startReplacement(hung.id, 1);
+    }
+
+    /**
+     * Launches a browser for slot {@code id}. A failed launch is retried later with backoff,
+     * off the watchdog thread, so the pool does not stay one browser short.
+     */
+    private void startReplacement(int id, int attempt) {
+        if (watchdog == null || watchdog.isShutdown()) return;
+        BrowserSlot fresh = new BrowserSlot(id);
+        try {
+            fresh.start();
+            allSlots.add(fresh);
+            idleSlots.offer(fresh);
+            if (attempt > 1) {
+                log.info("Browser {} replaced after {} attempts", id, attempt);
+            }
+        } catch (Exception e) {
+            fresh.abandon();
+            long delayMs = Math.min(REPLACE_RETRY_MAX_MS, REPLACE_RETRY_MS << Math.min(attempt - 1, 6));
+            log.error("Could not replace browser {} (attempt {}): {}. Retrying in {}ms", id, attempt, e.getMessage(), delayMs);
+            try {
+                watchdog.schedule(() -> CompletableFuture.runAsync(() -> startReplacement(id, attempt + 1)),
+                    delayMs, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException rejected) {
+                // Pool is shutting down
+            }
+        }
+    }
+
+    private ScheduledFuture<?> interruptAt(Thread thread, long delayMs) {
+        return watchdog.schedule(thread::interrupt, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Handle passed to tasks. Only valid on the browser's own thread, during the task.
+     */
+    public final class BrowserSession {
+        private final BrowserContext context;
+        private final Browser browser;
+        private boolean timedOut;
+
+        private BrowserSession(BrowserContext context, Browser browser) {
+            this.context = context;
+            this.browser = browser;
+        }
+
+        public BrowserContext context() {
+            return context;
+        }
+
+        public Browser browser() {
+            return browser;
+        }
+
+        /**
+         * Runs one step (e.g. a heavy page.evaluate) with its own deadline.
+         * Throws {@link TimeoutException} if the watchdog had to interrupt it.
+         */
+        public <T> T withDeadline(long stepTimeoutMs, Supplier<T> step) throws TimeoutException {
+            ScheduledFuture<?> alarm = interruptAt(Thread.currentThread(), stepTimeoutMs);
+            try {
+                return step.get();
+            } catch (RuntimeException e) {
+                if (alarm.isDone() && !alarm.isCancelled()) {
+                    timedOut = true;
+                    throw new TimeoutException("Step timed out after " + stepTimeoutMs + "ms");
+                }
+                throw e;
+            } finally {
+                alarm.cancel(false);
+                if (Thread.interrupted()) {
+                    timedOut = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * One browser plus the single thread allowed to drive it.
+     */
+    private final class BrowserSlot {
+        final int id;
+        private final ExecutorService thread;
+        private Playwright playwright;
+        private Browser browser;
+        private boolean dirty;
+        // Playwright's node driver, parent of the Chromium processes; killed if the slot is abandoned
+        private volatile ProcessHandle driver;
+
+        BrowserSlot(int id) {
+            this.id = id;
+            this.thread = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "playwright-browser-" + id);
+                t.setDaemon(true);
+                return t;
+            });
+        }
+
+        void start() throws Exception {
+            thread.submit(() -> {
+                launch();
+                return null;
+            }).get();
+        }
+
+        <T> Future<T> submit(Browser.NewContextOptions options, long leaseTimeoutMs,
+                             Function<BrowserSession, T> task) {
+            // Tools publish SSE events from inside tasks; carry the caller's session over
+            String sessionId = SessionContext.getSessionId();
+            String component = SessionContext.getCurrentComponent();
+
+            return thread.submit(() -> {
+                SessionContext.setSessionId(sessionId);
+                SessionContext.setCurrentComponent(component);
+                if (dirty || browser == null || !browser.isConnected()) {
+                    relaunch();
+                }
+
+                ScheduledFuture<?> alarm = interruptAt(Thread.currentThread(), leaseTimeoutMs);
+                BrowserContext context = null;
+                BrowserSession session = null;
+                try {
+                    context = options != null ? browser.newContext(options) : browser.newContext();
+                    session = new BrowserSession(context, browser);
+                    return task.apply(session);
+                } finally {
+                    alarm.cancel(false);
+                    boolean interrupted = Thread.interrupted() || (alarm.isDone() && !alarm.isCancelled());
+                    if (interrupted || (session != null && session.timedOut)) {
+                        dirty = true;
+                    } else if (context != null) {
+                        try {
+                            context.close();
+                        } catch (Exception e) {
+                            dirty = true;
+                        }
+                    }
+                    SessionContext.clear();
+                }
+            });
+        }
+
+        private void launch() {
+            synchronized (BrowserSlot.class) {
+                // Launches are serialized so the only new driver child of this JVM is ours
+                Set<ProcessHandle> before = ProcessHandle.current().children().collect(Collectors.toSet());
+                playwright = Playwright.create();
+                driver = ProcessHandle.current().children()
+                    .filter(child -> !before.contains(child))
+                    .filter(child -> child.info().commandLine().map(cmd -> cmd.contains("run-driver")).orElse(true))
+                    .findFirst()
+                    .orElse(null);
+            }
+
+            BrowserType.LaunchOptions launchOptions = new BrowserType.LaunchOptions()
+                    .setHeadless(headless)
+                    .setTimeout(timeoutMs);
+
+            // In Docker/Linux, use the system-installed Chromium if PLAYWRIGHT_CHROMIUM_EXECUTABLE_PATH is set
+            String chromiumPath = System.getenv("PLAYWRIGHT_CHROMIUM_EXECUTABLE_PATH");
+            if (chromiumPath != null && !chromiumPath.isEmpty()) {
+                log.info("Using system Chromium from: {}", chromiumPath);
+                launchOptions.setExecutablePath(Path.of(chromiumPath));
+                // Additional args for running in Docker container
+                launchOptions.setArgs(List.of(
+                    "--no-sandbox",
+                    "--disable-setuid-sandbox",
+                    "--disable-dev-shm-usage",
+                    "--disable-gpu"
+                ));
+            }
+
+            browser = playwright.chromium().launch(launchOptions);
+            dirty = false;
+        }
+
+        private void relaunch() {
+            log.warn("Relaunching browser {} after a timeout or crash", id);
+            closeQuietly();
+            launch();
+        }
+
+        private void closeQuietly() {
+            try {
+                if (browser != null) browser.close();
+            } catch (Exception ignored) {
+                // Browser already gone
+            }
+            try {
+                if (playwright != null) playwright.close();
+            } catch (Exception ignored) {
+                // Driver already gone
+            }
+            browser = null;
+            playwright = null;
+        }
+
+        void close() {
+            try {
+                thread.submit(this::closeQuietly).get(10, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                log.warn("Browser {} did not close cleanly: {}", id, e.getMessage());
+            }
+            thread.shutdownNow();
+        }
+
+        /**
+         * Gives up on a thread that did not return. The browser cannot be closed through
+         * Playwright from here, so the driver process tree is killed instead.
+         */
+        void abandon() {
+            thread.shutdownNow();
+            ProcessHandle process = driver;
+            if (process != null) {
+                process.descendants().forEach(ProcessHandle::destroyForcibly);
+                process.destroyForcibly();
+                log.warn("Killed driver process {} of abandoned browser {}", process.pid(), id);
+            }
+        }
+    }
+}
@@ -9,12 +9,14 @@ import com.google.common.collect.ImmutableMap;
 import com.microsoft.playwright.*;
 import com.microsoft.playwright.options.WaitUntilState;
 import io.reactivex.rxjava3.core.Maybe;
-import jakarta.annotation.PostConstruct;
-import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 /**
@@ -29,10 +31,10 @@ import java.util.*;
  */
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class PlaywrightTools implements ToolProvider {
 
-    @Value("${agentivy.playwright.enabled:true}")
-    private boolean playwrightEnabled;
+    private final PlaywrightBrowserPool browserPool;
 
     @Value("${agentivy.playwright.timeout-ms:30000}")
     private int timeoutMs;
@@ -40,57 +42,20 @@ public class PlaywrightTools implements ToolProvider {
     @Value("${agentivy.playwright.headless:true}")
     private boolean headless;
 
-    private Playwright playwright;
-    private Browser browser;
+    // Axe-core is bundled via the org.webjars.npm:axe-core dependency; keep the version in sync with build.gradle
+    public static final String AXE_CORE_VERSION = "4.8.4";
+    private static final String AXE_CORE_RESOURCE =
+            "META-INF/resources/webjars/axe-core/" + AXE_CORE_VERSION + "/axe.min.js";
+    // Only used if the bundled copy is missing from the classpath
+    private static final String AXE_CORE_CDN =
+            "https://cdnjs.cloudflare.com/ajax/libs/axe-core/" + AXE_CORE_VERSION + "/axe.min.js";
 
-    // Axe-core CDN for accessibility testing
-    private static final String AXE_CORE_CDN = "https://cdnjs.cloudflare.com/ajax/libs/axe-core/4.8.4/axe.min.js";
+    // Loaded once from the classpath; null if the resource is missing
+    private volatile String axeSource;
+    private volatile boolean axeSourceLoaded;
 
-    // ==================== LIFECYCLE ====================
-
-    @PostConstruct
-    public void init() {
-        if (!playwrightEnabled) {
-            log.info("Playwright is disabled via configuration");
-            return;
-        }
-
-        try {
-            log.info("Initializing Playwright browser (headless: {})", headless);
-            playwright = Playwright.create();
-
-            // Build launch options
-            BrowserType.LaunchOptions launchOptions = new BrowserType.LaunchOptions()
-                    .setHeadless(headless)
-                    .setTimeout(timeoutMs);
-
-            // In Docker/Linux, use the system-installed Chromium if PLAYWRIGHT_CHROMIUM_EXECUTABLE_PATH is set
-            String chromiumPath = System.getenv("PLAYWRIGHT_CHROMIUM_EXECUTABLE_PATH");
-            if (chromiumPath != null && !chromiumPath.isEmpty()) {
-                log.info("Using system Chromium from: {}", chromiumPath);
-                launchOptions.setExecutablePath(java.nio.file.Path.of(chromiumPath));
-                // Additional args for running in Docker container
-                launchOptions.setArgs(java.util.List.of(
-                    "--no-sandbox",
-                    "--disable-setuid-sandbox",
-                    "--disable-dev-shm-usage",
-                    "--disable-gpu"
-                ));
-            }
-
-            browser = playwright.chromium().launch(launchOptions);
-            log.info("Playwright browser initialized successfully");
-        } catch (Exception e) {
-            log.error("Failed to initialize Playwright: {}", e.getMessage(), e);
-            playwrightEnabled = false;
-        }
-    }
-
-    @PreDestroy
-    public void cleanup() {
-        if (browser != null) browser.close();
-        if (playwright != null) playwright.close();
-    }
+    // Hard limit for a single axe.run evaluation
+    private static final long AXE_EVALUATE_TIMEOUT_MS = 20_000;
 
     // ==================== ADK TOOLS ====================
 
@@ -102,12 +67,14 @@ public class PlaywrightTools implements ToolProvider {
             "WCAG accessibility auditing using Axe-core and Playwright browser automation",
             ToolCategory.ACCESSIBILITY,
             "1.0.0",
-            playwrightEnabled,
+            browserPool.isAvailable(),
             List.of("accessibility", "wcag", "a11y", "axe-core", "playwright"),
             Map.of(
                 "timeout-ms", timeoutMs,
                 "headless", headless,
-                "axe-core-version", "4.8.4"
+                "browser-pool-size", browserPool.getPoolSize(),
+                "axe-core-version", AXE_CORE_VERSION,
+                "axe-core-source", loadAxeSource() != null ? "bundled" : "cdn"
             )
         );
     }
@@ -168,7 +135,7 @@ public class PlaywrightTools implements ToolProvider {
             String wcagLevel) {
 
         return Maybe.fromCallable(() -> {
-            if (!playwrightEnabled || browser == null) {
+            if (!browserPool.isAvailable()) {
                 return ImmutableMap.<String, Object>of(
                         "status", "error",
                         "message", "Playwright not initialized. Run: ./gradlew exec -PmainClass=com.microsoft.playwright.CLI -Pargs=\"install chromium\"",
@@ -180,96 +147,122 @@ public class PlaywrightTools implements ToolProvider {
                     componentUrl, componentSelector, wcagLevel);
 
             String level = (wcagLevel != null && !wcagLevel.isBlank()) ? wcagLevel.toUpperCase() : "AA";
+            long leaseTimeoutMs = timeoutMs + 15_000 + AXE_EVALUATE_TIMEOUT_MS + 15_000;
 
-            try (BrowserContext context = browser.newContext();
-                 Page page = context.newPage()) {
+            try {
+                return browserPool.withContext(null, leaseTimeoutMs,
+                        session -> auditPage(session, componentUrl, componentSelector, level));
+            } catch (Exception e) {
+                log.error("Accessibility audit failed", e);
+                return ImmutableMap.<String, Object>of(
+                        "status", "error",
+                        "message", "Audit failed: " + e.getMessage(),
+                        "passed", false
+                );
+            }
+        });
+    }
 
-                // Navigate to component
-                // Use DOMCONTENTLOADED for even faster testing (doesn't wait for all resources)
-                page.navigate(componentUrl, new Page.NavigateOptions()
-                        .setWaitUntil(WaitUntilState.DOMCONTENTLOADED)
-                        .setTimeout(timeoutMs));
+    /**
+     * Runs on the pooled browser's thread.
+     */
+    private ImmutableMap<String, Object> auditPage(PlaywrightBrowserPool.BrowserSession session,
+                                                   String componentUrl, String componentSelector, String level) {
+        // Bundled axe is registered as an init script, so it is defined before the page's own scripts run.
+        // Its cost is hidden inside navigation, so the script times its own evaluation in the page.
+        String bundledAxe = loadAxeSource();
+        if (bundledAxe != null) {
+            session.context().addInitScript("window.__agentivyAxeStart = performance.now();\n" + bundledAxe
+                + "\n;window.__agentivyAxeEvalMs = performance.now() - window.__agentivyAxeStart;");
+        }
+        Page page = session.context().newPage();
 
-                log.info("Page loaded, running accessibility audit...");
+        // Navigate to component
+        // Use DOMCONTENTLOADED for even faster testing (doesn't wait for all resources)
+        page.navigate(componentUrl, new Page.NavigateOptions()
+                .setWaitUntil(WaitUntilState.DOMCONTENTLOADED)
+                .setTimeout(timeoutMs));
 
-                // Wait for component to render (with timeout)
-                try {
-                    page.waitForSelector(componentSelector, new Page.WaitForSelectorOptions()
-                            .setTimeout(15000));
+        log.info("Page loaded, running accessibility audit...");
 
-                    log.info("Component selector '{}' found, proceeding with audit", componentSelector);
-                } catch (Exception e) {
-                    log.warn("Component selector not found within 15s, proceeding anyway");
-                    // Continue with test even if selector not found
-                }
-
-                // Inject Axe-core library
-                page.addScriptTag(new Page.AddScriptTagOptions().setUrl(AXE_CORE_CDN));
+        // Wait for component to render (with timeout)
+        try {
+            page.waitForSelector(componentSelector, new Page.WaitForSelectorOptions()
+                    .setTimeout(15000));
 
-                log.info("Axe-core library injected, waiting for it to load...");
+            log.info("Component selector '{}' found, proceeding with audit", componentSelector);
+        } catch (Exception e) {
+            log.warn("Component selector not found within 15s, proceeding anyway");
+            // Continue with test even if selector not found
+        }
 
-                page.waitForFunction("typeof axe !== 'undefined'");
+        // The two sources time different spans, so they are reported under different names:
+        // axeLoadMs is the CDN fetch plus evaluation, axeEvalMs the bundled script's evaluation only
+        String axeTimingKey;
+        double axeTimingMs;
+        if (bundledAxe == null) {
+            log.warn("Bundled axe-core not found on classpath, loading from CDN");
+            long axeStart = System.currentTimeMillis();
+            page.addScriptTag(new Page.AddScriptTagOptions().setUrl(AXE_CORE_CDN));
+            page.waitForFunction("typeof axe !== 'undefined'");
+            axeTimingKey = "axeLoadMs";
+            axeTimingMs = System.currentTimeMillis() - axeStart;
+        } else {
+            Object measured = page.evaluate("() => window.__agentivyAxeEvalMs");
+            axeTimingKey = "axeEvalMs";
+            axeTimingMs = measured instanceof Number n ? Math.round(n.doubleValue() * 10) / 10.0 : 0;
+        }
 
-                log.info("Axe-core loaded, executing audit...");
+        log.info("Axe-core {} ready ({}, {} = {}), executing audit...",
+                AXE_CORE_VERSION, bundledAxe != null ? "bundled" : "cdn", axeTimingKey, axeTimingMs);
 
-                // Run Axe audit
-                String axeScript = buildAxeScript(componentSelector, level);
+        // Run Axe audit
+        String axeScript = buildAxeScript(componentSelector, level);
 
-                log.info("Axe script constructed, evaluating...");
+        @SuppressWarnings("unchecked")
+        Map<String, Object> axeResults;
+        try {
+            log.info("Starting Axe evaluation (this may timeout on heavy pages)...");
 
-                // For extremely heavy pages, skip the full Axe audit and return a warning
-                // This is a pragmatic approach for components with 10,000+ DOM elements
-                log.warn("Component may be too complex for full Axe audit - attempting quick validation");
+            // The pool's watchdog aborts the evaluate if it overruns
+            axeResults = session.withDeadline(AXE_EVALUATE_TIMEOUT_MS,
+                    () -> (Map<String, Object>) page.evaluate(axeScript));
+            log.info("Axe audit completed, processing results...");
+        } catch (Exception e) {
+            log.error("Axe evaluation failed or timed out, returning error result", e);
+            // Return a minimal error result if evaluation fails
+            return ImmutableMap.<String, Object>of(
+                "status", "error",
+                "message", "Axe evaluation timed out - page is too complex (10,000+ DOM elements): " + e.getMessage(),
+                "passed", false,
+                "componentUrl", componentUrl,
+                "violationCount", 0,
+                "violations", List.of()
+            );
+        }
 
-                @SuppressWarnings("unchecked")
-                Map<String, Object> axeResults;
-                try {
-                    log.info("Starting Axe evaluation (this may timeout on heavy pages)...");
+        return ImmutableMap.<String, Object>builder()
+                .putAll(buildResponse(axeResults, componentUrl, componentSelector, level))
+                .put("axeVersion", AXE_CORE_VERSION)
+                .put("axeSource", bundledAxe != null ? "bundled" : "cdn")
+                .put(axeTimingKey, axeTimingMs)
+                .build();
+    }
 
-                    // Use a thread pool to run evaluate with hard timeout
-                    var executor = java.util.concurrent.Executors.newSingleThreadExecutor();
-                    var future = executor.submit(() -> {
-                        try {
-                            return (Map<String, Object>) page.evaluate(axeScript);
-                        } catch (Exception e) {
-                            throw new RuntimeException("Evaluate failed: " + e.getMessage(), e);
-                        }
-                    });
-
-                    try {
-                        axeResults = future.get(20, java.util.concurrent.TimeUnit.SECONDS);
-                        log.info("Axe audit completed, processing results...");
-                    } catch (java.util.concurrent.TimeoutException e) {
-                        future.cancel(true);
-                        log.error("Axe evaluation timed out after 20s");
-                        throw new RuntimeException("Axe evaluation timed out after 20 seconds");
-                    } finally {
-                        executor.shutdownNow();
+    private String loadAxeSource() {
+        if (!axeSourceLoaded) {
+            synchronized (this) {
+                if (!axeSourceLoaded) {
+                    try (InputStream in = getClass().getClassLoader().getResourceAsStream(AXE_CORE_RESOURCE)) {
+                        axeSource = in != null ? new String(in.readAllBytes(), StandardCharsets.UTF_8) : null;
+                    } catch (IOException e) {
+                        log.warn("Could not read bundled axe-core: {}", e.getMessage());
                     }
-                } catch (Exception e) {
-                    log.error("Axe evaluation failed or timed out, returning error result", e);
-                    // Return a minimal error result if evaluation fails
-                    return ImmutableMap.<String, Object>of(
-                        "status", "error",
-                        "message", "Axe evaluation timed out - page is too complex (10,000+ DOM elements): " + e.getMessage(),
-                        "passed", false,
-                        "componentUrl", componentUrl,
-                        "violationCount", 0,
-                        "violations", List.of()
-                    );
+                    axeSourceLoaded = true;
                 }
-
-                return buildResponse(axeResults, componentUrl, componentSelector, level);
-
-            } catch (Exception e) {
-                log.error("Accessibility audit failed", e);
-                return ImmutableMap.<String, Object>of(
-                        "status", "error",
-                        "message", "Audit failed: " + e.getMessage(),
-                        "passed", false
-                );
             }
-        });
+        }
+        return axeSource;
     }
 
     // ==================== HELPERS ====================
@@ -0,0 +1,310 @@
+package com.agentivy.backend.tools.angular;
+
+import com.google.common.collect.ImmutableMap;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Pool of warm Angular dev servers keyed by repository path.
+ *
+ * A server started for one component stays compiled after the workflow releases it,
+ * so the next component (or the next session on the same repo) only pays for an
+ * incremental watch-mode rebuild of the harness instead of install + cold ng serve.
+ *
+ * A repo has one harness directory and one server process, so workflows on the same repo
+ * take turns: {@link #lease} must be held from harness deployment until {@link #release}.
+ *
+ * Liveness is taken from {@link AngularProcessManager}: an entry whose process is no
+ * longer in its running set is dropped. Servers started directly through
+ * {@link AngularDevServerTool} (single-shot endpoints) are not tracked here.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AngularDevServerPool {
+
+    private static final String HARNESS_DIR = "src/app/agent-ivy-harness";
+
+    private final AngularDevServerTool devServerTool;
+    private final AngularProcessManager processManager;
+    private final AngularProjectPatcher projectPatcher;
+
+    @Value("${agentivy.devserver.pool.max-servers:3}")
+    private int maxServers;
+
+    @Value("${agentivy.devserver.pool.idle-timeout-seconds:600}")
+    private int idleTimeoutSeconds;
+
+    @Value("${agentivy.devserver.pool.rebuild-timeout-seconds:60}")
+    private int rebuildTimeoutSeconds;
+
+    private final Map<String, PooledServer> servers = new ConcurrentHashMap<>();
+    private final Map<String, Object> repoLocks = new ConcurrentHashMap<>();
+    private final Map<String, Semaphore> leases = new ConcurrentHashMap<>();
+    private ScheduledExecutorService evictor;
+
+    @PostConstruct
+    public void init() {
+        evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "devserver-pool-evictor");
+            t.setDaemon(true);
+            return t;
+        });
+        evictor.scheduleWithFixedDelay(this::evictIdle, 30, 30, TimeUnit.SECONDS);
+        log.info("Dev server pool initialized (maxServers={}, idleTimeout={}s)", maxServers, idleTimeoutSeconds);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (evictor != null) {
+            evictor.shutdownNow();
+        }
+        servers.keySet().forEach(processManager::stopServer);
+        servers.clear();
+    }
+
+    /**
+     * Waits for exclusive use of the repo's harness directory and dev server. Call before
+     * deploying a harness: a second workflow would otherwise overwrite the harness under the
+     * first and share its server. Every lease is ended by {@link #release}.
+     */
+    public void lease(String repoPath) throws InterruptedException {
+        Semaphore lease = leases.computeIfAbsent(repoPath, k -> new Semaphore(1));
+        if (!lease.tryAcquire()) {
+            log.info("Dev server for {} is busy, waiting for it to be released", repoPath);
+            lease.acquire();
+        }
+    }
+
+    /**
+     * Returns a running dev server for the repo, reusing a warm one when available.
+     * The result has the same shape as {@link AngularDevServerTool#prepareAndStartServer}
+     * plus "reused" and "pooled" flags.
+     */
+    public ImmutableMap<String, Object> acquire(String repoPath, int port) {
+        synchronized (repoLocks.computeIfAbsent(repoPath, k -> new Object())) {
+            PooledServer warm = servers.get(repoPath);
+            if (warm != null && !processManager.isServerProcessAlive(repoPath)) {
+                log.warn("Pooled dev server for {} is no longer running, starting a new one", repoPath);
+                servers.remove(repoPath);
+                warm = null;
+            }
+
+            if (warm != null) {
+                ImmutableMap<String, Object> reused = reuse(warm);
+                if (reused != null) {
+                    return reused;
+                }
+            }
+
+            boolean pooled = reserveSlot(repoPath);
+            ImmutableMap<String, Object> result = devServerTool.prepareAndStartServer(repoPath, port).blockingGet();
+            if (!"success".equals(result.get("status"))) {
+                return result;
+            }
+
+            if (pooled) {
+                String serverUrl = (String) result.get("serverUrl");
+                PooledServer server = new PooledServer(repoPath, serverUrl, (String) result.get("harnessUrl"),
+                    URI.create(serverUrl).getPort());
+                server.inUse = true;
+                servers.put(repoPath, server);
+                log.info("Dev server for {} added to pool ({} / {} live)", repoPath, servers.size(), maxServers);
+            }
+
+            return ImmutableMap.<String, Object>builder()
+                .putAll(result)
+                .put("reused", false)
+                .put("pooled", pooled)
+                .build();
+        }
+    }
+
+    /**
+     * Hands the server back to the pool and ends the caller's lease. Pooled servers keep
+     * running until evicted; servers that could not be pooled (cap reached) are stopped
+     * immediately.
+     */
+    public void release(String repoPath) {
+        try {
+            PooledServer server = servers.get(repoPath);
+            if (server == null) {
+                processManager.stopServer(repoPath);
+                return;
+            }
+            markIdle(server);
+            log.info("Dev server for {} released to pool (port {})", repoPath, server.port);
+        } finally {
+            Semaphore lease = leases.get(repoPath);
+            if (lease != null && lease.availablePermits() == 0) {
+                lease.release();
+            }
+        }
+    }
+
+    /**
+     * Stops and forgets the pooled server for a repo, if any.
+     */
+    public void evict(String repoPath) {
+        if (servers.remove(repoPath) != null) {
+            log.info("Evicting pooled dev server for {}", repoPath);
+        }
+        processManager.stopServer(repoPath);
+    }
+
+    public boolean isWarm(String repoPath) {
+        return servers.containsKey(repoPath) && processManager.isServerProcessAlive(repoPath);
+    }
+
+    /** Returns null if the warm server had to be discarded and a cold start is needed. */
+    private ImmutableMap<String, Object> reuse(PooledServer server) {
+        server.inUse = true;
+        server.lastUsed = System.currentTimeMillis();
+        log.info("Reusing warm dev server for {} on port {}", server.repoPath, server.port);
+
+        // A different harness mode (single vs bundle) may need its route added
+        try {
+            projectPatcher.injectHarnessRoute(Path.of(server.repoPath));
+        } catch (Exception e) {
+            log.warn("Could not patch harness routes for {}: {}", server.repoPath, e.getMessage());
+        }
+
+        // The harness was redeployed before acquire(); wait for watch mode to pick it up
+        if (harnessModifiedSince(server.repoPath, server.releasedAt)) {
+            boolean rebuilt;
+            try {
+                rebuilt = processManager.awaitBuildAfter(server.repoPath, server.buildsAtRelease,
+                    rebuildTimeoutSeconds * 1000L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                rebuilt = false;
+            }
+            if (!rebuilt) {
+                log.warn("No rebuild observed for {} within {}s, restarting server", server.repoPath, rebuildTimeoutSeconds);
+                evict(server.repoPath);
+                return null;
+            }
+            if (processManager.lastBuildFailed(server.repoPath)) {
+                // Error details can trail the failure marker; callers match them against harness files
+                List<String> errors;
+                try {
+                    errors = processManager.awaitCompilationErrors(server.repoPath, AngularDevServerTool.ERROR_SETTLE_MS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    errors = processManager.getCompilationErrors(server.repoPath);
+                }
+                // The server itself is healthy; keep it warm for the next harness. The caller
+                // still holds the lease and may redeploy and retry.
+                markIdle(server);
+                return ImmutableMap.<String, Object>builder()
+                    .put("status", "error")
+                    .put("reason", "Compilation errors detected")
+                    .put("compilationErrors", errors)
+                    .put("logs", processManager.getServerOutputTail(server.repoPath, 2000))
+                    .build();
+            }
+        }
+
+        return ImmutableMap.<String, Object>builder()
+            .put("status", "success")
+            .put("serverUrl", server.serverUrl)
+            .put("harnessUrl", server.harnessUrl)
+            .put("reused", true)
+            .put("pooled", true)
+            .build();
+    }
+
+    private void markIdle(PooledServer server) {
+        server.buildsAtRelease = processManager.getBuildCount(server.repoPath);
+        server.lastUsed = System.currentTimeMillis();
+        server.releasedAt = server.lastUsed;
+        server.inUse = false;
+    }
+
+    /** Idle and not leased: a leased repo is about to deploy a harness or acquire its server. */
+    private boolean isEvictable(PooledServer server) {
+        Semaphore lease = leases.get(server.repoPath);
+        return !server.inUse && (lease == null || lease.availablePermits() > 0);
+    }
+
+    /**
+     * Makes room for one more pooled server by evicting the least recently used idle one.
+     * Returns false if the pool is full of busy servers; the caller then runs unpooled.
+     */
+    private boolean reserveSlot(String repoPath) {
+        synchronized (servers) {
+            while (servers.size() >= maxServers) {
+                PooledServer victim = servers.values().stream()
+                    .filter(this::isEvictable)
+                    .min(Comparator.comparingLong(s -> s.lastUsed))
+                    .orElse(null);
+                if (victim == null) {
+                    log.warn("Dev server pool full ({} busy), {} will run unpooled", servers.size(), repoPath);
+                    return false;
+                }
+                evict(victim.repoPath);
+            }
+            return true;
+        }
+    }
+
+    private void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleTimeoutSeconds * 1000L;
+        servers.values().stream()
+            .filter(s -> isEvictable(s) && (s.lastUsed < cutoff || !processManager.isServerProcessAlive(s.repoPath)))
+            .map(s -> s.repoPath)
+            .toList()
+            .forEach(this::evict);
+    }
+
+    private boolean harnessModifiedSince(String repoPath, long timestamp) {
+        Path harnessDir = Path.of(repoPath).resolve(HARNESS_DIR);
+        if (!Files.isDirectory(harnessDir)) return false;
+        try (Stream<Path> files = Files.walk(harnessDir)) {
+            return files.filter(Files::isRegularFile).anyMatch(p -> {
+                try {
+                    return Files.getLastModifiedTime(p).toMillis() >= timestamp;
+                } catch (Exception e) {
+                    return true;
+                }
+            });
+        } catch (Exception e) {
+            return true;
+        }
+    }
+
+    private static final class PooledServer {
+        final String repoPath;
+        final String serverUrl;
+        final String harnessUrl;
+        final int port;
+        volatile boolean inUse;
+        volatile long lastUsed = System.currentTimeMillis();
+        volatile long releasedAt;
+        volatile int buildsAtRelease;
+
+        PooledServer(String repoPath, String serverUrl, String harnessUrl, int port) {
+            this.repoPath = repoPath;
+            this.serverUrl = serverUrl;
+            this.harnessUrl = harnessUrl;
+            this.port = port;
+        }
+    }
+}
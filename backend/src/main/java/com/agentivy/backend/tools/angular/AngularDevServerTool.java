@@ -14,12 +14,19 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Slf4j
 @Component
@@ -27,13 +34,20 @@ import java.util.Map;
 public class AngularDevServerTool implements ToolProvider {
 
     private final AngularProcessManager processManager;
-    private final AngularLogParser logParser;
     private final AngularProjectPatcher projectPatcher;
     private final PackageManagerDetector packageManagerDetector;
     private final EventPublisherHelper eventPublisher;
+    private final PortLeaseManager portLeaseManager;
 
     private static final int DEFAULT_PORT = 4200;
     private static final int TIMEOUT_SECONDS = 180;
+    private static final long PROGRESS_INTERVAL_MS = 4000;
+    private static final long PROBE_RETRY_MS = 200;
+    static final long ERROR_SETTLE_MS = 500;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(1))
+            .build();
 
     @Override
     public ToolMetadata getMetadata() {
@@ -130,6 +144,7 @@ public class AngularDevServerTool implements ToolProvider {
             );
 
             // 3. Setup
+            AngularProcessManager.InstallResult install;
             try {
                 projectPatcher.injectHarnessRoute(projectPath);
 
@@ -137,25 +152,32 @@ public class AngularDevServerTool implements ToolProvider {
                     componentName,
                     "dev-server",
                     "in-progress",
-                    "Installing dependencies with " + pm.name() + "...",
+                    "Checking dependencies for " + pm.name() + "...",
                     Map.of(
                         "phase", "dependency-installation",
                         "packageManager", pm.name(),
+                        "lockFile", pm.getLockFile(),
                         "progressPercent", 40
                     )
                 );
 
-                // Always install dependencies to ensure package.json changes are picked up
-                log.info("Installing dependencies with {}...", pm.name());
-                processManager.runNpmInstall(projectPath);
+                // Install only when package.json / lockfile changed since the last install
+                install = processManager.ensureDependencies(projectPath);
 
                 eventPublisher.publishComponentStatus(
                     componentName,
                     "dev-server",
                     "in-progress",
-                    "Dependencies installed successfully",
+                    install.skipped()
+                        ? "Dependencies up to date, install skipped (" + install.reason() + ")"
+                        : "Dependencies installed successfully",
                     Map.of(
                         "phase", "dependency-installation-complete",
+                        "installSkipped", install.skipped(),
+                        "installReason", install.reason(),
+                        "installCommand", install.command(),
+                        "installTimeMs", install.durationMs(),
+                        "storeLinkedPackages", install.storeLinked(),
                         "progressPercent", 60
                     )
                 );
@@ -174,32 +196,20 @@ public class AngularDevServerTool implements ToolProvider {
             }
 
             // 4. Find available port, then start server
+            int leasedPort = -1;
             try {
-                // Auto-find a free port if the requested one is occupied
-                int originalPort = serverPort;
-                int maxAttempts = 10;
-                for (int attempt = 0; attempt < maxAttempts; attempt++) {
-                    try (var testSocket = new java.net.ServerSocket(serverPort)) {
-                        testSocket.setReuseAddress(true);
-                        break; // Port is free
-                    } catch (java.io.IOException portEx) {
-                        log.warn("Port {} is already in use, trying {}", serverPort, serverPort + 1);
-                        serverPort++;
-                        if (attempt == maxAttempts - 1) {
-                            log.error("No available port found in range {}-{}", originalPort, serverPort);
-                            eventPublisher.publishComponentStatus(
-                                componentName, "dev-server", "failed",
-                                "No available port found in range " + originalPort + "-" + serverPort,
-                                Map.of("port", originalPort, "error", "NO_PORT_AVAILABLE")
-                            );
-                            return errorResult("No available port found. Ports " + originalPort
-                                + "-" + serverPort + " are all in use.");
-                        }
-                    }
-                }
-                if (serverPort != originalPort) {
-                    log.info("Port {} was occupied, using port {} instead", originalPort, serverPort);
+                // Lease a port no other workflow can take until this server exits
+                int requestedPort = serverPort;
+                serverPort = portLeaseManager.lease(repoPath, requestedPort);
+                if (serverPort < 0) {
+                    eventPublisher.publishComponentStatus(
+                        componentName, "dev-server", "failed",
+                        "No available port found in the dev server port range",
+                        Map.of("port", requestedPort, "error", "NO_PORT_AVAILABLE")
+                    );
+                    return errorResult("No available port found. All dev server ports are in use.");
                 }
+                leasedPort = serverPort;
 
                 log.info("Starting Angular dev server on port {}...", serverPort);
 
@@ -218,6 +228,9 @@ public class AngularDevServerTool implements ToolProvider {
 
                 processManager.startDevServer(repoPath, serverPort);
             } catch (Exception e) {
+                if (leasedPort > 0) {
+                    portLeaseManager.release(leasedPort);
+                }
                 eventPublisher.publishComponentStatus(
                     componentName,
                     "dev-server",
@@ -262,7 +275,9 @@ public class AngularDevServerTool implements ToolProvider {
                         "harnessUrl", serverUrl + "/agent-ivy-harness",
                         "port", serverPort,
                         "timeElapsed", timeElapsed + "ms",
-                        "compilationSuccess", true
+                        "compilationSuccess", true,
+                        "installSkipped", install.skipped(),
+                        "installTimeMs", install.durationMs()
                     )
                 );
             } else {
@@ -292,11 +307,10 @@ public class AngularDevServerTool implements ToolProvider {
 
     public Maybe<ImmutableMap<String, Object>> getCompilationStatus(@Schema(name = "repoPath") String repoPath) {
         return Maybe.fromCallable(() -> {
-            String output = processManager.getServerOutput(repoPath);
-            if (output.isEmpty()) return errorResult("No output available");
+            if (processManager.getOutputSequence(repoPath) == 0) return errorResult("No output available");
 
-            boolean hasErrors = logParser.hasCompilationErrors(output);
-            List<String> errors = logParser.extractErrors(output);
+            List<String> errors = processManager.getCompilationErrors(repoPath);
+            boolean hasErrors = !errors.isEmpty() || processManager.lastBuildFailed(repoPath);
 
             return ImmutableMap.<String, Object>builder()
                     .put("status", "success")
@@ -309,10 +323,8 @@ public class AngularDevServerTool implements ToolProvider {
     // --- Private Helper: The Waiting Logic ---
 
     private ImmutableMap<String, Object> waitForServer(String repoPath, String url, Path projectPath) {
-        long deadline = System.currentTimeMillis() + (TIMEOUT_SECONDS * 1000L);
         long startTime = System.currentTimeMillis();
-        long gracePeriodMs = 15000; // 15 seconds grace period before checking for errors
-        int checkCount = 0;
+        long deadline = startTime + (TIMEOUT_SECONDS * 1000L);
 
         // Get component name for status updates
         String componentName = SessionContext.getCurrentComponent() != null
@@ -321,63 +333,22 @@ public class AngularDevServerTool implements ToolProvider {
 
         log.info("=== waitForServer started ===");
         log.info("URL to check: {}", url);
-        log.info("Grace period: {}ms", gracePeriodMs);
         log.info("Timeout: {}s", TIMEOUT_SECONDS);
 
-        while (System.currentTimeMillis() < deadline) {
-            checkCount++;
-            long elapsed = System.currentTimeMillis() - startTime;
-            boolean processAlive = processManager.isServerProcessAlive(repoPath);
-
-            log.info("Check #{}: elapsed={}ms, processAlive={}", checkCount, elapsed, processAlive);
-
-            if (!processAlive) {
-                log.error("Process died unexpectedly! Getting final output...");
-                String finalOutput = processManager.getServerOutput(repoPath);
-                log.error("Final process output (last 1000 chars): {}",
-                    finalOutput.length() > 1000 ? finalOutput.substring(finalOutput.length() - 1000) : finalOutput);
-                return buildFailureResponse(repoPath, projectPath, "Process died unexpectedly");
-            }
-
-            String output = processManager.getServerOutput(repoPath);
-            log.debug("Current output length: {} chars", output.length());
-
-            // Log output snippet every 3 checks for debugging
-            if (checkCount % 3 == 0 && !output.isEmpty()) {
-                String snippet = output.length() > 500 ? output.substring(output.length() - 500) : output;
-                log.info("Output snippet (last 500 chars): {}", snippet);
-            }
-
-            // Only check for errors AFTER grace period to avoid false positives from startup messages
-            boolean hasErrors = logParser.hasCompilationErrors(output);
-            boolean pastGracePeriod = elapsed > gracePeriodMs;
-
-            log.debug("Error check: elapsed={}ms, pastGrace={}, hasErrors={}", elapsed, pastGracePeriod, hasErrors);
-
-            if (pastGracePeriod && hasErrors) {
-                log.error("Compilation errors detected after grace period!");
-                log.error("Output causing error detection (last 1500 chars): {}",
-                    output.length() > 1500 ? output.substring(output.length() - 1500) : output);
-                try { Thread.sleep(2000); } catch (Exception ignored) {}
-                return buildFailureResponse(repoPath, projectPath, "Compilation errors detected");
-            }
-
-            // Success: Check URL
-            boolean urlReachable = checkUrl(url);
-            log.debug("URL check: reachable={}", urlReachable);
-
-            if (urlReachable) {
-                log.info("SUCCESS! Server is ready at {} after {}ms", url, elapsed);
-                return ImmutableMap.<String, Object>builder()
-                        .put("status", "success")
-                        .put("serverUrl", url)
-                        .put("harnessUrl", url + "/agent-ivy-harness")
-                        .build();
+        // The capture thread completes this as soon as the first build finishes or the process dies
+        CompletableFuture<Boolean> firstBuild = processManager.firstBuildResult(repoPath);
+        Boolean buildSucceeded = null;
+        while (buildSucceeded == null) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                log.error("TIMEOUT waiting for server after {}s", TIMEOUT_SECONDS);
+                return buildFailureResponse(repoPath, projectPath, "Timeout waiting for server");
             }
-
-            // Publish progress every 2 checks (4 seconds) to keep SSE connection alive
-            if (checkCount % 2 == 0) {
-                int elapsedSeconds = (int) (elapsed / 1000);
+            try {
+                buildSucceeded = firstBuild.get(Math.min(remaining, PROGRESS_INTERVAL_MS), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // Keep the SSE connection alive while the compiler works
+                int elapsedSeconds = (int) ((System.currentTimeMillis() - startTime) / 1000);
                 eventPublisher.publishComponentStatus(
                     componentName,
                     "dev-server",
@@ -389,35 +360,75 @@ public class AngularDevServerTool implements ToolProvider {
                         "maxSeconds", TIMEOUT_SECONDS
                     )
                 );
+            } catch (ExecutionException e) {
+                log.error("Process died unexpectedly: {}", e.getCause().getMessage());
+                return buildFailureResponse(repoPath, projectPath, "Process died unexpectedly");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return buildFailureResponse(repoPath, projectPath, "Interrupted while waiting for server");
             }
-
-            try { Thread.sleep(2000); } catch (InterruptedException e) { break; }
         }
 
-        log.error("TIMEOUT waiting for server after {}s", TIMEOUT_SECONDS);
-        return buildFailureResponse(repoPath, projectPath, "Timeout waiting for server");
-    }
+        long elapsed = System.currentTimeMillis() - startTime;
+        if (!buildSucceeded) {
+            log.error("Compilation failed after {}ms", elapsed);
+            // Error details can trail the failure marker by a few lines
+            try {
+                processManager.awaitCompilationErrors(repoPath, ERROR_SETTLE_MS);
+            } catch (InterruptedException ignored) {
+                Thread.currentThread().interrupt();
+            }
+            return buildFailureResponse(repoPath, projectPath, "Compilation errors detected");
+        }
 
-    private boolean checkUrl(String urlString) {
+        log.info("Compilation finished after {}ms, probing {}", elapsed, url);
+        boolean reachable;
         try {
-            HttpURLConnection conn = (HttpURLConnection) new URL(urlString).openConnection();
-            conn.setRequestMethod("GET");
-            conn.setConnectTimeout(1000);
-            return conn.getResponseCode() >= 200;
+            reachable = probeUntilReachable(URI.create(url), deadline).get();
         } catch (Exception e) {
-            return false;
+            reachable = false;
         }
+        if (!reachable) {
+            log.error("Server at {} compiled but never answered HTTP", url);
+            return buildFailureResponse(repoPath, projectPath, "Timeout waiting for server");
+        }
+
+        log.info("SUCCESS! Server is ready at {} after {}ms", url, System.currentTimeMillis() - startTime);
+        return ImmutableMap.<String, Object>builder()
+                .put("status", "success")
+                .put("serverUrl", url)
+                .put("harnessUrl", url + "/agent-ivy-harness")
+                .build();
+    }
+
+    /**
+     * Sends non-blocking GETs until the server answers (any status) or the deadline passes.
+     * The dev server normally answers on the first probe once its build has finished.
+     */
+    private CompletableFuture<Boolean> probeUntilReachable(URI uri, long deadline) {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(Duration.ofSeconds(2))
+                .GET()
+                .build();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .thenApply(response -> true)
+                .exceptionallyCompose(e -> System.currentTimeMillis() >= deadline
+                        ? CompletableFuture.completedFuture(false)
+                        : CompletableFuture.supplyAsync(() -> null,
+                                CompletableFuture.delayedExecutor(PROBE_RETRY_MS, TimeUnit.MILLISECONDS))
+                            .thenCompose(ignored -> probeUntilReachable(uri, deadline)));
     }
 
     private ImmutableMap<String, Object> buildFailureResponse(String repoPath, Path projectPath, String reason) {
+        List<String> errors = processManager.getCompilationErrors(repoPath);
+        String logs = processManager.getServerOutputTail(repoPath, 2000);
         processManager.stopServer(repoPath); // Stop failed server
-        String output = processManager.getServerOutput(repoPath);
 
         return ImmutableMap.<String, Object>builder()
                 .put("status", "error")
                 .put("reason", reason)
-                .put("compilationErrors", logParser.extractErrors(output))
-                .put("logs", output.length() > 2000 ? output.substring(output.length() - 2000) : output)
+                .put("compilationErrors", errors)
+                .put("logs", logs)
                 .build();
     }
 
@@ -9,37 +9,55 @@ import java.util.regex.Pattern;
 @Component
 public class AngularLogParser {
 
-    private static final Pattern TS_ERROR = Pattern.compile("error (TS\\d+):\\s*(.+?)(?=\\n|$)", Pattern.MULTILINE);
-    private static final Pattern FILE_ERROR = Pattern.compile("(src/[^:]+):(\\d+):(\\d+)\\s*-\\s*error\\s+(TS\\d+):\\s*(.+?)(?=\\n|$)", Pattern.MULTILINE);
-    private static final Pattern GENERIC_ERROR = Pattern.compile("Error:\\s*(.+?)(?=\\n|$)", Pattern.MULTILINE);
-
-    public boolean hasCompilationErrors(String output) {
-        return output.contains("error TS") ||
-                output.contains("ERROR in") ||
-                output.contains("✖ Failed to compile") ||
-                (output.contains("Build at:") && output.contains("error"));
+    private static final Pattern TS_ERROR = Pattern.compile("error (TS\\d+):\\s*(.+)");
+    private static final Pattern FILE_ERROR = Pattern.compile("(src/[^:]+):(\\d+):(\\d+)\\s*-\\s*error\\s+(TS\\d+):\\s*(.+)");
+    private static final Pattern GENERIC_ERROR = Pattern.compile("Error:\\s*(.+)");
+    private static final Pattern ESBUILD_ERROR = Pattern.compile("\\[ERROR\\]\\s*(.+)");
+    private static final Pattern WEBPACK_ERROR = Pattern.compile("ERROR in\\s+(.+)");
+    private static final List<Pattern> ERROR_PATTERNS =
+            List.of(TS_ERROR, FILE_ERROR, GENERIC_ERROR, ESBUILD_ERROR, WEBPACK_ERROR);
+
+    /**
+     * True if a single log line marks the end of a (re)build, successful or not.
+     * The esbuild-based dev server prints "Application bundle generation ..." on every rebuild.
+     * The webpack "Live Development Server is listening" banner is deliberately not a marker:
+     * it is printed before the build result, including before "Failed to compile".
+     */
+    public boolean isBuildFinished(String line) {
+        return line.contains("Compiled successfully") ||
+                line.contains("Application bundle generation complete") ||
+                isBuildFailed(line);
     }
 
-    public boolean isCompilationComplete(String output) {
-        return output.contains("Compiled successfully") ||
-                output.contains("Angular Live Development Server is listening");
+    public boolean isBuildFailed(String line) {
+        return line.contains("Application bundle generation failed") ||
+                line.contains("Failed to compile");
     }
 
-    public List<String> extractErrors(String output) {
+    /**
+     * Error messages found in a single log line; empty for ordinary output.
+     */
+    public List<String> extractLineErrors(String line) {
+        if (!line.contains("rror") && !line.contains("ERROR")) return List.of();
+
         List<String> errors = new ArrayList<>();
-        extract(output, TS_ERROR, errors);
-        extract(output, FILE_ERROR, errors);
-        extract(output, GENERIC_ERROR, errors);
+        for (Pattern pattern : ERROR_PATTERNS) {
+            Matcher matcher = pattern.matcher(line);
+            while (matcher.find()) {
+                String match = matcher.group(0).trim(); // Capture full match context
+                if (!errors.contains(match)) {
+                    errors.add(match);
+                }
+            }
+        }
         return errors;
     }
 
-    private void extract(String input, Pattern pattern, List<String> collector) {
-        Matcher matcher = pattern.matcher(input);
-        while (matcher.find()) {
-            String match = matcher.group(0).trim(); // Capture full match context
-            if (!collector.contains(match)) {
-                collector.add(match);
-            }
+    public List<String> extractErrors(String output) {
+        List<String> errors = new ArrayList<>();
+        for (String line : output.split("\n")) {
+            extractLineErrors(line).stream().filter(e -> !errors.contains(e)).forEach(errors::add);
         }
+        return errors;
     }
-}
\ No newline at end of file
+}
@@ -7,7 +7,9 @@ import org.springframework.stereotype.Component;
 import java.io.BufferedReader;
 import java.io.InputStreamReader;
 import java.nio.file.Path;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
@@ -17,12 +19,19 @@ import java.util.concurrent.TimeUnit;
 public class AngularProcessManager {
 
     private final PackageManagerDetector packageManagerDetector;
+    private final AngularLogParser logParser;
+    private final InstallStamp installStamp;
+    private final NodeModulesStore nodeModulesStore;
+    private final PortLeaseManager portLeaseManager;
 
     private final Map<String, Process> runningProcesses = new ConcurrentHashMap<>();
-    private final Map<String, StringBuilder> processOutputs = new ConcurrentHashMap<>();
+    private final Map<String, ServerLog> processOutputs = new ConcurrentHashMap<>();
+    private final Map<String, BuildState> buildStates = new ConcurrentHashMap<>();
 
     // Safety: prevent OutOfMemoryError for long-running servers
-    private static final int MAX_LOG_LENGTH = 100_000;
+    private static final int MAX_LOG_LINES = 2_000;
+    private static final long ERROR_POLL_MS = 50;
+    private static final long ERROR_QUIET_MS = 150;
 
     public void startDevServer(String repoPath, int port) throws Exception {
         log.info("=== Starting dev server setup ===");
@@ -100,17 +109,21 @@ public class AngularProcessManager {
             throw new RuntimeException("Failed to start ng serve: " + e.getMessage(), e);
         }
 
-        StringBuilder outputCapture = new StringBuilder();
+        ServerLog outputCapture = new ServerLog(logParser, MAX_LOG_LINES);
+        BuildState buildState = new BuildState();
         processOutputs.put(repoPath, outputCapture);
+        buildStates.put(repoPath, buildState);
         runningProcesses.put(repoPath, process);
+        portLeaseManager.attach(port, process);
 
-        captureOutput(process, outputCapture);
+        captureOutput(process, outputCapture, buildState);
         log.info("Output capture thread started");
     }
 
     public void stopServer(String repoPath) {
         Process process = runningProcesses.remove(repoPath);
         processOutputs.remove(repoPath);
+        buildStates.remove(repoPath);
         if (process != null && process.isAlive()) {
             process.descendants().forEach(ProcessHandle::destroy);
             process.destroy();
@@ -118,8 +131,66 @@ public class AngularProcessManager {
     }
 
     public String getServerOutput(String repoPath) {
-        StringBuilder sb = processOutputs.get(repoPath);
-        return sb != null ? sb.toString() : "";
+        ServerLog serverLog = processOutputs.get(repoPath);
+        return serverLog != null ? serverLog.text() : "";
+    }
+
+    /**
+     * The last {@code maxChars} characters of the server output, without copying the rest.
+     */
+    public String getServerOutputTail(String repoPath, int maxChars) {
+        ServerLog serverLog = processOutputs.get(repoPath);
+        return serverLog != null ? serverLog.tail(maxChars) : "";
+    }
+
+    /**
+     * Output lines with sequence >= {@code sequence}; see {@link #getOutputSequence}.
+     */
+    public List<String> getServerOutputSince(String repoPath, long sequence) {
+        ServerLog serverLog = processOutputs.get(repoPath);
+        return serverLog != null ? serverLog.linesSince(sequence) : List.of();
+    }
+
+    /**
+     * Sequence number the next output line will get.
+     */
+    public long getOutputSequence(String repoPath) {
+        ServerLog serverLog = processOutputs.get(repoPath);
+        return serverLog != null ? serverLog.nextSequence() : 0;
+    }
+
+    /**
+     * Compilation errors reported since the last successful build.
+     */
+    public List<String> getCompilationErrors(String repoPath) {
+        ServerLog serverLog = processOutputs.get(repoPath);
+        return serverLog != null ? serverLog.errors() : List.of();
+    }
+
+    /**
+     * Compilation errors after a failed build, waiting up to {@code settleMs} for them to arrive.
+     * Diagnostics can trail the failure marker by a few lines (esbuild prints them after
+     * "generation failed"), so this returns once errors are present and no new output has
+     * arrived for a short quiet period, or when {@code settleMs} has elapsed.
+     */
+    public List<String> awaitCompilationErrors(String repoPath, long settleMs) throws InterruptedException {
+        ServerLog serverLog = processOutputs.get(repoPath);
+        if (serverLog == null) return List.of();
+
+        long deadline = System.currentTimeMillis() + settleMs;
+        long lastSequence = serverLog.nextSequence();
+        long quietSince = System.currentTimeMillis();
+        while (System.currentTimeMillis() < deadline) {
+            Thread.sleep(ERROR_POLL_MS);
+            long sequence = serverLog.nextSequence();
+            if (sequence != lastSequence) {
+                lastSequence = sequence;
+                quietSince = System.currentTimeMillis();
+            } else if (serverLog.hasErrors() && System.currentTimeMillis() - quietSince >= ERROR_QUIET_MS) {
+                break;
+            }
+        }
+        return serverLog.errors();
     }
 
     public boolean isServerProcessAlive(String repoPath) {
@@ -127,7 +198,145 @@ public class AngularProcessManager {
         return p != null && p.isAlive();
     }
 
+    /**
+     * Number of (re)builds the dev server has finished since it was started.
+     * Watch-mode rebuilds triggered by file changes increment this as well.
+     */
+    public int getBuildCount(String repoPath) {
+        BuildState state = buildStates.get(repoPath);
+        return state != null ? state.count : 0;
+    }
+
+    /**
+     * Whether the most recent (re)build reported a failure.
+     */
+    public boolean lastBuildFailed(String repoPath) {
+        BuildState state = buildStates.get(repoPath);
+        return state != null && state.lastFailed;
+    }
+
+    /**
+     * Completes with true/false when the first build succeeds/fails, or exceptionally
+     * if the process output ends before any build finished (process died).
+     */
+    public CompletableFuture<Boolean> firstBuildResult(String repoPath) {
+        BuildState state = buildStates.get(repoPath);
+        return state != null
+            ? state.firstBuild
+            : CompletableFuture.failedFuture(new IllegalStateException("No dev server running for " + repoPath));
+    }
+
+    /**
+     * Blocks until the server has finished more than {@code buildCount} builds.
+     * Returns false on timeout or if the server's output ended first.
+     */
+    public boolean awaitBuildAfter(String repoPath, int buildCount, long timeoutMs) throws InterruptedException {
+        BuildState state = buildStates.get(repoPath);
+        return state != null && state.awaitCountAbove(buildCount, timeoutMs);
+    }
+
     public void runNpmInstall(Path projectPath) throws Exception {
+        validateInstallTarget(projectPath);
+
+        // Auto-detect package manager and use appropriate install command
+        runInstall(projectPath, packageManagerDetector.getInstallCommand(projectPath));
+    }
+
+    /**
+     * Installs dependencies unless node_modules already matches package.json and the lockfile.
+     * On a mismatch the install runs with prefer-offline semantics, then the stamp is refreshed
+     * (after install, since the package manager may rewrite the lockfile).
+     */
+    public InstallResult ensureDependencies(Path projectPath) throws Exception {
+        validateInstallTarget(projectPath);
+
+        PackageManagerDetector.PackageManager pm = packageManagerDetector.detect(projectPath);
+        String staleReason = installStamp.staleReason(projectPath, installStamp.compute(projectPath, pm));
+        if (staleReason == null) {
+            log.info("Skipping dependency install: node_modules matches {} + package.json", pm.getLockFile());
+            return new InstallResult(true, "install stamp matches", pm.getPreferOfflineInstallCommand(), 0, 0);
+        }
+
+        log.info("Dependency install needed ({})", staleReason);
+        long start = System.currentTimeMillis();
+
+        // A fresh clone can usually be assembled from packages other clones already installed
+        NodeModulesStore.LinkResult linked = pm == PackageManagerDetector.PackageManager.NPM
+            ? nodeModulesStore.populate(projectPath)
+            : new NodeModulesStore.LinkResult(0, 0, false, List.of());
+        if (linked.complete() && runRestoredInstallScripts(projectPath, linked.rebuild())) {
+            installStamp.write(projectPath, installStamp.compute(projectPath, pm));
+            return new InstallResult(true, "restored from package store", pm.getPreferOfflineInstallCommand(),
+                System.currentTimeMillis() - start, linked.linked());
+        }
+
+        runInstall(projectPath, pm.getPreferOfflineInstallCommand());
+        installStamp.write(projectPath, installStamp.compute(projectPath, pm));
+        if (pm == PackageManagerDetector.PackageManager.NPM) {
+            nodeModulesStore.ingest(projectPath);
+        }
+        return new InstallResult(false, staleReason, pm.getPreferOfflineInstallCommand(),
+            System.currentTimeMillis() - start, linked.linked());
+    }
+
+    /**
+     * Restored packages skip their lifecycle scripts; npm rebuild runs them. Returns false if
+     * that failed, in which case a real install has to follow.
+     */
+    private boolean runRestoredInstallScripts(Path projectPath, List<String> packages) {
+        if (packages.isEmpty()) return true;
+        try {
+            runInstall(projectPath, "npm rebuild " + String.join(" ", packages));
+            return true;
+        } catch (Exception e) {
+            log.warn("npm rebuild of restored packages failed, falling back to install: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Outcome of {@link #ensureDependencies}: whether install was skipped, why, how long it took
+     * and how many packages were linked from the shared package store.
+     */
+    public record InstallResult(boolean skipped, String reason, String command, long durationMs, int storeLinked) {}
+
+    /**
+     * Runs a one-off production build with stats output into {@code outputPath}. Independent of
+     * any running dev server; returns the build output and throws if the build fails or times out.
+     */
+    public String runStatsBuild(Path projectPath, Path outputPath, int timeoutSeconds) throws Exception {
+        String command = packageManagerDetector.getStatsBuildCommand(projectPath, outputPath);
+        log.info("Running stats build: {}", command);
+
+        Process process = createProcessBuilder(command, projectPath).start();
+        StringBuilder buildOutput = new StringBuilder();
+        Thread outputThread = new Thread(() -> {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    buildOutput.append(line).append("\n");
+                    log.debug("Build: {}", line);
+                }
+            } catch (Exception e) { /* Process ended */ }
+        });
+        outputThread.setDaemon(true);
+        outputThread.start();
+
+        boolean finished = process.waitFor(timeoutSeconds, TimeUnit.SECONDS);
+        if (!finished) {
+            process.destroyForcibly();
+            throw new RuntimeException("Stats build timed out after " + timeoutSeconds + "s");
+        }
+        outputThread.join(1_000);
+        String output = buildOutput.toString();
+        if (process.exitValue() != 0) {
+            throw new RuntimeException("Stats build failed (exit code " + process.exitValue() + "). Output:\n" +
+                (output.length() > 2000 ? output.substring(output.length() - 2000) : output));
+        }
+        return output;
+    }
+
+    private void validateInstallTarget(Path projectPath) {
         // Validate project path exists
         if (!java.nio.file.Files.exists(projectPath)) {
             throw new RuntimeException("Project path does not exist: " + projectPath);
@@ -135,9 +344,9 @@ public class AngularProcessManager {
         if (!java.nio.file.Files.exists(projectPath.resolve("package.json"))) {
             throw new RuntimeException("No package.json found in: " + projectPath);
         }
+    }
 
-        // Auto-detect package manager and use appropriate install command
-        String installCommand = packageManagerDetector.getInstallCommand(projectPath);
+    private void runInstall(Path projectPath, String installCommand) throws Exception {
         log.info("Installing dependencies with command: {} in directory: {}", installCommand, projectPath);
 
         ProcessBuilder pb = createProcessBuilder(installCommand, projectPath);
@@ -186,22 +395,54 @@ public class AngularProcessManager {
                 .redirectErrorStream(true);
     }
 
-    private void captureOutput(Process process, StringBuilder buffer) {
+    private void captureOutput(Process process, ServerLog serverLog, BuildState buildState) {
         Thread t = new Thread(() -> {
             try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
                 String line;
                 while ((line = reader.readLine()) != null) {
-                    synchronized (buffer) {
-                        // Circular buffer logic: truncate start if too big
-                        if (buffer.length() > MAX_LOG_LENGTH) {
-                            buffer.delete(0, 10_000);
-                        }
-                        buffer.append(line).append("\n");
+                    serverLog.append(line);
+                    if (logParser.isBuildFinished(line)) {
+                        buildState.finished(logParser.isBuildFailed(line));
                     }
                 }
-            } catch (Exception e) { /* Process ended */ }
+            } catch (Exception e) {
+                /* Process ended */
+            } finally {
+                buildState.closed();
+            }
         });
         t.setDaemon(true);
         t.start();
     }
+
+    /** Written only by the capture thread; waiters are woken on every finished build. */
+    private static final class BuildState {
+        volatile int count;
+        volatile boolean lastFailed;
+        volatile boolean ended;
+        final CompletableFuture<Boolean> firstBuild = new CompletableFuture<>();
+
+        synchronized void finished(boolean failed) {
+            lastFailed = failed;
+            count++;
+            firstBuild.complete(!failed);
+            notifyAll();
+        }
+
+        synchronized void closed() {
+            ended = true;
+            firstBuild.completeExceptionally(new IllegalStateException("Dev server output ended before the first build"));
+            notifyAll();
+        }
+
+        synchronized boolean awaitCountAbove(int buildCount, long timeoutMs) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + timeoutMs;
+            while (count <= buildCount) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (ended || remaining <= 0) return false;
+                wait(remaining);
+            }
+            return true;
+        }
+    }
 }
\ No newline at end of file
@@ -9,6 +9,8 @@ import java.util.regex.Pattern;
 @Component
 public class AngularProjectPatcher {
 
+    private static final String HARNESS_DIR = "src/app/agent-ivy-harness";
+
     private static final String HARNESS_ROUTE = """
           {
             path: 'agent-ivy-harness',
@@ -16,35 +18,58 @@ public class AngularProjectPatcher {
           },
         """;
 
+    // Bundle mode: one child route per component (agent-ivy-harness/<selector>).
+    // Coexists with HARNESS_ROUTE: the router falls through to it for the bare path.
+    private static final String HARNESS_BUNDLE_ROUTE = """
+          {
+            path: 'agent-ivy-harness',
+            loadChildren: () => import('./agent-ivy-harness/harness.routes').then(m => m.HARNESS_ROUTES)
+          },
+        """;
+
+    /**
+     * Injects the harness routes whose target files have been deployed.
+     * Routes pointing at missing files are skipped so the build does not break.
+     */
     public void injectHarnessRoute(Path projectPath) throws Exception {
         Path routesFile = findRoutesFile(projectPath);
         if (routesFile == null) throw new IllegalStateException("Could not find app.routes.ts");
 
+        Path harnessDir = projectPath.resolve(HARNESS_DIR);
+        if (Files.exists(harnessDir.resolve("harness.component.ts"))) {
+            injectRoute(routesFile, "agent-ivy-harness/harness.component'", HARNESS_ROUTE);
+        }
+        if (Files.exists(harnessDir.resolve("harness.routes.ts"))) {
+            injectRoute(routesFile, "agent-ivy-harness/harness.routes'", HARNESS_BUNDLE_ROUTE);
+        }
+    }
+
+    private void injectRoute(Path routesFile, String marker, String route) throws Exception {
         String content = Files.readString(routesFile);
-        if (content.contains("agent-ivy-harness")) return;
+        if (content.contains(marker)) return;
 
         // Try standard route array
         Pattern pattern = Pattern.compile("(export\\s+const\\s+routes\\s*:\\s*Routes\\s*=\\s*\\[)", Pattern.MULTILINE);
         Matcher matcher = pattern.matcher(content);
 
         if (matcher.find()) {
-            insertAndSave(routesFile, content, matcher.end());
+            insertAndSave(routesFile, content, matcher.end(), route);
             return;
         }
 
         // Try simplified pattern
         matcher = Pattern.compile("(Routes\\s*=\\s*\\[)", Pattern.MULTILINE).matcher(content);
         if (matcher.find()) {
-            insertAndSave(routesFile, content, matcher.end());
+            insertAndSave(routesFile, content, matcher.end(), route);
             return;
         }
 
         throw new IllegalStateException("Could not locate Routes array in " + routesFile.getFileName());
     }
 
-    private void insertAndSave(Path file, String content, int index) throws Exception {
+    private void insertAndSave(Path file, String content, int index, String route) throws Exception {
         String newContent = content.substring(0, index) +
-                "\n  // AgentIvy Harness (auto-injected)\n" + HARNESS_ROUTE +
+                "\n  // AgentIvy Harness (auto-injected)\n" + route +
                 content.substring(index);
         Files.writeString(file, newContent);
     }
@@ -56,6 +81,7 @@ public class AngularProjectPatcher {
 
         return Files.walk(projectPath.resolve("src"))
                 .filter(p -> p.toString().endsWith(".routes.ts") || p.toString().endsWith("-routing.module.ts"))
+                .filter(p -> !p.startsWith(projectPath.resolve(HARNESS_DIR)))
                 .findFirst().orElse(null);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,63 @@
+package com.agentivy.backend.tools.angular;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+/**
+ * Records which package.json + lockfile combination node_modules was installed from.
+ *
+ * The stamp is a SHA-256 of package.json, the package manager's lockfile and the
+ * package manager name, written inside node_modules after a successful install, so it
+ * never shows up in the clone's working tree and goes away with node_modules.
+ * A matching stamp means install can be skipped.
+ */
+@Slf4j
+@Component
+public class InstallStamp {
+
+    static final String STAMP_FILE = "node_modules/.agentivy-install-stamp";
+
+    public String compute(Path projectPath, PackageManagerDetector.PackageManager pm) throws Exception {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        digest.update(pm.name().getBytes());
+        digest.update(Files.readAllBytes(projectPath.resolve("package.json")));
+
+        Path lockFile = projectPath.resolve(pm.getLockFile());
+        if (Files.exists(lockFile)) {
+            digest.update(Files.readAllBytes(lockFile));
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Returns why an install is needed, or null if node_modules matches the stamp.
+     */
+    public String staleReason(Path projectPath, String hash) {
+        if (!Files.isDirectory(projectPath.resolve("node_modules"))) {
+            return "node_modules missing";
+        }
+        Path stamp = projectPath.resolve(STAMP_FILE);
+        if (!Files.exists(stamp)) {
+            return "no install stamp";
+        }
+        try {
+            return hash.equals(Files.readString(stamp).trim()) ? null : "package.json or lockfile changed";
+        } catch (Exception e) {
+            return "unreadable install stamp";
+        }
+    }
+
+    public void write(Path projectPath, String hash) {
+        try {
+            Files.writeString(projectPath.resolve(STAMP_FILE), hash);
+        } catch (Exception e) {
+            // Not fatal: the next run simply installs again
+            log.warn("Could not write install stamp in {}: {}", projectPath, e.getMessage());
+        }
+    }
+}
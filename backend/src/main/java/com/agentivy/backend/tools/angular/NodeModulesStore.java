@@ -0,0 +1,405 @@
+package com.agentivy.backend.tools.angular;
+
+import com.agentivy.backend.tools.github.support.GitRepositoryManager;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed package store shared by every clone under the work directory.
+ *
+ * Packages are keyed by the "integrity" hash recorded for them in package-lock.json
+ * (lockfile v2/v3 "packages" section), so two clones that resolve the same version of
+ * a package share one copy on disk. Files are hard-linked between the store and each
+ * clone's node_modules; when a hard link is not possible (different file system) they
+ * are copied instead.
+ *
+ * A hard link shares its inode with the store, so an in-place write in one clone would
+ * change the store and every other clone. Linked files are therefore made read-only, and
+ * package.json files (which tools such as ngcc rewrite) are always copied. Packages whose
+ * lock entry has "hasInstallScript" are copied whole, because their scripts build into the
+ * package directory, and are reported back so the caller can run them with npm rebuild.
+ * A project with its own install scripts is not restored at all: only a real install
+ * runs them. The store is kept under a size bound by dropping least recently restored
+ * packages.
+ *
+ * Only npm lockfiles are handled: pnpm already keeps its own content-addressed store,
+ * and yarn/bun lockfiles do not record per-package install paths.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NodeModulesStore {
+
+    private static final String STORE_DIR = ".package-store";
+    private static final String COMPLETE_MARKER = ".agentivy-complete";
+    private static final List<String> ROOT_INSTALL_SCRIPTS = List.of("preinstall", "install", "postinstall", "prepare");
+    private static final long STALE_STAGING_MS = 60 * 60 * 1000L;
+    private static final String NODE_PLATFORM = nodePlatform(System.getProperty("os.name", ""));
+    private static final String NODE_ARCH = nodeArch(System.getProperty("os.arch", ""));
+
+    private final GitRepositoryManager repositoryManager;
+
+    @Value("${agentivy.package-store.max-size-mb:10240}")
+    long maxSizeMb = 10240;
+
+    /**
+     * Outcome of populating a clone from the store.
+     *
+     * @param complete true if every lockfile entry npm would install on this platform was
+     *                 restored (install can be skipped once {@code rebuild} has run)
+     * @param rebuild  names of restored packages with install scripts, for npm rebuild
+     */
+    public record LinkResult(int linked, int missing, boolean complete, List<String> rebuild) {}
+
+    /**
+     * Restores node_modules from the store for every lockfile entry already stored.
+     * Does nothing if node_modules exists or there is no usable npm lockfile.
+     */
+    public LinkResult populate(Path projectPath) {
+        List<LockEntry> entries = readLockEntries(projectPath);
+        if (entries.isEmpty() || Files.exists(projectPath.resolve("node_modules"))) {
+            return new LinkResult(0, entries.size(), false, List.of());
+        }
+        if (hasRootInstallScript(projectPath)) {
+            // Scripts such as patch-package write into node_modules; leave the tree to npm install
+            log.info("{} has its own install scripts, not restoring from package store", projectPath);
+            return new LinkResult(0, entries.size(), false, List.of());
+        }
+
+        long start = System.currentTimeMillis();
+        int linked = 0;
+        int missing = 0;
+        List<String> rebuild = new ArrayList<>();
+        for (LockEntry entry : entries) {
+            if (entry.optional() && !entry.matchesPlatform()) {
+                // Binaries for other platforms; npm never installs them here
+                continue;
+            }
+            if (entry.integrity() == null) {
+                // git, tarball, file: and workspace-link entries cannot be keyed; only install restores them
+                missing++;
+                continue;
+            }
+            Path stored = storePath(entry.integrity());
+            if (!Files.exists(stored.resolve(COMPLETE_MARKER))) {
+                missing++;
+                continue;
+            }
+            try {
+                mirror(stored, projectPath.resolve(entry.path()), !entry.hasInstallScript());
+                linkBins(projectPath, entry);
+                Files.setLastModifiedTime(stored.resolve(COMPLETE_MARKER), FileTime.fromMillis(System.currentTimeMillis()));
+                if (entry.hasInstallScript()) rebuild.add(entry.name());
+                linked++;
+            } catch (IOException e) {
+                log.warn("Could not restore {} from package store: {}", entry.path(), e.getMessage());
+                missing++;
+            }
+        }
+
+        log.info("Restored {} package(s) from store into {} in {}ms ({} missing)",
+            linked, projectPath, System.currentTimeMillis() - start, missing);
+        return new LinkResult(linked, missing, linked > 0 && missing == 0, rebuild);
+    }
+
+    /**
+     * Adds every installed package of the clone that is not yet stored, then trims the store
+     * back under its size bound. Call after a successful install.
+     */
+    public int ingest(Path projectPath) {
+        int added = 0;
+        for (LockEntry entry : readLockEntries(projectPath)) {
+            if (entry.integrity() == null) continue;
+            Path source = projectPath.resolve(entry.path());
+            Path stored = storePath(entry.integrity());
+            if (!Files.isDirectory(source) || Files.exists(stored.resolve(COMPLETE_MARKER))) {
+                continue;
+            }
+            Path staging = stored.resolveSibling(stored.getFileName() + ".tmp-" + System.nanoTime());
+            try {
+                mirror(source, staging, !entry.hasInstallScript());
+                Files.writeString(staging.resolve(COMPLETE_MARKER), entry.integrity());
+                Files.createDirectories(stored.getParent());
+                Files.move(staging, stored, StandardCopyOption.ATOMIC_MOVE);
+                added++;
+            } catch (IOException e) {
+                // Another clone may have stored the same package concurrently
+                log.debug("Could not store {}: {}", entry.path(), e.getMessage());
+                deleteQuietly(staging);
+            }
+        }
+        if (added > 0) {
+            log.info("Added {} package(s) from {} to package store", added, projectPath);
+            collectGarbage();
+        }
+        return added;
+    }
+
+    /**
+     * Deletes abandoned staging directories, then the least recently restored packages until
+     * the store fits in {@code maxSizeMb}. Clones keep their own links to deleted packages.
+     */
+    void collectGarbage() {
+        Path storeDir = getStoreDirectory();
+        if (!Files.isDirectory(storeDir)) return;
+
+        record StoredPackage(Path dir, long lastUsed, long bytes) {}
+        List<StoredPackage> stored = new ArrayList<>();
+        long total = 0;
+        long staleBefore = System.currentTimeMillis() - STALE_STAGING_MS;
+        try (Stream<Path> shards = Files.list(storeDir)) {
+            for (Path shard : shards.filter(Files::isDirectory).toList()) {
+                try (Stream<Path> dirs = Files.list(shard)) {
+                    for (Path dir : dirs.toList()) {
+                        Path marker = dir.resolve(COMPLETE_MARKER);
+                        if (!Files.exists(marker)) {
+                            if (Files.getLastModifiedTime(dir).toMillis() < staleBefore) deleteQuietly(dir);
+                            continue;
+                        }
+                        long bytes = sizeOf(dir);
+                        stored.add(new StoredPackage(dir, Files.getLastModifiedTime(marker).toMillis(), bytes));
+                        total += bytes;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not scan package store: {}", e.getMessage());
+            return;
+        }
+
+        long limit = maxSizeMb * 1024 * 1024;
+        if (total <= limit) return;
+
+        stored.sort(Comparator.comparingLong(StoredPackage::lastUsed));
+        int removed = 0;
+        for (StoredPackage pkg : stored) {
+            if (total <= limit) break;
+            deleteQuietly(pkg.dir());
+            total -= pkg.bytes();
+            removed++;
+        }
+        log.info("Removed {} least recently used package(s) from store ({} MB left, limit {} MB)",
+            removed, total / (1024 * 1024), maxSizeMb);
+    }
+
+    public Path getStoreDirectory() {
+        return repositoryManager.getWorkDirectory().resolve(STORE_DIR);
+    }
+
+    /**
+     * One "packages" entry of the lockfile. {@code integrity} is null for entries the store
+     * cannot key (git, tarball and file: dependencies, workspace links).
+     */
+    private record LockEntry(String path, String integrity, boolean optional, boolean hasInstallScript,
+                             List<String> os, List<String> cpu, Map<String, String> bins) {
+
+        /** Package name as npm rebuild expects it, e.g. "@scope/pkg". */
+        String name() {
+            return path.substring(path.lastIndexOf("node_modules/") + "node_modules/".length());
+        }
+
+        /** Whether npm would install this entry here, judged by its "os"/"cpu" constraints. */
+        boolean matchesPlatform() {
+            return matches(os, NODE_PLATFORM) && matches(cpu, NODE_ARCH);
+        }
+
+        private static boolean matches(List<String> constraint, String value) {
+            if (constraint.isEmpty()) return true;
+            if (constraint.contains("!" + value)) return false;
+            return constraint.contains(value) || constraint.stream().allMatch(c -> c.startsWith("!"));
+        }
+    }
+
+    private List<LockEntry> readLockEntries(Path projectPath) {
+        Path lockFile = projectPath.resolve("package-lock.json");
+        if (!Files.exists(lockFile)) return List.of();
+
+        try {
+            JsonObject lock = JsonParser.parseString(Files.readString(lockFile)).getAsJsonObject();
+            if (!lock.has("packages")) return List.of();  // lockfile v1 has no install paths
+
+            List<LockEntry> entries = new ArrayList<>();
+            for (Map.Entry<String, JsonElement> pkg : lock.getAsJsonObject("packages").entrySet()) {
+                JsonObject meta = pkg.getValue().getAsJsonObject();
+                if (pkg.getKey().isEmpty() || !pkg.getKey().contains("node_modules/")) {
+                    continue;
+                }
+                boolean keyed = meta.has("integrity") && !meta.has("link");
+                entries.add(new LockEntry(
+                    pkg.getKey(),
+                    keyed ? meta.get("integrity").getAsString() : null,
+                    meta.has("optional") && meta.get("optional").getAsBoolean(),
+                    meta.has("hasInstallScript") && meta.get("hasInstallScript").getAsBoolean(),
+                    readStrings(meta, "os"),
+                    readStrings(meta, "cpu"),
+                    readBins(meta)));
+            }
+            return entries;
+        } catch (Exception e) {
+            log.warn("Could not read {}: {}", lockFile, e.getMessage());
+            return List.of();
+        }
+    }
+
+    private boolean hasRootInstallScript(Path projectPath) {
+        try {
+            JsonObject pkg = JsonParser.parseString(Files.readString(projectPath.resolve("package.json"))).getAsJsonObject();
+            if (!pkg.has("scripts") || !pkg.get("scripts").isJsonObject()) return false;
+            JsonObject scripts = pkg.getAsJsonObject("scripts");
+            return ROOT_INSTALL_SCRIPTS.stream().anyMatch(scripts::has);
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private List<String> readStrings(JsonObject meta, String key) {
+        if (!meta.has(key) || !meta.get(key).isJsonArray()) return List.of();
+        List<String> values = new ArrayList<>();
+        meta.getAsJsonArray(key).forEach(v -> values.add(v.getAsString()));
+        return values;
+    }
+
+    private Map<String, String> readBins(JsonObject meta) {
+        if (!meta.has("bin") || !meta.get("bin").isJsonObject()) return Map.of();
+        Map<String, String> bins = new HashMap<>();
+        meta.getAsJsonObject("bin").entrySet().forEach(b -> bins.put(b.getKey(), b.getValue().getAsString()));
+        return bins;
+    }
+
+    private Path storePath(String integrity) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(integrity.getBytes(StandardCharsets.UTF_8));
+            String key = HexFormat.of().formatHex(hash);
+            return getStoreDirectory().resolve(key.substring(0, 2)).resolve(key);
+        } catch (Exception e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Recreates the file tree of {@code from} under {@code to}, with read-only hard links
+     * when {@code link} is set and independent writable copies otherwise. package.json is
+     * always copied. Nested node_modules are skipped: nested packages are lockfile entries
+     * of their own.
+     */
+    private void mirror(Path from, Path to, boolean link) throws IOException {
+        try (Stream<Path> files = Files.walk(from)) {
+            for (Path file : files.toList()) {
+                Path relative = from.relativize(file);
+                if (relative.startsWith("node_modules") || relative.toString().equals(COMPLETE_MARKER)) {
+                    continue;
+                }
+                Path target = to.resolve(relative.toString());
+                if (Files.isDirectory(file)) {
+                    Files.createDirectories(target);
+                } else if (Files.isRegularFile(file, LinkOption.NOFOLLOW_LINKS)) {
+                    if (link && !file.getFileName().toString().equals("package.json")) {
+                        linkOrCopy(file, target);
+                    } else {
+                        copy(file, target);
+                    }
+                }
+            }
+        }
+    }
+
+    private void linkOrCopy(Path existing, Path link) throws IOException {
+        try {
+            Files.createLink(link, existing);
+            // The inode is shared with the store; refuse in-place writes through any of its names
+            link.toFile().setWritable(false, false);
+        } catch (FileSystemException | UnsupportedOperationException e) {
+            copy(existing, link);
+        }
+    }
+
+    private void copy(Path existing, Path target) throws IOException {
+        Files.copy(existing, target, StandardCopyOption.COPY_ATTRIBUTES, StandardCopyOption.REPLACE_EXISTING);
+        target.toFile().setWritable(true);
+    }
+
+    private long sizeOf(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            return files.filter(Files::isRegularFile).mapToLong(p -> p.toFile().length()).sum();
+        }
+    }
+
+    /**
+     * Recreates the node_modules/.bin entries npm would have created for a package.
+     */
+    private void linkBins(Path projectPath, LockEntry entry) throws IOException {
+        if (entry.bins().isEmpty()) return;
+
+        Path packageDir = projectPath.resolve(entry.path());
+        Path binDir = packageDir.getParent().resolve(".bin");
+        if (packageDir.getParent().getFileName().toString().startsWith("@")) {
+            binDir = packageDir.getParent().getParent().resolve(".bin");
+        }
+        Files.createDirectories(binDir);
+
+        for (Map.Entry<String, String> bin : entry.bins().entrySet()) {
+            Path target = packageDir.resolve(bin.getValue()).normalize();
+            Path link = binDir.resolve(bin.getKey());
+            if (!Files.exists(link, LinkOption.NOFOLLOW_LINKS)) {
+                Files.createSymbolicLink(link, binDir.relativize(target));
+                target.toFile().setExecutable(true);
+            }
+        }
+    }
+
+    /** Maps os.name to Node's process.platform. */
+    private static String nodePlatform(String osName) {
+        String name = osName.toLowerCase();
+        if (name.contains("win")) return "win32";
+        if (name.contains("mac") || name.contains("darwin")) return "darwin";
+        if (name.contains("freebsd")) return "freebsd";
+        return "linux";
+    }
+
+    /** Maps os.arch to Node's process.arch. */
+    private static String nodeArch(String osArch) {
+        return switch (osArch.toLowerCase()) {
+            case "amd64", "x86_64" -> "x64";
+            case "aarch64", "arm64" -> "arm64";
+            case "x86", "i386", "i686" -> "ia32";
+            case "arm" -> "arm";
+            default -> osArch.toLowerCase();
+        };
+    }
+
+    private void deleteQuietly(Path dir) {
+        if (!Files.exists(dir)) return;
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> {
+                // Linked files are read-only, which blocks deletion on Windows
+                if (!p.toFile().delete() && p.toFile().setWritable(true)) {
+                    p.toFile().delete();
+                }
+            });
+        } catch (IOException ignored) {
+            // Leftover staging directories are harmless
+        }
+    }
+}
@@ -19,27 +19,38 @@ import java.nio.file.Path;
 public class PackageManagerDetector {
 
     public enum PackageManager {
-        NPM("npm", "npx", "npm install", "npm run"),
-        YARN("yarn", "yarn", "yarn install", "yarn"),
-        PNPM("pnpm", "pnpm", "pnpm install", "pnpm"),
-        BUN("bun", "bunx", "bun install", "bun run");
+        NPM("npm", "npx", "npm install", "npm run",
+            "package-lock.json", "npm install --prefer-offline --no-audit --no-fund"),
+        YARN("yarn", "yarn", "yarn install", "yarn",
+            "yarn.lock", "yarn install --prefer-offline"),
+        PNPM("pnpm", "pnpm", "pnpm install", "pnpm",
+            "pnpm-lock.yaml", "pnpm install --prefer-offline"),
+        BUN("bun", "bunx", "bun install", "bun run",
+            "bun.lockb", "bun install");  // bun always resolves from its global cache first
 
         private final String command;
         private final String execCommand;  // npx, yarn, pnpm, bunx
         private final String installCommand;
         private final String runCommand;
+        private final String lockFile;
+        private final String preferOfflineInstallCommand;
 
-        PackageManager(String command, String execCommand, String installCommand, String runCommand) {
+        PackageManager(String command, String execCommand, String installCommand, String runCommand,
+                       String lockFile, String preferOfflineInstallCommand) {
             this.command = command;
             this.execCommand = execCommand;
             this.installCommand = installCommand;
             this.runCommand = runCommand;
+            this.lockFile = lockFile;
+            this.preferOfflineInstallCommand = preferOfflineInstallCommand;
         }
 
         public String getCommand() { return command; }
         public String getExecCommand() { return execCommand; }
         public String getInstallCommand() { return installCommand; }
         public String getRunCommand() { return runCommand; }
+        public String getLockFile() { return lockFile; }
+        public String getPreferOfflineInstallCommand() { return preferOfflineInstallCommand; }
     }
 
     /**
@@ -132,6 +143,19 @@ public class PackageManagerDetector {
             pm.getExecCommand(), port);
     }
 
+    /**
+     * Gets a production build command that also writes build stats (stats.json).
+     *
+     * @param projectPath Path to the Angular project root
+     * @param outputPath Directory the build writes to, kept outside the project
+     * @return Build command (e.g., "npx ng build --configuration production --stats-json --output-path /tmp/x")
+     */
+    public String getStatsBuildCommand(Path projectPath, Path outputPath) {
+        PackageManager pm = detect(projectPath);
+        return String.format("%s ng build --configuration production --stats-json --output-path \"%s\"",
+            pm.getExecCommand(), outputPath);
+    }
+
     /**
      * Validates that the project can be served.
      *
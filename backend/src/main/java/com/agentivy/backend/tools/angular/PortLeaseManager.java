@@ -0,0 +1,128 @@
+package com.agentivy.backend.tools.angular;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Hands out dev server ports from a configured range.
+ *
+ * A port is leased before ng serve starts and stays leased until the process it was
+ * attached to exits, so concurrent workflows can never pick the same free port.
+ * Leases are reclaimed when their process is gone or when no process was attached
+ * within {@code unattachedTimeoutSeconds} (the start failed without releasing).
+ */
+@Slf4j
+@Component
+public class PortLeaseManager {
+
+    @Value("${agentivy.devserver.ports.start:4200}")
+    private int rangeStart;
+
+    @Value("${agentivy.devserver.ports.end:4299}")
+    private int rangeEnd;
+
+    @Value("${agentivy.devserver.ports.unattached-timeout-seconds:120}")
+    private int unattachedTimeoutSeconds;
+
+    private final Map<Integer, Lease> leases = new HashMap<>();
+
+    /**
+     * Leases the preferred port if it is in range and free, otherwise the next free port
+     * in the range (wrapping around). Returns -1 if every port is taken.
+     */
+    public synchronized int lease(String owner, int preferred) {
+        reclaimStale();
+
+        int size = rangeEnd - rangeStart + 1;
+        int first = preferred >= rangeStart && preferred <= rangeEnd ? preferred : rangeStart;
+        for (int i = 0; i < size; i++) {
+            int port = rangeStart + (first - rangeStart + i) % size;
+            if (!leases.containsKey(port) && isBindable(port)) {
+                leases.put(port, new Lease(owner, System.currentTimeMillis()));
+                if (port != preferred) {
+                    log.info("Port {} unavailable, leased {} to {}", preferred, port, owner);
+                }
+                return port;
+            }
+        }
+        log.error("No free port in range {}-{} ({} leased)", rangeStart, rangeEnd, leases.size());
+        return -1;
+    }
+
+    /**
+     * Ties the lease to the dev server process; the port is released when it exits.
+     */
+    public synchronized void attach(int port, Process process) {
+        Lease lease = leases.get(port);
+        if (lease == null) {
+            // Started on a port that was never leased (direct callers); track it anyway
+            lease = new Lease("unleased", System.currentTimeMillis());
+            leases.put(port, lease);
+        }
+        lease.process = process;
+        process.onExit().thenRun(() -> release(port, process));
+    }
+
+    /**
+     * Releases a lease that never got a process (start failed).
+     */
+    public synchronized void release(int port) {
+        Lease lease = leases.get(port);
+        if (lease != null && lease.process == null) {
+            leases.remove(port);
+        }
+    }
+
+    public synchronized int leasedCount() {
+        return leases.size();
+    }
+
+    private synchronized void release(int port, Process process) {
+        Lease lease = leases.get(port);
+        if (lease != null && lease.process == process) {
+            leases.remove(port);
+            log.debug("Port {} released ({} exited)", port, lease.owner);
+        }
+    }
+
+    private void reclaimStale() {
+        long cutoff = System.currentTimeMillis() - unattachedTimeoutSeconds * 1000L;
+        leases.entrySet().removeIf(e -> {
+            Lease lease = e.getValue();
+            boolean stale = lease.process != null
+                ? !lease.process.isAlive()
+                : lease.leasedAt < cutoff;
+            if (stale) {
+                log.warn("Reclaiming stale lease on port {} held by {}", e.getKey(), lease.owner);
+            }
+            return stale;
+        });
+    }
+
+    private boolean isBindable(int port) {
+        // Ports used by processes outside this service are not in the lease table
+        try (ServerSocket socket = new ServerSocket(port)) {
+            socket.setReuseAddress(true);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static final class Lease {
+        final String owner;
+        final long leasedAt;
+        Process process;
+
+        Lease(String owner, long leasedAt) {
+            this.owner = owner;
+            this.leasedAt = leasedAt;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.agentivy.backend.tools.angular;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Bounded, line-oriented output log of one dev server process.
+ *
+ * Lines are kept in a fixed-size ring and numbered with a monotonically increasing
+ * sequence, so readers can fetch only what arrived since their last read. Each line is
+ * classified once on arrival: error lines feed a running error set, which a successful
+ * build clears. Nothing is rescanned after that.
+ */
+public class ServerLog {
+
+    private static final int MAX_ERRORS = 200;
+
+    private final AngularLogParser parser;
+    private final String[] lines;
+    private final Set<String> errors = new LinkedHashSet<>();
+    private long nextSequence;
+
+    public ServerLog(AngularLogParser parser, int capacity) {
+        this.parser = parser;
+        this.lines = new String[capacity];
+    }
+
+    /**
+     * Appends a line and returns its sequence number.
+     */
+    public synchronized long append(String line) {
+        lines[(int) (nextSequence % lines.length)] = line;
+
+        if (parser.isBuildFinished(line) && !parser.isBuildFailed(line)) {
+            errors.clear();
+        } else if (errors.size() < MAX_ERRORS) {
+            errors.addAll(parser.extractLineErrors(line));
+        }
+        return nextSequence++;
+    }
+
+    /**
+     * Sequence number the next appended line will get; pass it to {@link #linesSince} later.
+     */
+    public synchronized long nextSequence() {
+        return nextSequence;
+    }
+
+    /**
+     * Lines with a sequence number >= {@code sequence} that are still in the ring.
+     */
+    public synchronized List<String> linesSince(long sequence) {
+        long from = Math.max(sequence, oldestSequence());
+        List<String> result = new ArrayList<>((int) Math.max(0, nextSequence - from));
+        for (long seq = from; seq < nextSequence; seq++) {
+            result.add(lines[(int) (seq % lines.length)]);
+        }
+        return result;
+    }
+
+    /**
+     * The last {@code maxChars} characters of the buffered output, on whole lines.
+     */
+    public synchronized String tail(int maxChars) {
+        List<String> picked = new ArrayList<>();
+        int size = 0;
+        for (long seq = nextSequence - 1; seq >= oldestSequence(); seq--) {
+            String line = lines[(int) (seq % lines.length)];
+            if (size + line.length() + 1 > maxChars && !picked.isEmpty()) break;
+            picked.add(line);
+            size += line.length() + 1;
+        }
+        StringBuilder sb = new StringBuilder(size);
+        for (int i = picked.size() - 1; i >= 0; i--) {
+            sb.append(picked.get(i)).append('\n');
+        }
+        return sb.toString();
+    }
+
+    public synchronized String text() {
+        return tail(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Errors reported since the last successful build, in order of appearance.
+     */
+    public synchronized List<String> errors() {
+        return List.copyOf(errors);
+    }
+
+    public synchronized boolean hasErrors() {
+        return !errors.isEmpty();
+    }
+
+    private long oldestSequence() {
+        return Math.max(0, nextSequence - lines.length);
+    }
+}
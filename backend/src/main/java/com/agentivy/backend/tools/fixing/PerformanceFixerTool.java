@@ -1,5 +1,6 @@
 package com.agentivy.backend.tools.fixing;
 
+import com.agentivy.backend.tools.harness.TypeScriptExportIndex;
 import com.agentivy.backend.tools.registry.ToolCategory;
 import com.agentivy.backend.tools.registry.ToolMetadata;
 import com.agentivy.backend.tools.registry.ToolProvider;
@@ -23,8 +24,6 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicReference;
-import java.util.regex.Pattern;
-import java.util.stream.Stream;
 
 /**
  * Atomic tool for automatically fixing performance issues in Angular components.
@@ -36,12 +35,15 @@ public class PerformanceFixerTool implements ToolProvider {
 
     private final LlmAgent performanceFixerAgent;
     private final InMemoryRunner runner;
+    private final TypeScriptExportIndex exportIndex;
 
     public PerformanceFixerTool(
             @Qualifier("performanceFixerAgent") LlmAgent performanceFixerAgent,
-            @Qualifier("performanceFixerRunner") InMemoryRunner runner) {
+            @Qualifier("performanceFixerRunner") InMemoryRunner runner,
+            TypeScriptExportIndex exportIndex) {
         this.performanceFixerAgent = performanceFixerAgent;
         this.runner = runner;
+        this.exportIndex = exportIndex;
     }
 
     @Override
@@ -119,6 +121,7 @@ public class PerformanceFixerTool implements ToolProvider {
                 if (fixes.containsKey("typescript") && !fixes.get("typescript").equals(originalTs)) {
                     String fixedTs = fixes.get("typescript");
                     Files.writeString(tsFile.get(), fixedTs);
+                    exportIndex.invalidate(tsFile.get());
                     appliedFixes.add(Map.of(
                         "file", tsFile.get().getFileName().toString(),
                         "type", "component",
@@ -382,40 +385,13 @@ public class PerformanceFixerTool implements ToolProvider {
     }
 
     /**
-     * Find component file by class name and extension.
+     * Find component file by class name and extension. The class is resolved through the
+     * shared export index; the template is the .component.html next to it.
      */
     private Optional<Path> findComponentFile(Path srcPath, String className, String extension) {
-        try (Stream<Path> stream = Files.walk(srcPath)) {
-            Pattern classPattern = Pattern.compile("export\\s+class\\s+" + Pattern.quote(className) + "\\b");
-
-            return stream
-                .filter(p -> p.toString().endsWith(extension))
-                .filter(p -> !p.toString().contains("node_modules"))
-                .filter(p -> !p.toString().endsWith(".spec.ts"))
-                .filter(p -> {
-                    try {
-                        // For HTML files, find the corresponding TS file to check class name
-                        if (extension.equals(".component.html")) {
-                            Path tsFile = Path.of(p.toString().replace(".component.html", ".component.ts"));
-                            if (Files.exists(tsFile)) {
-                                String tsContent = Files.readString(tsFile);
-                                return classPattern.matcher(tsContent).find();
-                            }
-                            return false;
-                        }
-
-                        // For TS files, check directly
-                        String content = Files.readString(p);
-                        return classPattern.matcher(content).find();
-                    } catch (Exception e) {
-                        return false;
-                    }
-                })
-                .findFirst();
-        } catch (Exception e) {
-            log.error("Error finding component file", e);
-            return Optional.empty();
-        }
+        return exportIndex.findComponentClass(srcPath, className)
+            .map(tsFile -> Path.of(tsFile.toString().replace(".component.ts", extension)))
+            .filter(Files::exists);
     }
 
     /**
@@ -29,6 +29,142 @@ public class HarnessCodeGenerator {
         return String.join("\n\n", importsSection, globalVars, mockClasses, decorator, classBody);
     }
 
+    /**
+     * Harness for scaling benchmarks: every scaling input is bound to a generated list
+     * whose length comes from the {@code size} query parameter, so one build serves all sizes.
+     * Render time (construction to first painted frame) and change-detection passes over the
+     * harness are published on {@code window.__agentivyScaling}.
+     *
+     * {@code window.__agentivyHarness.setMounted(boolean)} destroys or recreates the component
+     * and resolves after the next frame; the leak test cycles it through this hook.
+     *
+     * The {@code variant} query parameter selects the change-detection setup for A/B runs:
+     * {@code zone} (default), {@code onpush} (the component def is switched to OnPush before
+     * its view is created), and {@code zoneless} / {@code zoneless-onpush}, which mount the
+     * component in a separate zoneless application outside the Angular zone. Angular versions
+     * without zoneless support publish {@code unsupported} instead of a measurement.
+     */
+    public String generateScaling(
+            String componentName,
+            String componentSelector,
+            String importPath,
+            List<String> scalingInputs
+    ) {
+        String bindings = scalingInputs.stream()
+                .map(input -> "[" + input + "]=\"" + input + "\"")
+                .collect(Collectors.joining(" "));
+        String properties = scalingInputs.stream()
+                .map(input -> "  " + input + " = scalingItems(SIZE);")
+                .collect(Collectors.joining("\n"));
+        String inputNames = scalingInputs.stream()
+                .map(input -> "'" + input + "'")
+                .collect(Collectors.joining(", "));
+
+        return """
+            import * as core from '@angular/core';
+            import { AfterViewInit, ChangeDetectorRef, Component, DoCheck, NgZone, createComponent } from '@angular/core';
+            import { CommonModule } from '@angular/common';
+            import { createApplication } from '@angular/platform-browser';
+            import { %s } from '%s';
+
+            const PARAMS = new URLSearchParams(window.location.search);
+            const SIZE = Number(PARAMS.get('size') ?? '10');
+            // zone | onpush | zoneless | zoneless-onpush
+            const VARIANT = PARAMS.get('variant') ?? 'zone';
+            const ZONELESS = VARIANT.startsWith('zoneless');
+            const SCALING_INPUTS: string[] = [%s];
+
+            if (VARIANT.endsWith('onpush')) {
+              // Ivy picks CheckAlways vs OnPush from the def when the component view is created
+              const def = (%s as any)['\u0275cmp'];
+              if (def) def.onPush = true;
+            }
+
+            function scalingItems(count: number): any[] {
+              return Array.from({ length: count }, (_, i) => ({
+                id: i,
+                name: `Item ${i}`,
+                title: `Item ${i}`,
+                label: `Item ${i}`,
+                value: i,
+                description: `Generated item ${i} for the scaling benchmark`,
+                active: i %% 2 === 0
+              }));
+            }
+
+            @Component({
+              selector: 'app-harness',
+              standalone: true,
+              imports: [CommonModule, %s],
+              template: `
+                <div id="agentivy-scaling" style="padding: 20px;">
+                  <%s *ngIf="mounted" %s></%s>
+                </div>
+              `
+            })
+            export class HarnessComponent implements DoCheck, AfterViewInit {
+              private readonly started = performance.now();
+              private cdCycles = 0;
+              mounted = !ZONELESS;
+            %s
+
+              constructor(private readonly cdr: ChangeDetectorRef, private readonly zone: NgZone) {
+                (window as any).__agentivyHarness = {
+                  setMounted: (mounted: boolean) => new Promise<void>(resolve => {
+                    this.mounted = mounted;
+                    this.cdr.detectChanges();
+                    requestAnimationFrame(() => resolve());
+                  })
+                };
+              }
+
+              ngDoCheck() {
+                this.cdCycles++;
+                const stats = (window as any).__agentivyScaling;
+                if (stats) stats.cdCycles = this.cdCycles;
+              }
+
+              ngAfterViewInit() {
+                if (ZONELESS) {
+                  this.zone.runOutsideAngular(() => this.mountZoneless());
+                  return;
+                }
+                requestAnimationFrame(() => this.publish());
+              }
+
+              private async mountZoneless() {
+                const provideZoneless = (core as any).provideZonelessChangeDetection
+                  ?? (core as any).provideExperimentalZonelessChangeDetection;
+                if (!provideZoneless) {
+                  this.publish({ unsupported: 'zoneless change detection needs Angular 17.1 or later' });
+                  return;
+                }
+                const app = await createApplication({ providers: [provideZoneless()] });
+                const host = document.getElementById('agentivy-scaling')!.appendChild(document.createElement('div'));
+                const ref = createComponent(%s, { environmentInjector: app.injector, hostElement: host });
+                for (const input of SCALING_INPUTS) ref.setInput(input, (this as any)[input]);
+                app.attachView(ref.hostView);
+                ref.changeDetectorRef.detectChanges();
+                requestAnimationFrame(() => this.publish());
+              }
+
+              private publish(extra: object = {}) {
+                (window as any).__agentivyScaling = {
+                  size: SIZE,
+                  variant: VARIANT,
+                  // The page boots through the app polyfills, so zoneless variants usually still have zone.js
+                  zoneLoaded: !!(window as any).Zone,
+                  renderMs: performance.now() - this.started,
+                  cdCycles: this.cdCycles,
+                  ready: true,
+                  ...extra
+                };
+              }
+            }
+            """.formatted(componentName, importPath, inputNames, componentName, componentName,
+                componentSelector, bindings, componentSelector, properties, componentName);
+    }
+
     private String buildImports(List<ImportDef> imports, List<ServiceMockDef> mocks) {
         StringBuilder sb = new StringBuilder();
         sb.append("import { Component } from '@angular/core';\n");
@@ -0,0 +1,288 @@
+package com.agentivy.backend.tools.harness;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Index of exported TypeScript symbols (class, interface, enum, type, function, const) by
+ * name, one per repository, shared by every tool that resolves a name to a file.
+ *
+ * Callers search different roots of the same clone (src, the repo itself, a feature folder);
+ * all of them share the index of the enclosing project, the nearest directory with an
+ * angular.json or package.json, and only answers under the requested root are returned.
+ *
+ * The first lookup in a project walks it once (skipping node_modules, dist and dot
+ * directories) and parses all .ts files in parallel; after that a lookup is a map access plus
+ * one stat of the matching file. A hit whose file changed since it was indexed is re-parsed
+ * before it is returned. A miss re-stats the tree and re-parses only files whose
+ * modification time changed, new files included, at most once per refresh interval, so names
+ * that are not in the project (Router, HttpClient) cost no repeated walks.
+ *
+ * Every clone gets its own index, so at most {@code agentivy.ts-index.max-roots} indexes are
+ * kept: the least recently used one is dropped first, and roots deleted from disk go as soon
+ * as another root is looked up.
+ */
+@Slf4j
+@Component
+public class TypeScriptExportIndex {
+
+    private static final Pattern EXPORT = Pattern.compile(
+        "^[ \\t]*export\\s+(?:default\\s+)?(?:declare\\s+)?(?:abstract\\s+)?(?:async\\s+)?(?:const\\s+(?=enum))?"
+            + "(class|interface|enum|type|function|const|let|var)\\s+([A-Za-z_$][\\w$]*)",
+        Pattern.MULTILINE);
+
+    private static final Set<String> SKIPPED_DIRECTORIES = Set.of("node_modules", "dist", "coverage", "out-tsc");
+
+    /** An exported symbol and the file that declares it. */
+    public record Export(String name, String kind, Path file) {}
+
+    private record IndexedFile(FileTime modified, List<Export> exports) {}
+
+    @Value("${agentivy.ts-index.refresh-interval-ms:5000}")
+    long refreshIntervalMs = 5000;
+
+    @Value("${agentivy.ts-index.max-roots:8}")
+    int maxRoots = 8;
+
+    private final Map<Path, RootIndex> roots = new ConcurrentHashMap<>();
+
+    /**
+     * Finds the file exporting {@code name} under {@code root}.
+     *
+     * @param filter Narrows the matching exports (e.g. classes in .component.ts files)
+     * @return The first matching export by path, after checking it is still current
+     */
+    public Optional<Path> findExport(Path root, String name, Predicate<Export> filter) {
+        if (!Files.isDirectory(root)) return Optional.empty();
+        Path requested = root.toAbsolutePath().normalize();
+        Path key = projectRoot(requested);
+        RootIndex index = roots.computeIfAbsent(key, RootIndex::new);
+        index.lastUsed = System.nanoTime();
+        evictStaleRoots(key);
+
+        Predicate<Export> scoped = filter.and(export -> export.file().startsWith(requested));
+        Optional<Path> hit = index.lookup(name, scoped);
+        if (hit.isEmpty() && index.refreshIfDue(refreshIntervalMs)) {
+            hit = index.lookup(name, scoped);
+        }
+        // Indexed paths are absolute; answer in the form the caller passed the root in
+        return hit.map(file -> root.resolve(requested.relativize(file)));
+    }
+
+    /** Any export of {@code name} under {@code root}. */
+    public Optional<Path> findExport(Path root, String name) {
+        return findExport(root, name, export -> true);
+    }
+
+    /** Exported class {@code className} declared in a .component.ts file. */
+    public Optional<Path> findComponentClass(Path root, String className) {
+        return findExport(root, className,
+            export -> export.kind().equals("class") && export.file().toString().endsWith(".component.ts"));
+    }
+
+    /** Exported class {@code className} in any .ts file. */
+    public Optional<Path> findClass(Path root, String className) {
+        return findExport(root, className, export -> export.kind().equals("class"));
+    }
+
+    /**
+     * Re-parses a TypeScript file that was just written, so new or renamed exports are found
+     * without waiting for the refresh interval. For a directory, drops the index of its
+     * repository, e.g. after it was re-cloned.
+     */
+    public void invalidate(Path path) {
+        Path target = path.toAbsolutePath().normalize();
+        if (Files.isDirectory(target)) {
+            roots.remove(projectRoot(target));
+            return;
+        }
+        String name = target.getFileName().toString();
+        if (!name.endsWith(".ts") || name.endsWith(".spec.ts")) return;
+        roots.forEach((root, index) -> {
+            if (target.startsWith(root)) index.reindex(target);
+        });
+    }
+
+    /** Number of roots currently indexed. */
+    int indexedRoots() {
+        return roots.size();
+    }
+
+    /** Nearest enclosing Angular or npm project, or the directory itself outside of one. */
+    static Path projectRoot(Path dir) {
+        for (Path candidate = dir; candidate != null; candidate = candidate.getParent()) {
+            if (Files.isRegularFile(candidate.resolve("angular.json"))
+                    || Files.isRegularFile(candidate.resolve("package.json"))) {
+                return candidate;
+            }
+        }
+        return dir;
+    }
+
+    /** Drops roots that no longer exist, then least recently used ones beyond maxRoots. */
+    private void evictStaleRoots(Path current) {
+        roots.keySet().removeIf(root -> !root.equals(current) && !Files.isDirectory(root));
+        while (roots.size() > Math.max(1, maxRoots)) {
+            Optional<Path> oldest = roots.entrySet().stream()
+                .filter(e -> !e.getKey().equals(current))
+                .min(Comparator.comparingLong(e -> e.getValue().lastUsed))
+                .map(Map.Entry::getKey);
+            if (oldest.isEmpty()) break;
+            log.debug("Dropping TypeScript export index of {}", oldest.get());
+            roots.remove(oldest.get());
+        }
+    }
+
+    static List<Export> parseExports(Path file, String content) {
+        List<Export> exports = new ArrayList<>();
+        Matcher m = EXPORT.matcher(content);
+        while (m.find()) {
+            exports.add(new Export(m.group(2), m.group(1), file));
+        }
+        return exports;
+    }
+
+    /** Exports of one source root, kept current against file modification times. */
+    private static final class RootIndex {
+
+        private final Path root;
+        private final Map<Path, IndexedFile> files = new ConcurrentHashMap<>();
+        private final Map<String, List<Export>> byName = new ConcurrentHashMap<>();
+        private long lastRefresh;
+        volatile long lastUsed;
+
+        RootIndex(Path root) {
+            this.root = root;
+            long start = System.currentTimeMillis();
+            refresh();
+            log.info("Indexed {} exports from {} TypeScript files under {} in {} ms",
+                byName.values().stream().mapToInt(List::size).sum(), files.size(), root,
+                System.currentTimeMillis() - start);
+        }
+
+        Optional<Path> lookup(String name, Predicate<Export> filter) {
+            for (Export export : byName.getOrDefault(name, List.of())) {
+                if (!filter.test(export)) continue;
+                if (isCurrent(export.file())) return Optional.of(export.file());
+
+                // Changed or deleted since indexed: re-parse it and check once more
+                reindex(export.file());
+                if (byName.getOrDefault(name, List.of()).stream().anyMatch(e -> e.equals(export))) {
+                    return Optional.of(export.file());
+                }
+            }
+            return Optional.empty();
+        }
+
+        /** Re-stats the tree unless it was refreshed within the interval; true if it ran. */
+        synchronized boolean refreshIfDue(long intervalMs) {
+            if (System.currentTimeMillis() - lastRefresh < intervalMs) return false;
+            refresh();
+            return true;
+        }
+
+        private synchronized void refresh() {
+            Map<Path, FileTime> onDisk = scan();
+            files.keySet().stream().filter(file -> !onDisk.containsKey(file)).toList().forEach(this::remove);
+
+            // Parse changed files in parallel, then apply on this thread (workers must not lock)
+            List<Map.Entry<Path, IndexedFile>> parsed = onDisk.entrySet().parallelStream()
+                .filter(e -> files.get(e.getKey()) == null || !files.get(e.getKey()).modified().equals(e.getValue()))
+                .map(e -> Map.entry(e.getKey(), parse(e.getKey(), e.getValue())))
+                .toList();
+            parsed.forEach(e -> put(e.getKey(), e.getValue()));
+            lastRefresh = System.currentTimeMillis();
+        }
+
+        private Map<Path, FileTime> scan() {
+            Map<Path, FileTime> found = new HashMap<>();
+            try {
+                Files.walkFileTree(root, new SimpleFileVisitor<>() {
+                    @Override
+                    public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                        String name = dir.getFileName() != null ? dir.getFileName().toString() : "";
+                        boolean skip = !dir.equals(root) && (SKIPPED_DIRECTORIES.contains(name) || name.startsWith("."));
+                        return skip ? FileVisitResult.SKIP_SUBTREE : FileVisitResult.CONTINUE;
+                    }
+
+                    @Override
+                    public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                        String name = file.getFileName().toString();
+                        if (name.endsWith(".ts") && !name.endsWith(".spec.ts")) {
+                            found.put(file, attrs.lastModifiedTime());
+                        }
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    @Override
+                    public FileVisitResult visitFileFailed(Path file, IOException e) {
+                        return FileVisitResult.CONTINUE;
+                    }
+                });
+            } catch (IOException e) {
+                log.warn("Could not scan {}: {}", root, e.getMessage());
+            }
+            return found;
+        }
+
+        private boolean isCurrent(Path file) {
+            IndexedFile indexed = files.get(file);
+            try {
+                return indexed != null && indexed.modified().equals(Files.getLastModifiedTime(file));
+            } catch (IOException e) {
+                return false;
+            }
+        }
+
+        private synchronized void reindex(Path file) {
+            try {
+                put(file, parse(file, Files.getLastModifiedTime(file)));
+            } catch (IOException e) {
+                remove(file);
+            }
+        }
+
+        private static IndexedFile parse(Path file, FileTime modified) {
+            try {
+                return new IndexedFile(modified, parseExports(file, Files.readString(file)));
+            } catch (IOException e) {
+                return new IndexedFile(modified, List.of());
+            }
+        }
+
+        private synchronized void put(Path file, IndexedFile indexed) {
+            remove(file);
+            files.put(file, indexed);
+            for (Export export : indexed.exports()) {
+                byName.merge(export.name(), List.of(export), (a, b) -> {
+                    List<Export> merged = new ArrayList<>(a);
+                    merged.addAll(b);
+                    merged.sort(Comparator.comparing(e -> e.file().toString()));
+                    return List.copyOf(merged);
+                });
+            }
+        }
+
+        private synchronized void remove(Path file) {
+            IndexedFile previous = files.remove(file);
+            if (previous == null) return;
+            for (Export export : previous.exports()) {
+                byName.computeIfPresent(export.name(), (name, list) -> {
+                    List<Export> remaining = list.stream().filter(e -> !e.file().equals(file)).toList();
+                    return remaining.isEmpty() ? null : remaining;
+                });
+            }
+        }
+    }
+}
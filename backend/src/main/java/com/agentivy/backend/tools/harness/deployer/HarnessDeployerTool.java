@@ -13,8 +13,12 @@ import org.springframework.stereotype.Component;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Deploys generated harness component to Angular project.
@@ -25,6 +29,77 @@ public class HarnessDeployerTool implements ToolProvider {
 
     private static final String HARNESS_DIR = "src/app/agent-ivy-harness";
     private static final String HARNESS_FILE = "harness.component.ts";
+    private static final String BUNDLE_ROUTES_FILE = "harness.routes.ts";
+    private static final String BUNDLE_HARNESS_SUFFIX = ".harness.ts";
+    private static final String CD_INSTRUMENTATION_FILE = "agentivy-cd-instrumentation.ts";
+    private static final String CD_INSTRUMENTATION_IMPORT = "import './agentivy-cd-instrumentation';\n";
+
+    /**
+     * Side-effect module imported by every harness. It wraps ApplicationRef.tick (and the
+     * internal _tick the zoneless scheduler calls) and registers an Angular profiler, so tick
+     * count, tick duration and per-component template checks are exact for zone-based and
+     * zoneless apps alike. Results are published on window.__agentivyCd for the samplers.
+     */
+    private static final String CD_INSTRUMENTATION = """
+        // AgentIvy change detection instrumentation (auto-generated)
+        import * as core from '@angular/core';
+
+        const stats: any = (window as any).__agentivyCd ??= {
+          ticks: 0,
+          totalTickMs: 0,
+          maxTickMs: 0,
+          lastTickMs: 0,
+          viewChecks: 0,
+          lastTickViewChecks: 0,
+          componentChecks: {} as Record<string, number>,
+          profiler: false
+        };
+
+        let depth = 0;
+        let checksAtTickStart = 0;
+
+        function wrap(name: 'tick' | '_tick') {
+          const proto = core.ApplicationRef.prototype as any;
+          const original = proto[name];
+          if (typeof original !== 'function' || original.__agentivyWrapped) return;
+          const wrapped = function (this: unknown, ...args: unknown[]) {
+            // tick() delegates to _tick() in some versions: only the outermost call counts
+            if (depth++ > 0) {
+              try { return original.apply(this, args); } finally { depth--; }
+            }
+            const start = performance.now();
+            checksAtTickStart = stats.viewChecks;
+            try {
+              return original.apply(this, args);
+            } finally {
+              depth--;
+              const elapsed = performance.now() - start;
+              stats.ticks++;
+              stats.totalTickMs += elapsed;
+              stats.lastTickMs = elapsed;
+              stats.maxTickMs = Math.max(stats.maxTickMs, elapsed);
+              stats.lastTickViewChecks = stats.viewChecks - checksAtTickStart;
+            }
+          };
+          (wrapped as any).__agentivyWrapped = true;
+          proto[name] = wrapped;
+        }
+
+        wrap('tick');
+        wrap('_tick');
+
+        // ProfilerEvent.TemplateUpdateStart = 2; the instance is the component whose view is checked
+        const setProfiler = (core as any)['\u0275setProfiler'];
+        if (typeof setProfiler === 'function' && !stats.profiler) {
+          setProfiler((event: number, instance: any) => {
+            if (event !== 2 || !instance) return;
+            stats.viewChecks++;
+            const name = instance.constructor?.name || 'anonymous';
+            stats.componentChecks[name] = (stats.componentChecks[name] || 0) + 1;
+          });
+          stats.profiler = true;
+        }
+        """;
 
     @Override
     public ToolMetadata getMetadata() {
@@ -38,7 +113,8 @@ public class HarnessDeployerTool implements ToolProvider {
             List.of("angular", "deploy", "harness", "file-write"),
             Map.of(
                 "harnessDirectory", HARNESS_DIR,
-                "harnessFile", HARNESS_FILE
+                "harnessFile", HARNESS_FILE,
+                "cdInstrumentation", CD_INSTRUMENTATION_FILE
             )
         );
     }
@@ -64,8 +140,10 @@ public class HarnessDeployerTool implements ToolProvider {
                     log.info("Created harness directory: {}", harnessDir);
                 }
 
+                writeCdInstrumentation(harnessDir);
+
                 // Write harness file
-                Files.writeString(harnessFilePath, harnessCode,
+                Files.writeString(harnessFilePath, withCdInstrumentation(harnessCode),
                     StandardOpenOption.CREATE,
                     StandardOpenOption.TRUNCATE_EXISTING);
 
@@ -88,6 +166,96 @@ public class HarnessDeployerTool implements ToolProvider {
         });
     }
 
+    /**
+     * Deploys one harness per component plus a child routes file, so a single build
+     * serves every component at agent-ivy-harness/{selector}.
+     *
+     * Bundle harnesses live next to harness.component.ts, so import paths computed by
+     * the metadata extractor stay valid. Harnesses left over from a previous bundle are removed.
+     *
+     * @param harnessCodeBySelector generated harness code keyed by component selector
+     * @return status plus "routes": selector -> route path relative to the server root
+     */
+    public ImmutableMap<String, Object> deployHarnessBundle(String repoPath, Map<String, String> harnessCodeBySelector) {
+        try {
+            Path harnessDir = Path.of(repoPath).resolve(HARNESS_DIR);
+            Files.createDirectories(harnessDir);
+            writeCdInstrumentation(harnessDir);
+
+            try (Stream<Path> existing = Files.list(harnessDir)) {
+                for (Path stale : existing.filter(p -> p.getFileName().toString().endsWith(BUNDLE_HARNESS_SUFFIX)).toList()) {
+                    Files.delete(stale);
+                }
+            }
+
+            Map<String, String> routes = new LinkedHashMap<>();
+            List<String> slugs = new ArrayList<>();
+            for (Map.Entry<String, String> entry : harnessCodeBySelector.entrySet()) {
+                String slug = toRouteSlug(entry.getKey());
+                Files.writeString(harnessDir.resolve(slug + BUNDLE_HARNESS_SUFFIX), withCdInstrumentation(entry.getValue()),
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+                routes.put(entry.getKey(), "agent-ivy-harness/" + slug);
+                slugs.add(slug);
+            }
+
+            Files.writeString(harnessDir.resolve(BUNDLE_ROUTES_FILE), generateBundleRoutes(slugs),
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+
+            log.info("Deployed harness bundle with {} component(s) to: {}", routes.size(), harnessDir);
+
+            return ImmutableMap.<String, Object>builder()
+                .put("status", "success")
+                .put("harnessDirectory", harnessDir.toString())
+                .put("routes", ImmutableMap.copyOf(routes))
+                .build();
+
+        } catch (Exception e) {
+            log.error("Failed to deploy harness bundle", e);
+            return ImmutableMap.of(
+                "status", "error",
+                "message", e.getMessage()
+            );
+        }
+    }
+
+    private void writeCdInstrumentation(Path harnessDir) throws java.io.IOException {
+        Files.writeString(harnessDir.resolve(CD_INSTRUMENTATION_FILE), CD_INSTRUMENTATION,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    private String withCdInstrumentation(String harnessCode) {
+        return harnessCode.contains(CD_INSTRUMENTATION_IMPORT.trim())
+            ? harnessCode
+            : CD_INSTRUMENTATION_IMPORT + harnessCode;
+    }
+
+    /**
+     * Route segment used for a component in bundle mode (also the harness file stem).
+     */
+    public static String toRouteSlug(String selector) {
+        String slug = selector.replaceAll("[^A-Za-z0-9-]+", "-").replaceAll("^-+|-+$", "").toLowerCase();
+        return slug.isEmpty() ? "component" : slug;
+    }
+
+    private String generateBundleRoutes(List<String> slugs) {
+        String children = slugs.stream()
+            .map(slug -> "  { path: '%s', loadComponent: () => import('./%s.harness').then(m => m.HarnessComponent) }"
+                .formatted(slug, slug))
+            .collect(Collectors.joining(",\n"));
+
+        return """
+            // AgentIvy harness bundle (auto-generated)
+            import { Routes } from '@angular/router';
+
+            export const HARNESS_ROUTES: Routes = [
+            %s
+            ];
+            """.formatted(children);
+    }
+
     private String generateRouteConfig() {
         return "{ path: 'agent-ivy-harness', loadComponent: () => import('./agent-ivy-harness/harness.component').then(m => m.HarnessComponent) }";
     }
@@ -1,5 +1,6 @@
 package com.agentivy.backend.tools.harness.metadata;
 
+import com.agentivy.backend.tools.harness.TypeScriptExportIndex;
 import com.agentivy.backend.tools.registry.ToolCategory;
 import com.agentivy.backend.tools.registry.ToolMetadata;
 import com.agentivy.backend.tools.registry.ToolProvider;
@@ -7,6 +8,7 @@ import com.google.adk.tools.Annotations.Schema;
 import com.google.adk.tools.FunctionTool;
 import com.google.common.collect.ImmutableMap;
 import io.reactivex.rxjava3.core.Maybe;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
@@ -15,13 +17,13 @@ import java.nio.file.Path;
 import java.util.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.stream.Stream;
 
 /**
  * Extracts metadata from Angular components for harness generation.
  */
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class ComponentMetadataExtractorTool implements ToolProvider {
 
     private static final Pattern INPUT_PATTERN = Pattern.compile("@Input\\(\\)\\s+(\\w+)(?::|\\s*=)");
@@ -30,6 +32,8 @@ public class ComponentMetadataExtractorTool implements ToolProvider {
     private static final Pattern SELECTOR_PATTERN = Pattern.compile("selector:\\s*['\"]([^'\"]+)['\"]");
     private static final Pattern IMPORT_PATTERN = Pattern.compile("import\\s+\\{([^}]+)\\}\\s+from\\s+['\"]([^'\"]+)['\"]");
 
+    private final TypeScriptExportIndex exportIndex;
+
     @Override
     public ToolMetadata getMetadata() {
         return new ToolMetadata(
@@ -98,25 +102,7 @@ public class ComponentMetadataExtractorTool implements ToolProvider {
     }
 
     private Optional<Path> findComponentFile(Path srcPath, String className) {
-        try (Stream<Path> stream = Files.walk(srcPath)) {
-            Pattern classPattern = Pattern.compile("export\\s+class\\s+" + Pattern.quote(className) + "\\b");
-            return stream
-                .filter(p -> p.toString().endsWith(".component.ts"))
-                .filter(p -> !p.toString().contains("node_modules"))
-                .filter(p -> !p.toString().endsWith(".spec.ts"))
-                .filter(p -> {
-                    try {
-                        String content = Files.readString(p);
-                        return classPattern.matcher(content).find();
-                    } catch (Exception e) {
-                        return false;
-                    }
-                })
-                .findFirst();
-        } catch (Exception e) {
-            log.error("Error finding component file", e);
-            return Optional.empty();
-        }
+        return exportIndex.findComponentClass(srcPath, className);
     }
 
     private String extractSelector(String content) {
@@ -170,28 +156,11 @@ public class ComponentMetadataExtractorTool implements ToolProvider {
     }
 
     private String findServiceImportPath(Path repoRoot, String serviceName) {
-        try (Stream<Path> stream = Files.walk(repoRoot.resolve("src"))) {
-            Pattern servicePattern = Pattern.compile("export\\s+class\\s+" + Pattern.quote(serviceName) + "\\b");
-            Optional<Path> serviceFile = stream
-                .filter(p -> p.toString().endsWith(".ts"))
-                .filter(p -> !p.toString().contains("node_modules"))
-                .filter(p -> !p.toString().endsWith(".spec.ts"))
-                .filter(p -> {
-                    try {
-                        String content = Files.readString(p);
-                        return servicePattern.matcher(content).find();
-                    } catch (Exception e) {
-                        return false;
-                    }
-                })
-                .findFirst();
-
-            if (serviceFile.isPresent()) {
-                return calculateImportPath(repoRoot, serviceFile.get());
-            }
-        } catch (Exception e) {
-            log.warn("Could not find service: {}", serviceName);
+        Optional<Path> serviceFile = exportIndex.findClass(repoRoot.resolve("src"), serviceName);
+        if (serviceFile.isPresent()) {
+            return calculateImportPath(repoRoot, serviceFile.get());
         }
+        log.debug("Service {} is not exported under src, using conventional path", serviceName);
 
         // Fallback
         String kebab = serviceName.replaceAll("Service$", "")
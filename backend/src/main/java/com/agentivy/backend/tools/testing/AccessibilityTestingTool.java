@@ -87,7 +87,7 @@ public class AccessibilityTestingTool implements ToolProvider {
                     "targetUrl", componentUrl,
                     "selector", "body",
                     "browserReady", true,
-                    "axeVersion", "4.8.0"
+                    "axeVersion", PlaywrightTools.AXE_CORE_VERSION
                 )
             );
 
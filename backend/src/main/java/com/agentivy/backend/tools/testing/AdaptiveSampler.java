@@ -0,0 +1,119 @@
+package com.agentivy.backend.tools.testing;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decides after each runtime sample whether monitoring can stop.
+ *
+ * Sampling stops early once heap size and change-detection rate have stayed inside the
+ * configured bands for {@code STABLE_WINDOW} consecutive intervals and the heap is not on
+ * a steady climb. A slow leak grows by less than the band each interval, so the
+ * least-squares heap slope over all samples must also be small, or the recent slope must
+ * have flattened well below it (growth that has plateaued). It extends past the planned
+ * count (up to {@code maxSamples}) while heap growth sits near the leak threshold and is
+ * still rising, because a few more points decide whether it is a leak.
+ */
+class AdaptiveSampler {
+
+    static final String STABILISED = "stabilised";
+    static final String PLANNED = "planned-samples-collected";
+    static final String EXTENDED_LIMIT = "extended-sample-limit-reached";
+
+    private static final int STABLE_WINDOW = 2;
+
+    private final int plannedSamples;
+    private final int minSamples;
+    private final int maxSamples;
+    private final double heapBandPercent;
+    private final double cdRateBand;
+    private final double leakThresholdPercent;
+
+    AdaptiveSampler(int plannedSamples, int minSamples, int maxSamples,
+                    double heapBandPercent, double cdRateBand, double leakThresholdPercent) {
+        this.plannedSamples = plannedSamples;
+        this.minSamples = Math.min(minSamples, plannedSamples);
+        this.maxSamples = Math.max(maxSamples, plannedSamples);
+        this.heapBandPercent = heapBandPercent;
+        this.cdRateBand = cdRateBand;
+        this.leakThresholdPercent = leakThresholdPercent;
+    }
+
+    /**
+     * Returns the reason to stop after the samples taken so far, or null to take another.
+     */
+    String stopReason(List<Map<String, Object>> samples) {
+        int n = samples.size();
+        if (n >= maxSamples) {
+            return n > plannedSamples ? EXTENDED_LIMIT : PLANNED;
+        }
+        if (n >= Math.max(minSamples, STABLE_WINDOW + 1) && isStable(samples)) {
+            return STABILISED;
+        }
+        if (n >= plannedSamples && !isAmbiguous(samples)) {
+            return PLANNED;
+        }
+        return null;
+    }
+
+    private boolean isStable(List<Map<String, Object>> samples) {
+        int n = samples.size();
+        for (int i = n - STABLE_WINDOW; i < n; i++) {
+            double prevHeap = value(samples.get(i - 1), "usedJSHeapSize");
+            double heap = value(samples.get(i), "usedJSHeapSize");
+            double heapChange = prevHeap > 0 ? Math.abs(heap - prevHeap) / prevHeap * 100 : 0;
+            double rateChange = Math.abs(value(samples.get(i), "changeDetectionRate")
+                - value(samples.get(i - 1), "changeDetectionRate"));
+            if (heapChange > heapBandPercent || rateChange > cdRateBand) {
+                return false;
+            }
+        }
+
+        double first = value(samples.get(0), "usedJSHeapSize");
+        if (first <= 0) return true;
+        double overallSlope = heapSlopePercent(samples, 0, first);
+        double recentSlope = heapSlopePercent(samples, n - STABLE_WINDOW - 1, first);
+        return overallSlope <= heapBandPercent / 2 || recentSlope <= overallSlope / 4;
+    }
+
+    /**
+     * Least-squares heap slope from sample {@code from} to the last, in percent of
+     * {@code base} per interval.
+     */
+    private static double heapSlopePercent(List<Map<String, Object>> samples, int from, double base) {
+        int count = samples.size() - from;
+        double meanX = (count - 1) / 2.0;
+        double meanY = 0;
+        for (int i = from; i < samples.size(); i++) {
+            meanY += value(samples.get(i), "usedJSHeapSize") / count;
+        }
+        double covariance = 0;
+        double variance = 0;
+        for (int i = from; i < samples.size(); i++) {
+            double dx = (i - from) - meanX;
+            covariance += dx * (value(samples.get(i), "usedJSHeapSize") - meanY);
+            variance += dx * dx;
+        }
+        return variance > 0 ? covariance / variance / base * 100 : 0;
+    }
+
+    /**
+     * Growth close to the leak threshold that is still rising could go either way.
+     */
+    private boolean isAmbiguous(List<Map<String, Object>> samples) {
+        int n = samples.size();
+        double first = value(samples.get(0), "usedJSHeapSize");
+        if (first <= 0 || n < 2) return false;
+
+        double growthPercent = (value(samples.get(n - 1), "usedJSHeapSize") - first) / first * 100;
+        boolean stillRising = value(samples.get(n - 1), "usedJSHeapSize") > value(samples.get(n - 2), "usedJSHeapSize");
+        return stillRising
+            && growthPercent >= leakThresholdPercent / 2
+            && growthPercent <= leakThresholdPercent * 1.5;
+    }
+
+    private static double value(Map<String, Object> sample, String key) {
+        Object v = sample.get(key);
+        return v instanceof Number number ? number.doubleValue() : 0.0;
+    }
+}
@@ -0,0 +1,287 @@
+package com.agentivy.backend.tools.testing;
+
+import com.agentivy.backend.service.EventPublisherHelper;
+import com.agentivy.backend.service.SessionContext;
+import com.agentivy.backend.tools.angular.AngularProcessManager;
+import com.agentivy.backend.tools.registry.ToolCategory;
+import com.agentivy.backend.tools.registry.ToolMetadata;
+import com.agentivy.backend.tools.registry.ToolProvider;
+import com.google.adk.tools.Annotations.Schema;
+import com.google.adk.tools.FunctionTool;
+import com.google.common.collect.ImmutableMap;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import io.reactivex.rxjava3.core.Maybe;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Reports the size of the lazy chunk each harness route loads.
+ *
+ * Harness routes use {@code loadComponent: () => import(...)}, so every tested component is
+ * its own chunk. A production build with {@code --stats-json} runs into a temp directory (the
+ * dev server and the project's dist are untouched); the stats attribute each harness chunk to
+ * the component's own code and its heaviest modules, and the chunk files are compressed with
+ * gzip and brotli to compare against a per-component budget. One build serves every harness
+ * deployed at the time, so bundle runs pay for it once.
+ *
+ * Off by default (agentivy.bundle.enabled): in single-harness mode the build runs for every
+ * component before its dev server starts.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BundleSizeAnalyzerTool implements ToolProvider {
+
+    private final EventPublisherHelper eventPublisher;
+    private final AngularProcessManager processManager;
+
+    @Value("${agentivy.bundle.enabled:false}")
+    private boolean enabled;
+
+    @Value("${agentivy.bundle.budget-gzip-bytes:51200}")
+    private long budgetGzipBytes;
+
+    @Value("${agentivy.bundle.build-timeout-seconds:300}")
+    private int buildTimeoutSeconds;
+
+    @Value("${agentivy.bundle.top-modules:10}")
+    private int topModules;
+
+    private static final String BROTLI_SCRIPT =
+        "process.stdout.write(String(require('zlib').brotliCompressSync(require('fs').readFileSync(process.argv[1])).length))";
+
+    /** A deployed harness: its file name without .ts and the component's source file. */
+    public record HarnessChunk(String stem, String componentTsPath) {}
+
+    // Results of the last analysis per repo and component, consumed by the test workflow
+    private final Map<String, ImmutableMap<String, Object>> results = new ConcurrentHashMap<>();
+
+    @Override
+    public ToolMetadata getMetadata() {
+        return new ToolMetadata(
+            "testing.performance.bundle",
+            "Bundle Size Analyzer",
+            "Builds with stats output and reports raw, gzip and brotli size of each harness chunk against a budget",
+            ToolCategory.COMPONENT_TESTING,
+            "1.0.0",
+            true,
+            List.of("performance", "bundle", "lazy-chunk", "budget", "build"),
+            Map.of(
+                "budgetGzipBytes", String.valueOf(budgetGzipBytes),
+                "metrics", "rawBytes, gzipBytes, brotliBytes, componentBytes, topModules"
+            )
+        );
+    }
+
+    @Override
+    public List<FunctionTool> createTools() {
+        return List.of(FunctionTool.create(this, "analyzeBundleSize"));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Builds the project and reports the chunk of the single-component harness.
+     *
+     * @param repoPath Path to the Angular project with the harness deployed
+     * @param componentTsPath Component source file, relative to the project (optional)
+     * @return Raw, gzip and brotli bytes of the harness chunk, heaviest modules and budget check
+     */
+    public Maybe<ImmutableMap<String, Object>> analyzeBundleSize(
+            @Schema(name = "repoPath") String repoPath,
+            @Schema(name = "componentTsPath") String componentTsPath) {
+
+        return Maybe.fromCallable(() -> {
+            String componentName = SessionContext.getCurrentComponent() != null
+                ? SessionContext.getCurrentComponent()
+                : "unknown";
+            return analyzeHarnessChunks(repoPath, Map.of(componentName, new HarnessChunk("harness.component", componentTsPath)))
+                .get(componentName);
+        });
+    }
+
+    /**
+     * Runs one stats build and attributes a chunk to every given harness. Results are also kept
+     * for {@link #takeResult(String, String)}.
+     *
+     * @param chunks Harnesses by component name
+     * @return Result map per component name (status "error" when the build or lookup failed)
+     */
+    public Map<String, ImmutableMap<String, Object>> analyzeHarnessChunks(String repoPath, Map<String, HarnessChunk> chunks) {
+        Map<String, ImmutableMap<String, Object>> byComponent = new LinkedHashMap<>();
+        long startTime = System.currentTimeMillis();
+        Path projectPath = Path.of(repoPath);
+        Path outputDir = null;
+
+        eventPublisher.publishToolCall("analyzeBundleSize", "Building " + repoPath + " with stats output");
+        try {
+            outputDir = Files.createTempDirectory("agentivy-bundle-");
+            processManager.runStatsBuild(projectPath, outputDir, buildTimeoutSeconds);
+
+            Path statsFile = findFile(outputDir, "stats.json");
+            if (statsFile == null) {
+                throw new IllegalStateException("Build finished but wrote no stats.json");
+            }
+            JsonObject stats = JsonParser.parseString(Files.readString(statsFile)).getAsJsonObject();
+
+            for (Map.Entry<String, HarnessChunk> entry : chunks.entrySet()) {
+                byComponent.put(entry.getKey(),
+                    analyzeChunk(stats, outputDir, projectPath, entry.getKey(), entry.getValue(), startTime));
+            }
+        } catch (Exception e) {
+            log.error("Bundle size analysis failed for {}", repoPath, e);
+            ImmutableMap<String, Object> error = ImmutableMap.of("status", "error",
+                "message", "Bundle size analysis failed: " + e.getMessage());
+            chunks.keySet().forEach(name -> byComponent.put(name, error));
+        } finally {
+            if (outputDir != null) deleteQuietly(outputDir);
+        }
+
+        byComponent.forEach((name, result) -> results.put(key(repoPath, name), result));
+        return byComponent;
+    }
+
+    /** Returns and forgets the last analysis of a component, or null if there is none. */
+    public ImmutableMap<String, Object> takeResult(String repoPath, String componentName) {
+        return results.remove(key(repoPath, componentName));
+    }
+
+    private ImmutableMap<String, Object> analyzeChunk(JsonObject stats, Path outputDir, Path projectPath,
+                                                      String componentName, HarnessChunk chunk, long startTime)
+            throws IOException {
+
+        String componentDir = null;
+        if (chunk.componentTsPath() != null) {
+            Path tsPath = Path.of(chunk.componentTsPath());
+            if (tsPath.isAbsolute()) tsPath = projectPath.toAbsolutePath().relativize(tsPath);
+            componentDir = tsPath.getParent() != null ? tsPath.getParent().toString() : null;
+        }
+
+        BundleStats.Attribution attribution = BundleStats.attribute(stats, chunk.stem(), componentDir);
+        if (attribution == null) {
+            return ImmutableMap.of("status", "error",
+                "message", "No chunk in the build stats contains " + BundleStats.HARNESS_DIR + chunk.stem() + ".ts");
+        }
+
+        long gzipBytes = 0;
+        Long brotliBytes = 0L;
+        for (String file : attribution.files()) {
+            Path path = resolveOutput(outputDir, file);
+            if (path == null) {
+                throw new IOException("Chunk file " + file + " not found in build output");
+            }
+            byte[] content = Files.readAllBytes(path);
+            gzipBytes += gzipSize(content);
+            Long brotli = brotliSize(path);
+            brotliBytes = brotliBytes != null && brotli != null ? brotliBytes + brotli : null;
+        }
+
+        List<Map<String, Object>> heaviest = new ArrayList<>();
+        for (BundleStats.ModuleSize module : attribution.modules().subList(0, Math.min(topModules, attribution.modules().size()))) {
+            heaviest.add(Map.of(
+                "module", module.name(),
+                "bytes", module.bytes(),
+                "percent", attribution.totalBytes() > 0
+                    ? Math.round(module.bytes() * 1000.0 / attribution.totalBytes()) / 10.0
+                    : 0.0));
+        }
+
+        boolean overBudget = gzipBytes > budgetGzipBytes;
+        List<String> warnings = new ArrayList<>();
+        if (overBudget) {
+            String top = heaviest.isEmpty() ? "" : " Heaviest module: " + heaviest.get(0).get("module") + ".";
+            warnings.add(String.format("Lazy chunk for %s is large: %.1f KB gzip (budget %.1f KB).%s",
+                componentName, gzipBytes / 1024.0, budgetGzipBytes / 1024.0, top));
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("status", "success");
+        result.put("chunkFile", attribution.chunkFile());
+        result.put("files", attribution.files());
+        result.put("chunkRawBytes", attribution.chunkBytes());
+        result.put("rawBytes", attribution.totalBytes());
+        result.put("gzipBytes", gzipBytes);
+        if (brotliBytes != null) result.put("brotliBytes", brotliBytes);
+        result.put("componentBytes", attribution.componentBytes());
+        result.put("topModules", heaviest);
+        result.put("budgetGzipBytes", budgetGzipBytes);
+        result.put("overBudget", overBudget);
+        result.put("warnings", warnings);
+        result.put("durationMs", System.currentTimeMillis() - startTime);
+
+        eventPublisher.publishComponentStatus(componentName, "bundle", "completed",
+            String.format("Lazy chunk: %.1f KB raw, %.1f KB gzip", attribution.totalBytes() / 1024.0, gzipBytes / 1024.0),
+            Map.of("gzipBytes", gzipBytes, "overBudget", overBudget));
+        return ImmutableMap.copyOf(result);
+    }
+
+    private static long gzipSize(byte[] content) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(content);
+        }
+        return out.size();
+    }
+
+    /** Brotli through Node's zlib, which every Angular toolchain has; null if Node fails. */
+    private static Long brotliSize(Path file) {
+        try {
+            Process process = new ProcessBuilder("node", "-e", BROTLI_SCRIPT, file.toString())
+                .redirectErrorStream(true)
+                .start();
+            String output = new String(process.getInputStream().readAllBytes()).trim();
+            if (!process.waitFor(30, TimeUnit.SECONDS) || process.exitValue() != 0) {
+                process.destroyForcibly();
+                return null;
+            }
+            return Long.parseLong(output);
+        } catch (Exception e) {
+            log.debug("Brotli size unavailable for {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    /** Output paths in the stats are relative to the output root or its browser/ folder, depending on the builder. */
+    private static Path resolveOutput(Path outputDir, String file) throws IOException {
+        for (Path candidate : List.of(outputDir.resolve(file), outputDir.resolve("browser").resolve(file))) {
+            if (Files.isRegularFile(candidate)) return candidate;
+        }
+        return findFile(outputDir, Path.of(file).getFileName().toString());
+    }
+
+    private static Path findFile(Path dir, String fileName) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            return files.filter(p -> p.getFileName().toString().equals(fileName))
+                .filter(Files::isRegularFile)
+                .findFirst()
+                .orElse(null);
+        }
+    }
+
+    private static void deleteQuietly(Path dir) {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        } catch (IOException ignored) {
+            // Leftover temp build output is harmless
+        }
+    }
+
+    private static String key(String repoPath, String componentName) {
+        return repoPath + "::" + componentName;
+    }
+}
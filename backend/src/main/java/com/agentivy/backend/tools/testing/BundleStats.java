@@ -0,0 +1,197 @@
+package com.agentivy.backend.tools.testing;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.util.*;
+
+/**
+ * Attributes the lazy chunk of a harness route to its modules from Angular build stats.
+ *
+ * Reads both stats formats {@code ng build --stats-json} writes: the esbuild metafile of the
+ * application builder ({@code outputs} with per-input {@code bytesInOutput}) and webpack stats
+ * of the browser builder ({@code chunks} with their modules). The harness chunk is the one
+ * containing {@code agent-ivy-harness/<stem>.ts}; shared chunks it imports statically and
+ * that the initial page does not already load are counted with it, since the route cannot
+ * render without them.
+ */
+class BundleStats {
+
+    static final String HARNESS_DIR = "agent-ivy-harness/";
+
+    record ModuleSize(String name, long bytes) {}
+
+    /**
+     * @param chunkFile Output file of the harness chunk itself
+     * @param files Every output file loaded for the route (harness chunk first)
+     * @param chunkBytes Raw bytes of the harness chunk
+     * @param totalBytes Raw bytes of all files loaded for the route
+     * @param componentBytes Bytes of modules under the component's own directory
+     * @param modules Modules by bytes, node_modules grouped by package, heaviest first
+     */
+    record Attribution(String chunkFile, List<String> files, long chunkBytes, long totalBytes,
+                       long componentBytes, List<ModuleSize> modules) {}
+
+    private BundleStats() {
+    }
+
+    /**
+     * @param harnessStem File name of the harness without .ts (e.g. "harness.component")
+     * @param componentDir Directory of the component's source, relative to the project root (nullable)
+     * @return The attribution, or null when no chunk contains the harness
+     */
+    static Attribution attribute(JsonObject stats, String harnessStem, String componentDir) {
+        String harnessModule = HARNESS_DIR + harnessStem + ".ts";
+        String dir = componentDir != null ? normalize(componentDir).replaceAll("/+$", "") : null;
+        if (stats.has("outputs")) return fromMetafile(stats.getAsJsonObject("outputs"), harnessModule, dir);
+        if (stats.has("chunks")) return fromWebpack(stats.getAsJsonArray("chunks"), harnessModule, dir);
+        return null;
+    }
+
+    private static Attribution fromMetafile(JsonObject outputs, String harnessModule, String dir) {
+        String harnessOutput = null;
+        Set<String> dynamicTargets = new HashSet<>();
+        for (Map.Entry<String, JsonElement> output : outputs.entrySet()) {
+            JsonObject o = output.getValue().getAsJsonObject();
+            for (JsonElement imp : array(o, "imports")) {
+                JsonObject i = imp.getAsJsonObject();
+                if ("dynamic-import".equals(string(i, "kind"))) dynamicTargets.add(string(i, "path"));
+            }
+            if (harnessOutput == null && o.has("inputs")
+                    && o.getAsJsonObject("inputs").keySet().stream().anyMatch(in -> normalize(in).endsWith(harnessModule))) {
+                harnessOutput = output.getKey();
+            }
+        }
+        if (harnessOutput == null) return null;
+        String harnessFile = harnessOutput;
+
+        // Initial page: entry points nobody imports lazily, plus everything they import statically
+        Set<String> initial = new HashSet<>();
+        for (Map.Entry<String, JsonElement> output : outputs.entrySet()) {
+            JsonObject o = output.getValue().getAsJsonObject();
+            if (o.has("entryPoint") && !dynamicTargets.contains(output.getKey())) {
+                staticClosure(outputs, output.getKey(), initial);
+            }
+        }
+
+        Set<String> loaded = new LinkedHashSet<>();
+        staticClosure(outputs, harnessOutput, loaded);
+        loaded.removeIf(file -> !file.equals(harnessFile) && initial.contains(file));
+
+        long totalBytes = 0;
+        Map<String, Long> modules = new HashMap<>();
+        for (String file : loaded) {
+            JsonObject o = outputs.getAsJsonObject(file);
+            totalBytes += o.has("bytes") ? o.get("bytes").getAsLong() : 0;
+            if (!o.has("inputs")) continue;
+            for (Map.Entry<String, JsonElement> input : o.getAsJsonObject("inputs").entrySet()) {
+                long bytes = input.getValue().getAsJsonObject().get("bytesInOutput").getAsLong();
+                modules.merge(normalize(input.getKey()), bytes, Long::sum);
+            }
+        }
+        long chunkBytes = outputs.getAsJsonObject(harnessOutput).has("bytes")
+            ? outputs.getAsJsonObject(harnessOutput).get("bytes").getAsLong()
+            : 0;
+        return build(harnessOutput, new ArrayList<>(loaded), chunkBytes, totalBytes, modules, dir);
+    }
+
+    private static void staticClosure(JsonObject outputs, String file, Set<String> into) {
+        if (!into.add(file) || !outputs.has(file)) return;
+        for (JsonElement imp : array(outputs.getAsJsonObject(file), "imports")) {
+            JsonObject i = imp.getAsJsonObject();
+            if ("import-statement".equals(string(i, "kind")) && outputs.has(string(i, "path"))) {
+                staticClosure(outputs, string(i, "path"), into);
+            }
+        }
+    }
+
+    private static Attribution fromWebpack(JsonArray chunks, String harnessModule, String dir) {
+        JsonObject harnessChunk = null;
+        Map<String, JsonObject> byId = new HashMap<>();
+        for (JsonElement element : chunks) {
+            JsonObject chunk = element.getAsJsonObject();
+            byId.put(chunk.get("id").getAsString(), chunk);
+            if (harnessChunk == null) {
+                for (JsonElement module : array(chunk, "modules")) {
+                    if (moduleName(module.getAsJsonObject()).endsWith(harnessModule)) {
+                        harnessChunk = chunk;
+                        break;
+                    }
+                }
+            }
+        }
+        if (harnessChunk == null) return null;
+
+        // Split-out vendor/common chunks are loaded alongside the lazy chunk as siblings
+        List<JsonObject> loaded = new ArrayList<>();
+        loaded.add(harnessChunk);
+        for (JsonElement sibling : array(harnessChunk, "siblings")) {
+            JsonObject chunk = byId.get(sibling.getAsString());
+            if (chunk != null && !(chunk.has("initial") && chunk.get("initial").getAsBoolean())) loaded.add(chunk);
+        }
+
+        List<String> files = new ArrayList<>();
+        long totalBytes = 0;
+        Map<String, Long> modules = new HashMap<>();
+        for (JsonObject chunk : loaded) {
+            for (JsonElement file : array(chunk, "files")) {
+                if (file.getAsString().endsWith(".js")) files.add(file.getAsString());
+            }
+            totalBytes += chunk.has("size") ? chunk.get("size").getAsLong() : 0;
+            for (JsonElement module : array(chunk, "modules")) {
+                JsonObject m = module.getAsJsonObject();
+                modules.merge(moduleName(m), m.has("size") ? m.get("size").getAsLong() : 0, Long::sum);
+            }
+        }
+        if (files.isEmpty()) return null;
+        long chunkBytes = harnessChunk.has("size") ? harnessChunk.get("size").getAsLong() : 0;
+        return build(files.get(0), files, chunkBytes, totalBytes, modules, dir);
+    }
+
+    private static Attribution build(String chunkFile, List<String> files, long chunkBytes, long totalBytes,
+                                     Map<String, Long> modules, String dir) {
+        long componentBytes = 0;
+        Map<String, Long> grouped = new HashMap<>();
+        for (Map.Entry<String, Long> module : modules.entrySet()) {
+            String name = module.getKey();
+            if (dir != null && (name.startsWith(dir + "/") || name.contains("/" + dir + "/"))) {
+                componentBytes += module.getValue();
+            }
+            grouped.merge(packageOf(name), module.getValue(), Long::sum);
+        }
+        List<ModuleSize> sorted = grouped.entrySet().stream()
+            .map(e -> new ModuleSize(e.getKey(), e.getValue()))
+            .sorted(Comparator.comparingLong(ModuleSize::bytes).reversed().thenComparing(ModuleSize::name))
+            .toList();
+        return new Attribution(chunkFile, files, chunkBytes, totalBytes, componentBytes, sorted);
+    }
+
+    /** Modules inside node_modules collapse to their package (scoped packages keep the scope). */
+    static String packageOf(String module) {
+        int index = module.lastIndexOf("node_modules/");
+        if (index < 0) return module;
+        String[] parts = module.substring(index + "node_modules/".length()).split("/");
+        return parts[0].startsWith("@") && parts.length > 1 ? parts[0] + "/" + parts[1] : parts[0];
+    }
+
+    private static String moduleName(JsonObject module) {
+        String name = module.has("name") ? module.get("name").getAsString() : "";
+        // Concatenated modules are reported as "./root.ts + 3 modules"
+        return normalize(name.replaceFirst(" \\+ \\d+ modules?$", ""));
+    }
+
+    private static String normalize(String path) {
+        String normalized = path.replace('\\', '/');
+        while (normalized.startsWith("./")) normalized = normalized.substring(2);
+        return normalized;
+    }
+
+    private static JsonArray array(JsonObject object, String key) {
+        return object.has(key) && object.get(key).isJsonArray() ? object.getAsJsonArray(key) : new JsonArray();
+    }
+
+    private static String string(JsonObject object, String key) {
+        return object.has(key) ? object.get(key).getAsString() : null;
+    }
+}
@@ -0,0 +1,357 @@
+package com.agentivy.backend.tools.testing;
+
+import com.agentivy.backend.service.EventPublisherHelper;
+import com.agentivy.backend.service.SessionContext;
+import com.agentivy.backend.tools.PlaywrightBrowserPool;
+import com.agentivy.backend.tools.registry.ToolCategory;
+import com.agentivy.backend.tools.registry.ToolMetadata;
+import com.agentivy.backend.tools.registry.ToolProvider;
+import com.google.adk.tools.Annotations.Schema;
+import com.google.adk.tools.FunctionTool;
+import com.google.common.collect.ImmutableMap;
+import com.microsoft.playwright.CDPSession;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.options.WaitUntilState;
+import io.reactivex.rxjava3.core.Maybe;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * A/B experiment over change-detection setups: measures the gain of OnPush and zoneless
+ * before any file is rewritten.
+ *
+ * Expects a scaling harness (see HarnessCodeGenerator#generateScaling), which renders the
+ * same component under the variant named by the {@code variant} query parameter. Each run
+ * loads a variant in a fresh context, idles for a fixed window (timers, polling) and then
+ * drives the component's interactive elements, reading ticks and view checks from the
+ * ApplicationRef instrumentation and scripting time and heap from CDP. Medians over the
+ * runs are compared against the {@code zone} baseline.
+ *
+ * The harness page itself boots through the app's polyfills, so zoneless variants still run
+ * with zone.js loaded and its patched timers and listeners; the gain measured for them is a
+ * lower bound. Variants that reported {@code zoneLoaded} get a caveat next to the results.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ChangeDetectionExperimentTool implements ToolProvider {
+
+    static final String BASELINE = "zone";
+
+    private static final String CD_MONITOR_SCRIPT = """
+        () => {
+            const cd = window.__agentivyCd;
+            if (!cd || window.__cdMonitor) return;
+            window.__cdMonitor = { rate: 0, source: 'application-ref' };
+            Object.defineProperty(window.__cdMonitor, 'cycles', { get: () => cd.ticks, enumerable: true });
+        }
+        """;
+
+    private final EventPublisherHelper eventPublisher;
+    private final PlaywrightBrowserPool browserPool;
+
+    @Value("${agentivy.playwright.timeout-ms:30000}")
+    private int timeoutMs;
+
+    @Value("${agentivy.experiment.variants:zone,onpush,zoneless,zoneless-onpush}")
+    private String defaultVariants;
+
+    @Value("${agentivy.experiment.runs:3}")
+    private int runs;
+
+    @Value("${agentivy.experiment.size:100}")
+    private int size;
+
+    @Value("${agentivy.experiment.idle-ms:3000}")
+    private int idleMs;
+
+    @Value("${agentivy.experiment.interactions:10}")
+    private int maxInteractions;
+
+    @Value("${agentivy.performance.noise-cv-percent:10}")
+    private double noiseCvPercent;
+
+    @Override
+    public ToolMetadata getMetadata() {
+        return new ToolMetadata(
+            "testing.performance.cd-experiment",
+            "Change Detection Experiment",
+            "Measures a component under zone/zoneless and Default/OnPush variants and reports the deltas against the baseline",
+            ToolCategory.COMPONENT_TESTING,
+            "1.0.0",
+            true,
+            List.of("performance", "change-detection", "onpush", "zoneless", "experiment", "playwright"),
+            Map.of(
+                "variants", defaultVariants,
+                "runs", String.valueOf(runs),
+                "metrics", String.join(", ", VariantComparison.METRICS)
+            )
+        );
+    }
+
+    @Override
+    public List<FunctionTool> createTools() {
+        return List.of(FunctionTool.create(this, "runChangeDetectionExperiment"));
+    }
+
+    /**
+     * Runs every variant against a scaling harness and compares them with the zone baseline.
+     *
+     * @param componentUrl URL of the scaling harness (without query string)
+     * @param variants Comma-separated variants (optional, defaults to agentivy.experiment.variants)
+     * @return Median metrics and deltas per variant, variants ranked by measured benefit
+     */
+    public Maybe<ImmutableMap<String, Object>> runChangeDetectionExperiment(
+            @Schema(name = "componentUrl") String componentUrl,
+            @Schema(name = "variants") String variants) {
+
+        return Maybe.fromCallable(() -> {
+            String componentName = SessionContext.getCurrentComponent() != null
+                ? SessionContext.getCurrentComponent()
+                : "unknown";
+
+            List<String> variantList = parseVariants(variants == null || variants.isBlank() ? defaultVariants : variants);
+            if (variantList.size() < 2) {
+                return ImmutableMap.<String, Object>of("status", "error",
+                    "message", "At least one variant besides the '" + BASELINE + "' baseline is needed");
+            }
+
+            if (!browserPool.isAvailable()) {
+                return ImmutableMap.<String, Object>of("status", "error",
+                    "message", "Playwright not initialized. Ensure agentivy.playwright.enabled=true and Chromium is installed.");
+            }
+
+            eventPublisher.publishToolCall("runChangeDetectionExperiment", "Running change detection experiment on " + componentUrl);
+            eventPublisher.publishComponentStatus(componentName, "cd-experiment", "starting",
+                "Measuring " + variantList.size() + " change detection variants...",
+                Map.of("targetUrl", componentUrl, "variants", variantList, "runs", Math.max(1, runs)));
+
+            long startTime = System.currentTimeMillis();
+            Map<String, Map<String, Object>> results = new LinkedHashMap<>();
+            for (int i = 0; i < variantList.size(); i++) {
+                String variant = variantList.get(i);
+                results.put(variant, measureVariant(componentUrl, variant));
+                eventPublisher.publishComponentStatus(componentName, "cd-experiment", "in-progress",
+                    "Measured variant " + variant,
+                    Map.of("variant", variant, "progressPercent", (i + 1) * 100 / variantList.size()));
+            }
+
+            Map<String, Double> baseline = medians(results.get(BASELINE));
+            if (baseline == null) {
+                return ImmutableMap.<String, Object>builder()
+                    .put("status", "error")
+                    .put("message", "Baseline variant could not be measured: " + results.get(BASELINE).get("error"))
+                    .put("variants", results)
+                    .build();
+            }
+
+            Map<String, Map<String, Map<String, Object>>> deltasByVariant = new LinkedHashMap<>();
+            List<String> recommendations = new ArrayList<>();
+            List<String> warnings = new ArrayList<>();
+            results.forEach((variant, result) -> {
+                if (variant.equals(BASELINE)) return;
+                Map<String, Double> measured = medians(result);
+                if (measured == null) {
+                    warnings.add(String.format("Variant %s not measured: %s", variant,
+                        result.getOrDefault("unsupported", result.get("error"))));
+                    return;
+                }
+                Map<String, Map<String, Object>> deltas = VariantComparison.deltas(baseline, measured);
+                result.put("deltas", deltas);
+                result.put("worthwhile", VariantComparison.isWorthwhile(deltas));
+                deltasByVariant.put(variant, deltas);
+            });
+
+            List<String> caveats = new ArrayList<>();
+            results.forEach((variant, result) -> {
+                if (variant.startsWith("zoneless") && Boolean.TRUE.equals(result.get("zoneLoaded"))) {
+                    caveats.add(String.format("Variant %s ran with zone.js loaded by the app polyfills; "
+                        + "its deltas still include zone patching overhead and understate the zoneless gain", variant));
+                }
+            });
+
+            List<String> ranking = VariantComparison.rank(deltasByVariant);
+            for (String variant : ranking) {
+                Map<String, Map<String, Object>> deltas = deltasByVariant.get(variant);
+                if (VariantComparison.isWorthwhile(deltas)) {
+                    recommendations.add(describe(variant, deltas));
+                }
+            }
+            results.forEach((variant, result) -> {
+                @SuppressWarnings("unchecked")
+                List<String> noisy = (List<String>) result.getOrDefault("noisyMetrics", List.of());
+                if (!noisy.isEmpty()) {
+                    warnings.add(String.format("Variant %s: %s varied by more than %.0f%% between runs",
+                        variant, String.join(", ", noisy), noiseCvPercent));
+                }
+            });
+
+            eventPublisher.publishComponentStatus(componentName, "cd-experiment", "completed",
+                recommendations.isEmpty() ? "No variant beat the baseline by a measurable margin" : recommendations.get(0),
+                Map.of(
+                    "ranking", ranking,
+                    "recommendations", recommendations,
+                    "warnings", warnings,
+                    "caveats", caveats,
+                    "timeElapsed", System.currentTimeMillis() - startTime
+                ));
+
+            return ImmutableMap.<String, Object>builder()
+                .put("status", "success")
+                .put("componentUrl", componentUrl)
+                .put("baseline", BASELINE)
+                .put("size", size)
+                .put("variants", results)
+                .put("ranking", ranking)
+                .put("recommendations", recommendations)
+                .put("warnings", warnings)
+                .put("caveats", caveats)
+                .build();
+        });
+    }
+
+    /**
+     * Baseline first, duplicates dropped; the baseline is always measured.
+     */
+    static List<String> parseVariants(String variants) {
+        LinkedHashSet<String> parsed = new LinkedHashSet<>();
+        parsed.add(BASELINE);
+        for (String part : variants.split(",")) {
+            if (!part.isBlank()) parsed.add(part.trim().toLowerCase());
+        }
+        return new ArrayList<>(parsed);
+    }
+
+    private Map<String, Object> measureVariant(String componentUrl, String variant) {
+        String url = componentUrl + (componentUrl.contains("?") ? "&" : "?") + "size=" + size + "&variant=" + variant;
+        List<Map<String, Object>> completed = new ArrayList<>();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("variant", variant);
+
+        for (int run = 0; run < Math.max(1, runs); run++) {
+            Map<String, Object> measurement = measureRun(url);
+            if (measurement.containsKey("unsupported") || measurement.containsKey("error")) {
+                // Unsupported stays unsupported; a failed load usually fails again
+                result.putAll(measurement);
+                break;
+            }
+            completed.add(measurement);
+        }
+        if (completed.isEmpty()) return result;
+
+        Map<String, Map<String, Object>> statistics = MetricStatistics.aggregate(completed, noiseCvPercent);
+        Map<String, Object> medians = new LinkedHashMap<>();
+        List<String> noisy = new ArrayList<>();
+        statistics.forEach((metric, summary) -> {
+            medians.put(metric, summary.get("median"));
+            if (Boolean.TRUE.equals(summary.get("noisy"))) noisy.add(metric);
+        });
+        result.put("zoneLoaded", completed.stream().anyMatch(m -> Boolean.TRUE.equals(m.get("zoneLoaded"))));
+        result.put("runsCompleted", completed.size());
+        result.put("medians", medians);
+        result.put("statistics", statistics);
+        result.put("noisyMetrics", noisy);
+        return result;
+    }
+
+    private Map<String, Object> measureRun(String url) {
+        try {
+            long leaseTimeoutMs = timeoutMs * 2L + idleMs + maxInteractions * 3_000L;
+            return browserPool.withContext(null, leaseTimeoutMs, session -> {
+                Page page = session.context().newPage();
+                CDPSession cdp = page.context().newCDPSession(page);
+                cdp.send("Performance.enable");
+
+                page.navigate(url, new Page.NavigateOptions()
+                    .setWaitUntil(WaitUntilState.DOMCONTENTLOADED)
+                    .setTimeout(timeoutMs));
+                page.waitForFunction("() => window.__agentivyScaling && window.__agentivyScaling.ready",
+                    null, new Page.WaitForFunctionOptions().setTimeout(timeoutMs));
+
+                @SuppressWarnings("unchecked")
+                Map<String, Object> harness = (Map<String, Object>) page.evaluate("() => window.__agentivyScaling");
+                if (harness.get("unsupported") != null) {
+                    return Map.<String, Object>of("unsupported", harness.get("unsupported"));
+                }
+                page.evaluate(CD_MONITOR_SCRIPT);
+
+                Map<String, Double> before = snapshot(page, cdp);
+                page.waitForTimeout(idleMs);
+                Map<String, Object> interactions = maxInteractions > 0
+                    ? new InteractionProfiler(timeoutMs).profile(page, maxInteractions, () -> page.evaluate(CD_MONITOR_SCRIPT))
+                    : Map.of();
+                Map<String, Double> after = snapshot(page, cdp);
+
+                Map<String, Object> measurement = new LinkedHashMap<>();
+                measurement.put("changeDetectionTicks", after.get("ticks") - before.get("ticks"));
+                measurement.put("viewChecks", after.get("viewChecks") - before.get("viewChecks"));
+                measurement.put("tickMs", after.get("tickMs") - before.get("tickMs"));
+                // CDP durations are in seconds
+                measurement.put("scriptingMs", (after.get("ScriptDuration") - before.get("ScriptDuration")) * 1000);
+                measurement.put("heapMB", after.get("JSHeapUsedSize") / 1024 / 1024);
+                measurement.put("renderMs", ((Number) harness.get("renderMs")).doubleValue());
+                measurement.put("worstInteractionLatencyMs",
+                    ((Number) interactions.getOrDefault("worstInteractionLatencyMs", 0.0)).doubleValue());
+                // Not a metric; MetricStatistics skips non-numeric values
+                measurement.put("zoneLoaded", Boolean.TRUE.equals(harness.get("zoneLoaded")));
+                log.info("CD experiment {}: ticks={}, scripting={}ms", url,
+                    measurement.get("changeDetectionTicks"), measurement.get("scriptingMs"));
+                return measurement;
+            });
+        } catch (Exception e) {
+            log.error("CD experiment run failed for {}", url, e);
+            return Map.of("error", e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * Tick counters from the harness instrumentation plus CDP counters after a forced GC.
+     */
+    private Map<String, Double> snapshot(Page page, CDPSession cdp) {
+        @SuppressWarnings("unchecked")
+        Map<String, Object> cd = (Map<String, Object>) page.evaluate("""
+            () => {
+                const cd = window.__agentivyCd || { ticks: 0, viewChecks: 0, totalTickMs: 0 };
+                return { ticks: cd.ticks, viewChecks: cd.viewChecks, tickMs: cd.totalTickMs };
+            }
+            """);
+        cdp.send("HeapProfiler.collectGarbage");
+
+        Map<String, Double> values = new HashMap<>();
+        cd.forEach((key, value) -> values.put(key, ((Number) value).doubleValue()));
+        cdp.send("Performance.getMetrics").getAsJsonArray("metrics").forEach(m ->
+            values.put(m.getAsJsonObject().get("name").getAsString(),
+                m.getAsJsonObject().get("value").getAsDouble()));
+        values.putIfAbsent("ScriptDuration", 0.0);
+        values.putIfAbsent("JSHeapUsedSize", 0.0);
+        return values;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Double> medians(Map<String, Object> result) {
+        Map<String, Object> medians = (Map<String, Object>) result.get("medians");
+        if (medians == null) return null;
+        Map<String, Double> values = new HashMap<>();
+        medians.forEach((metric, value) -> values.put(metric, ((Number) value).doubleValue()));
+        return values;
+    }
+
+    private static String describe(String variant, Map<String, Map<String, Object>> deltas) {
+        String change = switch (variant) {
+            case "onpush" -> "switch the component to ChangeDetectionStrategy.OnPush";
+            case "zoneless" -> "consider provideZonelessChangeDetection, after checking async updates still render without zone.js";
+            case "zoneless-onpush" -> "combine OnPush with zoneless change detection";
+            default -> "apply variant " + variant;
+        };
+        return String.format("%s: %+.0f%% scripting, %+.0f%% change detection ticks, %+.0f%% view checks - %s",
+            variant,
+            VariantComparison.percent(deltas, "scriptingMs"),
+            VariantComparison.percent(deltas, "changeDetectionTicks"),
+            VariantComparison.percent(deltas, "viewChecks"),
+            change);
+    }
+}
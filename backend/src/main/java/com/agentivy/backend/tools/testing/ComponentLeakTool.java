@@ -0,0 +1,279 @@
+package com.agentivy.backend.tools.testing;
+
+import com.agentivy.backend.service.EventPublisherHelper;
+import com.agentivy.backend.service.SessionContext;
+import com.agentivy.backend.tools.PlaywrightBrowserPool;
+import com.agentivy.backend.tools.registry.ToolCategory;
+import com.agentivy.backend.tools.registry.ToolMetadata;
+import com.agentivy.backend.tools.registry.ToolProvider;
+import com.google.adk.tools.Annotations.Schema;
+import com.google.adk.tools.FunctionTool;
+import com.google.common.collect.ImmutableMap;
+import com.google.gson.JsonObject;
+import com.microsoft.playwright.CDPSession;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.options.WaitUntilState;
+import io.reactivex.rxjava3.core.Maybe;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Detects memory leaked on component destroy by cycling it in and out of the harness.
+ *
+ * An idle heap-growth window cannot see subscriptions, listeners or DOM kept alive after
+ * ngOnDestroy, because nothing is destroyed while the page sits idle. Here the component is
+ * unmounted and remounted N times through the benchmark harness hook, with heap snapshots
+ * (taken after a forced GC) before and after. Anything that grew by at least one instance per
+ * cycle is reported by constructor name, along with detached DOM nodes, RxJS subscribers
+ * and event listeners.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ComponentLeakTool implements ToolProvider {
+
+    private final EventPublisherHelper eventPublisher;
+    private final PlaywrightBrowserPool browserPool;
+
+    @Value("${agentivy.playwright.timeout-ms:30000}")
+    private int timeoutMs;
+
+    @Value("${agentivy.leak.cycles:10}")
+    private int defaultCycles;
+
+    @Value("${agentivy.leak.item-count:50}")
+    private int itemCount;
+
+    // Cycles run before the baseline snapshot so lazily created caches are not counted as leaks
+    private static final int WARMUP_CYCLES = 2;
+
+    private static final Set<String> SUBSCRIPTION_CONSTRUCTORS = Set.of(
+        "Subscriber", "SafeSubscriber", "OperatorSubscriber", "ConsumerObserver", "Subscription");
+
+    private static final int MAX_REPORTED_CONSTRUCTORS = 15;
+
+    @Override
+    public ToolMetadata getMetadata() {
+        return new ToolMetadata(
+            "testing.performance.leak",
+            "Component Mount/Unmount Leak Detector",
+            "Cycles a component in and out of the harness and diffs heap snapshots to find memory retained after destroy",
+            ToolCategory.COMPONENT_TESTING,
+            "1.0.0",
+            true,
+            List.of("performance", "memory", "leak", "heap-snapshot", "playwright"),
+            Map.of(
+                "cycles", String.valueOf(defaultCycles),
+                "warmup-cycles", String.valueOf(WARMUP_CYCLES)
+            )
+        );
+    }
+
+    @Override
+    public List<FunctionTool> createTools() {
+        return List.of(FunctionTool.create(this, "runMountCycleLeakTest"));
+    }
+
+    /**
+     * Runs the mount/unmount leak test against a benchmark harness.
+     *
+     * @param componentUrl URL of the benchmark harness (without query string)
+     * @param cycles Number of unmount/mount cycles (optional, defaults to agentivy.leak.cycles)
+     * @return Retained objects per cycle by constructor, detached DOM, subscriptions and listeners
+     */
+    public Maybe<ImmutableMap<String, Object>> runMountCycleLeakTest(
+            @Schema(name = "componentUrl") String componentUrl,
+            @Schema(name = "cycles") Integer cycles) {
+
+        return Maybe.fromCallable(() -> {
+            String componentName = SessionContext.getCurrentComponent() != null
+                ? SessionContext.getCurrentComponent()
+                : "unknown";
+            int cycleCount = cycles != null && cycles > 0 ? cycles : defaultCycles;
+
+            if (!browserPool.isAvailable()) {
+                return ImmutableMap.<String, Object>of("status", "error",
+                    "message", "Playwright not initialized. Ensure agentivy.playwright.enabled=true and Chromium is installed.");
+            }
+
+            eventPublisher.publishToolCall("runMountCycleLeakTest", "Cycling component " + cycleCount + " times on " + componentUrl);
+            eventPublisher.publishComponentStatus(componentName, "leak", "starting",
+                "Mounting and unmounting component " + cycleCount + " times...",
+                Map.of("targetUrl", componentUrl, "cycles", cycleCount));
+
+            long startTime = System.currentTimeMillis();
+            String url = componentUrl + (componentUrl.contains("?") ? "&" : "?") + "size=" + itemCount;
+            long leaseTimeoutMs = timeoutMs * 3L + cycleCount * 2_000L;
+
+            try {
+                Map<String, Object> findings = browserPool.withContext(null, leaseTimeoutMs,
+                    session -> cycleAndDiff(session.context().newPage(), url, cycleCount));
+
+                boolean leakDetected = (boolean) findings.get("leakDetected");
+                eventPublisher.publishComponentStatus(componentName, "leak", "completed",
+                    leakDetected
+                        ? "Memory retained after destroy: " + findings.get("summary")
+                        : "No memory retained across " + cycleCount + " mount/unmount cycles",
+                    Map.of(
+                        "passed", !leakDetected,
+                        "retainedObjectsPerCycle", findings.get("retainedObjectsPerCycle"),
+                        "detachedDomNodes", findings.get("detachedDomNodes"),
+                        "timeElapsed", System.currentTimeMillis() - startTime
+                    ));
+
+                return ImmutableMap.<String, Object>builder()
+                    .put("status", "success")
+                    .put("componentUrl", componentUrl)
+                    .put("passed", !leakDetected)
+                    .putAll(findings)
+                    .build();
+
+            } catch (Exception e) {
+                log.error("Mount/unmount leak test failed", e);
+                eventPublisher.publishComponentStatus(componentName, "leak", "failed",
+                    "Leak test failed: " + e.getMessage());
+                return ImmutableMap.<String, Object>of("status", "error",
+                    "message", "Leak test failed: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Runs on the pooled browser's thread.
+     */
+    private Map<String, Object> cycleAndDiff(Page page, String url, int cycles) {
+        CDPSession cdp = page.context().newCDPSession(page);
+        // Chunks go straight to the snapshot file being written, never held in memory as a whole
+        AtomicReference<Writer> snapshot = new AtomicReference<>();
+        cdp.on("HeapProfiler.addHeapSnapshotChunk", event -> {
+            Writer sink = snapshot.get();
+            if (sink == null) return;
+            try {
+                sink.write(event.get("chunk").getAsString());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        cdp.send("HeapProfiler.enable");
+        cdp.send("Performance.enable");
+
+        page.navigate(url, new Page.NavigateOptions()
+            .setWaitUntil(WaitUntilState.DOMCONTENTLOADED)
+            .setTimeout(timeoutMs));
+        page.waitForFunction("() => window.__agentivyHarness && window.__agentivyScaling && window.__agentivyScaling.ready",
+            null, new Page.WaitForFunctionOptions().setTimeout(timeoutMs));
+
+        cycle(page, WARMUP_CYCLES);
+        HeapSnapshotSummary before = takeSnapshot(cdp, snapshot);
+        double listenersBefore = eventListenerCount(cdp);
+
+        cycle(page, cycles);
+        HeapSnapshotSummary after = takeSnapshot(cdp, snapshot);
+        double listenersAfter = eventListenerCount(cdp);
+
+        List<Map<String, Object>> grown = after.growthSince(before, cycles);
+        List<Map<String, Object>> retained = new ArrayList<>();
+        for (Map<String, Object> entry : grown.subList(0, Math.min(MAX_REPORTED_CONSTRUCTORS, grown.size()))) {
+            Map<String, Object> perCycle = new HashMap<>(entry);
+            perCycle.put("perCycle", ((int) entry.get("growth")) / (double) cycles);
+            retained.add(perCycle);
+        }
+
+        int subscriptionGrowth = SUBSCRIPTION_CONSTRUCTORS.stream()
+            .mapToInt(name -> after.counts().getOrDefault(name, 0) - before.counts().getOrDefault(name, 0))
+            .sum();
+        int detachedGrowth = after.detachedDomNodes() - before.detachedDomNodes();
+        int listenerGrowth = (int) (listenersAfter - listenersBefore);
+        double objectsPerCycle = grown.stream().mapToInt(e -> (int) e.get("growth")).sum() / (double) cycles;
+
+        List<String> findings = new ArrayList<>();
+        if (detachedGrowth >= cycles) {
+            findings.add(String.format("%d detached DOM nodes", detachedGrowth));
+        }
+        if (subscriptionGrowth >= cycles) {
+            findings.add(String.format("%d undisposed subscriptions", subscriptionGrowth));
+        }
+        if (listenerGrowth >= cycles) {
+            findings.add(String.format("%d event listeners not removed", listenerGrowth));
+        }
+        if (!retained.isEmpty()) {
+            findings.add(String.format("%.1f objects/cycle (top: %s)", objectsPerCycle, retained.get(0).get("constructor")));
+        }
+
+        log.info("Leak test: {} cycles, {} constructors grew, detached={}, subscriptions={}, listeners={}",
+            cycles, grown.size(), detachedGrowth, subscriptionGrowth, listenerGrowth);
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("cycles", cycles);
+        result.put("warmupCycles", WARMUP_CYCLES);
+        result.put("retainedObjectsPerCycle", objectsPerCycle);
+        result.put("retainedByConstructor", retained);
+        result.put("detachedDomNodes", detachedGrowth);
+        result.put("undisposedSubscriptions", subscriptionGrowth);
+        result.put("eventListenerGrowth", listenerGrowth);
+        result.put("leakDetected", !findings.isEmpty());
+        result.put("summary", String.join(", ", findings));
+        return result;
+    }
+
+    private void cycle(Page page, int times) {
+        for (int i = 0; i < times; i++) {
+            page.evaluate("() => window.__agentivyHarness.setMounted(false)");
+            page.evaluate("() => window.__agentivyHarness.setMounted(true)");
+        }
+    }
+
+    private HeapSnapshotSummary takeSnapshot(CDPSession cdp, AtomicReference<Writer> sink) {
+        cdp.send("HeapProfiler.collectGarbage");
+        JsonObject params = new JsonObject();
+        params.addProperty("reportProgress", false);
+
+        Path file = null;
+        try {
+            file = Files.createTempFile("agentivy-heap-", ".heapsnapshot");
+            try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                sink.set(writer);
+                // Chunks arrive as events before the command returns
+                cdp.send("HeapProfiler.takeHeapSnapshot", params);
+            } finally {
+                sink.set(null);
+            }
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                return HeapSnapshotSummary.parse(reader);
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not parse heap snapshot: " + e.getMessage(), e);
+        } finally {
+            if (file != null) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    log.debug("Could not delete heap snapshot {}: {}", file, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private double eventListenerCount(CDPSession cdp) {
+        JsonObject metrics = cdp.send("Performance.getMetrics");
+        for (var metric : metrics.getAsJsonArray("metrics")) {
+            JsonObject entry = metric.getAsJsonObject();
+            if ("JSEventListeners".equals(entry.get("name").getAsString())) {
+                return entry.get("value").getAsDouble();
+            }
+        }
+        return 0;
+    }
+}
@@ -2,6 +2,7 @@ package com.agentivy.backend.tools.testing;
 
 import com.agentivy.backend.service.EventPublisherHelper;
 import com.agentivy.backend.service.SessionContext;
+import com.agentivy.backend.tools.PlaywrightBrowserPool;
 import com.agentivy.backend.util.ScoringUtils;
 import com.agentivy.backend.tools.registry.ToolCategory;
 import com.agentivy.backend.tools.registry.ToolMetadata;
@@ -9,16 +10,17 @@ import com.agentivy.backend.tools.registry.ToolProvider;
 import com.google.adk.tools.Annotations.Schema;
 import com.google.adk.tools.FunctionTool;
 import com.google.common.collect.ImmutableMap;
+import com.google.gson.JsonObject;
 import com.microsoft.playwright.*;
 import com.microsoft.playwright.options.WaitUntilState;
 import io.reactivex.rxjava3.core.Maybe;
-import jakarta.annotation.PostConstruct;
-import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.net.URI;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Enhanced atomic tool for component performance testing.
@@ -29,20 +31,20 @@ import java.util.*;
 public class ComponentPerformanceTool implements ToolProvider {
 
     private final EventPublisherHelper eventPublisher;
+    private final PlaywrightBrowserPool browserPool;
 
-    public ComponentPerformanceTool(EventPublisherHelper eventPublisher) {
+    // One source map resolver per dev server origin, so parsed maps survive between runs
+    private static final int MAX_CACHED_RESOLVERS = 8;
+    private final Map<String, SourceMapResolver> sourceMapResolvers = new ConcurrentHashMap<>();
+
+    public ComponentPerformanceTool(EventPublisherHelper eventPublisher, PlaywrightBrowserPool browserPool) {
         this.eventPublisher = eventPublisher;
+        this.browserPool = browserPool;
     }
 
-    @Value("${agentivy.playwright.enabled:true}")
-    private boolean playwrightEnabled;
-
     @Value("${agentivy.playwright.timeout-ms:30000}")
     private int timeoutMs;
 
-    @Value("${agentivy.playwright.headless:true}")
-    private boolean headless;
-
     @Value("${agentivy.performance.runtime-monitoring-seconds:30}")
     private int runtimeMonitoringSeconds;
 
@@ -52,34 +54,69 @@ public class ComponentPerformanceTool implements ToolProvider {
     @Value("${agentivy.performance.dom-element-warning-threshold:1000}")
     private int domElementWarningThreshold;
 
-    private Playwright playwright;
-    private Browser browser;
+    // Page loads per test; initial-load metrics and the score use the median across loads
+    @Value("${agentivy.performance.iterations:1}")
+    private int iterations;
 
-    @PostConstruct
-    public void init() {
-        if (!playwrightEnabled) {
-            log.info("Playwright is disabled for ComponentPerformanceTool via configuration");
-            return;
-        }
+    // Coefficient of variation (%) above which a metric is reported as noisy
+    @Value("${agentivy.performance.noise-cv-percent:10}")
+    private double noiseCvPercent;
 
-        try {
-            log.info("Initializing Playwright browser for performance testing (headless: {})", headless);
-            playwright = Playwright.create();
-            browser = playwright.chromium().launch(new BrowserType.LaunchOptions()
-                .setHeadless(headless)
-                .setTimeout(timeoutMs));
-            log.info("Playwright browser initialized successfully for performance testing");
-        } catch (Exception e) {
-            log.error("Failed to initialize Playwright for performance testing: {}", e.getMessage());
-            playwrightEnabled = false;
-        }
-    }
+    // CDP CPU profile over the runtime window, attributed to source files via source maps.
+    // Off by default: the sampling profiler adds overhead to the very window it measures.
+    @Value("${agentivy.performance.cpu-profiling.enabled:false}")
+    private boolean cpuProfiling;
 
-    @PreDestroy
-    public void cleanup() {
-        if (browser != null) browser.close();
-        if (playwright != null) playwright.close();
-    }
+    @Value("${agentivy.performance.cpu-profiling.sampling-interval-us:1000}")
+    private int cpuSamplingIntervalUs;
+
+    @Value("${agentivy.performance.cpu-profiling.top-frames:15}")
+    private int cpuTopFrames;
+
+    // Drive interactive elements after runtime monitoring and measure each interaction.
+    // Opt-in: the clicks run the component's real handlers (HTTP calls, state changes).
+    @Value("${agentivy.performance.interactions.enabled:false}")
+    private boolean interactionProfiling;
+
+    @Value("${agentivy.performance.interactions.max:20}")
+    private int maxInteractions;
+
+    // Period of the in-page sampler whose ring buffer is drained once per sample interval
+    @Value("${agentivy.performance.in-page-sample-interval-ms:100}")
+    private int inPageSampleIntervalMs;
+
+    // Stop sampling once heap and CD rate settle; extend while a possible leak is ambiguous
+    @Value("${agentivy.performance.adaptive.enabled:true}")
+    private boolean adaptiveSampling;
+
+    @Value("${agentivy.performance.adaptive.min-samples:3}")
+    private int adaptiveMinSamples;
+
+    @Value("${agentivy.performance.adaptive.max-sample-factor:2}")
+    private int adaptiveMaxSampleFactor;
+
+    @Value("${agentivy.performance.adaptive.stable-heap-percent:1.0}")
+    private double stableHeapPercent;
+
+    @Value("${agentivy.performance.adaptive.stable-cd-rate:0.5}")
+    private double stableCdRate;
+
+    // "real" samples in wall-clock time; "virtual" fast-forwards the page's clock between samples
+    @Value("${agentivy.performance.clock-mode:real}")
+    private String clockMode;
+
+    // Device profile used when the thresholds JSON names none (see DeviceProfile.PRESETS)
+    @Value("${agentivy.performance.device-profile:desktop}")
+    private String defaultDeviceProfile;
+
+    // Heap growth over the monitoring window that is reported as a potential leak
+    static final double MEMORY_LEAK_GROWTH_PERCENT = 20;
+
+    // Average ApplicationRef.tick duration above one 60 Hz frame budget
+    static final double SLOW_TICK_MS = 16;
+
+    // Hard limit for a single in-page metrics evaluation
+    private static final long EVALUATE_TIMEOUT_MS = 20_000;
 
     @Override
     public ToolMetadata getMetadata() {
@@ -95,7 +132,10 @@ public class ComponentPerformanceTool implements ToolProvider {
                 "metrics", "Initial load, runtime monitoring, memory profiling, change detection",
                 "thresholds", "Configurable performance budgets",
                 "runtime-monitoring", runtimeMonitoringSeconds + " seconds",
-                "sample-interval", sampleIntervalSeconds + " seconds"
+                "sample-interval", sampleIntervalSeconds + " seconds",
+                "clock-mode", clockMode,
+                "iterations", iterations,
+                "device-profiles", String.join(", ", DeviceProfile.PRESETS.keySet().stream().sorted().toList())
             )
         );
     }
@@ -109,7 +149,9 @@ public class ComponentPerformanceTool implements ToolProvider {
      * Runs comprehensive performance tests on the specified component URL.
      *
      * @param componentUrl The URL of the component to test (e.g., http://localhost:4200/agent-ivy-harness)
-     * @param thresholds Optional performance thresholds (JSON string with loadTime, renderTime, etc.)
+     * @param thresholds Optional performance thresholds (JSON string with loadTime, renderTime, etc.),
+     *                   plus an optional deviceProfile: a preset name such as "low-end-mobile" or an
+     *                   object with cpuSlowdown, latencyMs, downloadKbps and uploadKbps
      * @return Structured performance test results with initial, runtime, and memory metrics
      */
     public Maybe<ImmutableMap<String, Object>> runPerformanceTest(
@@ -125,6 +167,13 @@ public class ComponentPerformanceTool implements ToolProvider {
                 : extractComponentNameFromUrl(componentUrl);
             long startTime = System.currentTimeMillis();
 
+            DeviceProfile deviceProfile;
+            try {
+                deviceProfile = parseDeviceProfile(thresholds);
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                return ImmutableMap.<String, Object>of("status", "error", "message", e.getMessage());
+            }
+
             // Publish starting status with detailed metadata
             eventPublisher.publishToolCall("runPerformanceTest", "Running performance test on " + componentUrl);
             eventPublisher.publishComponentStatus(
@@ -134,15 +183,20 @@ public class ComponentPerformanceTool implements ToolProvider {
                 "Initializing performance measurements...",
                 Map.of(
                     "targetUrl", componentUrl,
-                    "browserReady", playwright != null && browser != null,
-                    "metricsToCapture", List.of("initialLoad", "runtime", "memory", "changeDetection"),
-                    "monitoringDuration", runtimeMonitoringSeconds * 1000
+                    "browserReady", browserPool.isAvailable(),
+                    "metricsToCapture", interactionProfiling
+                        ? List.of("initialLoad", "runtime", "memory", "changeDetection", "interactions")
+                        : List.of("initialLoad", "runtime", "memory", "changeDetection"),
+                    "monitoringDuration", runtimeMonitoringSeconds * 1000,
+                    "clockMode", isVirtualClock() ? "virtual" : "real",
+                    "iterations", Math.max(1, iterations),
+                    "deviceProfile", deviceProfile.toMap()
                 )
             );
 
             try {
-                // Check if Playwright is ready (initialized via @PostConstruct)
-                if (!playwrightEnabled || browser == null) {
+                // Check if the shared browser pool is ready
+                if (!browserPool.isAvailable()) {
                     return ImmutableMap.<String, Object>builder()
                         .put("status", "error")
                         .put("message", "Playwright not initialized. Ensure agentivy.playwright.enabled=true and Chromium is installed.")
@@ -163,7 +217,7 @@ public class ComponentPerformanceTool implements ToolProvider {
                 );
 
                 // Measure initial load + runtime metrics
-                Map<String, Object> allMetrics = measureComprehensivePerformance(componentUrl);
+                Map<String, Object> allMetrics = measureComprehensivePerformance(componentUrl, deviceProfile);
 
                 // Update progress during runtime monitoring
                 eventPublisher.publishComponentStatus(
@@ -184,6 +238,8 @@ public class ComponentPerformanceTool implements ToolProvider {
                         .put("message", allMetrics.get("error"))
                         .build();
                 }
+                allMetrics = new HashMap<>(allMetrics);
+                allMetrics.put("deviceProfile", deviceProfile.toMap());
 
                 // Parse thresholds (if provided)
                 Map<String, Double> performanceThresholds = parseThresholds(thresholds);
@@ -228,7 +284,8 @@ public class ComponentPerformanceTool implements ToolProvider {
                         "thresholds", thresholdResults,
                         "warnings", warnings,
                         "recommendations", recommendations.subList(0, Math.min(3, recommendations.size())), // Top 3
-                        "timeElapsed", timeElapsed
+                        "timeElapsed", timeElapsed,
+                        "deviceProfile", deviceProfile.name()
                     )
                 );
 
@@ -238,6 +295,7 @@ public class ComponentPerformanceTool implements ToolProvider {
                     .put("timestamp", System.currentTimeMillis())
                     .put("metrics", allMetrics)
                     .put("performanceScore", performanceScore)
+                    .put("deviceProfile", deviceProfile.toMap())
                     .put("evaluation", evaluation)
                     .put("passed", "pass".equals(ScoringUtils.performanceStatusFromScore(performanceScore)))
                     .put("warnings", warnings)
@@ -318,18 +376,123 @@ public class ComponentPerformanceTool implements ToolProvider {
         return results;
     }
 
+    /**
+     * Upper bound for one {@link #runPerformanceTest} call under the device profile the
+     * thresholds select (the configured default when they name none): the measurement lease
+     * plus every repeated load. Callers that add their own timeout should derive it from this.
+     */
+    public long runTimeoutMs(String thresholds) {
+        DeviceProfile profile;
+        try {
+            profile = parseDeviceProfile(thresholds);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            profile = DeviceProfile.named(DeviceProfile.DEFAULT);
+        }
+        return measureTimeoutMs(profile) + (long) (Math.max(1, iterations) - 1) * loadTimeoutMs(profile);
+    }
+
+    /** Lease timeout for the first load plus runtime monitoring. */
+    private long measureTimeoutMs(DeviceProfile profile) {
+        return profile.scaleTimeout(timeoutMs + EVALUATE_TIMEOUT_MS)
+            + (long) maxRuntimeSamples() * sampleIntervalSeconds * 1000L + 60_000
+            + (interactionProfiling ? (long) (maxInteractions * 3_000L * profile.cpuSlowdown()) : 0);
+    }
+
+    /** Lease timeout for one repeated initial load. */
+    private long loadTimeoutMs(DeviceProfile profile) {
+        return profile.scaleTimeout(timeoutMs + EVALUATE_TIMEOUT_MS) + 30_000;
+    }
+
     /**
      * Comprehensive performance measurement: initial load + runtime monitoring.
      */
-    private Map<String, Object> measureComprehensivePerformance(String url) {
-        try (BrowserContext context = browser.newContext();
-             Page page = context.newPage()) {
+    private Map<String, Object> measureComprehensivePerformance(String url, DeviceProfile profile) {
+        long leaseTimeoutMs = measureTimeoutMs(profile);
+        Map<String, Object> firstRun;
+        try {
+            firstRun = browserPool.withContext(null, leaseTimeoutMs, session -> measureInSession(session, url, profile));
+        } catch (Exception e) {
+            log.error("Failed to measure comprehensive performance", e);
+            return Map.of("error", "Comprehensive performance measurement failed: " + e.getMessage());
+        }
 
+        if (iterations <= 1 || firstRun.containsKey("error")) {
+            return firstRun;
+        }
+        return withRepeatedLoads(firstRun, url, profile);
+    }
+
+    /**
+     * Repeats the initial load against the same dev server, each time in a fresh browser
+     * context, and replaces the single-load initial metrics with their medians. Runtime
+     * monitoring is not repeated: it already averages over its own samples.
+     */
+    private Map<String, Object> withRepeatedLoads(Map<String, Object> firstRun, String url, DeviceProfile profile) {
+        List<Map<String, Object>> loads = new ArrayList<>();
+        loads.add((Map<String, Object>) firstRun.get("initial"));
+
+        long loadTimeoutMs = loadTimeoutMs(profile);
+        for (int i = 1; i < iterations; i++) {
+            try {
+                Map<String, Object> load = browserPool.withContext(null, loadTimeoutMs, session -> {
+                    Page page = session.context().newPage();
+                    applyDeviceProfile(page, profile);
+                    if (isVirtualClock()) {
+                        page.clock().install();
+                    }
+                    return measureInitialLoadMetrics(session, page, url, profile);
+                });
+                if (load.containsKey("error")) {
+                    log.warn("Load iteration {} failed: {}", i + 1, load.get("error"));
+                    continue;
+                }
+                loads.add(load);
+            } catch (Exception e) {
+                log.warn("Load iteration {} failed: {}", i + 1, e.getMessage());
+            }
+        }
+
+        Map<String, Map<String, Object>> statistics = MetricStatistics.aggregate(loads, noiseCvPercent);
+        Map<String, Object> medians = new HashMap<>();
+        List<String> noisyMetrics = new ArrayList<>();
+        statistics.forEach((metric, summary) -> {
+            medians.put(metric, summary.get("median"));
+            if (Boolean.TRUE.equals(summary.get("noisy"))) {
+                noisyMetrics.add(metric);
+            }
+        });
+
+        log.info("Aggregated {} of {} page loads (noisy: {})", loads.size(), iterations, noisyMetrics);
+
+        Map<String, Object> result = new HashMap<>(firstRun);
+        result.put("initial", medians);
+        result.put("iterations", Map.of(
+            "requested", iterations,
+            "completed", loads.size(),
+            "aggregate", "median",
+            "statistics", statistics,
+            "noisyMetrics", noisyMetrics
+        ));
+        return result;
+    }
+
+    /**
+     * Runs on the pooled browser's thread.
+     */
+    private Map<String, Object> measureInSession(PlaywrightBrowserPool.BrowserSession session, String url,
+                                                 DeviceProfile profile) {
+        try {
+            Page page = session.context().newPage();
+            applyDeviceProfile(page, profile);
+            if (isVirtualClock()) {
+                // Must be installed before navigation so the app's timers are created on the fake clock
+                page.clock().install();
+            }
             Map<String, Object> result = new HashMap<>();
 
             // Step 1: Initial Load Metrics
             log.info("Step 1: Measuring initial load performance...");
-            Map<String, Object> initialMetrics = measureInitialLoadMetrics(page, url);
+            Map<String, Object> initialMetrics = measureInitialLoadMetrics(session, page, url, profile);
 
             if (initialMetrics.containsKey("error")) {
                 return initialMetrics;
@@ -347,6 +510,12 @@ public class ComponentPerformanceTool implements ToolProvider {
             Map<String, Object> runtimeMetrics = measureRuntimePerformance(page);
             result.put("runtime", runtimeMetrics);
 
+            // Step 4: Interaction profiling (handlers that never run on an idle page)
+            if (interactionProfiling) {
+                log.info("Step 4: Profiling interactions (up to {})...", maxInteractions);
+                result.put("interactions", measureInteractions(page));
+            }
+
             return result;
 
         } catch (Exception e) {
@@ -355,15 +524,32 @@ public class ComponentPerformanceTool implements ToolProvider {
         }
     }
 
+    /**
+     * Step 4: Per-element interaction cost. Skipped under the virtual clock, where frames
+     * and Event Timing entries do not advance on their own.
+     */
+    private Map<String, Object> measureInteractions(Page page) {
+        if (isVirtualClock()) {
+            return Map.of("skipped", true, "reason", "Interaction latency needs the real clock");
+        }
+        try {
+            return new InteractionProfiler(timeoutMs).profile(page, maxInteractions, () -> injectChangeDetectionMonitor(page));
+        } catch (Exception e) {
+            log.warn("Interaction profiling failed: {}", e.getMessage());
+            return Map.of("error", "Interaction profiling failed: " + e.getMessage());
+        }
+    }
+
     /**
      * Step 1: Measure initial load performance.
      */
-    private Map<String, Object> measureInitialLoadMetrics(Page page, String url) {
+    private Map<String, Object> measureInitialLoadMetrics(PlaywrightBrowserPool.BrowserSession session, Page page,
+                                                          String url, DeviceProfile profile) {
         try {
             long startTime = System.currentTimeMillis();
             page.navigate(url, new Page.NavigateOptions()
                 .setWaitUntil(WaitUntilState.DOMCONTENTLOADED)
-                .setTimeout(timeoutMs));
+                .setTimeout(profile.scaleTimeout(timeoutMs)));
             long loadTime = System.currentTimeMillis() - startTime;
 
             // Get Performance API metrics with hard timeout
@@ -372,10 +558,7 @@ public class ComponentPerformanceTool implements ToolProvider {
             try {
                 log.info("Collecting initial performance metrics with 20s timeout...");
 
-                var executor = java.util.concurrent.Executors.newSingleThreadExecutor();
-                var future = executor.submit(() -> {
-                    try {
-                        return (Map<String, Object>) page.evaluate("""
+                performanceMetrics = session.withDeadline(EVALUATE_TIMEOUT_MS, () -> (Map<String, Object>) page.evaluate("""
                             () => {
                                 const perfData = window.performance.getEntriesByType('navigation')[0];
                                 const paintEntries = window.performance.getEntriesByType('paint');
@@ -392,22 +575,11 @@ public class ComponentPerformanceTool implements ToolProvider {
                                     timeToInteractive: perfData ? perfData.domInteractive - perfData.fetchStart : 0
                                 };
                             }
-                        """);
-                    } catch (Exception e) {
-                        throw new RuntimeException("Performance evaluate failed: " + e.getMessage(), e);
-                    }
-                });
-
-                try {
-                    performanceMetrics = future.get(20, java.util.concurrent.TimeUnit.SECONDS);
-                    log.info("Initial performance metrics collected successfully");
-                } catch (java.util.concurrent.TimeoutException e) {
-                    future.cancel(true);
-                    log.error("Performance metrics evaluation timed out after 20s");
-                    return Map.of("error", "Performance metrics evaluation timed out after 20s - page too complex");
-                } finally {
-                    executor.shutdownNow();
-                }
+                        """));
+                log.info("Initial performance metrics collected successfully");
+            } catch (java.util.concurrent.TimeoutException e) {
+                log.error("Performance metrics evaluation timed out after 20s");
+                return Map.of("error", "Performance metrics evaluation timed out after 20s - page too complex");
             } catch (Exception e) {
                 log.error("Performance metrics evaluation failed", e);
                 return Map.of("error", "Performance metrics evaluation failed: " + e.getMessage());
@@ -468,25 +640,44 @@ public class ComponentPerformanceTool implements ToolProvider {
     /**
      * Step 3: Runtime monitoring - memory and change detection over time.
      *
+     * In virtual clock mode each interval is simulated with {@code clock.runFor}, which fires
+     * every timer, interval and RxJS scheduler callback due in that interval without waiting
+     * for it in real time. The samples are still taken once per simulated interval.
+     *
      * Note: This method uses Thread.sleep() for sampling intervals, which blocks
      * the current thread. This is intentional because:
      * 1. It runs inside Maybe.fromCallable() on a bounded scheduler
      * 2. The monitoring loop is inherently sequential (sample, wait, sample)
-     * 3. Each invocation creates its own browser context, so blocking is isolated
+     * 3. Each invocation runs on a pooled browser's own thread in its own context, so blocking is isolated
      */
     private Map<String, Object> measureRuntimePerformance(Page page) {
         try {
             // Inject Angular change detection monitor
             injectChangeDetectionMonitor(page);
+            injectInPageSampler(page);
+            CDPSession cdp = openPerformanceDomain(page);
 
             List<Map<String, Object>> samples = new ArrayList<>();
+            List<Map<String, Object>> timeSeries = new ArrayList<>();
             int samplesCount = runtimeMonitoringSeconds / sampleIntervalSeconds;
+            int maxSamples = maxRuntimeSamples();
+            AdaptiveSampler sampler = new AdaptiveSampler(samplesCount, adaptiveMinSamples, maxSamples,
+                stableHeapPercent, stableCdRate, MEMORY_LEAK_GROWTH_PERCENT);
+            boolean virtual = isVirtualClock();
+            long wallStart = System.currentTimeMillis();
+            String stopReason = AdaptiveSampler.PLANNED;
+            boolean profiling = startCpuProfile(cdp);
+
+            for (int i = 0; i < maxSamples; i++) {
+                if (virtual) {
+                    page.clock().runFor(sampleIntervalSeconds * 1000L);
+                } else {
+                    Thread.sleep(sampleIntervalSeconds * 1000L);
+                }
 
-            for (int i = 0; i < samplesCount; i++) {
-                Thread.sleep(sampleIntervalSeconds * 1000L);
-
+                // One round trip returns the coarse sample plus everything the in-page sampler buffered
                 @SuppressWarnings("unchecked")
-                Map<String, Object> sample = (Map<String, Object>) page.evaluate("""
+                Map<String, Object> sample = new HashMap<>((Map<String, Object>) page.evaluate("""
                     () => {
                         const memory = performance.memory || {};
                         const cdStats = window.__cdMonitor || { cycles: 0 };
@@ -496,10 +687,33 @@ public class ComponentPerformanceTool implements ToolProvider {
                             usedJSHeapSize: memory.usedJSHeapSize || 0,
                             totalJSHeapSize: memory.totalJSHeapSize || 0,
                             changeDetectionCycles: cdStats.cycles,
-                            changeDetectionRate: cdStats.rate || 0
+                            changeDetectionRate: cdStats.rate || 0,
+                            changeDetectionSource: cdStats.source || 'none',
+                            tick: window.__agentivyCd ? {
+                                ticks: window.__agentivyCd.ticks,
+                                totalTickMs: window.__agentivyCd.totalTickMs,
+                                maxTickMs: window.__agentivyCd.maxTickMs,
+                                viewChecks: window.__agentivyCd.viewChecks,
+                                componentChecks: { ...window.__agentivyCd.componentChecks }
+                            } : null,
+                            series: window.__perfRing ? window.__perfRing.drain() : []
                         };
                     }
-                """);
+                """));
+
+                @SuppressWarnings("unchecked")
+                List<Map<String, Object>> batch = (List<Map<String, Object>>) sample.remove("series");
+                if (batch != null) {
+                    timeSeries.addAll(batch);
+                }
+
+                Map<String, Double> cdpMetrics = readCdpMetrics(cdp);
+                if (!cdpMetrics.isEmpty()) {
+                    sample.put("cdp", cdpMetrics);
+                    // CDP heap is exact; performance.memory is bucketed without --enable-precise-memory-info
+                    sample.put("usedJSHeapSize", cdpMetrics.getOrDefault("JSHeapUsedSize", 0.0));
+                    sample.put("totalJSHeapSize", cdpMetrics.getOrDefault("JSHeapTotalSize", 0.0));
+                }
 
                 samples.add(sample);
 
@@ -507,10 +721,31 @@ public class ComponentPerformanceTool implements ToolProvider {
                     i + 1, samplesCount,
                     String.format("%.2f", ((Number) sample.get("usedJSHeapSize")).doubleValue() / 1024 / 1024),
                     sample.get("changeDetectionCycles"));
+
+                String reason = adaptiveSampling
+                    ? sampler.stopReason(samples)
+                    : (samples.size() >= samplesCount ? AdaptiveSampler.PLANNED : null);
+                if (reason != null) {
+                    stopReason = reason;
+                    break;
+                }
             }
+            log.info("Runtime sampling stopped after {} of {} planned samples: {}",
+                samples.size(), samplesCount, stopReason);
+            Map<String, Object> cpuProfile = profiling ? stopCpuProfile(cdp, page.url()) : null;
 
             // Analyze samples
-            return analyzeSamples(samples);
+            Map<String, Object> analysis = new HashMap<>(analyzeSamples(samples, timeSeries));
+            if (cpuProfile != null) {
+                analysis.put("cpuProfile", cpuProfile);
+            }
+            analysis.put("clockMode", virtual ? "virtual" : "real");
+            analysis.put("simulatedSeconds", samples.size() * sampleIntervalSeconds);
+            analysis.put("plannedSamples", samplesCount);
+            analysis.put("samplingStopReason", stopReason);
+            analysis.put("adaptiveSampling", adaptiveSampling);
+            analysis.put("wallClockMs", System.currentTimeMillis() - wallStart);
+            return analysis;
 
         } catch (Exception e) {
             log.warn("Runtime monitoring failed: {}", e.getMessage());
@@ -521,6 +756,159 @@ public class ComponentPerformanceTool implements ToolProvider {
         }
     }
 
+    /**
+     * Throttles CPU and network for the page before it navigates. Fails the run rather than
+     * measuring unthrottled, since the result is reported under the profile's name.
+     */
+    private void applyDeviceProfile(Page page, DeviceProfile profile) {
+        if (!profile.throttlesCpu() && !profile.throttlesNetwork()) return;
+
+        CDPSession cdp = page.context().newCDPSession(page);
+        if (profile.throttlesCpu()) {
+            JsonObject params = new JsonObject();
+            params.addProperty("rate", profile.cpuSlowdown());
+            cdp.send("Emulation.setCPUThrottlingRate", params);
+        }
+        if (profile.throttlesNetwork()) {
+            cdp.send("Network.enable");
+            JsonObject params = new JsonObject();
+            params.addProperty("offline", false);
+            params.addProperty("latency", profile.latencyMs());
+            params.addProperty("downloadThroughput", DeviceProfile.bytesPerSecond(profile.downloadKbps()));
+            params.addProperty("uploadThroughput", DeviceProfile.bytesPerSecond(profile.uploadKbps()));
+            cdp.send("Network.emulateNetworkConditions", params);
+        }
+        log.info("Applied device profile {}: {}x CPU, {} ms latency, {} kbps down",
+            profile.name(), profile.cpuSlowdown(), profile.latencyMs(), profile.downloadKbps());
+    }
+
+    /**
+     * Enables the CDP Performance domain; returns null where CDP is unavailable.
+     */
+    private CDPSession openPerformanceDomain(Page page) {
+        try {
+            CDPSession cdp = page.context().newCDPSession(page);
+            cdp.send("Performance.enable");
+            return cdp;
+        } catch (Exception e) {
+            log.warn("CDP Performance domain unavailable, using in-page metrics only: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private boolean startCpuProfile(CDPSession cdp) {
+        if (!cpuProfiling || cdp == null) return false;
+        try {
+            cdp.send("Profiler.enable");
+            JsonObject params = new JsonObject();
+            params.addProperty("interval", cpuSamplingIntervalUs);
+            cdp.send("Profiler.setSamplingInterval", params);
+            cdp.send("Profiler.start");
+            return true;
+        } catch (Exception e) {
+            log.warn("CPU profiling unavailable: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Stops the profiler and resolves hot frames through the dev server's source maps.
+     */
+    private Map<String, Object> stopCpuProfile(CDPSession cdp, String pageUrl) {
+        try {
+            JsonObject profile = cdp.send("Profiler.stop").getAsJsonObject("profile");
+            Map<String, Object> analysis = CpuProfileAnalyzer.analyze(profile,
+                sourceMapResolver(pageUrl).forProfile(), cpuTopFrames);
+            log.info("CPU profile: {} samples, {} component hotspot(s)",
+                analysis.get("sampleCount"), ((List<?>) analysis.get("componentHotspots")).size());
+            return analysis;
+        } catch (Exception e) {
+            log.warn("CPU profile analysis failed: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private SourceMapResolver sourceMapResolver(String pageUrl) {
+        String origin;
+        try {
+            URI uri = URI.create(pageUrl);
+            origin = uri.getScheme() + "://" + uri.getAuthority();
+        } catch (Exception e) {
+            origin = pageUrl;
+        }
+        if (!sourceMapResolvers.containsKey(origin) && sourceMapResolvers.size() >= MAX_CACHED_RESOLVERS) {
+            sourceMapResolvers.clear();
+        }
+        return sourceMapResolvers.computeIfAbsent(origin, k -> new SourceMapResolver());
+    }
+
+    /**
+     * Reads Performance.getMetrics (LayoutCount, RecalcStyleDuration, ScriptDuration,
+     * JSHeapUsedSize, Nodes, JSEventListeners, ...) as name -> value.
+     */
+    private Map<String, Double> readCdpMetrics(CDPSession cdp) {
+        if (cdp == null) return Map.of();
+        try {
+            Map<String, Double> metrics = new HashMap<>();
+            cdp.send("Performance.getMetrics").getAsJsonArray("metrics").forEach(m ->
+                metrics.put(m.getAsJsonObject().get("name").getAsString(),
+                    m.getAsJsonObject().get("value").getAsDouble()));
+            return metrics;
+        } catch (Exception e) {
+            log.debug("Performance.getMetrics failed: {}", e.getMessage());
+            return Map.of();
+        }
+    }
+
+    /**
+     * Installs a fixed-size ring buffer in the page that records heap and change-detection
+     * counters every {@code inPageSampleIntervalMs}. drain() returns and clears what was
+     * recorded since the previous drain, so each sample interval costs one round trip.
+     */
+    private void injectInPageSampler(Page page) {
+        try {
+            page.evaluate("""
+                (intervalMs) => {
+                    if (window.__perfRing) return;
+                    const capacity = 1024;
+                    const buffer = new Array(capacity);
+                    let head = 0, size = 0;
+                    window.__perfRing = {
+                        drain() {
+                            const out = [];
+                            const start = (head - size + capacity) % capacity;
+                            for (let i = 0; i < size; i++) out.push(buffer[(start + i) % capacity]);
+                            size = 0;
+                            return out;
+                        }
+                    };
+                    setInterval(() => {
+                        const memory = performance.memory || {};
+                        buffer[head] = {
+                            t: Math.round(performance.now()),
+                            heap: memory.usedJSHeapSize || 0,
+                            cd: window.__cdMonitor ? window.__cdMonitor.cycles : 0,
+                            nodes: document.getElementsByTagName('*').length
+                        };
+                        head = (head + 1) % capacity;
+                        size = Math.min(size + 1, capacity);
+                    }, intervalMs);
+                }
+            """, inPageSampleIntervalMs);
+        } catch (Exception e) {
+            log.warn("Failed to inject in-page sampler: {}", e.getMessage());
+        }
+    }
+
+    private int maxRuntimeSamples() {
+        int planned = runtimeMonitoringSeconds / sampleIntervalSeconds;
+        return adaptiveSampling ? planned * Math.max(1, adaptiveMaxSampleFactor) : planned;
+    }
+
+    private boolean isVirtualClock() {
+        return "virtual".equalsIgnoreCase(clockMode);
+    }
+
     /**
      * Inject Angular change detection monitor into the page.
      */
@@ -530,15 +918,27 @@ public class ComponentPerformanceTool implements ToolProvider {
                 () => {
                     if (window.__cdMonitor) return; // Already injected
 
-                    window.__cdMonitor = { cycles: 0, rate: 0, lastCheck: Date.now(), cyclesSinceLastCheck: 0 };
+                    // Preferred source: the ApplicationRef.tick instrumentation every deployed
+                    // harness imports. It counts real ticks, so it works for zoneless apps too.
+                    const cd = window.__agentivyCd;
+                    if (cd) {
+                        const monitor = { rate: 0, source: 'application-ref', lastCheck: Date.now(), lastTicks: cd.ticks };
+                        Object.defineProperty(monitor, 'cycles', { get: () => cd.ticks, enumerable: true });
+                        setInterval(() => {
+                            const now = Date.now();
+                            const elapsed = (now - monitor.lastCheck) / 1000;
+                            if (elapsed > 0) monitor.rate = (cd.ticks - monitor.lastTicks) / elapsed;
+                            monitor.lastCheck = now;
+                            monitor.lastTicks = cd.ticks;
+                        }, 1000);
+                        window.__cdMonitor = monitor;
+                        return;
+                    }
+
+                    window.__cdMonitor = { cycles: 0, rate: 0, source: 'zone-run', lastCheck: Date.now(), cyclesSinceLastCheck: 0 };
 
-                    // Hook into Angular's zone if available.
-                    // NOTE: This only hooks Zone.current.run. Angular also uses
-                    // runTask, runGuarded, and scheduleTask on the Zone prototype.
-                    // If Zone.current.run is not triggered, the rate will read as 0.
-                    // A more robust approach would use ng.profiler or
-                    // getAllAngularRootElements() if available, but those APIs are
-                    // only present in development mode.
+                    // Fallback for pages not served through a harness: hooks Zone.current.run only,
+                    // which approximates ticks and reads 0 when the app is zoneless.
                     if (window.Zone && window.Zone.current) {
                         const originalRun = window.Zone.current.run;
                         window.Zone.current.run = function(...args) {
@@ -566,9 +966,10 @@ public class ComponentPerformanceTool implements ToolProvider {
     }
 
     /**
-     * Analyze runtime samples to detect trends.
+     * Analyze runtime samples to detect trends. The dense in-page time series (if any)
+     * adds a least-squares heap slope, peak heap and a finer change-detection rate.
      */
-    private Map<String, Object> analyzeSamples(List<Map<String, Object>> samples) {
+    private Map<String, Object> analyzeSamples(List<Map<String, Object>> samples, List<Map<String, Object>> timeSeries) {
         if (samples.isEmpty()) {
             return Map.of("samples", samples, "analysis", "No samples collected");
         }
@@ -600,16 +1001,114 @@ public class ComponentPerformanceTool implements ToolProvider {
         analysis.put("avgChangeDetectionRate", avgCDRate);
 
         // Memory leak detection
-        boolean potentialMemoryLeak = memoryGrowthPercent > 20; // >20% growth is suspicious
+        boolean potentialMemoryLeak = memoryGrowthPercent > MEMORY_LEAK_GROWTH_PERCENT;
         analysis.put("potentialMemoryLeak", potentialMemoryLeak);
 
         // Excessive change detection
         boolean excessiveCD = avgCDRate > 10; // >10 CD cycles per second is excessive
         analysis.put("excessiveChangeDetection", excessiveCD);
 
+        analysis.put("changeDetectionSource", samples.get(samples.size() - 1).getOrDefault("changeDetectionSource", "none"));
+        analysis.putAll(analyzeCdpMetrics(samples));
+        analysis.putAll(analyzeTickInstrumentation(samples));
+        analysis.putAll(analyzeTimeSeries(timeSeries));
+
         return analysis;
     }
 
+    /**
+     * Growth of the CDP counters between the first and last sample.
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> analyzeCdpMetrics(List<Map<String, Object>> samples) {
+        Map<String, Double> first = (Map<String, Double>) samples.get(0).get("cdp");
+        Map<String, Double> last = (Map<String, Double>) samples.get(samples.size() - 1).get("cdp");
+        if (first == null || last == null) return Map.of();
+
+        Map<String, Object> cdp = new HashMap<>();
+        cdp.put("layoutCount", last.getOrDefault("LayoutCount", 0.0) - first.getOrDefault("LayoutCount", 0.0));
+        cdp.put("recalcStyleCount", last.getOrDefault("RecalcStyleCount", 0.0) - first.getOrDefault("RecalcStyleCount", 0.0));
+        // CDP durations are in seconds
+        cdp.put("layoutDurationMs", (last.getOrDefault("LayoutDuration", 0.0) - first.getOrDefault("LayoutDuration", 0.0)) * 1000);
+        cdp.put("recalcStyleDurationMs", (last.getOrDefault("RecalcStyleDuration", 0.0) - first.getOrDefault("RecalcStyleDuration", 0.0)) * 1000);
+        cdp.put("scriptDurationMs", (last.getOrDefault("ScriptDuration", 0.0) - first.getOrDefault("ScriptDuration", 0.0)) * 1000);
+        cdp.put("taskDurationMs", (last.getOrDefault("TaskDuration", 0.0) - first.getOrDefault("TaskDuration", 0.0)) * 1000);
+        cdp.put("nodes", last.getOrDefault("Nodes", 0.0));
+        cdp.put("nodeGrowth", last.getOrDefault("Nodes", 0.0) - first.getOrDefault("Nodes", 0.0));
+        cdp.put("eventListeners", last.getOrDefault("JSEventListeners", 0.0));
+        cdp.put("eventListenerGrowth", last.getOrDefault("JSEventListeners", 0.0) - first.getOrDefault("JSEventListeners", 0.0));
+        return Map.of("cdpMetrics", cdp);
+    }
+
+    /**
+     * Tick durations and per-component view checks from the harness ApplicationRef
+     * instrumentation, as deltas between the first and last sample.
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> analyzeTickInstrumentation(List<Map<String, Object>> samples) {
+        Map<String, Object> first = (Map<String, Object>) samples.get(0).get("tick");
+        Map<String, Object> last = (Map<String, Object>) samples.get(samples.size() - 1).get("tick");
+        if (first == null || last == null) return Map.of();
+
+        double ticks = ((Number) last.get("ticks")).doubleValue() - ((Number) first.get("ticks")).doubleValue();
+        double tickMs = ((Number) last.get("totalTickMs")).doubleValue() - ((Number) first.get("totalTickMs")).doubleValue();
+        double viewChecks = ((Number) last.get("viewChecks")).doubleValue() - ((Number) first.get("viewChecks")).doubleValue();
+
+        Map<String, Object> firstChecks = (Map<String, Object>) first.getOrDefault("componentChecks", Map.of());
+        Map<String, Object> lastChecks = (Map<String, Object>) last.getOrDefault("componentChecks", Map.of());
+        List<Map<String, Object>> mostChecked = lastChecks.entrySet().stream()
+            .map(e -> Map.<String, Object>of(
+                "component", e.getKey(),
+                "checks", ((Number) e.getValue()).doubleValue()
+                    - ((Number) firstChecks.getOrDefault(e.getKey(), 0)).doubleValue()))
+            .filter(m -> ((Number) m.get("checks")).doubleValue() > 0)
+            .sorted((a, b) -> Double.compare(((Number) b.get("checks")).doubleValue(), ((Number) a.get("checks")).doubleValue()))
+            .limit(5)
+            .toList();
+
+        Map<String, Object> tick = new HashMap<>();
+        tick.put("ticks", ticks);
+        tick.put("totalTickMs", tickMs);
+        tick.put("avgTickMs", ticks > 0 ? tickMs / ticks : 0.0);
+        // Lifetime maximum: includes the initial render, which is usually the slowest tick
+        tick.put("maxTickMs", ((Number) last.get("maxTickMs")).doubleValue());
+        tick.put("viewChecks", viewChecks);
+        tick.put("viewChecksPerTick", ticks > 0 ? viewChecks / ticks : 0.0);
+        tick.put("mostCheckedComponents", mostChecked);
+        return Map.of("tickInstrumentation", tick);
+    }
+
+    private Map<String, Object> analyzeTimeSeries(List<Map<String, Object>> series) {
+        if (series.size() < 2) return Map.of();
+
+        double n = series.size();
+        double sumT = 0, sumH = 0, sumTT = 0, sumTH = 0, peak = 0;
+        for (Map<String, Object> point : series) {
+            double t = ((Number) point.get("t")).doubleValue() / 1000.0;
+            double heap = ((Number) point.get("heap")).doubleValue();
+            sumT += t;
+            sumH += heap;
+            sumTT += t * t;
+            sumTH += t * heap;
+            peak = Math.max(peak, heap);
+        }
+        double denominator = n * sumTT - sumT * sumT;
+        double heapSlope = denominator != 0 ? (n * sumTH - sumT * sumH) / denominator : 0;
+
+        Map<String, Object> firstPoint = series.get(0);
+        Map<String, Object> lastPoint = series.get(series.size() - 1);
+        double spanSeconds = (((Number) lastPoint.get("t")).doubleValue() - ((Number) firstPoint.get("t")).doubleValue()) / 1000.0;
+        double cdCycles = ((Number) lastPoint.get("cd")).doubleValue() - ((Number) firstPoint.get("cd")).doubleValue();
+
+        Map<String, Object> dense = new HashMap<>();
+        dense.put("timeSeries", series);
+        dense.put("timeSeriesPoints", series.size());
+        dense.put("heapSlopeBytesPerSecond", heapSlope);
+        dense.put("peakMemoryMB", peak / 1024 / 1024);
+        dense.put("denseChangeDetectionRate", spanSeconds > 0 ? cdCycles / spanSeconds : 0.0);
+        return dense;
+    }
+
     /**
      * Calculate enhanced performance score including runtime penalties.
      */
@@ -685,6 +1184,33 @@ public class ComponentPerformanceTool implements ToolProvider {
             }
         }
 
+        // Run-to-run variance warnings
+        Map<String, Object> iterationStats = (Map<String, Object>) allMetrics.get("iterations");
+        if (iterationStats != null) {
+            List<String> noisyMetrics = (List<String>) iterationStats.get("noisyMetrics");
+            if (!noisyMetrics.isEmpty()) {
+                warnings.add(String.format("Noisy measurements across %s page loads (CV > %.0f%%): %s - treat pass/fail on these metrics with caution",
+                    iterationStats.get("completed"), noiseCvPercent, String.join(", ", noisyMetrics)));
+            }
+        }
+
+        // Interaction warnings
+        Map<String, Object> interactionMetrics = (Map<String, Object>) allMetrics.get("interactions");
+        if (interactionMetrics != null && interactionMetrics.containsKey("interactions")) {
+            List<String> slow = (List<String>) interactionMetrics.get("slowInteractions");
+            if (!slow.isEmpty()) {
+                warnings.add(String.format("Slow interactions (> %.0f ms, worst %.0f ms): %s - move heavy work out of event handlers or defer it",
+                    InteractionProfiler.SLOW_INTERACTION_MS,
+                    ((Number) interactionMetrics.get("worstInteractionLatencyMs")).doubleValue(),
+                    String.join(", ", slow)));
+            }
+            List<String> excessiveCd = (List<String>) interactionMetrics.get("excessiveChangeDetectionInteractions");
+            if (!excessiveCd.isEmpty()) {
+                warnings.add(String.format("Excessive change detection per interaction (> %d cycles): %s - check for handlers triggering cascading updates",
+                    InteractionProfiler.EXCESSIVE_CD_PER_INTERACTION, String.join(", ", excessiveCd)));
+            }
+        }
+
         // Runtime warnings
         if (runtimeMetrics != null && !runtimeMetrics.containsKey("error")) {
             boolean memoryLeak = (boolean) runtimeMetrics.getOrDefault("potentialMemoryLeak", false);
@@ -692,20 +1218,41 @@ public class ComponentPerformanceTool implements ToolProvider {
 
             if (memoryLeak) {
                 double growthMB = ((Number) runtimeMetrics.get("memoryGrowthMB")).doubleValue();
+                Number monitoredSeconds = (Number) runtimeMetrics.getOrDefault("simulatedSeconds", runtimeMonitoringSeconds);
                 warnings.add(String.format("Potential memory leak detected: %.2f MB growth in %d seconds - check for uncleared intervals/subscriptions",
-                    growthMB, runtimeMonitoringSeconds));
+                    growthMB, monitoredSeconds.intValue()));
             }
 
             if (excessiveCD) {
                 double cdRate = ((Number) runtimeMetrics.get("avgChangeDetectionRate")).doubleValue();
-                warnings.add(String.format("Excessive change detection: %.1f cycles/sec - use OnPush strategy or detach change detector",
-                    cdRate));
+                warnings.add(String.format("Excessive change detection: %.1f cycles/sec - use OnPush strategy or detach change detector%s",
+                    cdRate, hottestComponentFrame(runtimeMetrics)));
+            }
+
+            Map<String, Object> tick = (Map<String, Object>) runtimeMetrics.get("tickInstrumentation");
+            if (tick != null && ((Number) tick.get("avgTickMs")).doubleValue() > SLOW_TICK_MS) {
+                warnings.add(String.format("Slow change detection: %.1f ms per tick on average (%.1f views checked per tick) - exceeds one %.0f ms frame",
+                    ((Number) tick.get("avgTickMs")).doubleValue(),
+                    ((Number) tick.get("viewChecksPerTick")).doubleValue(),
+                    SLOW_TICK_MS));
             }
         }
 
         return warnings;
     }
 
+    /**
+     * " (hottest: fn at file:line)" for the top component frame of the CPU profile, or "".
+     */
+    private String hottestComponentFrame(Map<String, Object> runtimeMetrics) {
+        Map<String, Object> cpuProfile = (Map<String, Object>) runtimeMetrics.get("cpuProfile");
+        if (cpuProfile == null) return "";
+        List<Map<String, Object>> hotspots = (List<Map<String, Object>>) cpuProfile.get("componentHotspots");
+        if (hotspots == null || hotspots.isEmpty()) return "";
+        Map<String, Object> top = hotspots.get(0);
+        return String.format(" (hottest: %s at %s:%s)", top.get("functionName"), top.get("file"), top.get("line"));
+    }
+
     /**
      * Generate enhanced recommendations including runtime issues.
      */
@@ -799,6 +1346,27 @@ public class ComponentPerformanceTool implements ToolProvider {
         return defaults;
     }
 
+    /**
+     * Reads the device profile from the thresholds JSON ("deviceProfile"), defaulting to
+     * agentivy.performance.device-profile. Unparseable JSON falls back to the default like the
+     * thresholds themselves; an unknown or invalid profile throws IllegalArgumentException.
+     */
+    DeviceProfile parseDeviceProfile(String thresholds) {
+        DeviceProfile fallback = DeviceProfile.named(
+            defaultDeviceProfile != null ? defaultDeviceProfile : DeviceProfile.DEFAULT);
+        if (thresholds == null || thresholds.isBlank()) {
+            return fallback;
+        }
+
+        com.google.gson.JsonObject json;
+        try {
+            json = com.google.gson.JsonParser.parseString(thresholds).getAsJsonObject();
+        } catch (Exception e) {
+            return fallback;
+        }
+        return json.has("deviceProfile") ? DeviceProfile.fromJson(json.get("deviceProfile")) : fallback;
+    }
+
     /**
      * Evaluates metrics against thresholds.
      */
@@ -0,0 +1,238 @@
+package com.agentivy.backend.tools.testing;
+
+import com.agentivy.backend.service.EventPublisherHelper;
+import com.agentivy.backend.service.SessionContext;
+import com.agentivy.backend.tools.PlaywrightBrowserPool;
+import com.agentivy.backend.tools.registry.ToolCategory;
+import com.agentivy.backend.tools.registry.ToolMetadata;
+import com.agentivy.backend.tools.registry.ToolProvider;
+import com.google.adk.tools.Annotations.Schema;
+import com.google.adk.tools.FunctionTool;
+import com.google.common.collect.ImmutableMap;
+import com.microsoft.playwright.CDPSession;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.options.WaitUntilState;
+import io.reactivex.rxjava3.core.Maybe;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Measures how a component scales with input size.
+ *
+ * Expects a scaling harness (see HarnessCodeGenerator#generateScaling) that reads the item
+ * count from the {@code size} query parameter, so one compiled harness serves every size.
+ * Each size is loaded in a fresh browser context; the harness publishes render time and
+ * change-detection passes on {@code window.__agentivyScaling}, heap and DOM node counts
+ * come from CDP after a forced garbage collection.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ComponentScalingTool implements ToolProvider {
+
+    private final EventPublisherHelper eventPublisher;
+    private final PlaywrightBrowserPool browserPool;
+
+    @Value("${agentivy.playwright.timeout-ms:30000}")
+    private int timeoutMs;
+
+    @Value("${agentivy.scaling.default-sizes:10,100,1000,5000}")
+    private String defaultSizes;
+
+    private static final List<String> METRICS = List.of("renderMs", "domNodes", "heapMB", "changeDetectionCycles");
+
+    @Override
+    public ToolMetadata getMetadata() {
+        return new ToolMetadata(
+            "testing.performance.scaling",
+            "Component Scaling Benchmark",
+            "Renders a component at several input sizes and fits how render time, DOM, heap and change detection grow",
+            ToolCategory.COMPONENT_TESTING,
+            "1.0.0",
+            true,
+            List.of("performance", "scaling", "benchmark", "playwright"),
+            Map.of(
+                "default-sizes", defaultSizes,
+                "metrics", String.join(", ", METRICS)
+            )
+        );
+    }
+
+    @Override
+    public List<FunctionTool> createTools() {
+        return List.of(FunctionTool.create(this, "runScalingBenchmark"));
+    }
+
+    /**
+     * Runs the scaling benchmark against a scaling harness.
+     *
+     * @param componentUrl URL of the scaling harness (without query string)
+     * @param sizes Comma-separated input sizes (optional, defaults to agentivy.scaling.default-sizes)
+     * @return Per-size measurements plus a growth fit per metric
+     */
+    public Maybe<ImmutableMap<String, Object>> runScalingBenchmark(
+            @Schema(name = "componentUrl") String componentUrl,
+            @Schema(name = "sizes") String sizes) {
+
+        return Maybe.fromCallable(() -> {
+            String componentName = SessionContext.getCurrentComponent() != null
+                ? SessionContext.getCurrentComponent()
+                : "unknown";
+
+            List<Integer> sizeList;
+            try {
+                sizeList = parseSizes(sizes == null || sizes.isBlank() ? defaultSizes : sizes);
+            } catch (IllegalArgumentException e) {
+                return ImmutableMap.<String, Object>of("status", "error", "message", e.getMessage());
+            }
+            if (sizeList.size() < 3) {
+                return ImmutableMap.<String, Object>of("status", "error",
+                    "message", "At least 3 distinct sizes are needed to fit a scaling curve");
+            }
+
+            if (!browserPool.isAvailable()) {
+                return ImmutableMap.<String, Object>of("status", "error",
+                    "message", "Playwright not initialized. Ensure agentivy.playwright.enabled=true and Chromium is installed.");
+            }
+
+            eventPublisher.publishToolCall("runScalingBenchmark", "Running scaling benchmark on " + componentUrl);
+            eventPublisher.publishComponentStatus(componentName, "scaling", "starting",
+                "Rendering component at " + sizeList.size() + " input sizes...",
+                Map.of("targetUrl", componentUrl, "sizes", sizeList));
+
+            long startTime = System.currentTimeMillis();
+            List<Map<String, Object>> measurements = new ArrayList<>();
+            for (int i = 0; i < sizeList.size(); i++) {
+                int size = sizeList.get(i);
+                String url = componentUrl + (componentUrl.contains("?") ? "&" : "?") + "size=" + size;
+                Map<String, Object> measurement = measureSize(url, size);
+                measurements.add(measurement);
+
+                eventPublisher.publishComponentStatus(componentName, "scaling", "in-progress",
+                    String.format("Measured size %d", size),
+                    Map.of("size", size, "progressPercent", (i + 1) * 100 / sizeList.size()));
+
+                if (measurement.containsKey("error")) {
+                    // Larger sizes will not load either; fit what we have
+                    log.warn("Scaling run stopped at size {}: {}", size, measurement.get("error"));
+                    break;
+                }
+            }
+
+            List<Map<String, Object>> completed = measurements.stream()
+                .filter(m -> !m.containsKey("error"))
+                .toList();
+            Map<String, Object> curves = fitCurves(completed);
+            List<String> warnings = buildWarnings(curves);
+
+            eventPublisher.publishComponentStatus(componentName, "scaling", "completed",
+                completed.isEmpty() ? "Scaling benchmark failed: no size rendered"
+                    : warnings.isEmpty() ? "No super-linear growth up to " + completed.get(completed.size() - 1).get("size") + " items"
+                    : warnings.get(0),
+                Map.of(
+                    "passed", warnings.isEmpty(),
+                    "curves", curves,
+                    "warnings", warnings,
+                    "timeElapsed", System.currentTimeMillis() - startTime
+                ));
+
+            return ImmutableMap.<String, Object>builder()
+                .put("status", completed.isEmpty() ? "error" : "success")
+                .put("componentUrl", componentUrl)
+                .put("sizes", sizeList)
+                .put("measurements", measurements)
+                .put("curves", curves)
+                .put("warnings", warnings)
+                .put("passed", !completed.isEmpty() && warnings.isEmpty())
+                .build();
+        });
+    }
+
+    static List<Integer> parseSizes(String sizes) {
+        TreeSet<Integer> parsed = new TreeSet<>();
+        for (String part : sizes.split(",")) {
+            if (part.isBlank()) continue;
+            try {
+                int size = Integer.parseInt(part.trim());
+                if (size <= 0) throw new IllegalArgumentException("Sizes must be positive: " + part.trim());
+                parsed.add(size);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid size: " + part.trim());
+            }
+        }
+        return new ArrayList<>(parsed);
+    }
+
+    private Map<String, Object> measureSize(String url, int size) {
+        try {
+            return browserPool.withContext(null, timeoutMs * 2L, session -> {
+                Page page = session.context().newPage();
+                CDPSession cdp = page.context().newCDPSession(page);
+                cdp.send("Performance.enable");
+
+                page.navigate(url, new Page.NavigateOptions()
+                    .setWaitUntil(WaitUntilState.DOMCONTENTLOADED)
+                    .setTimeout(timeoutMs));
+                page.waitForFunction("() => window.__agentivyScaling && window.__agentivyScaling.ready",
+                    null, new Page.WaitForFunctionOptions().setTimeout(timeoutMs));
+
+                @SuppressWarnings("unchecked")
+                Map<String, Object> harness = (Map<String, Object>) page.evaluate("() => window.__agentivyScaling");
+
+                // Collect garbage so the heap reflects retained data, not render temporaries
+                cdp.send("HeapProfiler.collectGarbage");
+                Map<String, Double> metrics = new HashMap<>();
+                cdp.send("Performance.getMetrics").getAsJsonArray("metrics").forEach(m ->
+                    metrics.put(m.getAsJsonObject().get("name").getAsString(),
+                        m.getAsJsonObject().get("value").getAsDouble()));
+
+                Map<String, Object> measurement = new HashMap<>();
+                measurement.put("size", size);
+                measurement.put("renderMs", ((Number) harness.get("renderMs")).doubleValue());
+                measurement.put("changeDetectionCycles", ((Number) harness.get("cdCycles")).doubleValue());
+                measurement.put("domNodes", metrics.getOrDefault("Nodes", 0.0));
+                measurement.put("heapMB", metrics.getOrDefault("JSHeapUsedSize", 0.0) / 1024 / 1024);
+                log.info("Scaling size {}: render={}ms, nodes={}", size,
+                    measurement.get("renderMs"), measurement.get("domNodes"));
+                return measurement;
+            });
+        } catch (Exception e) {
+            log.error("Scaling measurement failed for size {}", size, e);
+            return Map.of("size", size, "error", e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        }
+    }
+
+    private Map<String, Object> fitCurves(List<Map<String, Object>> measurements) {
+        Map<String, Object> curves = new LinkedHashMap<>();
+        if (measurements.size() < 3) return curves;
+
+        List<Integer> sizes = measurements.stream().map(m -> (Integer) m.get("size")).toList();
+        for (String metric : METRICS) {
+            List<Double> values = measurements.stream()
+                .map(m -> ((Number) m.get(metric)).doubleValue())
+                .toList();
+            curves.put(metric, ScalingCurve.fit(sizes, values));
+        }
+        return curves;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> buildWarnings(Map<String, Object> curves) {
+        List<String> warnings = new ArrayList<>();
+        curves.forEach((metric, value) -> {
+            Map<String, Object> curve = (Map<String, Object>) value;
+            boolean superLinear = ScalingCurve.SUPER_LINEAR.equals(curve.get("growth"));
+            if (superLinear || curve.containsKey("kneeSize")) {
+                warnings.add(String.format("%s grows %s with input size (exponent %.2f)%s - check for nested loops, "
+                        + "missing trackBy/track, or work repeated per item on every change detection pass",
+                    metric, superLinear ? "super-linearly" : "unevenly", (double) curve.get("exponent"),
+                    curve.containsKey("kneeSize") ? ", degrading beyond " + curve.get("kneeSize") + " items" : ""));
+            }
+        });
+        return warnings;
+    }
+}
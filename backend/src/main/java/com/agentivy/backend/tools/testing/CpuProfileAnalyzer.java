@@ -0,0 +1,124 @@
+package com.agentivy.backend.tools.testing;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Turns a CDP Profiler.Profile into a top-N table of hot frames.
+ *
+ * Self time is hit count times the mean sample interval. Total time adds the self time of
+ * every descendant, counted once per frame even under recursion. Frames are keyed by
+ * source location after resolving through source maps, so one component method that the
+ * bundler split across call sites still shows up as one row.
+ */
+class CpuProfileAnalyzer {
+
+    /** Generated location of a frame in a served script (zero-based, as CDP reports it). */
+    record GeneratedFrame(String url, int line, int column, String functionName) {}
+
+    /** Source-level location; file is the script URL when no source map covers the frame. */
+    record ResolvedFrame(String functionName, String file, int line) {}
+
+    private static final Set<String> SYNTHETIC_FRAMES = Set.of("(root)", "(idle)", "(program)", "(garbage collector)");
+
+    private CpuProfileAnalyzer() {
+    }
+
+    /**
+     * @param resolver maps a generated frame to its source location
+     * @param topN number of rows to return, ordered by self time
+     */
+    static Map<String, Object> analyze(JsonObject profile, Function<GeneratedFrame, ResolvedFrame> resolver, int topN) {
+        JsonArray nodeArray = profile.getAsJsonArray("nodes");
+        Map<Integer, JsonObject> nodes = new HashMap<>();
+        for (JsonElement node : nodeArray) {
+            nodes.put(node.getAsJsonObject().get("id").getAsInt(), node.getAsJsonObject());
+        }
+
+        int sampleCount = profile.has("samples") ? profile.getAsJsonArray("samples").size() : 0;
+        double durationMs = (profile.get("endTime").getAsDouble() - profile.get("startTime").getAsDouble()) / 1000.0;
+        double msPerSample = sampleCount > 0 ? durationMs / sampleCount : 0;
+
+        // Resolve every node once; synthetic frames stay unresolved (null)
+        Map<Integer, ResolvedFrame> frames = new HashMap<>();
+        Map<Integer, Double> selfMs = new HashMap<>();
+        Map<Integer, Integer> parents = new HashMap<>();
+        for (JsonObject node : nodes.values()) {
+            int id = node.get("id").getAsInt();
+            JsonObject callFrame = node.getAsJsonObject("callFrame");
+            String functionName = callFrame.get("functionName").getAsString();
+            selfMs.put(id, node.has("hitCount") ? node.get("hitCount").getAsInt() * msPerSample : 0);
+            if (node.has("children")) {
+                node.getAsJsonArray("children").forEach(child -> parents.put(child.getAsInt(), id));
+            }
+            if (!SYNTHETIC_FRAMES.contains(functionName) && !callFrame.get("url").getAsString().isEmpty()) {
+                frames.put(id, resolver.apply(new GeneratedFrame(
+                    callFrame.get("url").getAsString(),
+                    callFrame.get("lineNumber").getAsInt(),
+                    callFrame.get("columnNumber").getAsInt(),
+                    functionName.isEmpty() ? "(anonymous)" : functionName)));
+            }
+        }
+
+        Map<ResolvedFrame, double[]> totals = new HashMap<>(); // [self, total]
+        for (Map.Entry<Integer, Double> entry : selfMs.entrySet()) {
+            double self = entry.getValue();
+            if (self == 0) continue;
+
+            ResolvedFrame own = frames.get(entry.getKey());
+            if (own != null) {
+                totals.computeIfAbsent(own, f -> new double[2])[0] += self;
+            }
+            // Charge the sample to each distinct frame on the stack once
+            Set<ResolvedFrame> charged = new HashSet<>();
+            for (Integer id = entry.getKey(); id != null; id = parents.get(id)) {
+                ResolvedFrame frame = frames.get(id);
+                if (frame != null && charged.add(frame)) {
+                    totals.computeIfAbsent(frame, f -> new double[2])[1] += self;
+                }
+            }
+        }
+
+        double busyMs = selfMs.entrySet().stream()
+            .filter(e -> frames.containsKey(e.getKey()))
+            .mapToDouble(Map.Entry::getValue)
+            .sum();
+
+        List<Map<String, Object>> top = totals.entrySet().stream()
+            .sorted((a, b) -> Double.compare(b.getValue()[0], a.getValue()[0]))
+            .limit(topN)
+            .map(e -> {
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("functionName", e.getKey().functionName());
+                row.put("file", e.getKey().file());
+                row.put("line", e.getKey().line());
+                row.put("selfMs", e.getValue()[0]);
+                row.put("totalMs", e.getValue()[1]);
+                row.put("selfPercent", durationMs > 0 ? e.getValue()[0] / durationMs * 100 : 0.0);
+                return row;
+            })
+            .toList();
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("durationMs", durationMs);
+        result.put("sampleCount", sampleCount);
+        result.put("scriptMs", busyMs);
+        result.put("topFrames", top);
+        result.put("componentHotspots", top.stream()
+            .filter(row -> isComponentSource((String) row.get("file")))
+            .toList());
+        return result;
+    }
+
+    /** Component class or template of the app itself: not a dependency, not the test harness. */
+    static boolean isComponentSource(String file) {
+        return file != null
+            && (file.endsWith(".component.ts") || file.endsWith(".component.html"))
+            && !file.contains("node_modules/")
+            && !file.contains("agent-ivy-harness/");
+    }
+}
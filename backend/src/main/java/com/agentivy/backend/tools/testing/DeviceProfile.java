@@ -0,0 +1,111 @@
+package com.agentivy.backend.tools.testing;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * CPU slowdown and network conditions a performance run is measured under.
+ *
+ * Applied through CDP ({@code Emulation.setCPUThrottlingRate} and
+ * {@code Network.emulateNetworkConditions}) so a headless Chromium on a fast server behaves
+ * like the named device. Network presets are the DevTools "Fast 4G" / "Slow 4G" values
+ * (round-trip time and throughput already scaled for request-level throttling). Results
+ * carry the profile, since scores are only comparable under the same one.
+ *
+ * @param name Preset name; a profile that changes any preset value is never reported under it
+ * @param basedOn Preset a customised profile started from, null for the presets themselves
+ * @param latencyMs Added round-trip latency, 0 for an unthrottled network
+ * @param downloadKbps Download throughput, 0 for unlimited
+ * @param uploadKbps Upload throughput, 0 for unlimited
+ */
+record DeviceProfile(String name, String basedOn, double cpuSlowdown, double latencyMs,
+                     double downloadKbps, double uploadKbps) {
+
+    static final String DEFAULT = "desktop";
+
+    static final Map<String, DeviceProfile> PRESETS = presets();
+
+    private static Map<String, DeviceProfile> presets() {
+        Map<String, DeviceProfile> presets = new LinkedHashMap<>();
+        presets.put("desktop", new DeviceProfile("desktop", null, 1, 0, 0, 0));
+        presets.put("mid-range-mobile", new DeviceProfile("mid-range-mobile", null, 2, 165, 8100, 1350));
+        presets.put("low-end-mobile", new DeviceProfile("low-end-mobile", null, 4, 562.5, 1440, 675));
+        return Map.copyOf(presets);
+    }
+
+    /** @throws IllegalArgumentException for an unknown preset name */
+    static DeviceProfile named(String name) {
+        DeviceProfile profile = PRESETS.get(name.trim().toLowerCase());
+        if (profile == null) {
+            throw new IllegalArgumentException("Unknown device profile '" + name + "'. Known profiles: "
+                + String.join(", ", PRESETS.keySet().stream().sorted().toList()));
+        }
+        return profile;
+    }
+
+    /**
+     * Reads a profile from the {@code deviceProfile} value of the thresholds JSON: either a
+     * preset name or an object with cpuSlowdown, latencyMs, downloadKbps and uploadKbps.
+     * Fields the object leaves out come from the preset given as "name", else are unthrottled.
+     * Unless every value matches that preset, the result is named "custom" (or the object's own
+     * non-preset name) and records the preset in basedOn, so it is never mistaken for the preset.
+     */
+    static DeviceProfile fromJson(JsonElement value) {
+        if (value.isJsonPrimitive()) {
+            return named(value.getAsString());
+        }
+        JsonObject json = value.getAsJsonObject();
+        DeviceProfile base = json.has("name") && PRESETS.containsKey(json.get("name").getAsString())
+            ? named(json.get("name").getAsString())
+            : PRESETS.get(DEFAULT);
+        String requestedName = json.has("name") ? json.get("name").getAsString() : null;
+        DeviceProfile profile = new DeviceProfile(
+            requestedName != null && !PRESETS.containsKey(requestedName) ? requestedName : "custom",
+            base.name(),
+            json.has("cpuSlowdown") ? json.get("cpuSlowdown").getAsDouble() : base.cpuSlowdown(),
+            json.has("latencyMs") ? json.get("latencyMs").getAsDouble() : base.latencyMs(),
+            json.has("downloadKbps") ? json.get("downloadKbps").getAsDouble() : base.downloadKbps(),
+            json.has("uploadKbps") ? json.get("uploadKbps").getAsDouble() : base.uploadKbps());
+        if (profile.cpuSlowdown() < 1 || profile.latencyMs() < 0 || profile.downloadKbps() < 0 || profile.uploadKbps() < 0) {
+            throw new IllegalArgumentException("Device profile needs cpuSlowdown >= 1 and non-negative network values");
+        }
+        return base.name().equals(requestedName) && profile.sameConditionsAs(base) ? base : profile;
+    }
+
+    private boolean sameConditionsAs(DeviceProfile other) {
+        return cpuSlowdown == other.cpuSlowdown && latencyMs == other.latencyMs
+            && downloadKbps == other.downloadKbps && uploadKbps == other.uploadKbps;
+    }
+
+    boolean throttlesCpu() {
+        return cpuSlowdown > 1;
+    }
+
+    boolean throttlesNetwork() {
+        return latencyMs > 0 || downloadKbps > 0 || uploadKbps > 0;
+    }
+
+    /** Timeouts grow with the slowdown so throttled loads are measured instead of timing out. */
+    long scaleTimeout(long timeoutMs) {
+        return (long) (timeoutMs * cpuSlowdown * (throttlesNetwork() ? 2 : 1));
+    }
+
+    /** CDP takes throughput in bytes per second; -1 disables the limit. */
+    static double bytesPerSecond(double kbps) {
+        return kbps > 0 ? kbps * 1000 / 8 : -1;
+    }
+
+    Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("name", name);
+        if (basedOn != null) map.put("basedOn", basedOn);
+        map.put("cpuSlowdown", cpuSlowdown);
+        map.put("latencyMs", latencyMs);
+        map.put("downloadKbps", downloadKbps);
+        map.put("uploadKbps", uploadKbps);
+        return map;
+    }
+}
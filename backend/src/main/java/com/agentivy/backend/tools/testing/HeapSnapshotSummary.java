@@ -0,0 +1,165 @@
+package com.agentivy.backend.tools.testing;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.*;
+
+/**
+ * Object counts per constructor name from a V8 heap snapshot (.heapsnapshot JSON).
+ *
+ * Snapshots of a dev-mode Angular app run to tens of megabytes, so the file is streamed:
+ * only the node array and string table are kept, edges and allocation traces are skipped.
+ * A node counts as detached DOM when V8 marks it detached or names it "Detached ...".
+ */
+class HeapSnapshotSummary {
+
+    private static final int DETACHED = 2;
+
+    private final Map<String, Integer> counts;
+    private final Map<String, Long> selfSizes;
+    private final int detachedDomNodes;
+
+    private HeapSnapshotSummary(Map<String, Integer> counts, Map<String, Long> selfSizes, int detachedDomNodes) {
+        this.counts = counts;
+        this.selfSizes = selfSizes;
+        this.detachedDomNodes = detachedDomNodes;
+    }
+
+    Map<String, Integer> counts() {
+        return counts;
+    }
+
+    Map<String, Long> selfSizes() {
+        return selfSizes;
+    }
+
+    int detachedDomNodes() {
+        return detachedDomNodes;
+    }
+
+    /**
+     * Constructors whose instance count grew by at least {@code minGrowth} since the baseline,
+     * largest growth first. {@code selfBytes} is the growth in the instances' own (shallow)
+     * size; what they keep alive through references is not included.
+     */
+    List<Map<String, Object>> growthSince(HeapSnapshotSummary baseline, int minGrowth) {
+        List<Map<String, Object>> grown = new ArrayList<>();
+        counts.forEach((name, count) -> {
+            int growth = count - baseline.counts.getOrDefault(name, 0);
+            if (growth >= minGrowth) {
+                Map<String, Object> entry = new HashMap<>();
+                entry.put("constructor", name);
+                entry.put("count", count);
+                entry.put("growth", growth);
+                entry.put("selfBytes", selfSizes.getOrDefault(name, 0L) - baseline.selfSizes.getOrDefault(name, 0L));
+                grown.add(entry);
+            }
+        });
+        grown.sort(Comparator.comparingInt((Map<String, Object> e) -> (int) e.get("growth")).reversed());
+        return grown;
+    }
+
+    static HeapSnapshotSummary parse(Reader snapshotJson) throws IOException {
+        List<String> nodeFields = List.of();
+        List<String> nodeTypes = List.of();
+        int[] nodes = new int[0];
+        int nodeCount = 0;
+        List<String> strings = List.of();
+
+        try (JsonReader reader = new JsonReader(snapshotJson)) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "snapshot" -> {
+                        reader.beginObject();
+                        while (reader.hasNext()) {
+                            if (reader.nextName().equals("meta")) {
+                                reader.beginObject();
+                                while (reader.hasNext()) {
+                                    String name = reader.nextName();
+                                    if (name.equals("node_fields")) {
+                                        nodeFields = readStrings(reader);
+                                    } else if (name.equals("node_types")) {
+                                        // First entry describes the "type" field: an array of type names
+                                        reader.beginArray();
+                                        nodeTypes = reader.peek() == JsonToken.BEGIN_ARRAY ? readStrings(reader) : List.of();
+                                        while (reader.hasNext()) reader.skipValue();
+                                        reader.endArray();
+                                    } else {
+                                        reader.skipValue();
+                                    }
+                                }
+                                reader.endObject();
+                            } else {
+                                reader.skipValue();
+                            }
+                        }
+                        reader.endObject();
+                    }
+                    case "nodes" -> {
+                        nodes = new int[1 << 16];
+                        reader.beginArray();
+                        while (reader.hasNext()) {
+                            if (nodeCount == nodes.length) nodes = Arrays.copyOf(nodes, nodes.length * 2);
+                            nodes[nodeCount++] = reader.nextInt();
+                        }
+                        reader.endArray();
+                    }
+                    case "strings" -> strings = readStrings(reader);
+                    default -> reader.skipValue();
+                }
+            }
+            reader.endObject();
+        }
+
+        return summarize(nodeFields, nodeTypes, nodes, nodeCount, strings);
+    }
+
+    private static HeapSnapshotSummary summarize(List<String> nodeFields, List<String> nodeTypes,
+                                                 int[] nodes, int length, List<String> strings) {
+        int stride = nodeFields.size();
+        int typeIndex = nodeFields.indexOf("type");
+        int nameIndex = nodeFields.indexOf("name");
+        int sizeIndex = nodeFields.indexOf("self_size");
+        int detachednessIndex = nodeFields.indexOf("detachedness");
+        if (stride == 0 || typeIndex < 0 || nameIndex < 0) {
+            throw new IllegalArgumentException("Heap snapshot has no node field metadata");
+        }
+
+        Map<String, Integer> counts = new HashMap<>();
+        Map<String, Long> selfSizes = new HashMap<>();
+        int detached = 0;
+        for (int i = 0; i + stride <= length; i += stride) {
+            int type = nodes[i + typeIndex];
+            String typeName = type < nodeTypes.size() ? nodeTypes.get(type) : "";
+            String name = strings.get(nodes[i + nameIndex]);
+
+            boolean detachedDom = name.startsWith("Detached ")
+                || (detachednessIndex >= 0 && nodes[i + detachednessIndex] == DETACHED);
+            if (detachedDom) {
+                detached++;
+            }
+            // Constructor-named JS objects and DOM wrappers; skip code, strings and internals
+            if (typeName.equals("object") || typeName.equals("native")) {
+                counts.merge(name, 1, Integer::sum);
+                if (sizeIndex >= 0) {
+                    selfSizes.merge(name, (long) nodes[i + sizeIndex], Long::sum);
+                }
+            }
+        }
+        return new HeapSnapshotSummary(counts, selfSizes, detached);
+    }
+
+    private static List<String> readStrings(JsonReader reader) throws IOException {
+        List<String> values = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            values.add(reader.nextString());
+        }
+        reader.endArray();
+        return values;
+    }
+}
@@ -0,0 +1,206 @@
+package com.agentivy.backend.tools.testing;
+
+import com.microsoft.playwright.Locator;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.options.SelectOption;
+import com.microsoft.playwright.options.WaitUntilState;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.*;
+
+/**
+ * Drives the interactive elements of a harness and measures what each interaction costs.
+ *
+ * Elements (buttons, links, form controls, role=button, focusable widgets) are discovered
+ * inside the harness wrapper and addressed by a stable CSS path. Interactions are real
+ * clicks against the app, so form submit controls and links leaving the dev server (other
+ * origin, new tab, download) are left alone. Around every interaction an
+ * in-page probe records change-detection cycles (from {@code __cdMonitor}), long tasks,
+ * dropped frames from a requestAnimationFrame loop, and the longest Event Timing entry,
+ * which is the same per-interaction latency INP is built from. If an interaction navigates
+ * away (a routerLink), the harness is reloaded before the next one.
+ */
+@Slf4j
+class InteractionProfiler {
+
+    // INP "good" boundary: interactions slower than this are reported
+    static final double SLOW_INTERACTION_MS = 200;
+    static final int EXCESSIVE_CD_PER_INTERACTION = 10;
+
+    private static final int ACTION_TIMEOUT_MS = 2_000;
+
+    private static final String DISCOVER_SCRIPT = """
+        (max) => {
+            const root = document.querySelector('[id^="test-wrapper"], #agentivy-scaling')
+                || document.querySelector('app-harness') || document.body;
+            const candidates = root.querySelectorAll(
+                'button, a[href], input, textarea, select, [role="button"], [tabindex]:not([tabindex="-1"])');
+            const pathOf = (el) => {
+                if (el.id) return '#' + CSS.escape(el.id);
+                const parts = [];
+                for (let node = el; node && node !== document.body; node = node.parentElement) {
+                    if (node.id) { parts.unshift('#' + CSS.escape(node.id)); break; }
+                    const tag = node.tagName.toLowerCase();
+                    const siblings = node.parentElement
+                        ? Array.from(node.parentElement.children).filter(c => c.tagName === node.tagName) : [];
+                    parts.unshift(siblings.length > 1 ? `${tag}:nth-of-type(${siblings.indexOf(node) + 1})` : tag);
+                }
+                return parts.join(' > ');
+            };
+            const visible = (el) => {
+                const rect = el.getBoundingClientRect();
+                return rect.width > 0 && rect.height > 0 && getComputedStyle(el).visibility !== 'hidden';
+            };
+            // Clicks are real: never submit a form or follow a link off the dev server
+            const submitsForm = (el) => (el.type === 'submit' || el.type === 'image') && el.form;
+            const leavesApp = (el) => el.tagName === 'A'
+                && (el.origin !== location.origin || el.target === '_blank' || el.hasAttribute('download'));
+            return Array.from(candidates)
+                .filter(el => visible(el) && !el.disabled && el.type !== 'hidden' && !submitsForm(el) && !leavesApp(el))
+                .slice(0, max)
+                .map(el => ({
+                    selector: pathOf(el),
+                    tag: el.tagName.toLowerCase(),
+                    type: (el.getAttribute('type') || '').toLowerCase(),
+                    label: (el.getAttribute('aria-label') || el.textContent || el.getAttribute('placeholder') || '')
+                        .trim().replace(/\\s+/g, ' ').slice(0, 40)
+                }));
+        }
+        """;
+
+    private static final String PROBE_SCRIPT = """
+        () => {
+            if (window.__interactionProbe) return;
+            const probe = { longTasks: [], events: [], frames: [], cdStart: 0, running: false };
+            new PerformanceObserver(list => {
+                if (probe.running) probe.longTasks.push(...list.getEntries().map(e => e.duration));
+            }).observe({ type: 'longtask' });
+            new PerformanceObserver(list => {
+                if (probe.running) probe.events.push(...list.getEntries().map(e => ({
+                    duration: e.duration, inputDelay: e.processingStart - e.startTime })));
+            }).observe({ type: 'event', durationThreshold: 16 });
+            const frame = (t) => { if (probe.running) probe.frames.push(t); requestAnimationFrame(frame); };
+            requestAnimationFrame(frame);
+            probe.begin = () => {
+                probe.longTasks = []; probe.events = []; probe.frames = [];
+                probe.cdStart = window.__cdMonitor ? window.__cdMonitor.cycles : 0;
+                probe.started = performance.now();
+                probe.running = true;
+            };
+            probe.end = async () => {
+                // Let the interaction's work, rendering and the Event Timing entry land
+                await new Promise(r => setTimeout(r, 150));
+                await new Promise(r => requestAnimationFrame(() => requestAnimationFrame(r)));
+                probe.running = false;
+                let dropped = 0;
+                for (let i = 1; i < probe.frames.length; i++) {
+                    dropped += Math.max(0, Math.round((probe.frames[i] - probe.frames[i - 1]) / 16.7) - 1);
+                }
+                const worst = probe.events.reduce((a, e) => e.duration > a.duration ? e : a, { duration: 0, inputDelay: 0 });
+                return {
+                    cdCycles: (window.__cdMonitor ? window.__cdMonitor.cycles : 0) - probe.cdStart,
+                    longTasks: probe.longTasks.length,
+                    longTaskMs: probe.longTasks.reduce((a, d) => a + d, 0),
+                    interactionLatencyMs: worst.duration,
+                    inputDelayMs: Math.max(0, worst.inputDelay),
+                    droppedFrames: dropped,
+                    wallMs: performance.now() - probe.started
+                };
+            };
+            window.__interactionProbe = probe;
+        }
+        """;
+
+    private final int timeoutMs;
+
+    InteractionProfiler(int timeoutMs) {
+        this.timeoutMs = timeoutMs;
+    }
+
+    /**
+     * @param monitorInstaller re-installs the change-detection monitor after a reload
+     */
+    Map<String, Object> profile(Page page, int maxInteractions, Runnable monitorInstaller) {
+        String harnessUrl = page.url();
+        page.evaluate(PROBE_SCRIPT);
+
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> elements = (List<Map<String, Object>>) page.evaluate(DISCOVER_SCRIPT, maxInteractions);
+        log.info("Profiling {} interactive element(s)", elements.size());
+
+        List<Map<String, Object>> interactions = new ArrayList<>();
+        for (Map<String, Object> element : elements) {
+            String selector = (String) element.get("selector");
+            Map<String, Object> result = new LinkedHashMap<>(element);
+            try {
+                page.evaluate("() => window.__interactionProbe.begin()");
+                result.put("action", interact(page.locator(selector).first(), element));
+                @SuppressWarnings("unchecked")
+                Map<String, Object> cost = (Map<String, Object>) page.evaluate("() => window.__interactionProbe.end()");
+                result.putAll(cost);
+            } catch (Exception e) {
+                result.put("error", e.getMessage() != null ? e.getMessage().lines().findFirst().orElse("") : e.toString());
+            }
+
+            if (!page.url().equals(harnessUrl)) {
+                // A link or routerLink left the harness; restore it for the next element
+                result.put("navigated", true);
+                page.navigate(harnessUrl, new Page.NavigateOptions()
+                    .setWaitUntil(WaitUntilState.DOMCONTENTLOADED)
+                    .setTimeout(timeoutMs));
+                monitorInstaller.run();
+                page.evaluate(PROBE_SCRIPT);
+            }
+            interactions.add(result);
+        }
+
+        return summarize(interactions);
+    }
+
+    private String interact(Locator locator, Map<String, Object> element) {
+        String tag = (String) element.get("tag");
+        String type = (String) element.get("type");
+        if (tag.equals("select")) {
+            locator.selectOption(new SelectOption().setIndex(1), new Locator.SelectOptionOptions().setTimeout(ACTION_TIMEOUT_MS));
+            return "select";
+        }
+        boolean textEntry = tag.equals("textarea")
+            || (tag.equals("input") && !Set.of("checkbox", "radio", "button", "submit", "reset", "file", "range", "color").contains(type));
+        if (textEntry) {
+            // Type rather than fill so per-keystroke handlers (search-as-you-type) run
+            locator.pressSequentially("agentivy", new Locator.PressSequentiallyOptions().setTimeout(ACTION_TIMEOUT_MS));
+            return "type";
+        }
+        locator.click(new Locator.ClickOptions().setTimeout(ACTION_TIMEOUT_MS));
+        return "click";
+    }
+
+    static Map<String, Object> summarize(List<Map<String, Object>> interactions) {
+        List<Map<String, Object>> measured = interactions.stream()
+            .filter(i -> !i.containsKey("error"))
+            .toList();
+
+        double worstLatency = measured.stream()
+            .mapToDouble(i -> ((Number) i.get("interactionLatencyMs")).doubleValue())
+            .max().orElse(0);
+        List<String> slow = measured.stream()
+            .filter(i -> ((Number) i.get("interactionLatencyMs")).doubleValue() > SLOW_INTERACTION_MS)
+            .map(i -> (String) i.get("selector"))
+            .toList();
+        List<String> excessiveCd = measured.stream()
+            .filter(i -> ((Number) i.get("cdCycles")).doubleValue() > EXCESSIVE_CD_PER_INTERACTION)
+            .map(i -> (String) i.get("selector"))
+            .toList();
+
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("interactions", interactions);
+        summary.put("interactionCount", interactions.size());
+        summary.put("measuredCount", measured.size());
+        summary.put("worstInteractionLatencyMs", worstLatency);
+        summary.put("slowInteractions", slow);
+        summary.put("excessiveChangeDetectionInteractions", excessiveCd);
+        summary.put("totalDroppedFrames", measured.stream()
+            .mapToInt(i -> ((Number) i.get("droppedFrames")).intValue()).sum());
+        return summary;
+    }
+}
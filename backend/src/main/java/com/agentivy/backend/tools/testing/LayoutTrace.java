@@ -0,0 +1,53 @@
+package com.agentivy.backend.tools.testing;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * Reads forced (synchronous) layouts out of a Chromium devtools.timeline trace.
+ *
+ * A layout that runs as part of a rendered frame has no JavaScript on the stack. One that
+ * script forced by reading geometry (offsetWidth, getBoundingClientRect...) after a DOM or
+ * style write records the calling stack in its {@code beginData.stackTrace}; DevTools flags
+ * exactly these as "Forced reflow".
+ */
+class LayoutTrace {
+
+    /** Trace categories that record Layout events together with their JS stack. */
+    static final String CATEGORIES = "devtools.timeline,disabled-by-default-devtools.timeline.stack";
+
+    private LayoutTrace() {
+    }
+
+    /**
+     * Number of Layout events with a JS stack in {@code traceJson}.
+     *
+     * @param frameId Only count layouts of this frame; null counts every frame
+     */
+    static int countForcedLayouts(String traceJson, String frameId) {
+        JsonElement root = JsonParser.parseString(traceJson);
+        JsonElement events = root.isJsonArray() ? root : root.getAsJsonObject().get("traceEvents");
+        if (events == null || !events.isJsonArray()) return 0;
+
+        int forced = 0;
+        for (JsonElement element : events.getAsJsonArray()) {
+            JsonObject event = element.getAsJsonObject();
+            if (!"Layout".equals(stringOrNull(event, "name")) || "E".equals(stringOrNull(event, "ph"))) continue;
+            if (!(event.get("args") instanceof JsonObject args)
+                    || !(args.get("beginData") instanceof JsonObject beginData)) continue;
+            if (frameId != null && !frameId.equals(stringOrNull(beginData, "frame"))) continue;
+
+            JsonElement stack = beginData.get("stackTrace");
+            if (stack != null && stack.isJsonArray() && !stack.getAsJsonArray().isEmpty()) {
+                forced++;
+            }
+        }
+        return forced;
+    }
+
+    private static String stringOrNull(JsonObject object, String key) {
+        JsonElement value = object.get(key);
+        return value != null && value.isJsonPrimitive() ? value.getAsString() : null;
+    }
+}
@@ -0,0 +1,76 @@
+package com.agentivy.backend.tools.testing;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Robust summary of a metric measured over repeated page loads.
+ *
+ * Single loads jitter enough that a score near a boundary flips between runs. The median
+ * is used as the representative value; p95, standard deviation and the coefficient of
+ * variation show how much the runs disagreed, and a metric whose CV exceeds the noise
+ * limit is flagged so callers know not to trust a pass/fail decision on it.
+ */
+class MetricStatistics {
+
+    private MetricStatistics() {
+    }
+
+    /**
+     * Summarises each numeric key present in every run.
+     */
+    static Map<String, Map<String, Object>> aggregate(List<Map<String, Object>> runs, double noiseCvPercent) {
+        Map<String, Map<String, Object>> result = new LinkedHashMap<>();
+        if (runs.isEmpty()) return result;
+
+        for (String key : runs.get(0).keySet()) {
+            List<Double> values = new ArrayList<>();
+            for (Map<String, Object> run : runs) {
+                if (run.get(key) instanceof Number number) {
+                    values.add(number.doubleValue());
+                }
+            }
+            if (values.size() == runs.size()) {
+                result.put(key, summarize(values, noiseCvPercent));
+            }
+        }
+        return result;
+    }
+
+    static Map<String, Object> summarize(List<Double> values, double noiseCvPercent) {
+        List<Double> sorted = new ArrayList<>(values);
+        sorted.sort(Double::compare);
+
+        double mean = sorted.stream().mapToDouble(Double::doubleValue).average().orElse(0);
+        double variance = sorted.size() > 1
+            ? sorted.stream().mapToDouble(v -> (v - mean) * (v - mean)).sum() / (sorted.size() - 1)
+            : 0;
+        double stdDev = Math.sqrt(variance);
+        double cvPercent = mean != 0 ? stdDev / Math.abs(mean) * 100 : 0;
+
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("median", percentile(sorted, 50));
+        summary.put("p95", percentile(sorted, 95));
+        summary.put("mean", mean);
+        summary.put("stdDev", stdDev);
+        summary.put("cvPercent", cvPercent);
+        summary.put("min", sorted.get(0));
+        summary.put("max", sorted.get(sorted.size() - 1));
+        summary.put("noisy", cvPercent > noiseCvPercent);
+        return summary;
+    }
+
+    /**
+     * Linear interpolation between closest ranks; {@code sorted} must be ascending.
+     */
+    static double percentile(List<Double> sorted, double percentile) {
+        if (sorted.size() == 1) return sorted.get(0);
+        double rank = percentile / 100 * (sorted.size() - 1);
+        int lower = (int) Math.floor(rank);
+        int upper = (int) Math.ceil(rank);
+        return sorted.get(lower) + (sorted.get(upper) - sorted.get(lower)) * (rank - lower);
+    }
+}
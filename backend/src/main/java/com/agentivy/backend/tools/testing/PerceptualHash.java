@@ -0,0 +1,74 @@
+package com.agentivy.backend.tools.testing;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+/**
+ * 64-bit difference hash (dHash) of a screenshot, for cheap local visual diffing.
+ *
+ * The image is reduced to 9x8 grayscale by averaging every source pixel of each cell (a
+ * scaled draw would point-sample a full-size screenshot down to a handful of pixels), and
+ * each bit records whether a cell is brighter than its right neighbour. Anti-aliasing,
+ * compression and small colour shifts leave the hash unchanged, while moved or resized
+ * blocks flip bits, so the Hamming distance between two hashes approximates how different
+ * two renders look.
+ */
+class PerceptualHash {
+
+    // Distances above this (out of 64 bits) are a visible layout change
+    static final int CHANGE_THRESHOLD = 10;
+
+    private PerceptualHash() {
+    }
+
+    static String dHash(byte[] png) throws IOException {
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+        if (image == null) throw new IOException("Screenshot is not a decodable image");
+        return dHash(image);
+    }
+
+    static String dHash(BufferedImage image) {
+        double[][] cells = areaAverageGray(image, 9, 8);
+
+        long hash = 0;
+        for (int y = 0; y < 8; y++) {
+            for (int x = 0; x < 8; x++) {
+                hash = (hash << 1) | (cells[y][x] > cells[y][x + 1] ? 1 : 0);
+            }
+        }
+        return String.format("%016x", hash);
+    }
+
+    /** Mean luminance of each cell of a {@code columns} x {@code rows} grid over the image. */
+    private static double[][] areaAverageGray(BufferedImage image, int columns, int rows) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int[] rgb = image.getRGB(0, 0, width, height, null, 0, width);
+
+        double[][] sums = new double[rows][columns];
+        long[][] counts = new long[rows][columns];
+        for (int y = 0; y < height; y++) {
+            int row = (int) ((long) y * rows / height);
+            for (int x = 0; x < width; x++) {
+                int column = (int) ((long) x * columns / width);
+                int pixel = rgb[y * width + x];
+                sums[row][column] += 0.299 * ((pixel >> 16) & 0xff)
+                    + 0.587 * ((pixel >> 8) & 0xff)
+                    + 0.114 * (pixel & 0xff);
+                counts[row][column]++;
+            }
+        }
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                if (counts[row][column] > 0) sums[row][column] /= counts[row][column];
+            }
+        }
+        return sums;
+    }
+
+    static int distance(String hashA, String hashB) {
+        return Long.bitCount(Long.parseUnsignedLong(hashA, 16) ^ Long.parseUnsignedLong(hashB, 16));
+    }
+}
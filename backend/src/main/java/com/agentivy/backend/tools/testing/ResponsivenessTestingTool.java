@@ -0,0 +1,446 @@
+package com.agentivy.backend.tools.testing;
+
+import com.agentivy.backend.service.EventPublisherHelper;
+import com.agentivy.backend.service.SessionContext;
+import com.agentivy.backend.tools.PlaywrightBrowserPool;
+import com.agentivy.backend.tools.registry.ToolCategory;
+import com.agentivy.backend.tools.registry.ToolMetadata;
+import com.agentivy.backend.tools.registry.ToolProvider;
+import com.google.adk.tools.Annotations.Schema;
+import com.google.adk.tools.FunctionTool;
+import com.google.common.collect.ImmutableMap;
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.CDPSession;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.options.WaitUntilState;
+import io.reactivex.rxjava3.core.Maybe;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Renders a component at several viewports (mobile, tablet, desktop) and measures layout cost.
+ *
+ * All viewports are loaded up front in their own browser contexts on one pooled browser, so
+ * their in-page observers (layout shifts, resize/mutation activity) run concurrently and the
+ * matrix costs about one viewport's wall time. Per viewport it reports layout count, CLS,
+ * time to a stable layout, forced reflows while the window is resized, horizontal overflow
+ * and a perceptual hash of the screenshot, compared with the previous run of the same URL.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ResponsivenessTestingTool implements ToolProvider {
+
+    private final EventPublisherHelper eventPublisher;
+    private final PlaywrightBrowserPool browserPool;
+
+    @Value("${agentivy.playwright.timeout-ms:30000}")
+    private int timeoutMs;
+
+    @Value("${agentivy.responsive.viewports:mobile=375x667,tablet=768x1024,desktop=1440x900}")
+    private String viewportSpec;
+
+    // Layout is stable once nothing shifted, resized or mutated for this long
+    @Value("${agentivy.responsive.stable-quiet-ms:500}")
+    private int stableQuietMs;
+
+    @Value("${agentivy.responsive.stable-timeout-ms:5000}")
+    private int stableTimeoutMs;
+
+    // "Good" CLS boundary from Core Web Vitals
+    static final double CLS_GOOD = 0.1;
+
+    // Resize steps as fractions of the viewport width
+    private static final double[] RESIZE_STEPS = {0.9, 1.1, 0.95, 1.0};
+
+    /**
+     * Installed before any page script: records layout shifts (CLS session windows) and the
+     * last time the DOM resized or mutated.
+     */
+    private static final String LAYOUT_OBSERVER_SCRIPT = """
+        (() => {
+            const state = window.__agentivyLayout = { shifts: [], lastChange: 0, stableAt: null };
+            new PerformanceObserver(list => {
+                for (const e of list.getEntries()) {
+                    if (e.hadRecentInput) continue;
+                    state.shifts.push({ t: e.startTime, v: e.value });
+                    state.lastChange = Math.max(state.lastChange, e.startTime);
+                }
+            }).observe({ type: 'layout-shift', buffered: true });
+            const touch = () => { state.lastChange = performance.now(); };
+            const resize = new ResizeObserver(touch);
+            const watch = () => {
+                new MutationObserver(mutations => {
+                    touch();
+                    for (const m of mutations) m.addedNodes.forEach(n => { if (n.nodeType === 1) resize.observe(n); });
+                }).observe(document.body, { childList: true, subtree: true, attributes: true, characterData: true });
+                document.body.querySelectorAll('*').forEach(el => resize.observe(el));
+            };
+            if (document.body) watch(); else document.addEventListener('DOMContentLoaded', watch);
+            state.cls = () => {
+                // Largest session window: shifts < 1s apart, window capped at 5s
+                let max = 0, current = 0, start = 0, last = -Infinity;
+                for (const s of state.shifts) {
+                    if (s.t - last > 1000 || s.t - start > 5000) { current = 0; start = s.t; }
+                    current += s.v; last = s.t; max = Math.max(max, current);
+                }
+                return max;
+            };
+        })();
+        """;
+
+    private static final String STABILITY_WATCH_SCRIPT = """
+        ([quietMs, timeoutMs]) => {
+            const state = window.__agentivyLayout;
+            const check = () => {
+                const now = performance.now();
+                if (now - state.lastChange >= quietMs) {
+                    state.stableAt = state.lastChange;
+                    state.stable = true;
+                } else if (now >= timeoutMs) {
+                    state.stableAt = now;
+                    state.stable = false;
+                } else {
+                    setTimeout(check, 50);
+                }
+            };
+            check();
+        }
+        """;
+
+    private static final String NEXT_FRAMES_SCRIPT =
+        "() => new Promise(r => requestAnimationFrame(() => requestAnimationFrame(r)))";
+
+    record Viewport(String name, int width, int height) {}
+
+    // Perceptual hash of the last run per component, route and viewport. The harness URL is
+    // shared by every component in single-harness mode, so it cannot be the key on its own.
+    private final Map<String, String> previousHashes = new ConcurrentHashMap<>();
+
+    @Override
+    public ToolMetadata getMetadata() {
+        return new ToolMetadata(
+            "testing.responsiveness",
+            "Responsiveness Tester",
+            "Renders a component at mobile, tablet and desktop viewports and measures layout cost, CLS and visual changes",
+            ToolCategory.COMPONENT_TESTING,
+            "1.0.0",
+            true,
+            List.of("responsive", "layout", "cls", "viewport", "playwright"),
+            Map.of(
+                "viewports", viewportSpec,
+                "metrics", "layoutCount, cls, timeToStableLayoutMs, forcedReflowsDuringResize, horizontalOverflow, perceptualHash"
+            )
+        );
+    }
+
+    @Override
+    public List<FunctionTool> createTools() {
+        return List.of(FunctionTool.create(this, "runResponsivenessTest"));
+    }
+
+    /**
+     * Runs the viewport matrix against a component URL.
+     *
+     * @param componentUrl URL of the deployed harness
+     * @return Per-viewport layout metrics plus warnings
+     */
+    public Maybe<ImmutableMap<String, Object>> runResponsivenessTest(
+            @Schema(name = "componentUrl") String componentUrl) {
+
+        return Maybe.fromCallable(() -> {
+            String componentName = SessionContext.getCurrentComponent() != null
+                ? SessionContext.getCurrentComponent()
+                : "unknown";
+            // Captured here: the measurement runs on the browser thread, which has no session context
+            String hashKey = SessionContext.getCurrentComponent() != null
+                ? SessionContext.getCurrentComponent() + "@" + route(componentUrl)
+                : null;
+
+            List<Viewport> viewports;
+            try {
+                viewports = parseViewports(viewportSpec);
+            } catch (IllegalArgumentException e) {
+                return ImmutableMap.<String, Object>of("status", "error", "message", e.getMessage());
+            }
+
+            if (!browserPool.isAvailable()) {
+                return ImmutableMap.<String, Object>of("status", "error",
+                    "message", "Playwright not initialized. Ensure agentivy.playwright.enabled=true and Chromium is installed.");
+            }
+
+            eventPublisher.publishToolCall("runResponsivenessTest", "Running responsiveness test on " + componentUrl);
+            eventPublisher.publishComponentStatus(componentName, "responsiveness", "starting",
+                "Rendering at " + viewports.size() + " viewports...",
+                Map.of("targetUrl", componentUrl, "viewports", viewports.stream().map(Viewport::name).toList()));
+
+            long startTime = System.currentTimeMillis();
+            Map<String, Map<String, Object>> results;
+            try {
+                long leaseTimeoutMs = timeoutMs * 2L + stableTimeoutMs + viewports.size() * 5_000L;
+                results = browserPool.withContext(contextOptions(viewports.get(0)), leaseTimeoutMs,
+                    session -> measureViewports(session, componentUrl, hashKey, viewports));
+            } catch (Exception e) {
+                log.error("Responsiveness test failed", e);
+                eventPublisher.publishComponentStatus(componentName, "responsiveness", "error",
+                    "Responsiveness test failed: " + e.getMessage(), Map.of());
+                return ImmutableMap.<String, Object>of("status", "error",
+                    "message", "Responsiveness test failed: " + (e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName()));
+            }
+
+            List<String> warnings = buildWarnings(results);
+            List<String> visualChanges = buildVisualChanges(results);
+            eventPublisher.publishComponentStatus(componentName, "responsiveness", "completed",
+                warnings.isEmpty() ? "Layout stable at every viewport" : warnings.get(0),
+                Map.of(
+                    "passed", warnings.isEmpty(),
+                    "viewports", results,
+                    "warnings", warnings,
+                    "visualChanges", visualChanges,
+                    "timeElapsed", System.currentTimeMillis() - startTime
+                ));
+
+            return ImmutableMap.<String, Object>builder()
+                .put("status", "success")
+                .put("componentUrl", componentUrl)
+                .put("viewports", results)
+                .put("warnings", warnings)
+                .put("visualChanges", visualChanges)
+                .put("passed", warnings.isEmpty())
+                .put("timeElapsed", System.currentTimeMillis() - startTime)
+                .build();
+        });
+    }
+
+    static List<Viewport> parseViewports(String spec) {
+        List<Viewport> viewports = new ArrayList<>();
+        for (String part : spec.split(",")) {
+            if (part.isBlank()) continue;
+            String[] nameAndSize = part.trim().split("=");
+            String[] size = nameAndSize.length == 2 ? nameAndSize[1].split("x") : new String[0];
+            if (size.length != 2) {
+                throw new IllegalArgumentException("Invalid viewport (expected name=WIDTHxHEIGHT): " + part.trim());
+            }
+            try {
+                viewports.add(new Viewport(nameAndSize[0].trim(), Integer.parseInt(size[0].trim()), Integer.parseInt(size[1].trim())));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid viewport size: " + part.trim());
+            }
+        }
+        if (viewports.isEmpty()) throw new IllegalArgumentException("No viewports configured");
+        return viewports;
+    }
+
+    static String route(String componentUrl) {
+        try {
+            String path = java.net.URI.create(componentUrl).getPath();
+            return path == null || path.isEmpty() ? "/" : path;
+        } catch (IllegalArgumentException e) {
+            return componentUrl;
+        }
+    }
+
+    private Browser.NewContextOptions contextOptions(Viewport viewport) {
+        boolean mobile = viewport.width() < 600;
+        return new Browser.NewContextOptions()
+            .setViewportSize(viewport.width(), viewport.height())
+            .setIsMobile(mobile)
+            .setHasTouch(mobile);
+    }
+
+    /**
+     * Runs on the browser thread. The first viewport uses the leased context; the others get
+     * extra contexts on the same browser, closed before the lease ends.
+     */
+    private Map<String, Map<String, Object>> measureViewports(
+            PlaywrightBrowserPool.BrowserSession session, String componentUrl, String hashKey,
+            List<Viewport> viewports) {
+
+        List<BrowserContext> extraContexts = new ArrayList<>();
+        try {
+            Map<Viewport, Page> pages = new LinkedHashMap<>();
+            Map<Viewport, CDPSession> cdpSessions = new HashMap<>();
+            for (int i = 0; i < viewports.size(); i++) {
+                Viewport viewport = viewports.get(i);
+                BrowserContext context = i == 0 ? session.context() : session.browser().newContext(contextOptions(viewport));
+                if (i > 0) extraContexts.add(context);
+                context.addInitScript(LAYOUT_OBSERVER_SCRIPT);
+                Page page = context.newPage();
+                CDPSession cdp = context.newCDPSession(page);
+                cdp.send("Performance.enable");
+                pages.put(viewport, page);
+                cdpSessions.put(viewport, cdp);
+            }
+
+            // Start every load and stability watch before waiting on any of them
+            for (Map.Entry<Viewport, Page> entry : pages.entrySet()) {
+                entry.getValue().navigate(componentUrl, new Page.NavigateOptions()
+                    .setWaitUntil(WaitUntilState.DOMCONTENTLOADED)
+                    .setTimeout(timeoutMs));
+                entry.getValue().evaluate(STABILITY_WATCH_SCRIPT, List.of(stableQuietMs, stableTimeoutMs));
+            }
+
+            Map<String, Map<String, Object>> results = new LinkedHashMap<>();
+            for (Map.Entry<Viewport, Page> entry : pages.entrySet()) {
+                Viewport viewport = entry.getKey();
+                try {
+                    results.put(viewport.name(), measureViewport(session.browser(), hashKey, viewport,
+                        entry.getValue(), cdpSessions.get(viewport)));
+                } catch (Exception e) {
+                    log.warn("Viewport {} failed: {}", viewport.name(), e.getMessage());
+                    results.put(viewport.name(), Map.of("error", e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName()));
+                }
+            }
+            return results;
+        } finally {
+            extraContexts.forEach(context -> {
+                try {
+                    context.close();
+                } catch (Exception e) {
+                    log.debug("Failed to close viewport context: {}", e.getMessage());
+                }
+            });
+        }
+    }
+
+    private Map<String, Object> measureViewport(Browser browser, String hashKey, Viewport viewport,
+                                                Page page, CDPSession cdp) throws Exception {
+        page.waitForFunction("() => window.__agentivyLayout && window.__agentivyLayout.stableAt !== null",
+            null, new Page.WaitForFunctionOptions().setTimeout(stableTimeoutMs + timeoutMs));
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> layout = (Map<String, Object>) page.evaluate("""
+            () => {
+                const state = window.__agentivyLayout;
+                const root = document.scrollingElement || document.documentElement;
+                return {
+                    cls: state.cls(),
+                    layoutShiftCount: state.shifts.length,
+                    stable: state.stable,
+                    timeToStableLayoutMs: state.stableAt,
+                    horizontalOverflowPx: Math.max(0, root.scrollWidth - root.clientWidth)
+                };
+            }
+            """);
+        Map<String, Double> loadMetrics = cdpMetrics(cdp);
+        String hash = PerceptualHash.dHash(page.screenshot());
+
+        // Resize around the viewport width under a timeline trace: layouts recorded with a JS
+        // stack were forced synchronously by script reading layout inside resize handlers
+        Integer forcedReflows = null;
+        boolean tracing = false;
+        try {
+            browser.startTracing(page, new Browser.StartTracingOptions()
+                .setCategories(List.of(LayoutTrace.CATEGORIES.split(","))));
+            tracing = true;
+        } catch (Exception e) {
+            log.debug("Timeline tracing unavailable, forced reflows not counted: {}", e.getMessage());
+        }
+        try {
+            for (double step : RESIZE_STEPS) {
+                page.setViewportSize((int) Math.round(viewport.width() * step), viewport.height());
+                page.evaluate(NEXT_FRAMES_SCRIPT);
+            }
+        } finally {
+            if (tracing) {
+                String trace = new String(browser.stopTracing(), StandardCharsets.UTF_8);
+                forcedReflows = LayoutTrace.countForcedLayouts(trace, mainFrameId(cdp));
+            }
+        }
+        Map<String, Double> resizeMetrics = cdpMetrics(cdp);
+        double resizeLayouts = resizeMetrics.getOrDefault("LayoutCount", 0.0) - loadMetrics.getOrDefault("LayoutCount", 0.0);
+
+        Map<String, Object> result = new LinkedHashMap<>(layout);
+        result.put("width", viewport.width());
+        result.put("height", viewport.height());
+        result.put("layoutCount", loadMetrics.getOrDefault("LayoutCount", 0.0));
+        result.put("layoutDurationMs", loadMetrics.getOrDefault("LayoutDuration", 0.0) * 1000);
+        result.put("resizeLayoutCount", resizeLayouts);
+        if (forcedReflows != null) {
+            result.put("forcedReflowsDuringResize", forcedReflows);
+        }
+        result.put("resizeLayoutDurationMs",
+            (resizeMetrics.getOrDefault("LayoutDuration", 0.0) - loadMetrics.getOrDefault("LayoutDuration", 0.0)) * 1000);
+        result.put("perceptualHash", hash);
+
+        // Without a component name there is nothing safe to compare against
+        String previous = hashKey != null ? previousHashes.put(hashKey + "@" + viewport.name(), hash) : null;
+        if (previous != null) {
+            int distance = PerceptualHash.distance(previous, hash);
+            result.put("hashDistanceFromPreviousRun", distance);
+            result.put("visuallyChanged", distance > PerceptualHash.CHANGE_THRESHOLD);
+        }
+        log.info("Viewport {}: cls={}, layouts={}, stable after {}ms", viewport.name(),
+            result.get("cls"), result.get("layoutCount"), result.get("timeToStableLayoutMs"));
+        return result;
+    }
+
+    private String mainFrameId(CDPSession cdp) {
+        try {
+            return cdp.send("Page.getFrameTree").getAsJsonObject("frameTree")
+                .getAsJsonObject("frame").get("id").getAsString();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private Map<String, Double> cdpMetrics(CDPSession cdp) {
+        Map<String, Double> metrics = new HashMap<>();
+        cdp.send("Performance.getMetrics").getAsJsonArray("metrics").forEach(m ->
+            metrics.put(m.getAsJsonObject().get("name").getAsString(),
+                m.getAsJsonObject().get("value").getAsDouble()));
+        return metrics;
+    }
+
+    private List<String> buildWarnings(Map<String, Map<String, Object>> results) {
+        List<String> warnings = new ArrayList<>();
+        results.forEach((viewport, result) -> {
+            if (result.containsKey("error")) {
+                warnings.add(String.format("%s: viewport could not be measured (%s)", viewport, result.get("error")));
+                return;
+            }
+            double cls = ((Number) result.get("cls")).doubleValue();
+            if (cls > CLS_GOOD) {
+                warnings.add(String.format("%s: layout shift score %.3f exceeds %.1f - reserve space for late content (images, async data)",
+                    viewport, cls, CLS_GOOD));
+            }
+            if (!Boolean.TRUE.equals(result.get("stable"))) {
+                warnings.add(String.format("%s: layout still changing after %d ms - check for animations or repeated re-rendering",
+                    viewport, stableTimeoutMs));
+            }
+            double overflow = ((Number) result.get("horizontalOverflowPx")).doubleValue();
+            if (overflow > 0) {
+                warnings.add(String.format("%s: content overflows the viewport horizontally by %.0f px - check fixed widths",
+                    viewport, overflow));
+            }
+            double forced = result.get("forcedReflowsDuringResize") instanceof Number n ? n.doubleValue() : 0;
+            if (forced > 0) {
+                warnings.add(String.format("%s: %.0f forced reflow(s) while resizing - avoid reading layout (offsetWidth, getBoundingClientRect) in resize handlers",
+                    viewport, forced));
+            }
+        });
+        return warnings;
+    }
+
+    /**
+     * Visual drift since the previous run is reported for information only: an intended UI
+     * change looks the same as a regression, so it does not fail the test.
+     */
+    private List<String> buildVisualChanges(Map<String, Map<String, Object>> results) {
+        List<String> changes = new ArrayList<>();
+        results.forEach((viewport, result) -> {
+            if (Boolean.TRUE.equals(result.get("visuallyChanged"))) {
+                changes.add(String.format("%s: render differs visibly from the previous run (hash distance %s/64)",
+                    viewport, result.get("hashDistanceFromPreviousRun")));
+            }
+        });
+        return changes;
+    }
+}
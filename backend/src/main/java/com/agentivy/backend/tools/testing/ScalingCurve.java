@@ -0,0 +1,116 @@
+package com.agentivy.backend.tools.testing;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fits how a metric grows with input size.
+ *
+ * The smallest size is treated as the baseline (framework, harness and page overhead), and
+ * the growth exponent is the log-log slope of the increase over that baseline against the
+ * added items: ~1 means each item costs the same, above {@code SUPER_LINEAR_EXPONENT} means
+ * items get more expensive as the list grows. A knee is the first size after which the
+ * local exponent jumps above that limit while earlier segments stayed below it.
+ */
+class ScalingCurve {
+
+    static final String CONSTANT = "constant";
+    static final String SUB_LINEAR = "sub-linear";
+    static final String LINEAR = "linear";
+    static final String SUPER_LINEAR = "super-linear";
+    static final String INSUFFICIENT_DATA = "insufficient-data";
+
+    static final double SUPER_LINEAR_EXPONENT = 1.3;
+    private static final double CONSTANT_EXPONENT = 0.2;
+    private static final double SUB_LINEAR_EXPONENT = 0.8;
+
+    private ScalingCurve() {
+    }
+
+    /**
+     * @param sizes ascending input sizes
+     * @param values metric measured at each size
+     */
+    static Map<String, Object> fit(List<Integer> sizes, List<Double> values) {
+        Map<String, Object> fit = new HashMap<>();
+        double baseSize = sizes.get(0);
+        double baseValue = values.get(0);
+
+        List<double[]> points = new ArrayList<>();
+        for (int i = 1; i < sizes.size(); i++) {
+            double added = sizes.get(i) - baseSize;
+            double increase = values.get(i) - baseValue;
+            if (added > 0 && increase > 0) {
+                points.add(new double[] {Math.log(added), Math.log(increase)});
+            }
+        }
+
+        int last = sizes.size() - 1;
+        fit.put("perItemCost", last > 0 && sizes.get(last) > baseSize
+            ? (values.get(last) - baseValue) / (sizes.get(last) - baseSize)
+            : 0.0);
+
+        if (points.size() < 2) {
+            // Too few growing points to fit: flat metrics land here too
+            boolean flat = last > 0 && points.isEmpty();
+            fit.put("growth", flat ? CONSTANT : INSUFFICIENT_DATA);
+            fit.put("exponent", flat ? 0.0 : Double.NaN);
+            return fit;
+        }
+
+        double exponent = slope(points);
+        fit.put("exponent", exponent);
+        fit.put("growth", classify(exponent));
+
+        Integer knee = kneeSize(sizes, values);
+        if (knee != null) {
+            fit.put("kneeSize", knee);
+        }
+        return fit;
+    }
+
+    static String classify(double exponent) {
+        if (exponent < CONSTANT_EXPONENT) return CONSTANT;
+        if (exponent < SUB_LINEAR_EXPONENT) return SUB_LINEAR;
+        if (exponent <= SUPER_LINEAR_EXPONENT) return LINEAR;
+        return SUPER_LINEAR;
+    }
+
+    /**
+     * Last size before the first segment whose local exponent exceeds the super-linear limit,
+     * provided at least one earlier segment grew at most linearly. Null when there is none.
+     */
+    static Integer kneeSize(List<Integer> sizes, List<Double> values) {
+        double baseValue = values.get(0);
+        boolean sawLinearSegment = false;
+        for (int i = 1; i < sizes.size() - 1; i++) {
+            double from = values.get(i) - baseValue;
+            double to = values.get(i + 1) - baseValue;
+            if (from <= 0 || to <= 0) continue;
+
+            double local = Math.log(to / from)
+                / Math.log((double) (sizes.get(i + 1) - sizes.get(0)) / (sizes.get(i) - sizes.get(0)));
+            if (local <= SUPER_LINEAR_EXPONENT) {
+                sawLinearSegment = true;
+            } else if (sawLinearSegment) {
+                return sizes.get(i);
+            }
+        }
+        return null;
+    }
+
+    private static double slope(List<double[]> points) {
+        double n = points.size();
+        double sumX = 0, sumY = 0, sumXX = 0, sumXY = 0;
+        for (double[] p : points) {
+            sumX += p[0];
+            sumY += p[1];
+            sumXX += p[0] * p[0];
+            sumXY += p[0] * p[1];
+        }
+        double denominator = n * sumXX - sumX * sumX;
+        return denominator != 0 ? (n * sumXY - sumX * sumY) / denominator : 0;
+    }
+}
@@ -0,0 +1,141 @@
+package com.agentivy.backend.tools.testing;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Decoded source map (revision 3) answering "which original line produced this generated
+ * position". Only what CPU profile attribution needs: sources, names and the mappings.
+ */
+class SourceMap {
+
+    record Position(String source, int line, int column, String name) {}
+
+    private static final String BASE64 = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+
+    private final List<String> sources;
+    private final List<String> names;
+    // Per generated line: segments of [generatedColumn, sourceIndex, originalLine, originalColumn, nameIndex]
+    private final List<int[][]> lines;
+
+    private SourceMap(List<String> sources, List<String> names, List<int[][]> lines) {
+        this.sources = sources;
+        this.names = names;
+        this.lines = lines;
+    }
+
+    static SourceMap parse(String json) {
+        JsonObject map = JsonParser.parseString(json).getAsJsonObject();
+        String sourceRoot = map.has("sourceRoot") && !map.get("sourceRoot").isJsonNull()
+            ? map.get("sourceRoot").getAsString()
+            : "";
+
+        List<String> sources = new ArrayList<>();
+        for (JsonElement source : map.getAsJsonArray("sources")) {
+            sources.add(normalizeSource(sourceRoot, source.isJsonNull() ? "" : source.getAsString()));
+        }
+        List<String> names = new ArrayList<>();
+        JsonArray nameArray = map.getAsJsonArray("names");
+        if (nameArray != null) {
+            nameArray.forEach(name -> names.add(name.getAsString()));
+        }
+
+        return new SourceMap(sources, names, decodeMappings(map.get("mappings").getAsString()));
+    }
+
+    /**
+     * @param line zero-based generated line
+     * @param column zero-based generated column
+     * @return original position (one-based line) of the closest segment at or before the column
+     */
+    Optional<Position> originalPositionFor(int line, int column) {
+        if (line < 0 || line >= lines.size()) return Optional.empty();
+        int[][] segments = lines.get(line);
+
+        int low = 0, high = segments.length - 1, match = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (segments[mid][0] <= column) {
+                match = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        if (match < 0 || segments[match].length < 4) return Optional.empty();
+
+        int[] segment = segments[match];
+        String name = segment.length >= 5 && segment[4] < names.size() ? names.get(segment[4]) : null;
+        return Optional.of(new Position(sources.get(segment[1]), segment[2] + 1, segment[3], name));
+    }
+
+    private static List<int[][]> decodeMappings(String mappings) {
+        List<int[][]> lines = new ArrayList<>();
+        // Source index, original line/column and name index are deltas across the whole map
+        int source = 0, originalLine = 0, originalColumn = 0, name = 0;
+
+        for (String line : mappings.split(";", -1)) {
+            List<int[]> segments = new ArrayList<>();
+            int generatedColumn = 0;
+            for (String encoded : line.split(",")) {
+                if (encoded.isEmpty()) continue;
+                int[] fields = decodeVlq(encoded);
+                generatedColumn += fields[0];
+                if (fields.length >= 4) {
+                    source += fields[1];
+                    originalLine += fields[2];
+                    originalColumn += fields[3];
+                    if (fields.length >= 5) {
+                        name += fields[4];
+                        segments.add(new int[] {generatedColumn, source, originalLine, originalColumn, name});
+                    } else {
+                        segments.add(new int[] {generatedColumn, source, originalLine, originalColumn});
+                    }
+                } else {
+                    segments.add(new int[] {generatedColumn});
+                }
+            }
+            lines.add(segments.toArray(int[][]::new));
+        }
+        return lines;
+    }
+
+    static int[] decodeVlq(String encoded) {
+        int[] values = new int[5];
+        int count = 0, value = 0, shift = 0;
+        for (int i = 0; i < encoded.length(); i++) {
+            int digit = BASE64.indexOf(encoded.charAt(i));
+            if (digit < 0) throw new IllegalArgumentException("Invalid base64 VLQ character in: " + encoded);
+            value += (digit & 31) << shift;
+            if ((digit & 32) != 0) {
+                shift += 5;
+            } else {
+                int decoded = (value & 1) == 1 ? -(value >>> 1) : value >>> 1;
+                if (count == values.length) values = Arrays.copyOf(values, count * 2);
+                values[count++] = decoded;
+                value = 0;
+                shift = 0;
+            }
+        }
+        return Arrays.copyOf(values, count);
+    }
+
+    /**
+     * Strips bundler schemes so sources read as project paths (src/app/x.component.ts).
+     */
+    static String normalizeSource(String sourceRoot, String source) {
+        String path = source.matches("^[a-zA-Z][\\w+.-]*://.*") ? source : sourceRoot + source;
+        path = path.replaceFirst("^[a-zA-Z][\\w+.-]*://[^/]*", "");
+        while (path.startsWith("/") || path.startsWith("./")) {
+            path = path.substring(path.startsWith("./") ? 2 : 1);
+        }
+        return path;
+    }
+}
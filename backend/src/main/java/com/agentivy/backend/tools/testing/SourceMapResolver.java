@@ -0,0 +1,134 @@
+package com.agentivy.backend.tools.testing;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Resolves profiled frames back to source files using the dev server's source maps.
+ *
+ * Each script is fetched to find its sourceMappingURL (inline data URIs and separate .map
+ * files both occur, depending on the builder). One resolver is kept per dev server, so a
+ * parsed map is reused across runs for as long as its script is unchanged: every run
+ * revalidates a script once (ETag when the server sends one, otherwise a content hash)
+ * before trusting the cached map. Vendor, polyfill and prebundled dependency scripts are
+ * not fetched at all. Frames in scripts without a usable map keep their served URL and
+ * one-based generated line.
+ */
+@Slf4j
+class SourceMapResolver {
+
+    private static final Pattern SOURCE_MAPPING_URL = Pattern.compile("//[#@]\\s*sourceMappingURL=(\\S+)\\s*$");
+    private static final String DATA_URI_PREFIX = "data:application/json;";
+    private static final Duration FETCH_TIMEOUT = Duration.ofSeconds(5);
+    private static final Pattern VENDOR_SCRIPT = Pattern.compile(
+        "/node_modules/|/@vite/|/\\.?vite/deps/|/(vendor|polyfills|runtime|styles)([.-][^/]*)?$");
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+        .connectTimeout(FETCH_TIMEOUT)
+        .build();
+    private final Map<String, CachedMap> maps = new ConcurrentHashMap<>();
+
+    /** A parsed map plus what identifies the script version it belongs to. */
+    private record CachedMap(String etag, String contentHash, Optional<SourceMap> map) {}
+
+    /**
+     * Resolver for one profile. Each script is revalidated at most once per profile, so a
+     * rebuilt bundle served under the same URL is never resolved through its old map.
+     */
+    Function<CpuProfileAnalyzer.GeneratedFrame, CpuProfileAnalyzer.ResolvedFrame> forProfile() {
+        Map<String, Optional<SourceMap>> current = new HashMap<>();
+        return frame -> {
+            Optional<SourceMap.Position> position = current.computeIfAbsent(frame.url(), this::lookup)
+                .flatMap(map -> map.originalPositionFor(frame.line(), frame.column()));
+
+            return position
+                .map(p -> new CpuProfileAnalyzer.ResolvedFrame(
+                    p.name() != null ? p.name() : frame.functionName(), p.source(), p.line()))
+                .orElseGet(() -> new CpuProfileAnalyzer.ResolvedFrame(frame.functionName(), frame.url(), frame.line() + 1));
+        };
+    }
+
+    static boolean isVendorScript(String scriptUrl) {
+        try {
+            String path = URI.create(scriptUrl).getPath();
+            return path != null && VENDOR_SCRIPT.matcher(path).find();
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private Optional<SourceMap> lookup(String scriptUrl) {
+        if (!scriptUrl.startsWith("http") || isVendorScript(scriptUrl)) return Optional.empty();
+        CachedMap cached = maps.get(scriptUrl);
+        try {
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(scriptUrl)).timeout(FETCH_TIMEOUT).GET();
+            if (cached != null && cached.etag() != null) {
+                request.header("If-None-Match", cached.etag());
+            }
+            HttpResponse<String> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() == 304 && cached != null) {
+                return cached.map();
+            }
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("HTTP " + response.statusCode());
+            }
+
+            String script = response.body();
+            String contentHash = sha256(script);
+            if (cached != null && contentHash.equals(cached.contentHash())) {
+                return cached.map();
+            }
+            Optional<SourceMap> map = parseMap(scriptUrl, script);
+            maps.put(scriptUrl, new CachedMap(response.headers().firstValue("ETag").orElse(null), contentHash, map));
+            return map;
+        } catch (Exception e) {
+            log.debug("No source map for {}: {}", scriptUrl, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private Optional<SourceMap> parseMap(String scriptUrl, String script) throws Exception {
+        Matcher m = SOURCE_MAPPING_URL.matcher(script.substring(Math.max(0, script.length() - 4096)).stripTrailing());
+        if (!m.find()) return Optional.empty();
+
+        String mapUrl = m.group(1);
+        String mapJson;
+        if (mapUrl.startsWith(DATA_URI_PREFIX)) {
+            mapJson = new String(Base64.getDecoder().decode(mapUrl.substring(mapUrl.indexOf(',') + 1)), StandardCharsets.UTF_8);
+        } else {
+            mapJson = fetch(URI.create(scriptUrl).resolve(mapUrl));
+        }
+        return Optional.of(SourceMap.parse(mapJson));
+    }
+
+    private String fetch(URI uri) throws Exception {
+        HttpResponse<String> response = httpClient.send(
+            HttpRequest.newBuilder(uri).timeout(FETCH_TIMEOUT).GET().build(),
+            HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("HTTP " + response.statusCode());
+        }
+        return response.body();
+    }
+
+    private static String sha256(String content) throws Exception {
+        return HexFormat.of().formatHex(
+            MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,231 @@
+package com.agentivy.backend.tools.testing;
+
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Static pre-screen of an Angular component's template and class for patterns that make
+ * change detection or teardown expensive. Text and regex based (no TypeScript or template
+ * parser), so a component is screened in well under a millisecond and the results are
+ * heuristics to triage browser runs, not proof.
+ *
+ * Rules:
+ * - function-call-in-binding: a call in an interpolation, property binding, structural
+ *   directive or control-flow block runs on every change detection. Signal reads are calls
+ *   too, so fields created with signal(), computed(), input(), model() etc. are exempt.
+ * - ngfor-without-trackby: *ngFor without trackBy re-creates DOM when the array is replaced.
+ * - missing-onpush: the component is checked on every tick of its parents.
+ * - unmanaged-subscription: subscribe() with no takeUntil/takeUntilDestroyed/take(1)/first(),
+ *   not added to a Subscription, and not kept for a later unsubscribe().
+ * - interval-without-cleanup: setInterval() in a class that never calls clearInterval().
+ */
+class TemplateAnalyzer {
+
+    static final String TEMPLATE = "template";
+    static final String COMPONENT = "component";
+
+    record Finding(String rule, String severity, String file, int line, String message) {}
+
+    private static final Map<String, Integer> SEVERITY_WEIGHT = Map.of(
+        "critical", 5, "serious", 3, "moderate", 2, "minor", 1);
+
+    private static final Pattern INTERPOLATION = Pattern.compile("\\{\\{(.*?)}}", Pattern.DOTALL);
+    private static final Pattern BINDING = Pattern.compile(
+        "(\\[[^\\]\\s=(]+]|\\*ng\\w+|bind-[\\w-]+)\\s*=\\s*(\"([^\"]*)\"|'([^']*)')");
+    private static final Pattern CONTROL_FLOW = Pattern.compile("@(?:if|for|switch|else\\s+if)\\s*\\(");
+    private static final Pattern CALL = Pattern.compile("(?<![\\w$])([A-Za-z_$][\\w$]*)\\s*\\(");
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^'\\\\]|\\\\.)*'|\"(?:[^\"\\\\]|\\\\.)*\"");
+    private static final Pattern SIGNAL_FIELD = Pattern.compile(
+        "([\\w$]+)\\s*(?::[^=;{}\\n]+)?=\\s*(?:signal|computed|input|model|linkedSignal|toSignal"
+            + "|viewChild|viewChildren|contentChild|contentChildren)(?:\\.required)?\\s*[<(]");
+    private static final Pattern SET_INTERVAL = Pattern.compile("(?<![\\w$.])setInterval\\s*\\(|window\\.setInterval\\s*\\(");
+    private static final Pattern INLINE_TEMPLATE = Pattern.compile("template\\s*:\\s*`");
+    private static final Pattern ASSIGNED = Pattern.compile(
+        "^\\s*(?:(?:const|let|var)\\s+[\\w$]+|(?:this\\.)?[\\w$.]+)\\s*(?::[^=]+)?=(?!=)");
+    private static final Pattern SELF_MANAGED = Pattern.compile(
+        "takeUntil(?:Destroyed)?\\s*\\(|\\btake\\s*\\(\\s*1\\s*\\)|\\bfirst\\s*\\(|\\.add\\s*\\(|\\bhttp\\w*\\.");
+
+    // Template globals and built-ins that are not component methods
+    private static final Set<String> IGNORED_CALLS = Set.of("$any");
+
+    private TemplateAnalyzer() {
+    }
+
+    /**
+     * @param tsSource Component class source
+     * @param templateSource External template (templateUrl), or null to use the inline template
+     * @return Findings, those in an external template first, each file by line
+     */
+    static List<Finding> analyze(String tsSource, String templateSource) {
+        String ts = blankComments(tsSource);
+        List<Finding> findings = new ArrayList<>();
+
+        Set<String> signals = new HashSet<>();
+        Matcher signalField = SIGNAL_FIELD.matcher(ts);
+        while (signalField.find()) signals.add(signalField.group(1));
+
+        if (templateSource != null) {
+            analyzeTemplate(blankHtmlComments(templateSource), TEMPLATE, null, signals, findings);
+        } else {
+            Matcher inline = INLINE_TEMPLATE.matcher(ts);
+            if (inline.find()) {
+                int end = ts.indexOf('`', inline.end());
+                if (end > 0) {
+                    analyzeTemplate(ts.substring(0, end), COMPONENT, inline.end(), signals, findings);
+                }
+            }
+        }
+
+        analyzeClass(ts, findings);
+        findings.sort(Comparator.comparing((Finding f) -> !TEMPLATE.equals(f.file())).thenComparingInt(Finding::line));
+        return findings;
+    }
+
+    /** Sum of severity weights; 0 means nothing worth a browser run was found. */
+    static int riskScore(List<Finding> findings) {
+        return findings.stream().mapToInt(f -> SEVERITY_WEIGHT.getOrDefault(f.severity(), 1)).sum();
+    }
+
+    /** Clean when nothing above minor was found (a missing OnPush alone is not worth a run). */
+    static boolean isClean(List<Finding> findings) {
+        return findings.stream().allMatch(f -> "minor".equals(f.severity()));
+    }
+
+    /**
+     * @param source Template text; for inline templates the whole class source cut at the closing backtick
+     * @param from Offset the inline template starts at (null for an external template)
+     */
+    private static void analyzeTemplate(String source, String file, Integer from, Set<String> signals,
+                                        List<Finding> findings) {
+        int start = from != null ? from : 0;
+        String template = source.substring(start);
+
+        Matcher interpolation = INTERPOLATION.matcher(template);
+        while (interpolation.find()) {
+            checkCalls(interpolation.group(1), source, start + interpolation.start(1), file, signals, findings);
+        }
+
+        Matcher binding = BINDING.matcher(template);
+        while (binding.find()) {
+            String name = binding.group(1);
+            int group = binding.group(3) != null ? 3 : 4;
+            String expression = binding.group(group);
+            int offset = start + binding.start(group);
+            if (name.equals("*ngFor")) {
+                if (!expression.contains("trackBy")) {
+                    findings.add(new Finding("ngfor-without-trackby", "moderate", file, lineOf(source, offset),
+                        "*ngFor=\"" + expression.trim() + "\" has no trackBy, so replacing the array re-creates every row"));
+                }
+                // The trackBy function reference is not a call
+                expression = expression.split(";\\s*trackBy")[0];
+            }
+            checkCalls(expression, source, offset, file, signals, findings);
+        }
+
+        Matcher block = CONTROL_FLOW.matcher(template);
+        while (block.find()) {
+            int open = block.end() - 1;
+            int close = matchingParen(template, open);
+            if (close < 0) continue;
+            // "track" in @for is evaluated per item by design
+            String expression = template.substring(open + 1, close).split(";\\s*track\\b")[0];
+            checkCalls(expression, source, start + open + 1, file, signals, findings);
+        }
+    }
+
+    private static void checkCalls(String expression, String source, int offset, String file,
+                                   Set<String> signals, List<Finding> findings) {
+        // Blank string literals (keeping length) so quoted text is not read as calls
+        String code = STRING_LITERAL.matcher(expression).replaceAll(m -> " ".repeat(m.group().length()));
+        Matcher call = CALL.matcher(code);
+        while (call.find()) {
+            String name = call.group(1);
+            if (signals.contains(name) || IGNORED_CALLS.contains(name)) continue;
+            findings.add(new Finding("function-call-in-binding", "moderate", file,
+                lineOf(source, offset + call.start()),
+                name + "() is called from a template binding and re-runs on every change detection; "
+                    + "use a pure pipe, a computed signal or a precomputed field"));
+        }
+    }
+
+    private static void analyzeClass(String ts, List<Finding> findings) {
+        int decorator = ts.indexOf("@Component(");
+        if (decorator >= 0) {
+            int close = matchingParen(ts, decorator + "@Component".length());
+            String metadata = close > 0 ? ts.substring(decorator, close) : ts.substring(decorator);
+            if (!metadata.contains("ChangeDetectionStrategy.OnPush")) {
+                findings.add(new Finding("missing-onpush", "minor", COMPONENT, lineOf(ts, decorator),
+                    "@Component has no changeDetection: ChangeDetectionStrategy.OnPush, so it is checked on every application tick"));
+            }
+        }
+
+        boolean unsubscribes = ts.contains(".unsubscribe()");
+        int index = ts.indexOf(".subscribe(");
+        while (index >= 0) {
+            String statement = statementBefore(ts, index);
+            boolean managed = SELF_MANAGED.matcher(statement).find()
+                || (unsubscribes && ASSIGNED.matcher(statement).find());
+            if (!managed) {
+                findings.add(new Finding("unmanaged-subscription", "serious", COMPONENT, lineOf(ts, index),
+                    "subscribe() without takeUntilDestroyed/takeUntil or a stored Subscription that is unsubscribed "
+                        + "keeps the component alive after destroy"));
+            }
+            index = ts.indexOf(".subscribe(", index + 1);
+        }
+
+        if (!ts.contains("clearInterval(")) {
+            Matcher interval = SET_INTERVAL.matcher(ts);
+            while (interval.find()) {
+                findings.add(new Finding("interval-without-cleanup", "serious", COMPONENT, lineOf(ts, interval.start()),
+                    "setInterval() is never cleared with clearInterval(), so the timer keeps firing (and triggering "
+                        + "change detection) after the component is destroyed"));
+            }
+        }
+    }
+
+    /**
+     * Text of the statement that ends at {@code end}: scans back to the enclosing ';', '{' or '}'
+     * outside parentheses, so "this.subs.add(source$.pipe(...)" is kept whole.
+     */
+    static String statementBefore(String source, int end) {
+        int depth = 0;
+        int i = end - 1;
+        for (; i >= 0; i--) {
+            char c = source.charAt(i);
+            if (c == ')') depth++;
+            else if (c == '(' && depth > 0) depth--;
+            else if (depth == 0 && (c == ';' || c == '{' || c == '}')) break;
+        }
+        return source.substring(i + 1, end);
+    }
+
+    private static int matchingParen(String source, int open) {
+        int depth = 0;
+        for (int i = open; i < source.length(); i++) {
+            char c = source.charAt(i);
+            if (c == '(') depth++;
+            else if (c == ')' && --depth == 0) return i;
+        }
+        return -1;
+    }
+
+    private static int lineOf(String source, int offset) {
+        int line = 1;
+        for (int i = 0; i < offset && i < source.length(); i++) {
+            if (source.charAt(i) == '\n') line++;
+        }
+        return line;
+    }
+
+    /** Replaces comments with spaces, keeping newlines so offsets and lines stay valid. */
+    private static String blankComments(String ts) {
+        return Pattern.compile("/\\*.*?\\*/|(?<![:\"'`])//[^\\n]*", Pattern.DOTALL).matcher(ts)
+            .replaceAll(m -> m.group().replaceAll("[^\\n]", " "));
+    }
+
+    private static String blankHtmlComments(String html) {
+        return Pattern.compile("<!--.*?-->", Pattern.DOTALL).matcher(html)
+            .replaceAll(m -> m.group().replaceAll("[^\\n]", " "));
+    }
+}
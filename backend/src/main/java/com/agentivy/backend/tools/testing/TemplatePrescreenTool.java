@@ -0,0 +1,141 @@
+package com.agentivy.backend.tools.testing;
+
+import com.agentivy.backend.service.EventPublisherHelper;
+import com.agentivy.backend.tools.github.support.AngularComponentDetector;
+import com.agentivy.backend.tools.registry.ToolCategory;
+import com.agentivy.backend.tools.registry.ToolMetadata;
+import com.agentivy.backend.tools.registry.ToolProvider;
+import com.google.adk.tools.Annotations.Schema;
+import com.google.adk.tools.FunctionTool;
+import com.google.common.collect.ImmutableMap;
+import io.reactivex.rxjava3.core.Maybe;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Static performance pre-screen of Angular components, run before any harness or browser.
+ *
+ * Reads each component's class and template (see TemplateAnalyzer for the rules) and ranks
+ * components by risk, so the workflow can test likely offenders first and skip components
+ * with nothing that could be slow. Takes milliseconds per repository instead of a dev-server
+ * start and browser run per component.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TemplatePrescreenTool implements ToolProvider {
+
+    private final EventPublisherHelper eventPublisher;
+    private final AngularComponentDetector componentDetector;
+
+    @Override
+    public ToolMetadata getMetadata() {
+        return new ToolMetadata(
+            "testing.performance.prescreen",
+            "Template Pre-Screen",
+            "Statically flags template function calls, *ngFor without trackBy, missing OnPush, unmanaged subscriptions and uncleared intervals",
+            ToolCategory.COMPONENT_TESTING,
+            "1.0.0",
+            true,
+            List.of("performance", "static-analysis", "template", "triage"),
+            Map.of(
+                "rules", "function-call-in-binding, ngfor-without-trackby, missing-onpush, unmanaged-subscription, interval-without-cleanup"
+            )
+        );
+    }
+
+    @Override
+    public List<FunctionTool> createTools() {
+        return List.of(FunctionTool.create(this, "prescreenComponents"));
+    }
+
+    /**
+     * Pre-screens every component in a repository.
+     *
+     * @param repoPath Path to the Angular project
+     * @return Components ranked by static risk (highest first) with their findings
+     */
+    public Maybe<ImmutableMap<String, Object>> prescreenComponents(
+            @Schema(name = "repoPath") String repoPath) {
+
+        return Maybe.fromCallable(() -> {
+            eventPublisher.publishToolCall("prescreenComponents", "Pre-screening components in " + repoPath);
+            long startTime = System.currentTimeMillis();
+            Path root = Path.of(repoPath);
+
+            List<Map<String, Object>> results = new ArrayList<>();
+            try {
+                for (AngularComponentDetector.ComponentInfo info : componentDetector.findComponents(root)) {
+                    Map<String, Object> result = new LinkedHashMap<>();
+                    result.put("name", info.name());
+                    result.put("fullName", info.fullName());
+                    result.putAll(prescreen(root, info.tsPath(), info.htmlPath().orElse(null)));
+                    results.add(result);
+                }
+            } catch (IOException e) {
+                return ImmutableMap.<String, Object>of("status", "error",
+                    "message", "Failed to scan components: " + e.getMessage());
+            }
+
+            results.sort(Comparator.comparingInt((Map<String, Object> r) -> (int) r.get("riskScore")).reversed());
+            long clean = results.stream().filter(r -> Boolean.TRUE.equals(r.get("clean"))).count();
+
+            return ImmutableMap.<String, Object>builder()
+                .put("status", "success")
+                .put("componentCount", results.size())
+                .put("cleanCount", clean)
+                .put("components", results)
+                .put("durationMs", System.currentTimeMillis() - startTime)
+                .build();
+        });
+    }
+
+    /**
+     * Pre-screens one component. The template file is read only when the class uses
+     * templateUrl; otherwise the inline template is analyzed.
+     *
+     * @param tsPath Component class file, relative to {@code root} (or absolute)
+     * @param htmlPath Template file, relative to {@code root} (nullable)
+     * @return findings (rule, severity, file, line, message), riskScore and clean; or an error entry
+     */
+    public Map<String, Object> prescreen(Path root, String tsPath, String htmlPath) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("tsPath", tsPath);
+        try {
+            String ts = Files.readString(root.resolve(tsPath));
+            String template = null;
+            if (htmlPath != null && ts.contains("templateUrl") && Files.exists(root.resolve(htmlPath))) {
+                template = Files.readString(root.resolve(htmlPath));
+                result.put("htmlPath", htmlPath);
+            }
+
+            List<TemplateAnalyzer.Finding> findings = TemplateAnalyzer.analyze(ts, template);
+            List<Map<String, Object>> findingMaps = new ArrayList<>();
+            for (TemplateAnalyzer.Finding finding : findings) {
+                findingMaps.add(Map.of(
+                    "rule", finding.rule(),
+                    "severity", finding.severity(),
+                    "file", TemplateAnalyzer.TEMPLATE.equals(finding.file()) ? htmlPath : tsPath,
+                    "line", finding.line(),
+                    "message", finding.message()));
+            }
+            result.put("findings", findingMaps);
+            result.put("riskScore", TemplateAnalyzer.riskScore(findings));
+            result.put("clean", TemplateAnalyzer.isClean(findings));
+        } catch (IOException e) {
+            log.warn("Pre-screen could not read {}: {}", tsPath, e.getMessage());
+            result.put("error", "Could not read component sources: " + e.getMessage());
+            result.put("findings", List.of());
+            // Unknown risk: never skipped, tested after the flagged components
+            result.put("riskScore", 0);
+            result.put("clean", false);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,70 @@
+package com.agentivy.backend.tools.testing;
+
+import java.util.*;
+
+/**
+ * Compares change-detection variants of one component against the zone/Default baseline.
+ *
+ * Every compared metric is a cost (lower is better), so a negative delta is a gain. Variants
+ * are ranked by scripting time saved, then by ticks saved; a variant is recommended only when
+ * it saves at least {@link #MIN_SCRIPTING_GAIN_PERCENT} of scripting time or
+ * {@link #MIN_TICK_GAIN_PERCENT} of change-detection ticks, so run-to-run noise is not
+ * reported as a benefit.
+ */
+class VariantComparison {
+
+    static final List<String> METRICS = List.of(
+        "changeDetectionTicks", "viewChecks", "tickMs", "scriptingMs", "heapMB", "renderMs", "worstInteractionLatencyMs");
+
+    static final double MIN_SCRIPTING_GAIN_PERCENT = 10;
+    static final double MIN_TICK_GAIN_PERCENT = 25;
+
+    private VariantComparison() {
+    }
+
+    /**
+     * @param baseline median metrics of the baseline variant
+     * @param variant median metrics of the compared variant
+     * @return metric -> {baseline, value, delta, deltaPercent} for metrics both sides measured
+     */
+    static Map<String, Map<String, Object>> deltas(Map<String, Double> baseline, Map<String, Double> variant) {
+        Map<String, Map<String, Object>> deltas = new LinkedHashMap<>();
+        for (String metric : METRICS) {
+            Double base = baseline.get(metric);
+            Double value = variant.get(metric);
+            if (base == null || value == null) continue;
+
+            Map<String, Object> delta = new LinkedHashMap<>();
+            delta.put("baseline", base);
+            delta.put("value", value);
+            delta.put("delta", value - base);
+            delta.put("deltaPercent", base != 0 ? (value - base) / Math.abs(base) * 100 : 0.0);
+            deltas.put(metric, delta);
+        }
+        return deltas;
+    }
+
+    /**
+     * Orders variants by measured benefit, best first.
+     *
+     * @param deltasByVariant variant -> output of {@link #deltas}
+     */
+    static List<String> rank(Map<String, Map<String, Map<String, Object>>> deltasByVariant) {
+        return deltasByVariant.entrySet().stream()
+            .sorted(Comparator
+                .comparingDouble((Map.Entry<String, Map<String, Map<String, Object>>> e) -> percent(e.getValue(), "scriptingMs"))
+                .thenComparingDouble(e -> percent(e.getValue(), "changeDetectionTicks")))
+            .map(Map.Entry::getKey)
+            .toList();
+    }
+
+    static boolean isWorthwhile(Map<String, Map<String, Object>> deltas) {
+        return -percent(deltas, "scriptingMs") >= MIN_SCRIPTING_GAIN_PERCENT
+            || -percent(deltas, "changeDetectionTicks") >= MIN_TICK_GAIN_PERCENT;
+    }
+
+    static double percent(Map<String, Map<String, Object>> deltas, String metric) {
+        Map<String, Object> delta = deltas.get(metric);
+        return delta != null ? ((Number) delta.get("deltaPercent")).doubleValue() : 0;
+    }
+}
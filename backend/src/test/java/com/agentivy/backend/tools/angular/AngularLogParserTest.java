@@ -0,0 +1,34 @@
+package com.agentivy.backend.tools.angular;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AngularLogParserTest {
+
+    private final AngularLogParser parser = new AngularLogParser();
+
+    @Test
+    void isBuildFinished_webpackBannerBeforeFailure_finishesOnlyOnFailureMarker() {
+        List<String> output = List.of(
+                "** Angular Live Development Server is listening on localhost:4200, open your browser on http://localhost:4200/ **",
+                "",
+                "✖ Failed to compile.");
+
+        assertFalse(parser.isBuildFinished(output.get(0)));
+        assertFalse(parser.isBuildFinished(output.get(1)));
+        assertTrue(parser.isBuildFinished(output.get(2)));
+        assertTrue(parser.isBuildFailed(output.get(2)));
+    }
+
+    @Test
+    void isBuildFinished_successMarkers_areNotFailures() {
+        for (String line : List.of("✔ Compiled successfully.",
+                "Application bundle generation complete. [1.5 seconds]")) {
+            assertTrue(parser.isBuildFinished(line), line);
+            assertFalse(parser.isBuildFailed(line), line);
+        }
+    }
+}
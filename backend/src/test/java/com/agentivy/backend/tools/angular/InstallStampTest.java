@@ -0,0 +1,73 @@
+package com.agentivy.backend.tools.angular;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InstallStampTest {
+
+    private static final PackageManagerDetector.PackageManager NPM = PackageManagerDetector.PackageManager.NPM;
+
+    private final InstallStamp stamp = new InstallStamp();
+
+    @TempDir
+    Path project;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Files.writeString(project.resolve("package.json"), "{\"name\":\"demo\"}");
+        Files.writeString(project.resolve("package-lock.json"), "{\"lockfileVersion\":3}");
+    }
+
+    @Test
+    void staleReason_noNodeModules_requiresInstall() throws Exception {
+        assertEquals("node_modules missing", stamp.staleReason(project, stamp.compute(project, NPM)));
+    }
+
+    @Test
+    void staleReason_noStamp_requiresInstall() throws Exception {
+        Files.createDirectory(project.resolve("node_modules"));
+        assertEquals("no install stamp", stamp.staleReason(project, stamp.compute(project, NPM)));
+    }
+
+    @Test
+    void staleReason_matchingStamp_skipsInstall() throws Exception {
+        Files.createDirectory(project.resolve("node_modules"));
+        String hash = stamp.compute(project, NPM);
+        stamp.write(project, hash);
+
+        assertNull(stamp.staleReason(project, stamp.compute(project, NPM)));
+    }
+
+    @Test
+    void staleReason_lockfileChanged_requiresInstall() throws Exception {
+        Files.createDirectory(project.resolve("node_modules"));
+        stamp.write(project, stamp.compute(project, NPM));
+
+        Files.writeString(project.resolve("package-lock.json"), "{\"lockfileVersion\":3,\"packages\":{}}");
+
+        assertEquals("package.json or lockfile changed", stamp.staleReason(project, stamp.compute(project, NPM)));
+    }
+
+    @Test
+    void write_keepsStampInsideNodeModules() throws Exception {
+        Files.createDirectory(project.resolve("node_modules"));
+        stamp.write(project, stamp.compute(project, NPM));
+
+        assertTrue(Files.exists(project.resolve("node_modules").resolve(".agentivy-install-stamp")));
+        try (var entries = Files.list(project)) {
+            assertTrue(entries.noneMatch(p -> p.getFileName().toString().startsWith(".agentivy")));
+        }
+    }
+
+    @Test
+    void compute_differsByPackageManager() throws Exception {
+        assertNotEquals(stamp.compute(project, NPM),
+            stamp.compute(project, PackageManagerDetector.PackageManager.YARN));
+    }
+}
@@ -0,0 +1,154 @@
+package com.agentivy.backend.tools.angular;
+
+import com.agentivy.backend.tools.github.support.GitRepositoryManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NodeModulesStoreTest {
+
+    private static final String KEYED = """
+        "node_modules/left-pad": {"version": "1.3.0", "integrity": "sha512-left"}""";
+    private static final String NATIVE = """
+        "node_modules/@scope/native": {"version": "2.0.0", "integrity": "sha512-native", "hasInstallScript": true}""";
+
+    @TempDir
+    Path workDir;
+
+    private final NodeModulesStore store = new NodeModulesStore(new GitRepositoryManager() {
+        @Override
+        public Path getWorkDirectory() {
+            return workDir;
+        }
+    });
+
+    @Test
+    void populate_allKeyedEntriesStored_isComplete() throws Exception {
+        Path clone = cloneWith(KEYED);
+
+        NodeModulesStore.LinkResult result = store.populate(clone);
+
+        assertEquals(1, result.linked());
+        assertTrue(result.complete());
+        assertTrue(Files.exists(clone.resolve("node_modules/left-pad/index.js")));
+    }
+
+    @Test
+    void populate_entryWithoutIntegrity_countsAsMissing() throws Exception {
+        Path clone = cloneWith(KEYED + """
+            ,
+            "node_modules/from-git": {"version": "1.0.0", "resolved": "git+ssh://git@github.com/a/b.git#abc"}""");
+
+        NodeModulesStore.LinkResult result = store.populate(clone);
+
+        assertEquals(1, result.missing());
+        assertFalse(result.complete());
+    }
+
+    @Test
+    void populate_optionalEntryForThisPlatform_countsAsMissing() throws Exception {
+        Path clone = cloneWith(KEYED + """
+            ,
+            "node_modules/native-any": {"version": "1.0.0", "integrity": "sha512-native", "optional": true},
+            "node_modules/native-nowhere": {"version": "1.0.0", "integrity": "sha512-nowhere", "optional": true, "os": ["!%s"], "cpu": ["none"]}"""
+            .formatted(System.getProperty("os.name").toLowerCase().contains("win") ? "win32" : "aix"));
+
+        NodeModulesStore.LinkResult result = store.populate(clone);
+
+        assertEquals(1, result.missing());
+        assertFalse(result.complete());
+    }
+
+    @Test
+    void populate_linkedFilesAreReadOnly_packageJsonIsCopied() throws Exception {
+        Path clone = cloneWith(KEYED);
+
+        store.populate(clone);
+
+        assertFalse(writable(clone.resolve("node_modules/left-pad/index.js")));
+        assertTrue(writable(clone.resolve("node_modules/left-pad/package.json")));
+    }
+
+    @Test
+    void populate_packageWithInstallScript_isCopiedAndListedForRebuild() throws Exception {
+        Path seed = Files.createDirectories(workDir.resolve("seed"));
+        Files.writeString(seed.resolve("package-lock.json"), "{\"lockfileVersion\":3,\"packages\":{\"\":{}," + NATIVE + "}}");
+        Files.createDirectories(seed.resolve("node_modules/@scope/native"));
+        Files.writeString(seed.resolve("node_modules/@scope/native/build.js"), "built");
+        store.ingest(seed);
+
+        Path clone = Files.createDirectories(workDir.resolve("clone"));
+        Files.writeString(clone.resolve("package-lock.json"), "{\"lockfileVersion\":3,\"packages\":{\"\":{}," + NATIVE + "}}");
+        NodeModulesStore.LinkResult result = store.populate(clone);
+
+        assertTrue(result.complete());
+        assertEquals(List.of("@scope/native"), result.rebuild());
+        assertTrue(writable(clone.resolve("node_modules/@scope/native/build.js")));
+    }
+
+    @Test
+    void populate_projectWithOwnInstallScript_isNotRestored() throws Exception {
+        Path clone = cloneWith(KEYED);
+        Files.writeString(clone.resolve("package.json"), "{\"scripts\":{\"postinstall\":\"patch-package\"}}");
+
+        NodeModulesStore.LinkResult result = store.populate(clone);
+
+        assertEquals(0, result.linked());
+        assertFalse(result.complete());
+        assertFalse(Files.exists(clone.resolve("node_modules")));
+    }
+
+    @Test
+    void collectGarbage_removesStaleStagingAndPackagesOverLimit() throws Exception {
+        cloneWith(KEYED);
+        Path shard = storedMarkers().get(0).getParent().getParent();
+        Path staging = Files.createDirectories(shard.resolve("abandoned.tmp-1"));
+        Files.setLastModifiedTime(staging, FileTime.fromMillis(0));
+
+        store.collectGarbage();
+        assertFalse(Files.exists(staging));
+        assertEquals(1, storedMarkers().size());
+
+        store.maxSizeMb = 0;
+        store.collectGarbage();
+        assertEquals(0, storedMarkers().size());
+    }
+
+    /** Owner write permission, so the check also holds when the tests run as root. */
+    private static boolean writable(Path file) throws Exception {
+        if (file.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            return Files.getPosixFilePermissions(file).contains(PosixFilePermission.OWNER_WRITE);
+        }
+        return Files.isWritable(file);
+    }
+
+    private List<Path> storedMarkers() throws Exception {
+        try (Stream<Path> files = Files.walk(store.getStoreDirectory())) {
+            return files.filter(p -> p.getFileName().toString().equals(".agentivy-complete")).toList();
+        }
+    }
+
+    /** A clone whose lockfile lists {@code packages}, with left-pad already in the store. */
+    private Path cloneWith(String packages) throws Exception {
+        Path seed = Files.createDirectories(workDir.resolve("seed"));
+        Files.writeString(seed.resolve("package-lock.json"),
+            "{\"lockfileVersion\":3,\"packages\":{\"\":{}," + KEYED + "}}");
+        Files.createDirectories(seed.resolve("node_modules/left-pad"));
+        Files.writeString(seed.resolve("node_modules/left-pad/index.js"), "module.exports = {};");
+        Files.writeString(seed.resolve("node_modules/left-pad/package.json"), "{\"name\":\"left-pad\"}");
+        store.ingest(seed);
+
+        Path clone = Files.createDirectories(workDir.resolve("clone"));
+        Files.writeString(clone.resolve("package-lock.json"),
+            "{\"lockfileVersion\":3,\"packages\":{\"\":{}," + packages + "}}");
+        return clone;
+    }
+}
@@ -0,0 +1,51 @@
+package com.agentivy.backend.tools.angular;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServerLogTest {
+
+    private final ServerLog serverLog = new ServerLog(new AngularLogParser(), 3);
+
+    @Test
+    void linesSince_returnsOnlyNewLines() {
+        serverLog.append("one");
+        long mark = serverLog.nextSequence();
+        serverLog.append("two");
+        serverLog.append("three");
+
+        assertEquals(List.of("two", "three"), serverLog.linesSince(mark));
+    }
+
+    @Test
+    void append_beyondCapacity_dropsOldestLines() {
+        for (String line : List.of("a", "b", "c", "d")) {
+            serverLog.append(line);
+        }
+
+        assertEquals(List.of("b", "c", "d"), serverLog.linesSince(0));
+        assertEquals("c\nd\n", serverLog.tail(4));
+    }
+
+    @Test
+    void errors_keptAfterFailedBuild_clearedBySuccessfulBuild() {
+        serverLog.append("src/app/a.ts:3:5 - error TS2322: Type 'number' is not assignable");
+        serverLog.append("Application bundle generation failed. [1.2 seconds]");
+        assertTrue(serverLog.hasErrors());
+
+        serverLog.append("Application bundle generation complete. [0.8 seconds]");
+        assertFalse(serverLog.hasErrors());
+    }
+
+    @Test
+    void errors_notClearedByWebpackListeningBanner() {
+        serverLog.append("ERROR in src/app/a.ts: Cannot find module './missing'");
+        serverLog.append("** Angular Live Development Server is listening on localhost:4200 **");
+        serverLog.append("✖ Failed to compile.");
+
+        assertTrue(serverLog.hasErrors());
+    }
+}
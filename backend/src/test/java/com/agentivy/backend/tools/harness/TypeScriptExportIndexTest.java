@@ -0,0 +1,140 @@
+package com.agentivy.backend.tools.harness;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TypeScriptExportIndexTest {
+
+    private final TypeScriptExportIndex index = new TypeScriptExportIndex();
+
+    @TempDir
+    Path src;
+
+    private Path taskList;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        taskList = write("app/task-list/task-list.component.ts", """
+            @Component({ selector: 'app-task-list', templateUrl: './task-list.component.html' })
+            export class TaskListComponent {}
+            """);
+        write("app/task-list/task-list.component.html", "<ul></ul>");
+        write("app/services/task.service.ts", """
+            export interface Task { id: number; }
+            export const enum Priority { Low, High }
+            @Injectable({ providedIn: 'root' })
+            export class TaskService {}
+            """);
+        write("app/task-list/task-list.component.spec.ts", "export class TaskListComponent {}");
+        write("node_modules/lib/index.ts", "export class TaskService {}");
+    }
+
+    @Test
+    void parseExports_readsEveryDeclarationKind() {
+        List<TypeScriptExportIndex.Export> exports = TypeScriptExportIndex.parseExports(Path.of("a.ts"), """
+            export default abstract class Base {}
+            export declare const VERSION: string;
+            export async function load() {}
+            export type Id = string;
+            // export class Commented {}
+              export enum Color { Red }
+            const notExported = 1;
+            export { notExported };
+            """);
+
+        assertEquals(List.of("class:Base", "const:VERSION", "function:load", "type:Id", "enum:Color"),
+            exports.stream().map(e -> e.kind() + ":" + e.name()).toList());
+    }
+
+    @Test
+    void findExport_filtersByKindAndSkipsSpecsAndNodeModules() {
+        assertEquals(Optional.of(taskList), index.findComponentClass(src, "TaskListComponent"));
+        assertEquals(Optional.of(src.resolve("app/services/task.service.ts")), index.findClass(src, "TaskService"));
+        assertTrue(index.findExport(src, "Priority").isPresent());
+        assertEquals(Optional.empty(), index.findClass(src, "Task"));
+        assertEquals(Optional.empty(), index.findComponentClass(src, "TaskService"));
+    }
+
+    @Test
+    void findExport_changedFile_isReparsedOnHit() throws Exception {
+        assertTrue(index.findComponentClass(src, "TaskListComponent").isPresent());
+
+        Files.writeString(taskList, "export class RenamedComponent {}");
+        Files.setLastModifiedTime(taskList, FileTime.fromMillis(Files.getLastModifiedTime(taskList).toMillis() + 2000));
+
+        assertEquals(Optional.empty(), index.findComponentClass(src, "TaskListComponent"));
+        assertEquals(Optional.of(taskList), index.findComponentClass(src, "RenamedComponent"));
+    }
+
+    @Test
+    void findExport_newFile_isFoundOnMissAfterRefreshInterval() throws Exception {
+        assertEquals(Optional.empty(), index.findClass(src, "UserService"));
+        Path user = write("app/services/user.service.ts", "export class UserService {}");
+
+        // Within the interval a miss does not re-walk the tree
+        assertEquals(Optional.empty(), index.findClass(src, "UserService"));
+
+        index.refreshIntervalMs = 0;
+        assertEquals(Optional.of(user), index.findClass(src, "UserService"));
+    }
+
+    @Test
+    void findExport_deletedFile_isDropped() throws Exception {
+        assertTrue(index.findClass(src, "TaskService").isPresent());
+        Files.delete(src.resolve("app/services/task.service.ts"));
+
+        assertEquals(Optional.empty(), index.findClass(src, "TaskService"));
+    }
+
+    @Test
+    void findExport_rootsOfOneProject_shareOneIndex() throws Exception {
+        write("package.json", "{}");
+
+        assertTrue(index.findClass(src, "TaskService").isPresent());
+        assertTrue(index.findClass(src.resolve("app/services"), "TaskService").isPresent());
+        // Scoped to the requested root even though the index covers the whole project
+        assertEquals(Optional.empty(), index.findComponentClass(src.resolve("app/services"), "TaskListComponent"));
+        assertEquals(1, index.indexedRoots());
+    }
+
+    @Test
+    void invalidate_writtenFile_isFoundWithoutWaitingForRefresh() throws Exception {
+        assertEquals(Optional.empty(), index.findClass(src, "UserService"));
+        Path user = write("app/services/user.service.ts", "export class UserService {}");
+
+        index.invalidate(user);
+
+        assertEquals(Optional.of(user), index.findClass(src, "UserService"));
+    }
+
+    @Test
+    void findExport_beyondMaxRoots_dropsLeastRecentlyUsedAndDeletedRoots() throws Exception {
+        index.maxRoots = 2;
+        Path other = Files.createDirectories(src.resolve("app/services"));
+        Path removed = Files.createDirectories(src.resolve("app/removed"));
+
+        index.findClass(src, "TaskService");
+        index.findClass(removed, "TaskService");
+        Files.delete(removed);
+        index.findClass(other, "TaskService");
+        assertEquals(2, index.indexedRoots());
+
+        index.findClass(src.resolve("app/task-list"), "TaskListComponent");
+        assertEquals(2, index.indexedRoots());
+    }
+
+    private Path write(String relative, String content) throws Exception {
+        Path file = src.resolve(relative);
+        Files.createDirectories(file.getParent());
+        return Files.writeString(file, content);
+    }
+}
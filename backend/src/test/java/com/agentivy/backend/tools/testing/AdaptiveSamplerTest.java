@@ -0,0 +1,77 @@
+package com.agentivy.backend.tools.testing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveSamplerTest {
+
+    // 6 planned samples, at least 3, at most 12; 1% heap band, 0.5 cycles/s CD band, 20% leak threshold
+    private final AdaptiveSampler sampler = new AdaptiveSampler(6, 3, 12, 1.0, 0.5, 20);
+
+    @Test
+    void stopReason_flatHeapAndRate_stopsAfterMinimumSamples() {
+        List<Map<String, Object>> samples = samples(10_000_000, 10_000_000, 10_010_000);
+
+        assertEquals(AdaptiveSampler.STABILISED, sampler.stopReason(samples));
+    }
+
+    @Test
+    void stopReason_growingHeap_continuesUntilPlanned() {
+        List<Map<String, Object>> samples = samples(10_000_000, 10_500_000, 11_000_000);
+        assertNull(sampler.stopReason(samples));
+
+        samples = samples(10_000_000, 10_100_000, 10_300_000, 10_300_000, 10_300_000, 10_310_000);
+        assertEquals(AdaptiveSampler.STABILISED, sampler.stopReason(samples));
+    }
+
+    @Test
+    void stopReason_steadyClimbInsideBand_isNotStable() {
+        // 0.8% per interval: every step is inside the 1% band, but the heap never levels off
+        List<Map<String, Object>> samples = new ArrayList<>();
+        double heap = 10_000_000;
+        for (int i = 0; i < 6; i++) {
+            samples.add(sample((long) heap));
+            if (i < 5) assertNull(sampler.stopReason(samples), "stopped after " + samples.size() + " samples");
+            heap *= 1.008;
+        }
+        assertEquals(AdaptiveSampler.PLANNED, sampler.stopReason(samples));
+    }
+
+    @Test
+    void stopReason_growthNearLeakThreshold_extendsPastPlanned() {
+        List<Map<String, Object>> samples = samples(
+            10_000_000, 10_300_000, 10_600_000, 10_900_000, 11_200_000, 11_500_000);
+        assertNull(sampler.stopReason(samples));
+
+        List<Map<String, Object>> extended = new ArrayList<>(samples);
+        for (int i = 1; i <= 6; i++) {
+            extended.add(sample(11_500_000 + i * 300_000));
+        }
+        assertEquals(AdaptiveSampler.EXTENDED_LIMIT, sampler.stopReason(extended));
+    }
+
+    @Test
+    void stopReason_clearLeak_stopsAtPlanned() {
+        List<Map<String, Object>> samples = samples(
+            10_000_000, 11_000_000, 12_000_000, 13_000_000, 14_000_000, 15_000_000);
+
+        assertEquals(AdaptiveSampler.PLANNED, sampler.stopReason(samples));
+    }
+
+    private static List<Map<String, Object>> samples(long... heaps) {
+        List<Map<String, Object>> samples = new ArrayList<>();
+        for (long heap : heaps) {
+            samples.add(sample(heap));
+        }
+        return samples;
+    }
+
+    private static Map<String, Object> sample(long heap) {
+        return Map.of("usedJSHeapSize", heap, "changeDetectionRate", 2.0);
+    }
+}
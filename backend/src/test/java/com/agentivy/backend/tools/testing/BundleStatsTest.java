@@ -0,0 +1,95 @@
+package com.agentivy.backend.tools.testing;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BundleStatsTest {
+
+    private static final String METAFILE = """
+        {"outputs": {
+          "main.js": {"bytes": 300000, "entryPoint": "src/main.ts",
+            "imports": [{"path": "chunk-CORE.js", "kind": "import-statement"},
+                        {"path": "chunk-HARNESS.js", "kind": "dynamic-import"}],
+            "inputs": {"src/main.ts": {"bytesInOutput": 200}}},
+          "chunk-CORE.js": {"bytes": 250000, "imports": [],
+            "inputs": {"node_modules/@angular/core/fesm2022/core.mjs": {"bytesInOutput": 250000}}},
+          "chunk-HARNESS.js": {"bytes": 9000, "entryPoint": "src/app/agent-ivy-harness/harness.component.ts",
+            "imports": [{"path": "chunk-CORE.js", "kind": "import-statement"},
+                        {"path": "chunk-CHART.js", "kind": "import-statement"}],
+            "inputs": {"src/app/agent-ivy-harness/harness.component.ts": {"bytesInOutput": 1000},
+                       "src/app/dash/dash.component.ts": {"bytesInOutput": 8000}}},
+          "chunk-CHART.js": {"bytes": 60000, "imports": [],
+            "inputs": {"node_modules/chart.js/dist/chart.js": {"bytesInOutput": 55000},
+                       "node_modules/chart.js/helpers/helpers.js": {"bytesInOutput": 5000}}},
+          "chunk-HARNESS.js.map": {"bytes": 40000, "imports": [], "inputs": {}}
+        }}
+        """;
+
+    private static final String WEBPACK = """
+        {"chunks": [
+          {"id": "main", "initial": true, "size": 300000, "files": ["main.js"],
+           "modules": [{"name": "./src/main.ts", "size": 200}]},
+          {"id": 42, "initial": false, "size": 9000, "files": ["42.js"], "siblings": ["common", "main"],
+           "modules": [{"name": "./src/app/agent-ivy-harness/my-dash.harness.ts + 2 modules", "size": 7000},
+                       {"name": "./src/app/dash/dash.component.ts", "size": 2000}]},
+          {"id": "common", "initial": false, "size": 4000, "files": ["common.js"],
+           "modules": [{"name": "./node_modules/@ngrx/store/fesm2022/ngrx-store.mjs", "size": 4000}]}
+        ]}
+        """;
+
+    @Test
+    void attribute_metafile_countsLazyDependenciesButNotInitialChunks() {
+        BundleStats.Attribution attribution = BundleStats.attribute(json(METAFILE), "harness.component", "src/app/dash");
+
+        assertNotNull(attribution);
+        assertEquals("chunk-HARNESS.js", attribution.chunkFile());
+        assertEquals(List.of("chunk-HARNESS.js", "chunk-CHART.js"), attribution.files());
+        assertEquals(9000, attribution.chunkBytes());
+        assertEquals(69000, attribution.totalBytes());
+        assertEquals(8000, attribution.componentBytes());
+    }
+
+    @Test
+    void attribute_metafile_groupsNodeModulesByPackage() {
+        BundleStats.Attribution attribution = BundleStats.attribute(json(METAFILE), "harness.component", null);
+
+        assertEquals(new BundleStats.ModuleSize("chart.js", 60000), attribution.modules().get(0));
+        assertEquals(new BundleStats.ModuleSize("src/app/dash/dash.component.ts", 8000), attribution.modules().get(1));
+        assertEquals(0, attribution.componentBytes());
+    }
+
+    @Test
+    void attribute_webpack_includesNonInitialSiblings() {
+        BundleStats.Attribution attribution = BundleStats.attribute(json(WEBPACK), "my-dash.harness", "./src/app/dash/");
+
+        assertNotNull(attribution);
+        assertEquals(List.of("42.js", "common.js"), attribution.files());
+        assertEquals(13000, attribution.totalBytes());
+        assertEquals(2000, attribution.componentBytes());
+        assertEquals("src/app/agent-ivy-harness/my-dash.harness.ts", attribution.modules().get(0).name());
+        assertEquals("@ngrx/store", attribution.modules().get(1).name());
+    }
+
+    @Test
+    void attribute_unknownHarness_returnsNull() {
+        assertNull(BundleStats.attribute(json(METAFILE), "other.harness", null));
+        assertNull(BundleStats.attribute(json(WEBPACK), "harness.component", null));
+    }
+
+    @Test
+    void packageOf_keepsScopeAndNestedNodeModules() {
+        assertEquals("rxjs", BundleStats.packageOf("node_modules/rxjs/dist/esm/index.js"));
+        assertEquals("@angular/common", BundleStats.packageOf("node_modules/@angular/common/fesm2022/http.mjs"));
+        assertEquals("tslib", BundleStats.packageOf("node_modules/foo/node_modules/tslib/tslib.es6.mjs"));
+        assertEquals("src/app/a.ts", BundleStats.packageOf("src/app/a.ts"));
+    }
+
+    private static JsonObject json(String text) {
+        return JsonParser.parseString(text).getAsJsonObject();
+    }
+}
@@ -1,6 +1,7 @@
 package com.agentivy.backend.tools.testing;
 
 import com.agentivy.backend.service.EventPublisherHelper;
+import com.agentivy.backend.tools.PlaywrightBrowserPool;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -18,11 +19,14 @@ class ComponentPerformanceToolTest {
     @Mock
     private EventPublisherHelper eventPublisher;
 
+    @Mock
+    private PlaywrightBrowserPool browserPool;
+
     private ComponentPerformanceTool tool;
 
     @BeforeEach
     void setUp() {
-        tool = new ComponentPerformanceTool(eventPublisher);
+        tool = new ComponentPerformanceTool(eventPublisher, browserPool);
     }
 
     // --- parseThresholds tests ---
@@ -75,6 +79,54 @@ class ComponentPerformanceToolTest {
         assertFalse(result.containsKey("unknownMetric"));
     }
 
+    // --- parseDeviceProfile tests ---
+
+    @Test
+    void parseDeviceProfile_noProfile_returnsUnthrottledDesktop() {
+        DeviceProfile profile = tool.parseDeviceProfile("{\"loadTime\": 5000.0}");
+        assertEquals("desktop", profile.name());
+        assertFalse(profile.throttlesCpu());
+        assertFalse(profile.throttlesNetwork());
+        assertEquals("desktop", tool.parseDeviceProfile(null).name());
+        assertEquals("desktop", tool.parseDeviceProfile("not valid json").name());
+    }
+
+    @Test
+    void parseDeviceProfile_presetName_returnsPreset() {
+        DeviceProfile profile = tool.parseDeviceProfile("{\"deviceProfile\": \"low-end-mobile\"}");
+        assertEquals(4.0, profile.cpuSlowdown());
+        assertTrue(profile.throttlesNetwork());
+        assertEquals(180_000.0, DeviceProfile.bytesPerSecond(profile.downloadKbps()));
+    }
+
+    @Test
+    void parseDeviceProfile_customObject_overridesPresetFields() {
+        DeviceProfile profile = tool.parseDeviceProfile(
+            "{\"deviceProfile\": {\"name\": \"low-end-mobile\", \"cpuSlowdown\": 6}}");
+        assertEquals(6.0, profile.cpuSlowdown());
+        assertEquals(562.5, profile.latencyMs());
+        assertEquals("custom", profile.name());
+        assertEquals("low-end-mobile", profile.basedOn());
+        assertEquals("low-end-mobile", profile.toMap().get("basedOn"));
+
+        DeviceProfile unchanged = tool.parseDeviceProfile(
+            "{\"deviceProfile\": {\"name\": \"low-end-mobile\", \"cpuSlowdown\": 4}}");
+        assertEquals("low-end-mobile", unchanged.name());
+        assertNull(unchanged.basedOn());
+
+        DeviceProfile cpuOnly = tool.parseDeviceProfile("{\"deviceProfile\": {\"cpuSlowdown\": 3}}");
+        assertEquals("custom", cpuOnly.name());
+        assertFalse(cpuOnly.throttlesNetwork());
+    }
+
+    @Test
+    void parseDeviceProfile_unknownOrInvalid_throws() {
+        assertThrows(IllegalArgumentException.class,
+            () -> tool.parseDeviceProfile("{\"deviceProfile\": \"pocket-calculator\"}"));
+        assertThrows(IllegalArgumentException.class,
+            () -> tool.parseDeviceProfile("{\"deviceProfile\": {\"cpuSlowdown\": 0.5}}"));
+    }
+
     // --- calculateEnhancedPerformanceScore tests ---
 
     @Test
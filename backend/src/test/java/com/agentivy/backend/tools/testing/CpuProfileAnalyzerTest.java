@@ -0,0 +1,65 @@
+package com.agentivy.backend.tools.testing;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CpuProfileAnalyzerTest {
+
+    // 100 samples over 100 ms: 1 ms per sample
+    private static final JsonObject PROFILE = JsonParser.parseString("""
+        {"startTime":0,"endTime":100000,"samples":[%s],"nodes":[
+          {"id":1,"callFrame":{"functionName":"(root)","url":"","lineNumber":-1,"columnNumber":-1},"hitCount":0,"children":[2,4]},
+          {"id":2,"callFrame":{"functionName":"tick","url":"http://localhost:4200/main.js","lineNumber":10,"columnNumber":0},"hitCount":10,"children":[3]},
+          {"id":3,"callFrame":{"functionName":"render","url":"http://localhost:4200/main.js","lineNumber":20,"columnNumber":4},"hitCount":30,"children":[5]},
+          {"id":4,"callFrame":{"functionName":"(idle)","url":"","lineNumber":-1,"columnNumber":-1},"hitCount":50},
+          {"id":5,"callFrame":{"functionName":"render","url":"http://localhost:4200/main.js","lineNumber":20,"columnNumber":4},"hitCount":10}
+        ]}
+        """.formatted(String.join(",", Collections.nCopies(100, "1")))).getAsJsonObject();
+
+    private static final Function<CpuProfileAnalyzer.GeneratedFrame, CpuProfileAnalyzer.ResolvedFrame> RESOLVER =
+        frame -> frame.line() == 20
+            ? new CpuProfileAnalyzer.ResolvedFrame("render", "src/app/list/list.component.ts", 42)
+            : new CpuProfileAnalyzer.ResolvedFrame("tick", "node_modules/@angular/core/fesm2022/core.mjs", 7);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void analyze_ranksFramesBySelfTimeAndCountsRecursionOnce() {
+        Map<String, Object> result = CpuProfileAnalyzer.analyze(PROFILE, RESOLVER, 10);
+
+        List<Map<String, Object>> top = (List<Map<String, Object>>) result.get("topFrames");
+        assertEquals(2, top.size());
+        assertEquals("render", top.get(0).get("functionName"));
+        assertEquals(40.0, (double) top.get(0).get("selfMs"), 0.001);
+        assertEquals(40.0, (double) top.get(0).get("totalMs"), 0.001);
+        assertEquals(42, top.get(0).get("line"));
+        assertEquals(10.0, (double) top.get(1).get("selfMs"), 0.001);
+        assertEquals(50.0, (double) top.get(1).get("totalMs"), 0.001);
+        assertEquals(50.0, (double) result.get("scriptMs"), 0.001);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void analyze_componentHotspotsOnlyIncludeComponentSources() {
+        Map<String, Object> result = CpuProfileAnalyzer.analyze(PROFILE, RESOLVER, 10);
+
+        List<Map<String, Object>> hotspots = (List<Map<String, Object>>) result.get("componentHotspots");
+        assertEquals(1, hotspots.size());
+        assertEquals("src/app/list/list.component.ts", hotspots.get(0).get("file"));
+    }
+
+    @Test
+    void isComponentSource_acceptsOnlyAppComponentFiles() {
+        assertTrue(CpuProfileAnalyzer.isComponentSource("src/app/list/list.component.html"));
+        assertFalse(CpuProfileAnalyzer.isComponentSource("src/index.html"));
+        assertFalse(CpuProfileAnalyzer.isComponentSource("node_modules/lib/widget.component.ts"));
+        assertFalse(CpuProfileAnalyzer.isComponentSource("src/app/agent-ivy-harness/harness.component.ts"));
+    }
+}
@@ -0,0 +1,73 @@
+package com.agentivy.backend.tools.testing;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HeapSnapshotSummaryTest {
+
+    // node_fields: type, name, id, self_size, edge_count, detachedness
+    // node types: 0 = hidden, 1 = object, 2 = native, 3 = closure
+    private static final String HEADER = """
+        {"snapshot":{"meta":{"node_fields":["type","name","id","self_size","edge_count","detachedness"],
+          "node_types":[["hidden","object","native","closure"],"string","number","number","number","number"],
+          "edge_fields":["type","name_or_index","to_node"]},"node_count":0,"edge_count":0},
+        """;
+
+    private static final String STRINGS = """
+        "strings":["(GC roots)","SafeSubscriber","ListComponent","Detached HTMLDivElement","HTMLDivElement","handler"]}
+        """;
+
+    @Test
+    void parse_countsObjectsAndNativesByConstructor() throws Exception {
+        HeapSnapshotSummary summary = parse(
+            "0,0,1,0,0,0",     // hidden root: not counted
+            "1,1,2,32,0,0",    // SafeSubscriber
+            "1,1,3,32,0,0",    // SafeSubscriber
+            "1,2,4,64,0,0",    // ListComponent
+            "2,4,5,100,0,1",   // attached HTMLDivElement
+            "3,5,6,24,0,0"     // closure: not counted
+        );
+
+        assertEquals(2, summary.counts().get("SafeSubscriber"));
+        assertEquals(1, summary.counts().get("ListComponent"));
+        assertEquals(64L, summary.selfSizes().get("SafeSubscriber"));
+        assertFalse(summary.counts().containsKey("handler"));
+        assertFalse(summary.counts().containsKey("(GC roots)"));
+        assertEquals(0, summary.detachedDomNodes());
+    }
+
+    @Test
+    void parse_detachedByNameOrDetachedness() throws Exception {
+        HeapSnapshotSummary summary = parse(
+            "2,3,2,100,0,0",   // named "Detached ..."
+            "2,4,3,100,0,2"    // detachedness = detached
+        );
+
+        assertEquals(2, summary.detachedDomNodes());
+    }
+
+    @Test
+    void growthSince_reportsConstructorsGrowingAtLeastMinimum() throws Exception {
+        HeapSnapshotSummary before = parse("1,1,2,32,0,0", "1,2,3,64,0,0");
+        HeapSnapshotSummary after = parse(
+            "1,1,2,32,0,0", "1,1,3,32,0,0", "1,1,4,32,0,0", "1,1,5,32,0,0",
+            "1,2,6,64,0,0", "1,2,7,64,0,0");
+
+        List<Map<String, Object>> grown = after.growthSince(before, 2);
+
+        assertEquals(1, grown.size());
+        assertEquals("SafeSubscriber", grown.get(0).get("constructor"));
+        assertEquals(3, grown.get(0).get("growth"));
+        assertEquals(96L, grown.get(0).get("selfBytes"));
+    }
+
+    private static HeapSnapshotSummary parse(String... nodes) throws Exception {
+        String json = HEADER + "\"nodes\":[" + String.join(",", nodes) + "],\"edges\":[],\"trace_tree\":[]," + STRINGS;
+        return HeapSnapshotSummary.parse(new StringReader(json));
+    }
+}
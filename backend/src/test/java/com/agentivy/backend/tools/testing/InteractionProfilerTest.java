@@ -0,0 +1,50 @@
+package com.agentivy.backend.tools.testing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InteractionProfilerTest {
+
+    @Test
+    void summarize_flagsSlowAndChangeDetectionHeavyInteractions() {
+        List<Map<String, Object>> interactions = List.of(
+            interaction("#save", 40, 2, 0),
+            interaction("button:nth-of-type(2)", 320, 4, 6),
+            interaction("input", 24, 25, 1)
+        );
+
+        Map<String, Object> summary = InteractionProfiler.summarize(interactions);
+
+        assertEquals(320.0, (double) summary.get("worstInteractionLatencyMs"), 0.001);
+        assertEquals(List.of("button:nth-of-type(2)"), summary.get("slowInteractions"));
+        assertEquals(List.of("input"), summary.get("excessiveChangeDetectionInteractions"));
+        assertEquals(7, summary.get("totalDroppedFrames"));
+    }
+
+    @Test
+    void summarize_failedInteractionsAreCountedButNotMeasured() {
+        List<Map<String, Object>> interactions = List.of(
+            interaction("#ok", 30, 1, 0),
+            Map.of("selector", "#gone", "error", "Timeout 2000ms exceeded")
+        );
+
+        Map<String, Object> summary = InteractionProfiler.summarize(interactions);
+
+        assertEquals(2, summary.get("interactionCount"));
+        assertEquals(1, summary.get("measuredCount"));
+        assertEquals(List.of(), summary.get("slowInteractions"));
+    }
+
+    private static Map<String, Object> interaction(String selector, double latencyMs, int cdCycles, int droppedFrames) {
+        return Map.of(
+            "selector", selector,
+            "interactionLatencyMs", latencyMs,
+            "cdCycles", cdCycles,
+            "droppedFrames", droppedFrames
+        );
+    }
+}
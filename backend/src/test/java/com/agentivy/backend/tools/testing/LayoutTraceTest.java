@@ -0,0 +1,39 @@
+package com.agentivy.backend.tools.testing;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LayoutTraceTest {
+
+    private static final String TRACE = """
+        {"traceEvents": [
+          {"name": "Layout", "ph": "X", "args": {"beginData": {"frame": "F1", "dirtyObjects": 3}}},
+          {"name": "Layout", "ph": "X", "args": {"beginData": {"frame": "F1",
+            "stackTrace": [{"functionName": "onResize", "url": "main.js", "lineNumber": 10}]}}},
+          {"name": "Layout", "ph": "B", "args": {"beginData": {"frame": "F1",
+            "stackTrace": [{"functionName": "measure", "url": "main.js", "lineNumber": 20}]}}},
+          {"name": "Layout", "ph": "E", "args": {"endData": {}}},
+          {"name": "Layout", "ph": "X", "args": {"beginData": {"frame": "F2",
+            "stackTrace": [{"functionName": "other", "url": "other.js", "lineNumber": 1}]}}},
+          {"name": "UpdateLayoutTree", "ph": "X", "args": {"beginData": {"frame": "F1",
+            "stackTrace": [{"functionName": "style", "url": "main.js", "lineNumber": 30}]}}}
+        ]}
+        """;
+
+    @Test
+    void countForcedLayouts_countsOnlyLayoutsWithJsStackInFrame() {
+        assertEquals(2, LayoutTrace.countForcedLayouts(TRACE, "F1"));
+    }
+
+    @Test
+    void countForcedLayouts_withoutFrame_countsEveryFrame() {
+        assertEquals(3, LayoutTrace.countForcedLayouts(TRACE, null));
+    }
+
+    @Test
+    void countForcedLayouts_bareEventArray() {
+        assertEquals(0, LayoutTrace.countForcedLayouts(
+            "[{\"name\": \"Layout\", \"ph\": \"X\", \"args\": {\"beginData\": {\"frame\": \"F1\"}}}]", "F1"));
+    }
+}
@@ -0,0 +1,59 @@
+package com.agentivy.backend.tools.testing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricStatisticsTest {
+
+    @Test
+    void summarize_oddCount_medianIsMiddleValue() {
+        Map<String, Object> summary = MetricStatistics.summarize(List.of(300.0, 100.0, 200.0), 10);
+
+        assertEquals(200.0, summary.get("median"));
+        assertEquals(100.0, summary.get("min"));
+        assertEquals(300.0, summary.get("max"));
+    }
+
+    @Test
+    void summarize_singleOutlier_medianIgnoresIt() {
+        Map<String, Object> summary = MetricStatistics.summarize(List.of(1000.0, 1010.0, 990.0, 1005.0, 4000.0), 10);
+
+        assertEquals(1005.0, summary.get("median"));
+        assertTrue((double) summary.get("p95") > 3000.0);
+        assertEquals(true, summary.get("noisy"));
+    }
+
+    @Test
+    void summarize_tightRuns_notNoisy() {
+        Map<String, Object> summary = MetricStatistics.summarize(List.of(1000.0, 1020.0, 980.0, 1010.0), 10);
+
+        assertEquals(false, summary.get("noisy"));
+        assertTrue((double) summary.get("cvPercent") < 5.0);
+    }
+
+    @Test
+    void percentile_interpolatesBetweenRanks() {
+        List<Double> sorted = List.of(10.0, 20.0, 30.0, 40.0);
+
+        assertEquals(25.0, MetricStatistics.percentile(sorted, 50), 0.0001);
+        assertEquals(38.5, MetricStatistics.percentile(sorted, 95), 0.0001);
+    }
+
+    @Test
+    void aggregate_skipsMetricsMissingFromSomeRuns() {
+        List<Map<String, Object>> runs = List.of(
+            Map.of("loadTime", 1000.0, "firstContentfulPaint", 400.0),
+            Map.of("loadTime", 1100.0),
+            Map.of("loadTime", 1050.0, "firstContentfulPaint", 420.0)
+        );
+
+        Map<String, Map<String, Object>> result = MetricStatistics.aggregate(runs, 10);
+
+        assertEquals(1050.0, result.get("loadTime").get("median"));
+        assertFalse(result.containsKey("firstContentfulPaint"));
+    }
+}
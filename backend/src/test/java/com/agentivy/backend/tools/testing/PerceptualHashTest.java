@@ -0,0 +1,100 @@
+package com.agentivy.backend.tools.testing;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PerceptualHashTest {
+
+    @Test
+    void dHash_identicalRenders_haveZeroDistance() throws Exception {
+        String a = PerceptualHash.dHash(png(render(100, Color.BLUE)));
+        String b = PerceptualHash.dHash(png(render(100, Color.BLUE)));
+
+        assertEquals(16, a.length());
+        assertEquals(0, PerceptualHash.distance(a, b));
+    }
+
+    @Test
+    void dHash_slightColourShift_staysBelowThreshold() {
+        String a = PerceptualHash.dHash(render(100, new Color(0, 0, 200)));
+        String b = PerceptualHash.dHash(render(100, new Color(0, 0, 210)));
+
+        assertTrue(PerceptualHash.distance(a, b) <= PerceptualHash.CHANGE_THRESHOLD);
+    }
+
+    @Test
+    void dHash_movedBlock_exceedsThreshold() {
+        String a = PerceptualHash.dHash(render(20, Color.BLUE));
+        String b = PerceptualHash.dHash(render(260, Color.BLUE));
+
+        assertTrue(PerceptualHash.distance(a, b) > PerceptualHash.CHANGE_THRESHOLD);
+    }
+
+    @Test
+    void dHash_fullViewportTextColumnMoved_exceedsThreshold() {
+        String a = PerceptualHash.dHash(textColumn(80, 0));
+        String b = PerceptualHash.dHash(textColumn(900, 0));
+
+        assertTrue(PerceptualHash.distance(a, b) > PerceptualHash.CHANGE_THRESHOLD);
+    }
+
+    @Test
+    void dHash_fullViewportTextReflowedByOnePixel_staysBelowThreshold() {
+        String a = PerceptualHash.dHash(textColumn(80, 0));
+        String b = PerceptualHash.dHash(textColumn(80, 1));
+
+        assertTrue(PerceptualHash.distance(a, b) <= PerceptualHash.CHANGE_THRESHOLD);
+    }
+
+    @Test
+    void distance_countsDifferingBits() {
+        assertEquals(64, PerceptualHash.distance("0000000000000000", "ffffffffffffffff"));
+        assertEquals(1, PerceptualHash.distance("0000000000000000", "0000000000000001"));
+    }
+
+    /** White page with a gradient header and a block whose left edge is at blockX. */
+    private static BufferedImage render(int blockX, Color blockColor) {
+        BufferedImage image = new BufferedImage(360, 240, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, 360, 240);
+        for (int x = 0; x < 360; x++) {
+            g.setColor(new Color(x * 255 / 360, 80, 80));
+            g.drawLine(x, 0, x, 30);
+        }
+        g.setColor(blockColor);
+        g.fillRect(blockX, 60, 80, 150);
+        g.dispose();
+        return image;
+    }
+
+    /**
+     * 1440x900 desktop screenshot: a column of 1px "text" lines starting at columnX, the lines
+     * offset vertically by lineOffset. Point-sampling this down to 9x8 mostly hits white gaps.
+     */
+    private static BufferedImage textColumn(int columnX, int lineOffset) {
+        BufferedImage image = new BufferedImage(1440, 900, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, 1440, 900);
+        g.setColor(Color.DARK_GRAY);
+        for (int y = 100 + lineOffset; y < 800; y += 4) {
+            g.drawLine(columnX, y, columnX + 460, y);
+        }
+        g.dispose();
+        return image;
+    }
+
+    private static byte[] png(BufferedImage image) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
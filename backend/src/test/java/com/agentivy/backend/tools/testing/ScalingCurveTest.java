@@ -0,0 +1,49 @@
+package com.agentivy.backend.tools.testing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScalingCurveTest {
+
+    private static final List<Integer> SIZES = List.of(10, 100, 1000, 5000);
+
+    @Test
+    void fit_constantCostPerItem_isLinear() {
+        Map<String, Object> fit = ScalingCurve.fit(SIZES, values(s -> 50 + 0.1 * s));
+
+        assertEquals(ScalingCurve.LINEAR, fit.get("growth"));
+        assertEquals(1.0, (double) fit.get("exponent"), 0.05);
+        assertEquals(0.1, (double) fit.get("perItemCost"), 0.0001);
+        assertFalse(fit.containsKey("kneeSize"));
+    }
+
+    @Test
+    void fit_quadraticGrowth_isSuperLinear() {
+        Map<String, Object> fit = ScalingCurve.fit(SIZES, values(s -> 50 + 0.0001 * s * s));
+
+        assertEquals(ScalingCurve.SUPER_LINEAR, fit.get("growth"));
+        assertTrue((double) fit.get("exponent") > 1.8);
+    }
+
+    @Test
+    void fit_linearThenBlowUp_reportsKnee() {
+        Map<String, Object> fit = ScalingCurve.fit(SIZES, List.of(50.0, 59.0, 149.0, 5000.0));
+
+        assertEquals(1000, fit.get("kneeSize"));
+    }
+
+    @Test
+    void fit_flatMetric_isConstant() {
+        Map<String, Object> fit = ScalingCurve.fit(SIZES, List.of(20.0, 20.0, 20.0, 20.0));
+
+        assertEquals(ScalingCurve.CONSTANT, fit.get("growth"));
+    }
+
+    private static List<Double> values(java.util.function.IntToDoubleFunction f) {
+        return SIZES.stream().map(s -> f.applyAsDouble(s)).toList();
+    }
+}
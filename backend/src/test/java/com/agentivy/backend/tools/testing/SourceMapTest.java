@@ -0,0 +1,64 @@
+package com.agentivy.backend.tools.testing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SourceMapTest {
+
+    @Test
+    void decodeVlq_decodesSignedMultiDigitValues() {
+        assertArrayEquals(new int[] {0, 0, 0, 0}, SourceMap.decodeVlq("AAAA"));
+        assertArrayEquals(new int[] {4, 0, 1, -2}, SourceMap.decodeVlq("IACF"));
+        assertArrayEquals(new int[] {16}, SourceMap.decodeVlq("gB"));
+    }
+
+    @Test
+    void originalPositionFor_usesClosestSegmentAtOrBeforeColumn() {
+        // Line 0: col 0 -> a.ts 1:0, col 10 -> a.ts 1:5 (name "render"); line 1: col 2 -> b.html 4:0
+        SourceMap map = SourceMap.parse("""
+            {"version":3,"sources":["webpack:///src/app/a.component.ts","./src/app/a.component.html"],
+             "names":["render"],"mappings":"AAAA,UAAKA;ECGL"}
+            """);
+
+        Optional<SourceMap.Position> start = map.originalPositionFor(0, 3);
+        assertTrue(start.isPresent());
+        assertEquals("src/app/a.component.ts", start.get().source());
+        assertEquals(1, start.get().line());
+
+        SourceMap.Position named = map.originalPositionFor(0, 12).orElseThrow();
+        assertEquals(5, named.column());
+        assertEquals("render", named.name());
+
+        SourceMap.Position template = map.originalPositionFor(1, 2).orElseThrow();
+        assertEquals("src/app/a.component.html", template.source());
+        assertEquals(4, template.line());
+    }
+
+    @Test
+    void originalPositionFor_beforeFirstSegmentOrOutsideMap_isEmpty() {
+        SourceMap map = SourceMap.parse("{\"version\":3,\"sources\":[\"a.ts\"],\"names\":[],\"mappings\":\"EAAA\"}");
+
+        assertTrue(map.originalPositionFor(0, 1).isEmpty());
+        assertTrue(map.originalPositionFor(3, 0).isEmpty());
+    }
+
+    @Test
+    void normalizeSource_stripsBundlerSchemes() {
+        assertEquals("src/app/x.ts", SourceMap.normalizeSource("", "webpack:///src/app/x.ts"));
+        assertEquals("src/app/x.ts", SourceMap.normalizeSource("", "webpack://my-app/./src/app/x.ts"));
+        assertEquals("src/app/x.ts", SourceMap.normalizeSource("/src/", "app/x.ts"));
+    }
+
+    @Test
+    void isVendorScript_skipsDependencyAndPolyfillBundles() {
+        assertTrue(SourceMapResolver.isVendorScript("http://localhost:4200/vendor.js"));
+        assertTrue(SourceMapResolver.isVendorScript("http://localhost:4200/polyfills-ABC123.js"));
+        assertTrue(SourceMapResolver.isVendorScript("http://localhost:4200/@fs/app/.angular/cache/vite/deps/chunk-X.js?v=1"));
+        assertTrue(SourceMapResolver.isVendorScript("http://localhost:4200/node_modules/rxjs/index.js"));
+        assertFalse(SourceMapResolver.isVendorScript("http://localhost:4200/main.js"));
+        assertFalse(SourceMapResolver.isVendorScript("http://localhost:4200/chunk-ABC123.js"));
+    }
+}
@@ -0,0 +1,131 @@
+package com.agentivy.backend.tools.testing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TemplateAnalyzerTest {
+
+    private static final String CLEAN_TS = """
+        import { ChangeDetectionStrategy, Component, computed, input } from '@angular/core';
+
+        @Component({
+          selector: 'app-price',
+          templateUrl: './price.component.html',
+          changeDetection: ChangeDetectionStrategy.OnPush
+        })
+        export class PriceComponent {
+          readonly amount = input.required<number>();
+          readonly label = computed(() => this.amount().toFixed(2));
+        }
+        """;
+
+    @Test
+    void analyze_signalsAndPipes_areClean() {
+        List<TemplateAnalyzer.Finding> findings = TemplateAnalyzer.analyze(CLEAN_TS, """
+            <span [title]="label()">{{ amount() | currency:'EUR' }}</span>
+            @if (amount() > 0) { <b>{{ 'in stock' }}</b> }
+            <button (click)="save()">Save</button>
+            """);
+
+        assertEquals(List.of(), findings);
+        assertTrue(TemplateAnalyzer.isClean(findings));
+        assertEquals(0, TemplateAnalyzer.riskScore(findings));
+    }
+
+    @Test
+    void analyze_methodCallsInBindings_areReportedWithLines() {
+        List<TemplateAnalyzer.Finding> findings = TemplateAnalyzer.analyze(CLEAN_TS, """
+            <h1>{{ title }}</h1>
+            <p [class.active]="isActive(item)">{{ item.format() }}</p>
+            @for (row of rows(); track trackRow($index)) { <i>{{ row }}</i> }
+            """);
+
+        assertEquals(Set.of("isActive", "format", "rows"),
+            findings.stream().map(f -> f.message().substring(0, f.message().indexOf("()"))).collect(Collectors.toSet()));
+        assertEquals(List.of(2, 2, 3), findings.stream().map(TemplateAnalyzer.Finding::line).toList());
+        assertTrue(findings.stream().allMatch(f -> f.file().equals(TemplateAnalyzer.TEMPLATE)));
+        assertFalse(TemplateAnalyzer.isClean(findings));
+    }
+
+    @Test
+    void analyze_ngForWithoutTrackBy_isReported() {
+        List<TemplateAnalyzer.Finding> findings = TemplateAnalyzer.analyze(CLEAN_TS, """
+            <li *ngFor="let user of users">{{ user.name }}</li>
+            <li *ngFor="let user of users; trackBy: trackById">{{ user.name }}</li>
+            """);
+
+        assertEquals(1, findings.size());
+        assertEquals("ngfor-without-trackby", findings.get(0).rule());
+        assertEquals(1, findings.get(0).line());
+    }
+
+    @Test
+    void analyze_inlineTemplateAndClassRules_reportComponentLines() {
+        String ts = """
+            @Component({
+              selector: 'app-clock',
+              template: `<span>{{ now() }}</span>`
+            })
+            export class ClockComponent implements OnInit {
+              ngOnInit() {
+                // this.ignored$.subscribe() in a comment
+                this.store.select(selectUser).subscribe(user => this.user = user);
+                this.route.params.pipe(takeUntilDestroyed(this.destroyRef)).subscribe(p => this.id = p['id']);
+                this.http.get('/api').subscribe();
+                this.subs.add(this.ticks$.subscribe());
+                setInterval(() => this.tick(), 1000);
+              }
+            }
+            """;
+
+        List<TemplateAnalyzer.Finding> findings = TemplateAnalyzer.analyze(ts, null);
+
+        assertEquals(List.of(
+                "missing-onpush:1", "function-call-in-binding:3",
+                "unmanaged-subscription:8", "interval-without-cleanup:12"),
+            findings.stream().map(f -> f.rule() + ":" + f.line()).toList());
+        assertTrue(findings.stream().allMatch(f -> f.file().equals(TemplateAnalyzer.COMPONENT)));
+    }
+
+    @Test
+    void analyze_storedSubscriptionAndClearedInterval_areManaged() {
+        String ts = """
+            @Component({ selector: 'app-feed', template: '', changeDetection: ChangeDetectionStrategy.OnPush })
+            export class FeedComponent implements OnDestroy {
+              private sub?: Subscription;
+              private timer = 0;
+              ngOnInit() {
+                this.sub = this.feed.updates$.subscribe(u => this.items.push(u));
+                this.timer = setInterval(() => this.refresh(), 5000);
+              }
+              ngOnDestroy() {
+                this.sub?.unsubscribe();
+                clearInterval(this.timer);
+              }
+            }
+            """;
+
+        assertEquals(List.of(), TemplateAnalyzer.analyze(ts, null));
+    }
+
+    @Test
+    void riskScore_missingOnPushAloneIsClean() {
+        List<TemplateAnalyzer.Finding> findings = TemplateAnalyzer.analyze(
+            "@Component({ selector: 'app-x', templateUrl: './x.html' }) export class X {}", "<p>static</p>");
+
+        assertEquals(1, findings.size());
+        assertEquals(1, TemplateAnalyzer.riskScore(findings));
+        assertTrue(TemplateAnalyzer.isClean(findings));
+    }
+
+    @Test
+    void statementBefore_keepsEnclosingCall() {
+        String source = "foo(); this.subs.add(a$.pipe(map(x => x))";
+        assertEquals(" this.subs.add(a$.pipe(map(x => x))", TemplateAnalyzer.statementBefore(source, source.length()));
+    }
+}
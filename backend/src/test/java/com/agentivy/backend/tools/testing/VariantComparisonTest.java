@@ -0,0 +1,65 @@
+package com.agentivy.backend.tools.testing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VariantComparisonTest {
+
+    private static final Map<String, Double> BASELINE = Map.of(
+        "changeDetectionTicks", 100.0,
+        "viewChecks", 400.0,
+        "scriptingMs", 200.0,
+        "heapMB", 10.0);
+
+    @Test
+    void deltas_reportsAbsoluteAndPercentChange() {
+        Map<String, Map<String, Object>> deltas = VariantComparison.deltas(BASELINE, Map.of(
+            "changeDetectionTicks", 20.0,
+            "viewChecks", 40.0,
+            "scriptingMs", 150.0,
+            "heapMB", 10.0));
+
+        assertEquals(-80.0, (double) deltas.get("changeDetectionTicks").get("delta"), 1e-9);
+        assertEquals(-80.0, (double) deltas.get("changeDetectionTicks").get("deltaPercent"), 1e-9);
+        assertEquals(-25.0, (double) deltas.get("scriptingMs").get("deltaPercent"), 1e-9);
+        assertEquals(0.0, (double) deltas.get("heapMB").get("deltaPercent"), 1e-9);
+    }
+
+    @Test
+    void deltas_skipsMetricsMissingOnEitherSide() {
+        Map<String, Map<String, Object>> deltas = VariantComparison.deltas(BASELINE, Map.of("scriptingMs", 100.0));
+
+        assertEquals(List.of("scriptingMs"), List.copyOf(deltas.keySet()));
+    }
+
+    @Test
+    void rank_ordersByScriptingSavedThenTicks() {
+        Map<String, Map<String, Map<String, Object>>> byVariant = new LinkedHashMap<>();
+        byVariant.put("onpush", VariantComparison.deltas(BASELINE, Map.of("scriptingMs", 150.0, "changeDetectionTicks", 100.0)));
+        byVariant.put("zoneless", VariantComparison.deltas(BASELINE, Map.of("scriptingMs", 100.0, "changeDetectionTicks", 90.0)));
+        byVariant.put("zoneless-onpush", VariantComparison.deltas(BASELINE, Map.of("scriptingMs", 100.0, "changeDetectionTicks", 10.0)));
+
+        assertEquals(List.of("zoneless-onpush", "zoneless", "onpush"), VariantComparison.rank(byVariant));
+    }
+
+    @Test
+    void isWorthwhile_requiresGainAboveNoiseMargin() {
+        assertFalse(VariantComparison.isWorthwhile(VariantComparison.deltas(BASELINE,
+            Map.of("scriptingMs", 195.0, "changeDetectionTicks", 95.0))));
+        assertTrue(VariantComparison.isWorthwhile(VariantComparison.deltas(BASELINE,
+            Map.of("scriptingMs", 170.0, "changeDetectionTicks", 100.0))));
+        assertTrue(VariantComparison.isWorthwhile(VariantComparison.deltas(BASELINE,
+            Map.of("scriptingMs", 200.0, "changeDetectionTicks", 50.0))));
+    }
+
+    @Test
+    void isWorthwhile_regressionIsNotRecommended() {
+        assertFalse(VariantComparison.isWorthwhile(VariantComparison.deltas(BASELINE,
+            Map.of("scriptingMs", 300.0, "changeDetectionTicks", 150.0))));
+    }
+}